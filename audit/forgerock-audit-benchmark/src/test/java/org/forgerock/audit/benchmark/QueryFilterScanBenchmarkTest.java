@@ -0,0 +1,126 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.audit.benchmark;
+
+import static org.forgerock.audit.util.JsonValueUtils.JSONVALUE_FILTER_VISITOR;
+import static org.forgerock.audit.util.JsonValueUtils.compileFilter;
+import static org.forgerock.json.JsonValue.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.json.JsonPointer;
+import org.forgerock.json.JsonValue;
+import org.forgerock.json.resource.MemoryBackend;
+import org.forgerock.json.resource.QueryFilters;
+import org.forgerock.json.resource.QueryResourceHandler;
+import org.forgerock.json.resource.Requests;
+import org.forgerock.json.resource.ResourceResponse;
+import org.forgerock.util.query.CompiledQueryFilter;
+import org.forgerock.util.query.QueryFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures full scans of one million records with a query filter, evaluated either by visiting the filter for
+ * each record or by compiling it once with {@link org.forgerock.audit.util.JsonValueUtils#compileFilter(QueryFilter)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class QueryFilterScanBenchmarkTest extends BenchmarkBase {
+
+    private static final int RECORD_COUNT = 1_000_000;
+
+    private static final String[] STATUSES = { "SUCCESSFUL", "FAILED" };
+
+    @State(Scope.Benchmark)
+    public static class ScanState {
+
+        @Param({
+            "/transactionId sw \"tx-1\"",
+            "/response/status eq \"failed\" and /response/elapsedTime gt 500",
+            "/userId eq \"user-42\" or /roles eq \"auditor\" or ! (/response/elapsedTime le 900)"
+        })
+        private String filter;
+
+        private JsonValue[] records;
+        private QueryFilter<JsonPointer> queryFilter;
+        private MemoryBackend backend;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            queryFilter = QueryFilters.parse(filter);
+            records = new JsonValue[RECORD_COUNT];
+            backend = new MemoryBackend();
+            for (int i = 0; i < RECORD_COUNT; i++) {
+                records[i] = json(object(
+                        field("_id", Integer.toString(i)),
+                        field("transactionId", "tx-" + i),
+                        field("userId", "user-" + (i % 1000)),
+                        field("roles", array("user", i % 100 == 0 ? "auditor" : "operator")),
+                        field("response", object(
+                                field("status", STATUSES[i % STATUSES.length]),
+                                field("elapsedTime", i % 1000)))));
+                backend.createInstance(null, Requests.newCreateRequest("", Integer.toString(i), records[i]))
+                        .getOrThrow();
+            }
+        }
+    }
+
+    @Benchmark
+    public int visitedScan(final ScanState state) {
+        int matches = 0;
+        for (final JsonValue record : state.records) {
+            if (state.queryFilter.accept(JSONVALUE_FILTER_VISITOR, record)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int compiledScan(final ScanState state) {
+        final CompiledQueryFilter filter = compileFilter(state.queryFilter);
+        int matches = 0;
+        for (final JsonValue record : state.records) {
+            if (filter.matches(record)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int memoryBackendQuery(final ScanState state) throws Exception {
+        final int[] matches = new int[1];
+        state.backend.queryCollection(null, Requests.newQueryRequest("").setQueryFilter(state.queryFilter),
+                new QueryResourceHandler() {
+                    @Override
+                    public boolean handleResource(final ResourceResponse resource) {
+                        matches[0]++;
+                        return true;
+                    }
+                }).getOrThrow();
+        return matches[0];
+    }
+}
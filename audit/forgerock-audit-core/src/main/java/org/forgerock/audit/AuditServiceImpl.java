@@ -219,7 +219,9 @@ final class AuditServiceImpl implements AuditService {
             filters.doFilter(topic, request.getContent());
 
             Collection<AuditEventHandler> auditEventHandlersForEvent = getAuditEventHandlersForEvent(topic);
-            return publishEventToHandlers(context, request.getContent(), topic, auditEventHandlersForEvent);
+            // All the handlers share one immutable snapshot of the event, instead of the mutable request content.
+            return publishEventToHandlers(context, request.getContent().snapshot(), topic,
+                    auditEventHandlersForEvent);
         } catch (Exception e) {
             logger.warn(e.getMessage());
             return adapt(e).asPromise();
@@ -74,6 +74,11 @@ public interface AuditEventHandler {
 
     /**
      * Publishes an event to the provided topic.
+     * <p>
+     * The event published by the audit service is an immutable {@link JsonValue#snapshot() snapshot}, which is
+     * shared by all the handlers of the topic and may be processed by several threads at the same time. Handlers
+     * which need to modify the event should {@link JsonValue#copy() copy} it first, which only copies the parts of
+     * the event that are modified.
      *
      * @param context
      *          The context chain that initiated the event.
@@ -29,8 +29,10 @@ import java.util.TreeMap;
 
 import org.forgerock.json.JsonPointer;
 import org.forgerock.json.JsonValue;
+import org.forgerock.util.query.CompiledQueryFilter;
 import org.forgerock.util.query.QueryFilter;
 import org.forgerock.util.query.QueryFilterVisitor;
+import org.forgerock.util.query.QueryFilters;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -311,6 +313,18 @@ public final class JsonValueUtils {
 
     }
 
+    /**
+     * Compiles a query filter once into a {@link CompiledQueryFilter} which matches JSON values exactly as
+     * {@link #JSONVALUE_FILTER_VISITOR} does, but far more cheaply when the filter is matched against every record
+     * of a scan.
+     *
+     * @param queryFilter the query filter to compile.
+     * @return the compiled query filter.
+     */
+    public static CompiledQueryFilter compileFilter(final QueryFilter<JsonPointer> queryFilter) {
+        return QueryFilters.compileTwoValued(queryFilter);
+    }
+
     /**
      * A generic JsonValue Query Filter Visitor.
      */
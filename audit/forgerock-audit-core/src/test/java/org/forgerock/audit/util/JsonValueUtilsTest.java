@@ -21,13 +21,21 @@ import static org.forgerock.json.JsonValue.array;
 import static org.forgerock.json.JsonValue.field;
 import static org.forgerock.json.JsonValue.json;
 import static org.forgerock.json.JsonValue.object;
+import static org.forgerock.util.query.QueryFilter.*;
 
 import org.forgerock.json.JsonPointer;
 import org.forgerock.json.JsonValue;
+import org.forgerock.util.query.CompiledQueryFilter;
+import org.forgerock.util.query.QueryFilter;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 public class JsonValueUtilsTest {
 
@@ -127,4 +135,124 @@ public class JsonValueUtilsTest {
         assertThat(flatObject.get("/nestedObject/array/0").equals("value1"));
         assertThat(flatObject.get("/nestedObject/array/1").equals("value2"));
     }
+
+    @DataProvider
+    public Object[][] filters() {
+        final JsonPointer name = new JsonPointer("/name");
+        final JsonPointer roles = new JsonPointer("/roles");
+        final JsonPointer missing = new JsonPointer("/missing");
+        return new Object[][] {
+            // @formatter:off
+            { equalTo(roles, "admin"), false },
+            { equalTo(new JsonPointer("/groups"), "admin"), true },
+            { equalTo(new JsonPointer("/empty"), "admin"), true },
+            { equalTo(missing, "x"), true },
+            { equalTo(missing, null), true },
+            { equalTo(name, null), false },
+            { not(equalTo(missing, "x")), false },
+            { extendedMatch(name, "regex", "al.*"), false },
+            { not(extendedMatch(name, "regex", "al.*")), true },
+            { and(extendedMatch(name, "regex", "al.*"), present(name)), false },
+            { or(extendedMatch(name, "regex", "al.*"), present(name)), true },
+            // @formatter:on
+        };
+    }
+
+    @Test(dataProvider = "filters")
+    public void compiledFilterShouldMatchAsVisitor(final QueryFilter<JsonPointer> filter, final boolean expected) {
+        final JsonValue record = json(object(
+                field("name", "Alice"),
+                field("roles", array("admin", "tester")),
+                field("groups", array("admin", "ADMIN")),
+                field("empty", array())));
+        assertThat(filter.accept(JsonValueUtils.JSONVALUE_FILTER_VISITOR, record)).isEqualTo(expected);
+        assertThat(JsonValueUtils.compileFilter(filter).matches(record)).isEqualTo(expected);
+    }
+
+    @Test
+    public void compiledFilterShouldMatchAsVisitorForRandomFiltersAndRecords() {
+        final Random random = new Random(42);
+        final List<JsonValue> records = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            records.add(json(randomRecord(random)));
+        }
+        for (int i = 0; i < 2000; i++) {
+            final QueryFilter<JsonPointer> filter = randomFilter(random, 3);
+            final CompiledQueryFilter compiled = JsonValueUtils.compileFilter(filter);
+            for (final JsonValue record : records) {
+                assertThat(compiled.matches(record))
+                        .as("%s matching %s", filter, record)
+                        .isEqualTo(filter.accept(JsonValueUtils.JSONVALUE_FILTER_VISITOR, record));
+            }
+        }
+    }
+
+    private static final String[] FIELDS = { "name", "age", "roles", "address", "flag" };
+
+    private static final JsonPointer[] POINTERS = {
+        new JsonPointer("/name"), new JsonPointer("/age"), new JsonPointer("/roles"), new JsonPointer("/roles/0"),
+        new JsonPointer("/address/city"), new JsonPointer("/flag"), new JsonPointer("/missing")
+    };
+
+    private static final Object[] VALUES = { "alice", "AL", "Bob", "", 12L, 12.0, -3.5, true, false, null };
+
+    private static Map<String, Object> randomRecord(final Random random) {
+        final Map<String, Object> record = new LinkedHashMap<>();
+        for (final String field : FIELDS) {
+            if (random.nextInt(4) > 0) {
+                record.put(field, randomValue(random, 2));
+            }
+        }
+        return record;
+    }
+
+    private static Object randomValue(final Random random, final int depth) {
+        final int kind = random.nextInt(depth > 0 ? 6 : 4);
+        if (kind == 4) {
+            final List<Object> list = new ArrayList<>();
+            for (int i = random.nextInt(3); i > 0; i--) {
+                list.add(randomValue(random, depth - 1));
+            }
+            return list;
+        } else if (kind == 5) {
+            final Map<String, Object> map = new LinkedHashMap<>();
+            map.put("city", randomValue(random, depth - 1));
+            return map;
+        }
+        return VALUES[random.nextInt(VALUES.length)];
+    }
+
+    private static QueryFilter<JsonPointer> randomFilter(final Random random, final int depth) {
+        final JsonPointer field = POINTERS[random.nextInt(POINTERS.length)];
+        final Object value = VALUES[random.nextInt(VALUES.length)];
+        switch (random.nextInt(depth > 0 ? 14 : 10)) {
+        case 0:
+            return equalTo(field, value);
+        case 1:
+            return contains(field, value);
+        case 2:
+            return startsWith(field, value);
+        case 3:
+            return greaterThan(field, value);
+        case 4:
+            return greaterThanOrEqualTo(field, value);
+        case 5:
+            return lessThan(field, value);
+        case 6:
+            return lessThanOrEqualTo(field, value);
+        case 7:
+            return present(field);
+        case 8:
+            return extendedMatch(field, "regex", value);
+        case 9:
+            return random.nextBoolean() ? QueryFilter.<JsonPointer>alwaysTrue()
+                    : QueryFilter.<JsonPointer>alwaysFalse();
+        case 10:
+            return not(randomFilter(random, depth - 1));
+        case 11:
+            return and(randomFilter(random, depth - 1), randomFilter(random, depth - 1));
+        default:
+            return or(randomFilter(random, depth - 1), randomFilter(random, depth - 1));
+        }
+    }
 }
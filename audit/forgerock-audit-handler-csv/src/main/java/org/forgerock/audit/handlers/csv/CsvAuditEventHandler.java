@@ -24,7 +24,7 @@ import static org.forgerock.audit.events.AuditEventHelper.getAuditEventSchema;
 import static org.forgerock.audit.events.AuditEventHelper.getPropertyType;
 import static org.forgerock.audit.events.AuditEventHelper.jsonPointerToDotNotation;
 import static org.forgerock.audit.util.JsonSchemaUtils.generateJsonPointers;
-import static org.forgerock.audit.util.JsonValueUtils.JSONVALUE_FILTER_VISITOR;
+import static org.forgerock.audit.util.JsonValueUtils.compileFilter;
 import static org.forgerock.audit.util.JsonValueUtils.expand;
 import static org.forgerock.json.JsonValue.field;
 import static org.forgerock.json.JsonValue.json;
@@ -72,7 +72,6 @@ import org.forgerock.json.resource.ActionResponse;
 import org.forgerock.json.resource.BadRequestException;
 import org.forgerock.json.resource.InternalServerErrorException;
 import org.forgerock.json.resource.NotFoundException;
-import org.forgerock.json.resource.QueryFilters;
 import org.forgerock.json.resource.QueryRequest;
 import org.forgerock.json.resource.QueryResourceHandler;
 import org.forgerock.json.resource.QueryResponse;
@@ -82,6 +81,7 @@ import org.forgerock.json.resource.Responses;
 import org.forgerock.services.context.Context;
 import org.forgerock.util.Reject;
 import org.forgerock.util.promise.Promise;
+import org.forgerock.util.query.CompiledQueryFilter;
 import org.forgerock.util.query.QueryFilter;
 import org.forgerock.util.time.Duration;
 import org.slf4j.Logger;
@@ -396,7 +396,8 @@ public class CsvAuditEventHandler extends AuditEventHandlerBase {
     @Override
     public Promise<ResourceResponse, ResourceException> readEvent(Context context, String topic, String resourceId) {
         try {
-            final Set<JsonValue> entry = getEntries(topic, QueryFilters.parse("/_id eq \"" + resourceId + "\""));
+            final Set<JsonValue> entry =
+                    getEntries(topic, QueryFilter.equalTo(new JsonPointer(FIELD_CONTENT_ID), resourceId));
             if (entry.isEmpty()) {
                 throw new NotFoundException(topic + " audit log not found");
             }
@@ -511,7 +512,8 @@ public class CsvAuditEventHandler extends AuditEventHandlerBase {
         if (queryFilter == null) {
             queryFilter = QueryFilter.alwaysTrue();
         }
-        if (auditFile.exists()) {
+        final CompiledQueryFilter filter = compileFilter(queryFilter);
+        if (auditFile.exists() && !filter.isAlwaysFalse()) {
             try (ICsvMapReader reader = createCsvMapReader(auditFile)) {
                 // the header elements are used to map the values to the bean (names must match)
                 final String[] header = convertDotNotationToSlashes(reader.getHeader(true));
@@ -520,7 +522,7 @@ public class CsvAuditEventHandler extends AuditEventHandlerBase {
                 while ((entry = reader.read(header, processors)) != null) {
                     entry = convertDotNotationToSlashes(entry);
                     final JsonValue jsonEntry = expand(entry);
-                    if (queryFilter.accept(JSONVALUE_FILTER_VISITOR, jsonEntry)) {
+                    if (filter.matches(jsonEntry)) {
                         results.add(jsonEntry);
                     }
                 }
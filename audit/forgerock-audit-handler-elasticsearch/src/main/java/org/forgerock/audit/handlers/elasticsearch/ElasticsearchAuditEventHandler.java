@@ -296,13 +296,13 @@ public class ElasticsearchAuditEventHandler extends AuditEventHandlerBase implem
      */
     protected Promise<ResourceResponse, ResourceException> publishSingleEvent(final String topic,
             final JsonValue event) {
-        // _id is a protected Elasticsearch field, so read it and remove it
+        // _id is a protected Elasticsearch field, so read it and remove it from a copy of the shared event
         final String resourceId = event.get(FIELD_CONTENT_ID).asString();
-        event.remove(FIELD_CONTENT_ID);
+        final JsonValue eventWithoutId = event.copy();
+        eventWithoutId.remove(FIELD_CONTENT_ID);
 
         try {
-            final String jsonPayload = ElasticsearchUtil.normalizeJson(event);
-            event.put(FIELD_CONTENT_ID, resourceId);
+            final String jsonPayload = ElasticsearchUtil.normalizeJson(eventWithoutId);
 
             final Request request = createRequest(PUT, buildEventUri(topic, resourceId), jsonPayload);
 
@@ -336,11 +336,11 @@ public class ElasticsearchAuditEventHandler extends AuditEventHandlerBase implem
     public void addToBatch(final String topic, final JsonValue event, final StringBuilder payload)
             throws BatchException {
         try {
-            // _id is a protected Elasticsearch field
+            // _id is a protected Elasticsearch field, so remove it from a copy of the shared event
             final String resourceId = event.get(FIELD_CONTENT_ID).asString();
-            event.remove(FIELD_CONTENT_ID);
-            final String jsonPayload = ElasticsearchUtil.normalizeJson(event);
-            event.put(FIELD_CONTENT_ID, resourceId);
+            final JsonValue eventWithoutId = event.copy();
+            eventWithoutId.remove(FIELD_CONTENT_ID);
+            final String jsonPayload = ElasticsearchUtil.normalizeJson(eventWithoutId);
 
             // newlines have special significance in the Bulk API
             // https://www.elastic.co/guide/en/elasticsearch/reference/current/docs-bulk.html
@@ -16,7 +16,7 @@
 
 package org.forgerock.audit.handlers.json;
 
-import static org.forgerock.audit.util.JsonValueUtils.JSONVALUE_FILTER_VISITOR;
+import static org.forgerock.audit.util.JsonValueUtils.compileFilter;
 import static org.forgerock.json.JsonValue.*;
 import static org.forgerock.json.resource.ResourceException.*;
 import static org.forgerock.json.resource.ResourceResponse.FIELD_CONTENT_ID;
@@ -37,7 +37,6 @@ import org.forgerock.audit.events.EventTopicsMetaData;
 import org.forgerock.audit.events.handlers.AuditEventHandler;
 import org.forgerock.audit.events.handlers.AuditEventHandlerBase;
 import org.forgerock.audit.util.ElasticsearchUtil;
-import org.forgerock.json.JsonPointer;
 import org.forgerock.json.JsonValue;
 import org.forgerock.json.resource.ActionRequest;
 import org.forgerock.json.resource.ActionResponse;
@@ -49,7 +48,7 @@ import org.forgerock.json.resource.ResourceException;
 import org.forgerock.json.resource.ResourceResponse;
 import org.forgerock.services.context.Context;
 import org.forgerock.util.promise.Promise;
-import org.forgerock.util.query.QueryFilter;
+import org.forgerock.util.query.CompiledQueryFilter;
 
 /**
  * {@link AuditEventHandler} for persisting raw JSON events to a file.
@@ -157,7 +156,7 @@ public class JsonAuditEventHandler extends AuditEventHandlerBase {
         if (jsonFilePath == null) {
             return newResourceException(NOT_FOUND, "Topic not found: " + topic).asPromise();
         }
-        final QueryFilter<JsonPointer> queryFilter = query.getQueryFilter();
+        final CompiledQueryFilter queryFilter = compileFilter(query.getQueryFilter());
         int results = 0;
         String line;
         try (final BufferedReader reader = new BufferedReader(new InputStreamReader(
@@ -165,7 +164,7 @@ public class JsonAuditEventHandler extends AuditEventHandlerBase {
             line = reader.readLine();
             while (line != null) {
                 final JsonValue event = denormalizeJsonEvent(new JsonValue(OBJECT_MAPPER.readValue(line, Map.class)));
-                if (queryFilter.accept(JSONVALUE_FILTER_VISITOR, event)) {
+                if (queryFilter.matches(event)) {
                     ++results;
                     final ResourceResponse resourceResponse =
                             newResourceResponse(event.get(FIELD_CONTENT_ID).asString(), null, event);
@@ -189,15 +189,15 @@ public final class SplunkAuditEventHandler extends AuditEventHandlerBase impleme
     @Override
     public void addToBatch(final String topic, final JsonValue event,
             final StringBuilder payload) throws BatchException {
-        event.put("_topic", topic);
+        // The event may be shared with other handlers, so add the topic to a copy of it
+        final JsonValue eventWithTopic = event.copy();
+        eventWithTopic.put("_topic", topic);
 
         try {
-            final String eventJsonString = OBJECT_MAPPER.writeValueAsString(event.getObject());
+            final String eventJsonString = OBJECT_MAPPER.writeValueAsString(eventWithTopic.getObject());
             payload.append(eventJsonString).append('\n');
         } catch (final JsonProcessingException e) {
             throw new BatchException("Unable to parse event object to JSON", e);
-        } finally {
-            event.remove("_topic");
         }
     }
 
@@ -29,6 +29,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import javax.security.auth.Subject;
@@ -52,6 +53,7 @@ import org.forgerock.json.jose.jws.handlers.HmacSigningHandler;
 import org.forgerock.json.jose.jws.handlers.SigningHandler;
 import org.forgerock.json.jose.jwt.Jwt;
 import org.forgerock.json.jose.jwt.JwtClaimsSet;
+import org.forgerock.json.jose.jwt.JwtValidator;
 import org.forgerock.security.keystore.KeyStoreBuilder;
 import org.forgerock.security.keystore.KeyStoreManager;
 import org.forgerock.security.keystore.KeyStoreType;
@@ -107,6 +109,11 @@ abstract class AbstractJwtSessionModule<C extends JwtSessionCookie> {
     /** HMAC signing key. */
     public static final String HMAC_SIGNING_KEY = "hmacKey";
     private static final JwsAlgorithm SIGNING_ALGORITHM = JwsAlgorithm.HS256;
+    /** Neither the maximum life nor the idle timeout of a session JWT may have expired. */
+    private static final JwtValidator SESSION_JWT_VALIDATOR = JwtValidator.builder()
+            .requireExpirationTime()
+            .expiryClaim(TOKEN_IDLE_TIME_IN_SECONDS_CLAIM_KEY)
+            .build();
 
     private final JwtBuilderFactory jwtBuilderFactory;
 
@@ -354,16 +361,11 @@ abstract class AbstractJwtSessionModule<C extends JwtSessionCookie> {
         }
         jwt.decrypt(privateKey);
 
-        Date expirationTime = jwt.getClaimsSet().getExpirationTime();
-        Date tokenIdleTime = new Date(jwt.getClaimsSet().getClaim(TOKEN_IDLE_TIME_IN_SECONDS_CLAIM_KEY, Integer.class)
-                .longValue() * 1000L);
-
-        Date now = new Date(System.currentTimeMillis());
-
-        if ((now.getTime() < expirationTime.getTime()) && (now.getTime() < tokenIdleTime.getTime())) {
+        final List<JwtValidator.Failure> failures = SESSION_JWT_VALIDATOR.validate(jwt.getClaimsSet());
+        if (failures.isEmpty()) {
             return jwt;
         }
-
+        LOG.debug("Session JWT rejected: {}", failures);
         return null;
     }
 
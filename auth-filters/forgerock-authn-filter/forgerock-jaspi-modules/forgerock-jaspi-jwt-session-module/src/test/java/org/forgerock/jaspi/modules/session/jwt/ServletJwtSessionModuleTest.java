@@ -26,6 +26,7 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.testng.Assert.assertEquals;
@@ -377,7 +378,7 @@ public class ServletJwtSessionModuleTest {
         Cookie jwtSessionCookie = mock(Cookie.class);
         Cookie[] cookies = new Cookie[]{cookie1, jwtSessionCookie, cookie2};
         SignedEncryptedJwt encryptedJwt = mock(SignedEncryptedJwt.class);
-        JwtClaimsSet claimsSet = mock(JwtClaimsSet.class);
+        JwtClaimsSet claimsSet = spy(new JwtClaimsSet());
 
         Calendar calendar = Calendar.getInstance();
         calendar.set(Calendar.MILLISECOND, 0);
@@ -399,9 +400,8 @@ public class ServletJwtSessionModuleTest {
         given(jwtSessionCookie.getValue()).willReturn("SESSION_JWT");
         given(jwtBuilderFactory.reconstruct("SESSION_JWT", SignedEncryptedJwt.class)).willReturn(encryptedJwt);
         given(encryptedJwt.getClaimsSet()).willReturn(claimsSet);
-        given(claimsSet.getExpirationTime()).willReturn(expiryTime);
-        given(claimsSet.getClaim(JwtSessionModule.TOKEN_IDLE_TIME_IN_SECONDS_CLAIM_KEY, Integer.class))
-                .willReturn(idleTimeoutSeconds);
+        claimsSet.setExpirationTime(expiryTime);
+        claimsSet.setClaim(JwtSessionModule.TOKEN_IDLE_TIME_IN_SECONDS_CLAIM_KEY, idleTimeoutSeconds);
 
         //When
         AuthStatus authStatus = jwtSessionModule.validateRequest(messageInfo, clientSubject, serviceSubject);
@@ -462,7 +462,7 @@ public class ServletJwtSessionModuleTest {
         Cookie jwtSessionCookie = mock(Cookie.class);
         Cookie[] cookies = new Cookie[]{cookie1, jwtSessionCookie, cookie2};
         SignedEncryptedJwt encryptedJwt = mock(SignedEncryptedJwt.class);
-        JwtClaimsSet claimsSet = mock(JwtClaimsSet.class);
+        JwtClaimsSet claimsSet = spy(new JwtClaimsSet());
 
         Calendar calendar = Calendar.getInstance();
         calendar.set(Calendar.MILLISECOND, 0);
@@ -484,9 +484,8 @@ public class ServletJwtSessionModuleTest {
         given(jwtSessionCookie.getValue()).willReturn("SESSION_JWT");
         given(jwtBuilderFactory.reconstruct("SESSION_JWT", SignedEncryptedJwt.class)).willReturn(encryptedJwt);
         given(encryptedJwt.getClaimsSet()).willReturn(claimsSet);
-        given(claimsSet.getExpirationTime()).willReturn(expiryTime);
-        given(claimsSet.getClaim(JwtSessionModule.TOKEN_IDLE_TIME_IN_SECONDS_CLAIM_KEY, Integer.class))
-                .willReturn(idleTimeoutSeconds);
+        claimsSet.setExpirationTime(expiryTime);
+        claimsSet.setClaim(JwtSessionModule.TOKEN_IDLE_TIME_IN_SECONDS_CLAIM_KEY, idleTimeoutSeconds);
 
         //When
         AuthStatus authStatus = jwtSessionModule.validateRequest(messageInfo, clientSubject, serviceSubject);
@@ -520,7 +519,7 @@ public class ServletJwtSessionModuleTest {
         Cookie jwtSessionCookie = mock(Cookie.class);
         Cookie[] cookies = new Cookie[]{cookie1, jwtSessionCookie, cookie2};
         SignedEncryptedJwt encryptedJwt = mock(SignedEncryptedJwt.class);
-        JwtClaimsSet claimsSet = mock(JwtClaimsSet.class);
+        JwtClaimsSet claimsSet = spy(new JwtClaimsSet());
 
         Calendar calendar = Calendar.getInstance();
         calendar.set(Calendar.MILLISECOND, 0);
@@ -549,9 +548,8 @@ public class ServletJwtSessionModuleTest {
         given(jwtBuilderFactory.reconstruct("SESSION_JWT", SignedEncryptedJwt.class)).willReturn(encryptedJwt);
         given(encryptedJwt.verify(any(HmacSigningHandler.class))).willReturn(true);
         given(encryptedJwt.getClaimsSet()).willReturn(claimsSet);
-        given(claimsSet.getExpirationTime()).willReturn(expiryTime);
-        given(claimsSet.getClaim(JwtSessionModule.TOKEN_IDLE_TIME_IN_SECONDS_CLAIM_KEY, Integer.class))
-                .willReturn(idleTimeoutSeconds);
+        claimsSet.setExpirationTime(expiryTime);
+        claimsSet.setClaim(JwtSessionModule.TOKEN_IDLE_TIME_IN_SECONDS_CLAIM_KEY, idleTimeoutSeconds);
         given(claimsSet.getIssuedAtTime()).willReturn(issuedAtTime);
         given(claimsSet.getClaim("prn", String.class)).willReturn("PRINCIPAL");
         Map<String, Object> newContext = new HashMap<>();
@@ -600,7 +598,7 @@ public class ServletJwtSessionModuleTest {
         Cookie jwtSessionCookie = mock(Cookie.class);
         Cookie[] cookies = new Cookie[]{cookie1, jwtSessionCookie, cookie2};
         SignedEncryptedJwt encryptedJwt = mock(SignedEncryptedJwt.class);
-        JwtClaimsSet claimsSet = mock(JwtClaimsSet.class);
+        JwtClaimsSet claimsSet = spy(new JwtClaimsSet());
 
         Calendar calendar = Calendar.getInstance();
         calendar.set(Calendar.MILLISECOND, 0);
@@ -630,9 +628,8 @@ public class ServletJwtSessionModuleTest {
         given(jwtBuilderFactory.reconstruct("SESSION_JWT", SignedEncryptedJwt.class)).willReturn(encryptedJwt);
         given(encryptedJwt.verify(any(HmacSigningHandler.class))).willReturn(true);
         given(encryptedJwt.getClaimsSet()).willReturn(claimsSet);
-        given(claimsSet.getExpirationTime()).willReturn(expiryTime);
-        given(claimsSet.getClaim(JwtSessionModule.TOKEN_IDLE_TIME_IN_SECONDS_CLAIM_KEY, Integer.class))
-                .willReturn(idleTimeoutSeconds);
+        claimsSet.setExpirationTime(expiryTime);
+        claimsSet.setClaim(JwtSessionModule.TOKEN_IDLE_TIME_IN_SECONDS_CLAIM_KEY, idleTimeoutSeconds);
         given(claimsSet.getIssuedAtTime()).willReturn(issuedAtTime);
         given(claimsSet.getClaim("prn", String.class)).willReturn("PRINCIPAL");
         Map<String, Object> newContext = new HashMap<>();
@@ -1205,7 +1202,7 @@ public class ServletJwtSessionModuleTest {
         given(messageInfo.getResponseMessage()).willReturn(response);
         given(request.getCookies()).willReturn(cookies);
         SignedEncryptedJwt encryptedJwt = mock(SignedEncryptedJwt.class);
-        JwtClaimsSet claimsSet = mock(JwtClaimsSet.class);
+        JwtClaimsSet claimsSet = spy(new JwtClaimsSet());
 
         Calendar calendar = Calendar.getInstance();
         calendar.add(Calendar.SECOND, 5);
@@ -1221,9 +1218,8 @@ public class ServletJwtSessionModuleTest {
         given(encryptedJwt.verify(any(HmacSigningHandler.class))).willReturn(true);
         given(encryptedJwt.getClaimsSet()).willReturn(claimsSet);
         given(claimsSet.getIssuedAtTime()).willReturn(issuedAtTime);
-        given(claimsSet.getExpirationTime()).willReturn(expiryTime);
-        given(claimsSet.getClaim(JwtSessionModule.TOKEN_IDLE_TIME_IN_SECONDS_CLAIM_KEY, Integer.class))
-                .willReturn(idleTimeoutSeconds);
+        claimsSet.setExpirationTime(expiryTime);
+        claimsSet.setClaim(JwtSessionModule.TOKEN_IDLE_TIME_IN_SECONDS_CLAIM_KEY, idleTimeoutSeconds);
 
         //When
         jwtSessionModule.validateJwtSessionCookie(messageInfo);
@@ -211,6 +211,7 @@ public class OpenIdConnectModule implements AsyncServerAuthModule {
 
         final JwtClaimsSet jwtClaimSet = retrievedJwt.getClaimsSet();
 
+        //the issuer only selects the resolver, whose validator policy then checks all of the claims
         OpenIdResolver resolver = resolverService.getResolverForIssuer(jwtClaimSet.getIssuer());
 
         //if no resolver for this issuer found, abort
@@ -15,10 +15,12 @@
 */
 package org.forgerock.jaspi.modules.openid.resolvers;
 
+import static org.forgerock.json.jose.jwt.JwtClaimsSetKey.ISS;
+
 import java.security.Key;
 import java.security.interfaces.ECPublicKey;
 import java.security.interfaces.RSAPublicKey;
-import java.util.Date;
+import java.util.List;
 import javax.crypto.SecretKey;
 
 import org.forgerock.jaspi.modules.openid.exceptions.InvalidIssException;
@@ -27,9 +29,10 @@ import org.forgerock.jaspi.modules.openid.exceptions.OpenIdConnectVerificationEx
 import org.forgerock.json.jose.jws.SignedJwt;
 import org.forgerock.json.jose.jws.SigningManager;
 import org.forgerock.json.jose.jws.handlers.SigningHandler;
+import org.forgerock.json.jose.jwt.JwtValidator;
 
 /**
- * Implementation of the OpenIdResolver interface. Comments in the specific verify methods
+ * Implementation of the OpenIdResolver interface. Comments in the verify methods
  * are taken directly from OpenID Connect Basic Client Implementer's Guide 1.0,
  * section 2.2.1 - ID Token Validation
  *
@@ -41,6 +44,7 @@ import org.forgerock.json.jose.jws.handlers.SigningHandler;
 public abstract class BaseOpenIdResolver implements OpenIdResolver {
 
     private final String issuer;
+    private final JwtValidator validator;
 
     /**
      * Abstract constructor for setting the issuer's identity.
@@ -49,32 +53,10 @@ public abstract class BaseOpenIdResolver implements OpenIdResolver {
      */
     public BaseOpenIdResolver(final String issuer) {
         this.issuer = issuer;
-    }
-
-    /**
-     * Verifies the issuer is exactly who it is expected to be.
-     *
-     * @param issuerName The name of the claimed issuer
-     * @throws InvalidIssException if the expected issuer and actual issuer do not match
-     */
-    void verifyIssuer(final String issuerName) throws InvalidIssException {
-        //The issuer MUST exactly match the value of the iss (issuer) Claim.
-        if (!issuer.equals(issuerName)) {
-            throw new InvalidIssException("Invalid issuer");
-        }
-    }
-
-    /**
-     * Verifies that the current date is no later than the expiry date on the JWT.
-     *
-     * @param expirationTime time at which this id token expires
-     * @throws JwtExpiredException if the current time is after the expired time
-     */
-    void verifyExpiration(final Date expirationTime) throws JwtExpiredException {
-        //Expiration time on or after which the ID Token MUST NOT be accepted for processing.
-        if (new Date().after(expirationTime)) {
-            throw new JwtExpiredException("Token expired");
-        }
+        this.validator = JwtValidator.builder()
+                .issuers(issuer)
+                .requireExpirationTime()
+                .build();
     }
 
     /**
@@ -87,8 +69,33 @@ public abstract class BaseOpenIdResolver implements OpenIdResolver {
             throw new OpenIdConnectVerificationException("A valid SignedJWT must be supplied to the resolver");
         }
 
-        verifyIssuer(idClaim.getClaimsSet().getIssuer());
-        verifyExpiration(idClaim.getClaimsSet().getExpirationTime());
+        //The issuer MUST exactly match the value of the iss (issuer) Claim, and the ID Token MUST NOT be accepted
+        //for processing on or after its expiration time.
+        final List<JwtValidator.Failure> failures = validator.validate(idClaim.getClaimsSet());
+        if (!failures.isEmpty()) {
+            throw toException(failures);
+        }
+    }
+
+    /**
+     * Converts the failures of the validation of an ID token into an exception. The failures are reported in a fixed
+     * order, whatever the order of the claims: issuer first, then expiration.
+     *
+     * @param failures the failures of the validation, of which there is at least one.
+     * @return the exception reporting the failures.
+     */
+    private static OpenIdConnectVerificationException toException(final List<JwtValidator.Failure> failures) {
+        boolean expired = false;
+        for (final JwtValidator.Failure failure : failures) {
+            if (ISS.value().equals(failure.getName())) {
+                return new InvalidIssException("Invalid issuer");
+            }
+            expired |= failure.getReason() == JwtValidator.Reason.EXPIRED;
+        }
+        if (expired) {
+            return new JwtExpiredException("Token expired");
+        }
+        return new OpenIdConnectVerificationException("Invalid ID token: " + failures);
     }
 
     /**
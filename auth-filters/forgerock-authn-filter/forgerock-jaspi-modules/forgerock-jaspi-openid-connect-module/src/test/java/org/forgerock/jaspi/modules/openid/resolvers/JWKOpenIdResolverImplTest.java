@@ -21,6 +21,7 @@ import org.forgerock.json.jose.exceptions.FailedToLoadJWKException;
 import org.forgerock.jaspi.modules.openid.exceptions.InvalidIssException;
 import org.forgerock.jaspi.modules.openid.exceptions.InvalidSignatureException;
 import org.forgerock.jaspi.modules.openid.exceptions.JwtExpiredException;
+import org.forgerock.jaspi.modules.openid.exceptions.OpenIdConnectVerificationException;
 import org.forgerock.json.jose.jwk.KeyUse;
 import org.forgerock.json.jose.jwk.RsaJWK;
 import org.forgerock.json.jose.jwk.store.JwksStore;
@@ -111,24 +112,31 @@ public class JWKOpenIdResolverImplTest {
     }
 
     @Test(expectedExceptions = JwtExpiredException.class)
-    public void testExpiredTokenThrowsException() throws JwtExpiredException {
+    public void testExpiredTokenThrowsException() throws OpenIdConnectVerificationException {
         //given
-        Date pastDate = new Date();
-        pastDate.setTime(1);
+        JwtClaimsSet claims = new JwtClaimsSet();
+        claims.setIssuer(testResolver.getIssuer());
+        claims.setExpirationTime(new Date(1));
+        SignedJwt jwt = mock(SignedJwt.class);
+        given(jwt.getClaimsSet()).willReturn(claims);
 
         //when
-        testResolver.verifyExpiration(pastDate);
+        testResolver.validateIdentity(jwt);
 
         //then checked by exception
     }
 
     @Test(expectedExceptions = InvalidIssException.class)
-    public void testInvalidIssuerThrowsException() throws InvalidIssException {
+    public void testInvalidIssuerThrowsException() throws OpenIdConnectVerificationException {
         //given
-        String wrongIssuer = "One";
+        JwtClaimsSet claims = new JwtClaimsSet();
+        claims.setIssuer("One");
+        claims.setExpirationTime(new Date(System.currentTimeMillis() + 60_000L));
+        SignedJwt jwt = mock(SignedJwt.class);
+        given(jwt.getClaimsSet()).willReturn(claims);
 
         //when
-        testResolver.verifyIssuer(wrongIssuer);
+        testResolver.validateIdentity(jwt);
 
         //then checked by exception
     }
@@ -18,8 +18,10 @@ package org.forgerock.jaspi.modules.openid.resolvers;
 import org.forgerock.jaspi.modules.openid.exceptions.InvalidIssException;
 import org.forgerock.jaspi.modules.openid.exceptions.InvalidSignatureException;
 import org.forgerock.jaspi.modules.openid.exceptions.JwtExpiredException;
+import org.forgerock.jaspi.modules.openid.exceptions.OpenIdConnectVerificationException;
 import org.forgerock.json.jose.jws.SignedJwt;
 import org.forgerock.json.jose.jws.handlers.SigningHandler;
+import org.forgerock.json.jose.jwt.JwtClaimsSet;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
@@ -57,24 +59,31 @@ public class PublicKeyOpenIdResolverImplTest {
     }
 
     @Test(expectedExceptions = JwtExpiredException.class)
-    public void testExpiredTokenThrowsException() throws JwtExpiredException {
+    public void testExpiredTokenThrowsException() throws OpenIdConnectVerificationException {
         //given
-        Date pastDate = new Date();
-        pastDate.setTime(1);
+        JwtClaimsSet claims = new JwtClaimsSet();
+        claims.setIssuer(testResolver.getIssuer());
+        claims.setExpirationTime(new Date(1));
+        SignedJwt jwt = mock(SignedJwt.class);
+        given(jwt.getClaimsSet()).willReturn(claims);
 
         //when
-        testResolver.verifyExpiration(pastDate);
+        testResolver.validateIdentity(jwt);
 
         //then checked by exception
     }
 
     @Test(expectedExceptions = InvalidIssException.class)
-    public void testInvalidIssuerThrowsException() throws InvalidIssException {
+    public void testInvalidIssuerThrowsException() throws OpenIdConnectVerificationException {
         //given
-        String wrongIssuer = "One";
+        JwtClaimsSet claims = new JwtClaimsSet();
+        claims.setIssuer("One");
+        claims.setExpirationTime(new Date(System.currentTimeMillis() + 60_000L));
+        SignedJwt jwt = mock(SignedJwt.class);
+        given(jwt.getClaimsSet()).willReturn(claims);
 
         //when
-        testResolver.verifyIssuer(wrongIssuer);
+        testResolver.validateIdentity(jwt);
 
         //then checked by exception
     }
@@ -18,15 +18,19 @@ package org.forgerock.jaspi.modules.openid.resolvers;
 import org.forgerock.jaspi.modules.openid.exceptions.InvalidIssException;
 import org.forgerock.jaspi.modules.openid.exceptions.InvalidSignatureException;
 import org.forgerock.jaspi.modules.openid.exceptions.JwtExpiredException;
+import org.forgerock.jaspi.modules.openid.exceptions.OpenIdConnectVerificationException;
 import org.forgerock.json.jose.jws.JwsAlgorithm;
 import org.forgerock.json.jose.jws.JwsHeader;
 import org.forgerock.json.jose.jws.SignedJwt;
 import org.forgerock.json.jose.jws.handlers.SigningHandler;
+import org.forgerock.json.jose.jwt.JwtClaimsSet;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.util.Date;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 
@@ -59,24 +63,95 @@ public class SharedSecretOpenIdResolverImplTest {
     }
 
     @Test(expectedExceptions = JwtExpiredException.class)
-    public void testExpiredTokenThrowsException() throws JwtExpiredException {
+    public void testExpiredTokenThrowsException() throws OpenIdConnectVerificationException {
         //given
-        Date pastDate = new Date();
-        pastDate.setTime(1);
+        JwtClaimsSet claims = new JwtClaimsSet();
+        claims.setIssuer(testResolver.getIssuer());
+        claims.setExpirationTime(new Date(1));
+        SignedJwt jwt = mock(SignedJwt.class);
+        given(jwt.getClaimsSet()).willReturn(claims);
 
         //when
-        testResolver.verifyExpiration(pastDate);
+        testResolver.validateIdentity(jwt);
 
         //then checked by exception
     }
 
     @Test(expectedExceptions = InvalidIssException.class)
-    public void testInvalidIssuerThrowsException() throws InvalidIssException {
+    public void testInvalidIssuerThrowsException() throws OpenIdConnectVerificationException {
         //given
-        String wrongIssuer = "One";
+        JwtClaimsSet claims = new JwtClaimsSet();
+        claims.setIssuer("One");
+        claims.setExpirationTime(new Date(System.currentTimeMillis() + 60_000L));
+        SignedJwt jwt = mock(SignedJwt.class);
+        given(jwt.getClaimsSet()).willReturn(claims);
 
         //when
-        testResolver.verifyIssuer(wrongIssuer);
+        testResolver.validateIdentity(jwt);
+
+        //then checked by exception
+    }
+
+    @Test(expectedExceptions = InvalidIssException.class)
+    public void testMissingIssuerIsReportedBeforeExpiration() throws OpenIdConnectVerificationException {
+        //given
+        JwtClaimsSet claims = new JwtClaimsSet();
+        claims.setExpirationTime(new Date(1));
+        SignedJwt jwt = mock(SignedJwt.class);
+        given(jwt.getClaimsSet()).willReturn(claims);
+
+        //when
+        testResolver.validateIdentity(jwt);
+
+        //then checked by exception
+    }
+
+    @Test
+    public void testNotBeforeTimeIsNotChecked() throws OpenIdConnectVerificationException {
+        //given
+        JwtClaimsSet claims = new JwtClaimsSet();
+        claims.setIssuer("Test");
+        claims.setExpirationTime(new Date(System.currentTimeMillis() + 120_000L));
+        claims.setNotBeforeTime(new Date(System.currentTimeMillis() + 60_000L));
+        SignedJwt jwt = mock(SignedJwt.class);
+        given(jwt.getClaimsSet()).willReturn(claims);
+
+        //when
+        testResolver.validateIdentity(jwt);
+
+        //then no exception
+    }
+
+    @Test
+    public void testMissingExpirationTimeThrowsException() {
+        //given
+        JwtClaimsSet claims = new JwtClaimsSet();
+        claims.setIssuer("Test");
+        SignedJwt jwt = mock(SignedJwt.class);
+        given(jwt.getClaimsSet()).willReturn(claims);
+
+        //when
+        try {
+            testResolver.validateIdentity(jwt);
+            fail("Expected OpenIdConnectVerificationException");
+        } catch (OpenIdConnectVerificationException e) {
+            //then
+            assertThat(e).isExactlyInstanceOf(OpenIdConnectVerificationException.class);
+            assertThat(e.getMessage()).contains("MISSING_CLAIM(exp)");
+        }
+    }
+
+    @Test(expectedExceptions = JwtExpiredException.class)
+    public void testExpiredTokenIsReportedByValidateIdentity() throws OpenIdConnectVerificationException {
+        //given
+        JwtClaimsSet claims = new JwtClaimsSet();
+        claims.setExpirationTime(new Date(1));
+        claims.setIssuer("Test");
+        SignedJwt jwt = mock(SignedJwt.class);
+        given(jwt.getClaimsSet()).willReturn(claims);
+
+        //when
+        testResolver.validateIdentity(jwt);
 
         //then checked by exception
     }
@@ -18,20 +18,35 @@ package org.forgerock.authz.modules.oauth2;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.util.time.TimeService;
 
 /**
  * <p>Cache for caching AccessToken validation results.</p>
  *
- * <p>The cache is created with a maximum size, which when reached the cache will remove the oldest entry.</p>
+ * <p>The cache is created with a maximum size, which when reached the cache will remove the least recently used
+ * entry. Entries for valid tokens are dropped once the token expires; entries for invalid tokens are kept for
+ * {@link #INVALID_TOKEN_RETENTION_MS} at most.</p>
+ *
+ * <p>Large caches are split into independently locked stripes, selected by the hash of the access token, so that
+ * concurrent requests for different tokens rarely contend on the same lock.</p>
  *
  * @since 1.4.0
  */
 class AccessTokenValidationCache {
 
-    private final Map<String, AccessTokenValidationResponse> cache;
-    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    /** How long the result of the validation of an invalid, or already expired, access token is kept. */
+    static final long INVALID_TOKEN_RETENTION_MS = TimeUnit.MINUTES.toMillis(1);
+
+    /** Maximum number of stripes. */
+    private static final int MAX_STRIPES = 16;
+
+    /** Minimum number of entries per stripe, below which the cache is not striped any further. */
+    private static final int MIN_STRIPE_SIZE = 64;
+
+    private final Stripe[] stripes;
+    private final TimeService time;
 
     /**
      * Constructs a new instance of the AccessTokenValidationCache.
@@ -39,17 +54,26 @@ class AccessTokenValidationCache {
      * @param maxSize The maximum size of the cache.
      */
     AccessTokenValidationCache(final int maxSize) {
-        cache = new LinkedHashMap<String, AccessTokenValidationResponse>(maxSize) {
-            /**
-             * Serial Version UID.
-             */
-            public static final long serialVersionUID = -1L;
-
-            @Override
-            protected boolean removeEldestEntry(Map.Entry<String, AccessTokenValidationResponse> eldestEntry) {
-                return size() > maxSize;
-            }
-        };
+        this(maxSize, TimeService.SYSTEM);
+    }
+
+    /**
+     * Constructs a new instance of the AccessTokenValidationCache.
+     *
+     * @param maxSize The maximum size of the cache.
+     * @param time The time service used to expire entries.
+     */
+    AccessTokenValidationCache(final int maxSize, final TimeService time) {
+        int stripeCount = 1;
+        while (stripeCount < MAX_STRIPES && (long) maxSize / (stripeCount * 2) >= MIN_STRIPE_SIZE) {
+            stripeCount *= 2;
+        }
+        this.stripes = new Stripe[stripeCount];
+        final int stripeSize = (maxSize + stripeCount - 1) / stripeCount;
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(stripeSize);
+        }
+        this.time = time;
     }
 
     /**
@@ -59,11 +83,20 @@ class AccessTokenValidationCache {
      * @param validationResponse The validation response.
      */
     void add(String accessToken, AccessTokenValidationResponse validationResponse) {
-        try {
-            lock.writeLock().lock();
-            cache.put(accessToken, validationResponse);
-        } finally {
-            lock.writeLock().unlock();
+        final Stripe stripe = stripeFor(accessToken);
+        if (validationResponse == null) {
+            synchronized (stripe) {
+                stripe.remove(accessToken);
+            }
+            return;
+        }
+        final long now = time.now();
+        final long expiryTime = validationResponse.getExpiryTime() > now
+                ? validationResponse.getExpiryTime()
+                : now + INVALID_TOKEN_RETENTION_MS;
+        final Entry entry = new Entry(validationResponse, expiryTime);
+        synchronized (stripe) {
+            stripe.put(accessToken, entry);
         }
     }
 
@@ -71,15 +104,22 @@ class AccessTokenValidationCache {
      * Retrieves an entry from the cache.
      *
      * @param accessToken The access token.
-     * @return The access tokens validation response.
+     * @return The access tokens validation response, or {@code null} if there is none or it has expired.
      */
     AccessTokenValidationResponse get(String accessToken) {
-        try {
-            lock.readLock().lock();
-            return cache.get(accessToken);
-        } finally {
-            lock.readLock().unlock();
+        final Stripe stripe = stripeFor(accessToken);
+        final Entry entry;
+        synchronized (stripe) {
+            entry = stripe.get(accessToken);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiryTime < time.now()) {
+                stripe.remove(accessToken);
+                return null;
+            }
         }
+        return entry.response;
     }
 
     /**
@@ -88,11 +128,53 @@ class AccessTokenValidationCache {
      * @return The cache size.
      */
     int size() {
-        try {
-            lock.readLock().lock();
-            return cache.size();
-        } finally {
-            lock.readLock().unlock();
+        int size = 0;
+        for (final Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    private Stripe stripeFor(final String accessToken) {
+        if (stripes.length == 1) {
+            return stripes[0];
+        }
+        int hash = accessToken.hashCode();
+        hash ^= hash >>> 16;
+        return stripes[hash & (stripes.length - 1)];
+    }
+
+    /** A cached validation response, and the time after which it must no longer be used. */
+    private static final class Entry {
+        private final AccessTokenValidationResponse response;
+        private final long expiryTime;
+
+        private Entry(final AccessTokenValidationResponse response, final long expiryTime) {
+            this.response = response;
+            this.expiryTime = expiryTime;
+        }
+    }
+
+    /** A bounded, access ordered, map of entries. Callers must hold the stripe monitor. */
+    private static final class Stripe extends LinkedHashMap<String, Entry> {
+
+        /**
+         * Serial Version UID.
+         */
+        private static final long serialVersionUID = -1L;
+
+        private final int maxSize;
+
+        private Stripe(final int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldestEntry) {
+            return size() > maxSize;
         }
     }
 }
@@ -28,6 +28,8 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.forgerock.http.Client;
 import org.forgerock.http.Handler;
@@ -37,8 +39,12 @@ import org.forgerock.http.protocol.Response;
 import org.forgerock.json.JsonValue;
 import org.forgerock.util.AsyncFunction;
 import org.forgerock.util.Function;
+import org.forgerock.util.promise.ExceptionHandler;
 import org.forgerock.util.promise.NeverThrowsException;
 import org.forgerock.util.promise.Promise;
+import org.forgerock.util.promise.PromiseImpl;
+import org.forgerock.util.promise.ResultHandler;
+import org.forgerock.util.promise.RuntimeExceptionHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -61,7 +67,9 @@ public class RestOAuth2AccessTokenValidator implements OAuth2AccessTokenValidato
     private final Client httpClient;
     private final String tokenInfoEndpoint;
     private final String userProfileEndpoint;
-
+    /** Validations in progress, shared by all of the concurrent requests for the same access token. */
+    private final ConcurrentMap<String, Promise<AccessTokenValidationResponse, OAuth2Exception>> pendingValidations =
+            new ConcurrentHashMap<>();
 
     /**
      * Creates a new instance of the RestOAuth2AccessTokenValidator.
@@ -78,9 +86,47 @@ public class RestOAuth2AccessTokenValidator implements OAuth2AccessTokenValidato
 
     /**
      * {@inheritDoc}
+     * <p>
+     * Concurrent validations of the same access token share a single request to the OAuth2 Provider.
      */
     @Override
     public Promise<AccessTokenValidationResponse, OAuth2Exception> validate(final String accessToken) {
+        final PromiseImpl<AccessTokenValidationResponse, OAuth2Exception> validation = PromiseImpl.create();
+        final Promise<AccessTokenValidationResponse, OAuth2Exception> pending =
+                pendingValidations.putIfAbsent(accessToken, validation);
+        if (pending != null) {
+            return pending;
+        }
+        final Promise<AccessTokenValidationResponse, OAuth2Exception> tokenInfo;
+        try {
+            tokenInfo = requestTokenInfo(accessToken);
+        } catch (RuntimeException e) {
+            pendingValidations.remove(accessToken, validation);
+            throw e;
+        }
+        tokenInfo.thenOnResult(new ResultHandler<AccessTokenValidationResponse>() {
+            @Override
+            public void handleResult(AccessTokenValidationResponse result) {
+                pendingValidations.remove(accessToken, validation);
+                validation.handleResult(result);
+            }
+        }).thenOnException(new ExceptionHandler<OAuth2Exception>() {
+            @Override
+            public void handleException(OAuth2Exception exception) {
+                pendingValidations.remove(accessToken, validation);
+                validation.handleException(exception);
+            }
+        }).thenOnRuntimeException(new RuntimeExceptionHandler() {
+            @Override
+            public void handleRuntimeException(RuntimeException exception) {
+                pendingValidations.remove(accessToken, validation);
+                validation.handleRuntimeException(exception);
+            }
+        });
+        return validation;
+    }
+
+    private Promise<AccessTokenValidationResponse, OAuth2Exception> requestTokenInfo(final String accessToken) {
         Request request = new Request()
                 .setMethod("GET")
                 .setUri(URI.create(tokenInfoEndpoint + "?access_token=" + accessToken));
@@ -16,12 +16,15 @@
 
 package org.forgerock.authz.modules.oauth2;
 
+import org.forgerock.util.time.TimeService;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNull;
 
@@ -99,6 +102,41 @@ public class AccessTokenValidationCacheTest {
         assertEquals(cache.get(accessToken), validationResponse);
     }
 
+    @Test
+    public void shouldNotReturnExpiredEntry() {
+
+        //Given
+        TimeService time = mock(TimeService.class);
+        given(time.now()).willReturn(1_000L, 2_000L, 3_000L);
+        cache = new AccessTokenValidationCache(2, time);
+        AccessTokenValidationResponse validationResponse = new AccessTokenValidationResponse(2_500L);
+
+        //When
+        cache.add("ACCESS_TOKEN", validationResponse);
+
+        //Then
+        assertEquals(cache.get("ACCESS_TOKEN"), validationResponse);
+        assertNull(cache.get("ACCESS_TOKEN"));
+        assertEquals(cache.size(), 0);
+    }
+
+    @Test
+    public void shouldRemoveLeastRecentlyUsedEntryWhenCacheFull() {
+
+        //Given
+        AccessTokenValidationResponse validationResponse = new AccessTokenValidationResponse(0);
+        cache.add("ACCESS_TOKEN_1", validationResponse);
+        cache.add("ACCESS_TOKEN_2", validationResponse);
+
+        //When
+        cache.get("ACCESS_TOKEN_1");
+        cache.add("ACCESS_TOKEN_3", validationResponse);
+
+        //Then
+        assertEquals(cache.get("ACCESS_TOKEN_1"), validationResponse);
+        assertNull(cache.get("ACCESS_TOKEN_2"));
+    }
+
     @Test
     public void shouldReturnNullWhenAccessTokenNotInCache() {
 
@@ -41,6 +41,7 @@ import org.forgerock.json.JsonValue;
 import org.forgerock.services.context.Context;
 import org.forgerock.util.promise.NeverThrowsException;
 import org.forgerock.util.promise.Promise;
+import org.forgerock.util.promise.PromiseImpl;
 import org.mockito.ArgumentCaptor;
 import org.mockito.BDDMockito;
 import org.mockito.Mock;
@@ -88,6 +89,26 @@ public class RestOAuth2AccessTokenValidatorTest {
         assertThat(validate.getTokenScopes()).isEmpty();
     }
 
+    @Test
+    public void shouldShareConcurrentValidationsOfTheSameAccessToken() throws Exception {
+
+        //Given
+        final PromiseImpl<Response, NeverThrowsException> tokenInfo = PromiseImpl.create();
+        given(httpClientHandler.handle(any(Context.class), any(Request.class))).willReturn(tokenInfo);
+
+        //When
+        Promise<AccessTokenValidationResponse, OAuth2Exception> first = accessTokenValidator.validate("ACCESS_TOKEN");
+        Promise<AccessTokenValidationResponse, OAuth2Exception> second = accessTokenValidator.validate("ACCESS_TOKEN");
+        Map<String, Object> tokenInfoResponse = new HashMap<>();
+        tokenInfoResponse.put("error", "ERROR");
+        tokenInfo.handleResult(new Response(Status.OK).setEntity(tokenInfoResponse));
+
+        //Then
+        verify(httpClientHandler, times(1)).handle(any(Context.class), any(Request.class));
+        assertThat(second).isSameAs(first);
+        assertThat(first.getOrThrowUninterruptibly().isTokenValid()).isFalse();
+    }
+
     private void mockHttpClientHandler(final Map<String, Object>... responses) {
         BDDMockito.BDDMyOngoingStubbing<Promise<Response, NeverThrowsException>> given =
                 given(httpClientHandler.handle(any(Context.class), any(Request.class)));
@@ -34,7 +34,9 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Random;
 
 import org.assertj.core.api.SoftAssertionError;
 import org.assertj.core.api.SoftAssertions;
@@ -237,6 +239,42 @@ public abstract class BindingTest {
         }
     }
 
+    /**
+     * Test a request and a response with entities larger than the buffers of the server, which the server receives
+     * and sends in several chunks.
+     * @throws Exception In case of failure.
+     */
+    @Test
+    public void testLargeEntities() throws Exception {
+        Handler handler = new Handler() {
+            @Override
+            public Promise<Response, NeverThrowsException> handle(Context context, Request request) {
+                try {
+                    return newResponsePromise(new Response(Status.OK).setEntity(request.getEntity().getBytes()));
+                } catch (IOException e) {
+                    return newResponsePromise(new Response(Status.INTERNAL_SERVER_ERROR).setCause(e));
+                }
+            }
+        };
+        HttpApplication application = simpleHttpApplication(handler, null);
+        addApplication(application);
+        port = startServer();
+
+        final byte[] content = new byte[4 * 1024 * 1024];
+        new Random().nextBytes(content);
+        try (final HttpClientHandler httpClientHandler = new HttpClientHandler()) {
+            final Client client = new Client(httpClientHandler);
+            final Request request = new Request()
+                    .setMethod("POST")
+                    .setUri(format("http://localhost:%d/echo", port));
+            request.getEntity().setBytes(content);
+
+            final Response response = client.send(request).get();
+            assertThat(response.getStatus()).isEqualTo(Status.OK);
+            assertThat(response.getEntity().getBytes()).isEqualTo(content);
+        }
+    }
+
     /**
      * Test the session.
      * @throws Exception In case of failure.
@@ -0,0 +1,109 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http;
+
+import static org.forgerock.http.util.Paths.joinPath;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.http.protocol.Request;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the throughput of the {@link MutableUri} updates a gateway typically applies to each request before
+ * forwarding it: rebasing onto the protected application, rewriting the path and the query, and finally rendering
+ * the URI to send the request.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class MutableUriBenchmark {
+
+    private static final URI REQUEST_URI = URI.create("http://openig.example.com:8080/openam/json/realms/root"
+            + "/users/bjensen?_fields=uid,mail&_prettyPrint=true");
+
+    private static final URI BASE_URI = URI.create("https://am.internal.example.com:8443");
+
+    private final Request request = new Request().setMethod("GET").setUri(REQUEST_URI);
+
+    /** Rebases the request URI onto the protected application and renders it, as a reverse proxy does. */
+    @Benchmark
+    public String rebase() {
+        final MutableUri uri = new MutableUri(REQUEST_URI);
+        uri.rebase(BASE_URI);
+        return uri.toASCIIString();
+    }
+
+    /** Rebases the URI and rewrites its path and query, as a gateway route with URL rewriting does. */
+    @Benchmark
+    public String rewrite() throws URISyntaxException {
+        final MutableUri uri = new MutableUri(REQUEST_URI);
+        uri.rebase(BASE_URI);
+        final List<String> elements = uri.getPathElements();
+        uri.setRawPath("/am/" + joinPath(elements.subList(1, elements.size())));
+        uri.setRawQuery(uri.getRawQuery() + "&_queryFilter=true");
+        uri.setRawFragment(null);
+        return uri.toASCIIString();
+    }
+
+    /** Updates the URI several times before rendering it once. */
+    @Benchmark
+    public URI rewriteChain() throws URISyntaxException {
+        final MutableUri uri = new MutableUri(REQUEST_URI);
+        uri.setScheme("https");
+        uri.setHost("am.internal.example.com");
+        uri.setPort(8443);
+        uri.setUserInfo("gateway");
+        uri.setPath("/am/json/users/bjensen");
+        uri.setQuery("_fields=uid");
+        return uri.asURI();
+    }
+
+    /** Copies the request, including its URI, as filters which keep the original request do. */
+    @Benchmark
+    public Request copyRequest() throws IOException {
+        return new Request(request);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(MutableUriBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.routing;
+
+import static org.forgerock.http.protocol.Response.newResponsePromise;
+import static org.forgerock.http.routing.RouteMatchers.requestUriMatcher;
+import static org.forgerock.http.routing.RoutingMode.EQUALS;
+import static org.forgerock.http.routing.RoutingMode.STARTS_WITH;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.http.Handler;
+import org.forgerock.http.protocol.Request;
+import org.forgerock.http.protocol.Response;
+import org.forgerock.http.protocol.Status;
+import org.forgerock.services.context.Context;
+import org.forgerock.services.context.RootContext;
+import org.forgerock.services.routing.IncomparableRouteMatchException;
+import org.forgerock.services.routing.RouteMatch;
+import org.forgerock.services.routing.RouteMatcher;
+import org.forgerock.util.promise.NeverThrowsException;
+import org.forgerock.util.promise.Promise;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures routing a request through a {@link Router} with as many routes as a deployment exposing many managed
+ * object types, each with a collection route and an instance route, and compares it with evaluating each route
+ * matcher in turn.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class RouterBenchmark {
+
+    private static final Promise<Response, NeverThrowsException> OK_RESPONSE =
+            newResponsePromise(new Response(Status.OK));
+
+    private static final Handler HANDLER = new Handler() {
+        @Override
+        public Promise<Response, NeverThrowsException> handle(final Context context, final Request request) {
+            return OK_RESPONSE;
+        }
+    };
+
+    @Param({ "10", "100", "1000" })
+    private int routes;
+
+    private final Router router = new Router();
+    private final List<RouteMatcher<Request>> matchers = new ArrayList<>();
+    private final Context context = new RootContext();
+    private Request request;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < routes / 2; i++) {
+            addRoute(requestUriMatcher(STARTS_WITH, "managed/object" + i));
+            addRoute(requestUriMatcher(EQUALS, "managed/object" + i + "/{id}"));
+        }
+        request = new Request().setMethod("GET")
+                .setUri("http://localhost:8080/managed/object" + (routes / 2 - 1) + "/bjensen");
+    }
+
+    private void addRoute(final RouteMatcher<Request> matcher) {
+        router.addRoute(matcher, HANDLER);
+        matchers.add(matcher);
+    }
+
+    @Benchmark
+    public Promise<Response, NeverThrowsException> route() {
+        return router.handle(context, request);
+    }
+
+    /** How the router used to select the route, for comparison. */
+    @Benchmark
+    public RouteMatch evaluateEachRoute() throws IncomparableRouteMatchException {
+        RouteMatch best = null;
+        for (final RouteMatcher<Request> matcher : matchers) {
+            final RouteMatch match = matcher.evaluate(context, request);
+            if (match != null && match.isBetterMatchThan(best)) {
+                best = match;
+            }
+        }
+        return best;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(RouterBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.serialization;
+
+import static org.forgerock.json.JsonValue.array;
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.http.util.Json;
+import org.forgerock.http.util.JsonStreams;
+import org.forgerock.json.JsonValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Compares data binding with {@link JsonStreams} for writing and reading a typical CREST resource.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 1, time = 10, timeUnit = TimeUnit.SECONDS)
+public class JsonStreamsSerialization {
+
+    private static final JsonValue RESOURCE = json(object(
+            field("_id", "bjensen"),
+            field("_rev", "000000002f5a8c63"),
+            field("userName", "bjensen@example.com"),
+            field("name", object(
+                    field("givenName", "Barbara"),
+                    field("familyName", "Jensen"),
+                    field("formatted", "Ms. Barbara J Jensen III"))),
+            field("active", true),
+            field("loginCount", 1234),
+            field("lastLogin", 1467986546000L),
+            field("emails", array(
+                    object(field("value", "bjensen@example.com"), field("type", "work"), field("primary", true)),
+                    object(field("value", "babs@jensen.org"), field("type", "home")))),
+            field("roles", array("employee", "manager", "auditor")),
+            field("meta", object(
+                    field("created", "2011-08-01T18:29:49.793Z"),
+                    field("lastModified", "2011-08-01T18:29:49.793Z"),
+                    field("location", "https://example.com/users/bjensen")))));
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModules(new Json.JsonValueModule(), new Json.LocalizableStringModule());
+
+    private static final ObjectWriter WRITER = MAPPER.writer();
+
+    private static final byte[] JSON;
+
+    static {
+        try {
+            JSON = MAPPER.writeValueAsBytes(RESOURCE.getObject());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public byte[] writeWithDataBinding() throws IOException {
+        return WRITER.writeValueAsBytes(RESOURCE.getObject());
+    }
+
+    @Benchmark
+    public byte[] writeWithJsonStreams() throws IOException {
+        return JsonStreams.writeJsonAsBytes(MAPPER.getFactory(), RESOURCE.getObject(), WRITER);
+    }
+
+    @Benchmark
+    public Object readWithDataBinding() throws IOException {
+        return MAPPER.readValue(JSON, Object.class);
+    }
+
+    @Benchmark
+    public Object readWithJsonStreams() throws IOException {
+        try (JsonParser parser = MAPPER.getFactory().createParser(JSON)) {
+            return JsonStreams.readJson(parser);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(JsonStreamsSerialization.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+
+}
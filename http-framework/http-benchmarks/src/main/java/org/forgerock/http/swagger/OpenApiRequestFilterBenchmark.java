@@ -0,0 +1,143 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.swagger;
+
+import static org.forgerock.http.protocol.Response.newResponsePromise;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.http.ApiProducer;
+import org.forgerock.http.Filter;
+import org.forgerock.http.handler.DescribableHandler;
+import org.forgerock.http.protocol.Form;
+import org.forgerock.http.protocol.Request;
+import org.forgerock.http.protocol.Response;
+import org.forgerock.http.protocol.Status;
+import org.forgerock.services.context.Context;
+import org.forgerock.services.context.RootContext;
+import org.forgerock.services.descriptor.Describable;
+import org.forgerock.util.promise.NeverThrowsException;
+import org.forgerock.util.promise.Promise;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.swagger.models.Swagger;
+
+/**
+ * Measures the throughput of dispatching a typical CREST query request through the {@link OpenApiRequestFilter},
+ * which looks for the {@code _api} query parameter on every request, and of reading the request parameters
+ * several times, as the CREST HTTP adapter does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class OpenApiRequestFilterBenchmark {
+
+    private static final URI QUERY_URI = URI.create("http://localhost:8080/openidm/managed/user"
+            + "?_queryFilter=userName%20sw%20%22bjensen%22&_fields=userName,mail,givenName,sn"
+            + "&_pageSize=50&_pagedResultsCookie=MTAw&_sortKeys=userName&_prettyPrint=true");
+
+    private static final Promise<Response, NeverThrowsException> OK_RESPONSE =
+            newResponsePromise(new Response(Status.OK));
+
+    private final DescribableHandler handler = new DescribableHandler() {
+        @Override
+        public Promise<Response, NeverThrowsException> handle(final Context context, final Request request) {
+            return OK_RESPONSE;
+        }
+
+        @Override
+        public Swagger api(final ApiProducer<Swagger> producer) {
+            return null;
+        }
+
+        @Override
+        public Swagger handleApiRequest(final Context context, final Request request) {
+            return null;
+        }
+
+        @Override
+        public void addDescriptorListener(final Describable.Listener listener) {
+            // Nothing to do.
+        }
+
+        @Override
+        public void removeDescriptorListener(final Describable.Listener listener) {
+            // Nothing to do.
+        }
+    };
+
+    private final Filter filter = new OpenApiRequestFilter();
+    private final RootContext context = new RootContext();
+
+    /** The request is created for each invocation, since the parsed query parameters are cached on it. */
+    private Request newRequest() {
+        return new Request().setMethod("GET").setUri(QUERY_URI);
+    }
+
+    @Benchmark
+    public Promise<Response, NeverThrowsException> dispatch() {
+        return filter.filter(context, newRequest(), handler);
+    }
+
+    @Benchmark
+    public boolean hasQueryParameter() {
+        return newRequest().hasQueryParameter(OpenApiRequestFilter.API_PARAMETER);
+    }
+
+    /** How the filter used to look for the {@code _api} parameter, for comparison. */
+    @Benchmark
+    public boolean parseQueryParameters() {
+        final Request request = newRequest();
+        return new Form().fromRequestQuery(request).containsKey(OpenApiRequestFilter.API_PARAMETER);
+    }
+
+    /** Reads the parameters as many times as the CREST HTTP adapter does when handling a query. */
+    @Benchmark
+    public int getFormRepeatedly() {
+        final Request request = newRequest();
+        int size = 0;
+        for (int i = 0; i < 4; i++) {
+            size += request.getForm().size();
+        }
+        return size;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(OpenApiRequestFilterBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.util.encode;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares {@link Base64} and {@link Base64url} with {@link java.util.Base64} for size classes ranging from HMAC
+ * values and JWT signatures to session cookies and encrypted payloads.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class Base64Benchmark {
+
+    private static final java.util.Base64.Encoder JDK_ENCODER = java.util.Base64.getEncoder();
+    private static final java.util.Base64.Decoder JDK_DECODER = java.util.Base64.getDecoder();
+    private static final java.util.Base64.Encoder JDK_URL_ENCODER = java.util.Base64.getUrlEncoder().withoutPadding();
+    private static final java.util.Base64.Decoder JDK_URL_DECODER = java.util.Base64.getUrlDecoder();
+
+    @Param({ "32", "256", "4096", "65536" })
+    private int size;
+
+    private byte[] content;
+    private String encoded;
+    private String urlEncoded;
+    private byte[] encodedBytes;
+    private byte[] encodeBuffer;
+    private byte[] decodeBuffer;
+
+    @Setup
+    public void setUp() {
+        content = new byte[size];
+        new Random(42).nextBytes(content);
+        encoded = JDK_ENCODER.encodeToString(content);
+        urlEncoded = JDK_URL_ENCODER.encodeToString(content);
+        encodedBytes = JDK_ENCODER.encode(content);
+        encodeBuffer = new byte[Base64.encodedLength(size)];
+        decodeBuffer = new byte[Base64.maxDecodedLength(encodedBytes.length)];
+    }
+
+    @Benchmark
+    public String encodeToString() {
+        return Base64.encode(content);
+    }
+
+    @Benchmark
+    public String encodeToStringJdk() {
+        return JDK_ENCODER.encodeToString(content);
+    }
+
+    @Benchmark
+    public int encodeIntoArray() {
+        return Base64.encode(content, 0, content.length, encodeBuffer, 0);
+    }
+
+    @Benchmark
+    public int encodeIntoArrayJdk() {
+        return JDK_ENCODER.encode(content, encodeBuffer);
+    }
+
+    @Benchmark
+    public byte[] decodeString() {
+        return Base64.decode(encoded);
+    }
+
+    @Benchmark
+    public byte[] decodeStringJdk() {
+        return JDK_DECODER.decode(encoded);
+    }
+
+    @Benchmark
+    public int decodeIntoArray() {
+        return Base64.decode(encodedBytes, 0, encodedBytes.length, decodeBuffer, 0);
+    }
+
+    @Benchmark
+    public int decodeIntoArrayJdk() {
+        return JDK_DECODER.decode(encodedBytes, decodeBuffer);
+    }
+
+    @Benchmark
+    public String urlEncode() {
+        return Base64url.encode(content);
+    }
+
+    @Benchmark
+    public String urlEncodeJdk() {
+        return JDK_URL_ENCODER.encodeToString(content);
+    }
+
+    @Benchmark
+    public byte[] urlDecode() {
+        return Base64url.decode(urlEncoded);
+    }
+
+    @Benchmark
+    public byte[] urlDecodeJdk() {
+        return JDK_URL_DECODER.decode(urlEncoded);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(Base64Benchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+
+}
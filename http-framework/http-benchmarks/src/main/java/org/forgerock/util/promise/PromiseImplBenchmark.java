@@ -0,0 +1,132 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.util.promise;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.util.Function;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the cost of the {@link PromiseImpl} completion core in the usage patterns of the filters and handlers:
+ * completion before or after a listener is registered, and short chains of functions. {@link CompletableFuture} is
+ * measured in the same patterns as a reference.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@Threads(4)
+public class PromiseImplBenchmark {
+
+    private static final Function<Integer, Integer, NeverThrowsException> INCREMENT =
+            new Function<Integer, Integer, NeverThrowsException>() {
+                @Override
+                public Integer apply(final Integer value) {
+                    return value + 1;
+                }
+            };
+
+    private static final java.util.function.Function<Integer, Integer> JDK_INCREMENT =
+            new java.util.function.Function<Integer, Integer>() {
+                @Override
+                public Integer apply(final Integer value) {
+                    return value + 1;
+                }
+            };
+
+    private static final ResultHandler<Integer> NOOP = new ResultHandler<Integer>() {
+        @Override
+        public void handleResult(final Integer result) {
+            // Nothing to do.
+        }
+    };
+
+    private Integer value = 42;
+
+    @Benchmark
+    public Object completeOnly() {
+        final PromiseImpl<Integer, NeverThrowsException> promise = PromiseImpl.create();
+        promise.handleResult(value);
+        return promise;
+    }
+
+    @Benchmark
+    public Object completeThenListen() {
+        final PromiseImpl<Integer, NeverThrowsException> promise = PromiseImpl.create();
+        promise.handleResult(value);
+        return promise.thenOnResult(NOOP);
+    }
+
+    @Benchmark
+    public Object listenThenComplete() {
+        final PromiseImpl<Integer, NeverThrowsException> promise = PromiseImpl.create();
+        promise.thenOnResult(NOOP);
+        promise.handleResult(value);
+        return promise;
+    }
+
+    @Benchmark
+    public Integer chainOfFiveThen() {
+        final PromiseImpl<Integer, NeverThrowsException> promise = PromiseImpl.create();
+        final Promise<Integer, NeverThrowsException> chained =
+                promise.then(INCREMENT).then(INCREMENT).then(INCREMENT).then(INCREMENT).then(INCREMENT);
+        promise.handleResult(value);
+        return chained.getOrThrowUninterruptibly();
+    }
+
+    @Benchmark
+    public Object jdkCompleteThenListen() {
+        final CompletableFuture<Integer> future = new CompletableFuture<>();
+        future.complete(value);
+        return future.thenApply(JDK_INCREMENT);
+    }
+
+    @Benchmark
+    public Integer jdkChainOfFiveThen() {
+        final CompletableFuture<Integer> future = new CompletableFuture<>();
+        final CompletableFuture<Integer> chained = future.thenApply(JDK_INCREMENT).thenApply(JDK_INCREMENT)
+                .thenApply(JDK_INCREMENT).thenApply(JDK_INCREMENT).thenApply(JDK_INCREMENT);
+        future.complete(value);
+        return chained.join();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(PromiseImplBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+
+}
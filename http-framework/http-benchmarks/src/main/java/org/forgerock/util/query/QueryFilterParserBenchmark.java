@@ -0,0 +1,91 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.util.query;
+
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.json.JsonPointer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the throughput of {@link QueryFilterParser} for typical {@code _queryFilter} strings, with and without
+ * the parsed filter cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@Threads(4)
+public class QueryFilterParserBenchmark {
+
+    @Param({
+        "true",
+        "/userName eq \"bjensen\"",
+        "/name/familyName co \"O'Malley\" and /meta/lastModified gt \"2011-05-13T04:42:34Z\"",
+        "(/title pr and /userType eq 'Employee') or ! (/emails co 'example.org' or /age le 42)"
+    })
+    private String filter;
+
+    private final QueryFilterParser<JsonPointer> parser = new QueryFilterParser<JsonPointer>() {
+        @Override
+        protected JsonPointer parseField(final String fieldDescription) {
+            return new JsonPointer(fieldDescription);
+        }
+    };
+
+    private final QueryFilterParser<JsonPointer> cachingParser = new QueryFilterParser<JsonPointer>(256) {
+        @Override
+        protected JsonPointer parseField(final String fieldDescription) {
+            return new JsonPointer(fieldDescription);
+        }
+    };
+
+    @Benchmark
+    public QueryFilter<JsonPointer> parse() {
+        return parser.valueOf(filter);
+    }
+
+    @Benchmark
+    public QueryFilter<JsonPointer> parseCached() {
+        return cachingParser.valueOf(filter);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(QueryFilterParserBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+
+}
@@ -18,14 +18,18 @@ package org.forgerock.http.apache.async;
 
 import static java.nio.channels.Channels.newChannel;
 import static org.forgerock.http.apache.async.CloseableBufferFactory.closeableByteBufferFactory;
+import static org.forgerock.http.io.IO.newBranchingInputStream;
 import static org.forgerock.util.Utils.closeSilently;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.WritableByteChannel;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
 import org.apache.http.HttpException;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.methods.HttpUriRequest;
@@ -36,6 +40,7 @@ import org.apache.http.nio.client.methods.HttpAsyncMethods;
 import org.apache.http.nio.protocol.HttpAsyncResponseConsumer;
 import org.apache.http.protocol.HttpContext;
 import org.forgerock.http.apache.AbstractHttpClient;
+import org.forgerock.http.header.ContentLengthHeader;
 import org.forgerock.http.io.Buffer;
 import org.forgerock.http.io.PipeBufferedStream;
 import org.forgerock.http.protocol.Request;
@@ -56,28 +61,55 @@ public class AsyncHttpClient extends AbstractHttpClient {
 
     private static final Logger logger = LoggerFactory.getLogger(AsyncHttpClient.class);
 
+    /** The size of the pooled buffers, in bytes. */
+    private static final int BUFFER_SIZE = 8 * 1_024;
+
     private final CloseableHttpAsyncClient client;
     private final Factory<Buffer> storage;
     private final CloseableBufferFactory<ByteBuffer> bufferFactory;
+    private final ExecutorService passThroughExecutor;
 
     AsyncHttpClient(final CloseableHttpAsyncClient client, final Factory<Buffer> storage, final int threadCount) {
+        this(client, storage, threadCount, null);
+    }
+
+    /**
+     * Creates a client which passes entities through when an executor is provided.
+     *
+     * @param passThroughExecutor
+     *            The executor that completes the response promises, so that their entity is not read by an I/O
+     *            dispatcher thread, or {@code null} if the response entities are stored in temporary storage until
+     *            they have been received in full.
+     */
+    AsyncHttpClient(final CloseableHttpAsyncClient client, final Factory<Buffer> storage, final int threadCount,
+            final ExecutorService passThroughExecutor) {
         // Client should already be started
         this.client = client;
         this.storage = storage;
-        this.bufferFactory = closeableByteBufferFactory(threadCount, 8 * 1_024);
+        // passed through content is held in pooled buffers until it is read: pool enough of them for each dispatcher
+        // thread to fill the content of an exchange, and drop the others
+        final int poolMaximumSize = passThroughExecutor != null
+                ? threadCount * (PassThroughInputStream.HIGH_WATER_MARK / BUFFER_SIZE + 2) : threadCount;
+        this.bufferFactory = closeableByteBufferFactory(threadCount, poolMaximumSize, BUFFER_SIZE);
+        this.passThroughExecutor = passThroughExecutor;
     }
 
     @Override
     public Promise<Response, NeverThrowsException> sendAsync(final Request request) {
 
         HttpUriRequest clientRequest = createHttpUriRequest(request);
+        if (passThroughExecutor != null && clientRequest instanceof HttpEntityEnclosingRequest) {
+            // read the request entity straight into pooled buffers
+            HttpEntityEnclosingRequest entityRequest = (HttpEntityEnclosingRequest) clientRequest;
+            entityRequest.setEntity(new PassThroughEntity(entityRequest.getEntity(), bufferFactory));
+        }
 
         // Send request and return the configured Promise
         final PromiseImpl<Response, NeverThrowsException> promise = PromiseImpl.create();
 
         HttpAsyncResponseConsumer<HttpResponse> httpAsyncResponseConsumer =
                 new PromiseHttpAsyncResponseConsumer(promise, request.getUri().asURI().toASCIIString(), storage,
-                        bufferFactory);
+                        bufferFactory, passThroughExecutor);
 
         // Copy the MDC before submitting the job
         Map<String, String> mdc = MDC.getCopyOfContextMap();
@@ -91,9 +123,30 @@ public class AsyncHttpClient extends AbstractHttpClient {
         return promise;
     }
 
+    /**
+     * Returns whether the request encloses an entity. When entities are passed through, the entity is only peeked at,
+     * which branches it, if the request does not declare its length, so that a declared entity is not buffered.
+     */
+    @Override
+    protected boolean hasEntity(final Request request) {
+        if (passThroughExecutor != null) {
+            final long length = ContentLengthHeader.valueOf(request).getLength();
+            if (length >= 0) {
+                return length > 0;
+            }
+        }
+        return super.hasEntity(request);
+    }
+
     @Override
     public void close() throws IOException {
-        client.close();
+        try {
+            client.close();
+        } finally {
+            if (passThroughExecutor != null) {
+                passThroughExecutor.shutdown();
+            }
+        }
     }
 
     static final class PromiseHttpAsyncResponseConsumer implements HttpAsyncResponseConsumer<HttpResponse> {
@@ -103,18 +156,28 @@ public class AsyncHttpClient extends AbstractHttpClient {
         private final Factory<Buffer> storage;
         private final String uri;
         private final CloseableBufferFactory<ByteBuffer> bufferFactory;
+        private final ExecutorService passThroughExecutor;
 
         private Response response;
         private WritableByteChannel channel;
+        private PassThroughInputStream passThrough;
         private HttpResponse result;
         private Exception exception;
+        private volatile boolean done;
 
         PromiseHttpAsyncResponseConsumer(PromiseImpl<Response, NeverThrowsException> promise, String uri,
                 Factory<Buffer> storage, CloseableBufferFactory<ByteBuffer> bufferFactory) {
+            this(promise, uri, storage, bufferFactory, null);
+        }
+
+        PromiseHttpAsyncResponseConsumer(PromiseImpl<Response, NeverThrowsException> promise, String uri,
+                Factory<Buffer> storage, CloseableBufferFactory<ByteBuffer> bufferFactory,
+                ExecutorService passThroughExecutor) {
             this.promise = promise;
             this.storage = storage;
             this.uri = uri;
             this.bufferFactory = bufferFactory;
+            this.passThroughExecutor = passThroughExecutor;
         }
 
         @Override
@@ -123,7 +186,34 @@ public class AsyncHttpClient extends AbstractHttpClient {
             response = createResponseWithoutEntity(httpResponse);
 
             HttpEntity entity = httpResponse.getEntity();
-            if (entity != null) {
+            if (entity != null && passThroughExecutor != null) {
+                // the content is only buffered if it is branched, e.g. by Entity.push()
+                passThrough = new PassThroughInputStream(bufferFactory);
+                response.getEntity().setRawContentInputStream(newBranchingInputStream(passThrough, storage));
+                // the content is read while it is received: hand the response over before it is complete, to a
+                // thread which may wait for the content
+                final Response received = response;
+                final Map<String, String> mdc = MDC.getCopyOfContextMap();
+                try {
+                    passThroughExecutor.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            if (mdc != null) {
+                                MDC.setContextMap(mdc);
+                            }
+                            try {
+                                promise.handleResult(received);
+                            } finally {
+                                MDC.clear();
+                            }
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    // the client is being closed
+                    passThrough.fail(e);
+                    promise.handleResult(received);
+                }
+            } else if (entity != null) {
                 PipeBufferedStream pipe = new PipeBufferedStream(storage);
                 channel = newChannel(pipe.getIn());
                 response.getEntity().setRawContentInputStream(pipe.getOut());
@@ -132,6 +222,10 @@ public class AsyncHttpClient extends AbstractHttpClient {
 
         @Override
         public void consumeContent(ContentDecoder contentDecoder, IOControl ioControl) throws IOException {
+            if (passThrough != null) {
+                passThrough.consume(contentDecoder, ioControl);
+                return;
+            }
             try (CloseableBufferFactory<ByteBuffer>.CloseableBuffer buffer = bufferFactory.newInstance()) {
                 ByteBuffer byteBuffer = buffer.getBuffer();
                 while (contentDecoder.read(byteBuffer) > 0) {
@@ -148,14 +242,26 @@ public class AsyncHttpClient extends AbstractHttpClient {
 
         @Override
         public void responseCompleted(HttpContext httpContext) {
+            done = true;
+            if (passThrough != null) {
+                // the response has already been handed over
+                passThrough.complete();
+                return;
+            }
             promise.handleResult(response);
         }
 
         @Override
         public void failed(Exception e) {
-            closeSilently(response, channel);
+            done = true;
             exception = e;
             logger.trace("Failed to obtain response for {}", uri, e);
+            if (passThrough != null) {
+                // the response has already been handed over: its reader gets the failure
+                passThrough.fail(e);
+                return;
+            }
+            closeSilently(response, channel);
             promise.handleResult(new Response(Status.BAD_GATEWAY).setCause(e));
         }
 
@@ -171,7 +277,8 @@ public class AsyncHttpClient extends AbstractHttpClient {
 
         @Override
         public boolean isDone() {
-            return promise.isDone();
+            // in pass-through mode, the promise is completed before the response has been received in full
+            return done;
         }
 
         @Override
@@ -17,6 +17,7 @@
 package org.forgerock.http.apache.async;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.forgerock.http.handler.HttpClientHandler.OPTION_CONNECT_TIMEOUT;
 import static org.forgerock.http.handler.HttpClientHandler.OPTION_HOSTNAME_VERIFIER;
 import static org.forgerock.http.handler.HttpClientHandler.OPTION_KEY_MANAGERS;
@@ -32,6 +33,11 @@ import static org.forgerock.http.util.Lists.asArrayOrNull;
 
 import java.security.GeneralSecurityException;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
@@ -81,6 +87,18 @@ public class AsyncHttpClientProvider implements HttpClientProvider {
      */
     public static final Option<Integer> OPTION_WORKER_THREADS = Option.of(Integer.class, null);
 
+    /**
+     * Specify whether entities are passed through between the caller and the connection, in pooled buffers, rather
+     * than stored in temporary storage. The content of a response is then read while it is received, and is only
+     * buffered when it is branched, e.g. by {@link org.forgerock.http.protocol.Entity#push()}. The response promise
+     * is completed as soon as the response headers have been received, by a thread of the client, which the reader
+     * of the entity may block while waiting for its content. The client runs no more of these threads than
+     * {@link org.forgerock.http.handler.HttpClientHandler#OPTION_MAX_CONNECTIONS}: when they are all busy, e.g.
+     * because the readers of the entities are slow, the promises of the other responses are only completed once a
+     * thread is available. Defaults to {@code false}.
+     */
+    public static final Option<Boolean> OPTION_ENTITY_PASS_THROUGH = Option.withDefault(false);
+
     /**
      * A redirect strategy that never performs a redirect.
      */
@@ -189,6 +207,25 @@ public class AsyncHttpClientProvider implements HttpClientProvider {
                 .setProxyAuthenticationStrategy(NoAuthenticationStrategy.INSTANCE)
                 .build();
         client.start();
-        return new AsyncHttpClient(client, storage, ioReactorConfig.getIoThreadCount());
+        ExecutorService passThroughExecutor = null;
+        if (options.get(OPTION_ENTITY_PASS_THROUGH)) {
+            final ThreadFactory threadFactory = new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "CHF pass-through " + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            };
+            // an exchange occupies a thread while its response is read, and no more than maxConnections exchanges
+            // are in flight at once: later responses wait for a thread rather than starting one
+            final ThreadPoolExecutor executor = new ThreadPoolExecutor(maxConnections, maxConnections, 60L, SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), threadFactory);
+            executor.allowCoreThreadTimeOut(true);
+            passThroughExecutor = executor;
+        }
+        return new AsyncHttpClient(client, storage, ioReactorConfig.getIoThreadCount(), passThroughExecutor);
     }
 }
@@ -20,13 +20,16 @@ import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.forgerock.util.Factory;
 
 /**
  * A {@link Factory} of a pool of preallocated NIO {@link Buffer} exposed as instances of {@link Closeable}.
- * The method {@link CloseableBuffer#close()} releases the instance into the pool.
- * The pool will grow in size up to the maximum concurrent threads that call an instance of the {@link Factory}.
+ * The method {@link CloseableBuffer#close()} releases the instance into the pool, unless the pool is full, in which
+ * case the instance is dropped.
+ * The pool will grow in size up to the maximum concurrent threads that call an instance of the {@link Factory}, or up
+ * to its maximum size if it is bounded.
  *
  * It can be used like this :
  * {@code
@@ -46,14 +49,26 @@ abstract class CloseableBufferFactory<T extends Buffer> implements
         Factory<CloseableBufferFactory<T>.CloseableBuffer> {
 
     /**
-     * Fluent method the create a CloseableBufferFactory<ByteBuffer>.
+     * Fluent method the create a CloseableBufferFactory<ByteBuffer>, whose pool does not grow beyond its initial size.
      * @param poolInitialSize the initial size of the pool
      * @param bufferSize the size of the buffer
      * @return an instance of CloseableBufferFactory that will handle some {@link ByteBuffer}.
      */
     static CloseableBufferFactory<ByteBuffer> closeableByteBufferFactory(final int poolInitialSize,
             final int bufferSize) {
-        return new CloseableBufferFactory<ByteBuffer>(poolInitialSize) {
+        return closeableByteBufferFactory(poolInitialSize, poolInitialSize, bufferSize);
+    }
+
+    /**
+     * Fluent method the create a CloseableBufferFactory<ByteBuffer>.
+     * @param poolInitialSize the initial size of the pool
+     * @param poolMaximumSize the maximum size of the pool
+     * @param bufferSize the size of the buffer
+     * @return an instance of CloseableBufferFactory that will handle some {@link ByteBuffer}.
+     */
+    static CloseableBufferFactory<ByteBuffer> closeableByteBufferFactory(final int poolInitialSize,
+            final int poolMaximumSize, final int bufferSize) {
+        return new CloseableBufferFactory<ByteBuffer>(poolInitialSize, poolMaximumSize) {
             @Override
             protected java.nio.ByteBuffer allocate() {
                 return ByteBuffer.allocate(bufferSize);
@@ -63,14 +78,23 @@ abstract class CloseableBufferFactory<T extends Buffer> implements
 
     /**
      * Pool of pre-allocated {@code T} instances, which will grow in size up to the maximum concurrent
-     * threads that call this class.
+     * threads that call this class, or up to {@link #poolMaximumSize}.
      */
     private final Queue<T> pool;
 
+    /** The number of instances in the pool, as the size of the queue is not computed in constant time. */
+    private final AtomicInteger poolSize = new AtomicInteger();
+    private final int poolMaximumSize;
+
     CloseableBufferFactory(int poolInitialSize) {
-        pool = new ConcurrentLinkedQueue<>();
+        this(poolInitialSize, Integer.MAX_VALUE);
+    }
+
+    CloseableBufferFactory(int poolInitialSize, int poolMaximumSize) {
+        this.pool = new ConcurrentLinkedQueue<>();
+        this.poolMaximumSize = poolMaximumSize;
         for (int i = 0; i < poolInitialSize; ++i) {
-            pool.add(allocate());
+            release(allocate());
         }
     }
 
@@ -99,10 +123,21 @@ abstract class CloseableBufferFactory<T extends Buffer> implements
         T instance = pool.poll();
         if (instance == null) {
             instance = allocate();
+        } else {
+            poolSize.decrementAndGet();
         }
         return new CloseableBuffer(instance);
     }
 
+    private void release(T instance) {
+        if (poolSize.incrementAndGet() <= poolMaximumSize) {
+            pool.add(instance);
+        } else {
+            // the pool is full: let the instance be garbage collected
+            poolSize.decrementAndGet();
+        }
+    }
+
     final class CloseableBuffer implements AutoCloseable {
 
         private final T buffer;
@@ -114,7 +149,7 @@ abstract class CloseableBufferFactory<T extends Buffer> implements
         @Override
         public void close() {
             buffer.clear();
-            pool.add(buffer);
+            release(buffer);
         }
 
         T getBuffer() {
@@ -0,0 +1,77 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.apache.async;
+
+import static org.forgerock.util.Utils.closeSilently;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.nio.ContentEncoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.entity.HttpAsyncContentProducer;
+
+/**
+ * Produces the content of a request entity by reading it straight into a pooled buffer, from which it is encoded,
+ * rather than into a buffer allocated for each request, through a channel that copies it once more.
+ */
+final class PassThroughEntity extends HttpEntityWrapper implements HttpAsyncContentProducer {
+
+    private final CloseableBufferFactory<ByteBuffer> bufferFactory;
+    private InputStream in;
+    private CloseableBufferFactory<ByteBuffer>.CloseableBuffer chunk;
+
+    PassThroughEntity(final HttpEntity entity, final CloseableBufferFactory<ByteBuffer> bufferFactory) {
+        super(entity);
+        this.bufferFactory = bufferFactory;
+    }
+
+    @Override
+    public void produceContent(final ContentEncoder encoder, final IOControl ioControl) throws IOException {
+        if (chunk == null) {
+            in = getContent();
+            chunk = bufferFactory.newInstance();
+        }
+        final ByteBuffer buffer = chunk.getBuffer();
+        final int n = in.read(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        if (n > 0) {
+            buffer.position(buffer.position() + n);
+        }
+        if (n == -1 && buffer.position() == 0) {
+            encoder.complete();
+            close();
+            return;
+        }
+        // the encoder may not accept all of the content yet: keep the rest for the next call
+        buffer.flip();
+        encoder.write(buffer);
+        buffer.compact();
+    }
+
+    @Override
+    public void close() {
+        if (chunk != null) {
+            chunk.close();
+            chunk = null;
+        }
+        closeSilently(in);
+        in = null;
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.apache.async;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.IOControl;
+
+/**
+ * Passes the content of a response through to its reader as it is received, in pooled buffers, instead of storing it
+ * in a temporary buffer until it has been received in full.
+ * <p>
+ * The I/O dispatcher thread {@link #consume(ContentDecoder, IOControl) consumes} the content, and another thread reads
+ * it: the reader waits for the content to arrive, and the connection stops reading content when too much of it is
+ * waiting to be read.
+ */
+final class PassThroughInputStream extends InputStream {
+
+    /** Amount of received content, in bytes, above which the connection stops reading content. */
+    static final int HIGH_WATER_MARK = 64 * 1_024;
+
+    /** Amount of received content, in bytes, below which the connection resumes reading content. */
+    static final int LOW_WATER_MARK = HIGH_WATER_MARK / 2;
+
+    private final CloseableBufferFactory<ByteBuffer> bufferFactory;
+
+    /** The received content, waiting to be read. */
+    private final Queue<CloseableBufferFactory<ByteBuffer>.CloseableBuffer> chunks = new ArrayDeque<>();
+    private int available;
+
+    /** The connection whose input is suspended, or {@code null} if it is not suspended. */
+    private IOControl suspended;
+    private boolean completed;
+    private boolean closed;
+    private IOException failure;
+
+    /** Reused by {@link #read()}, as streams are not read by concurrent threads. */
+    private final byte[] singleByte = new byte[1];
+
+    PassThroughInputStream(final CloseableBufferFactory<ByteBuffer> bufferFactory) {
+        this.bufferFactory = bufferFactory;
+    }
+
+    /**
+     * Consumes the content that can be decoded without blocking.
+     *
+     * @param decoder
+     *            The decoder of the response content.
+     * @param ioControl
+     *            The connection, whose input is suspended when too much content is waiting to be read.
+     * @throws IOException
+     *             If the content could not be decoded.
+     */
+    void consume(final ContentDecoder decoder, final IOControl ioControl) throws IOException {
+        boolean more = true;
+        while (more) {
+            final CloseableBufferFactory<ByteBuffer>.CloseableBuffer chunk = bufferFactory.newInstance();
+            final ByteBuffer buffer = chunk.getBuffer();
+            // fill the chunk, rather than queueing a partly filled one for each read
+            int n;
+            do {
+                n = decoder.read(buffer);
+            } while (n > 0 && buffer.hasRemaining());
+            more = n > 0;
+            buffer.flip();
+            synchronized (this) {
+                if (closed || !buffer.hasRemaining()) {
+                    // empty, or nobody will read it: discard the content so that the connection can be reused
+                    chunk.close();
+                    continue;
+                }
+                chunks.add(chunk);
+                available += buffer.remaining();
+                notifyAll();
+                if (available >= HIGH_WATER_MARK) {
+                    ioControl.suspendInput();
+                    suspended = ioControl;
+                    more = false;
+                }
+            }
+        }
+        if (decoder.isCompleted()) {
+            complete();
+        }
+    }
+
+    /** Signals that the content has been received in full. */
+    synchronized void complete() {
+        completed = true;
+        notifyAll();
+    }
+
+    /**
+     * Signals that the content could not be received in full.
+     *
+     * @param e
+     *            The reason why the content could not be received.
+     */
+    synchronized void fail(final Exception e) {
+        failure = e instanceof IOException ? (IOException) e : new IOException(e);
+        notifyAll();
+    }
+
+    @Override
+    public int read() throws IOException {
+        return read(singleByte, 0, 1) > 0 ? singleByte[0] & 0xff : -1;
+    }
+
+    @Override
+    public synchronized int read(final byte[] b, final int off, final int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (closed) {
+            throw new IOException("stream is closed");
+        }
+        if (len == 0) {
+            return 0;
+        }
+        while (chunks.isEmpty() && !completed && failure == null) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the response content");
+            }
+        }
+        if (chunks.isEmpty()) {
+            if (failure != null) {
+                throw failure;
+            }
+            return -1;
+        }
+        final ByteBuffer buffer = chunks.peek().getBuffer();
+        final int n = Math.min(len, buffer.remaining());
+        buffer.get(b, off, n);
+        if (!buffer.hasRemaining()) {
+            chunks.remove().close();
+        }
+        available -= n;
+        if (suspended != null && available <= LOW_WATER_MARK) {
+            suspended.requestInput();
+            suspended = null;
+        }
+        return n;
+    }
+
+    @Override
+    public synchronized int available() {
+        return available;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            while (!chunks.isEmpty()) {
+                chunks.remove().close();
+            }
+            available = 0;
+            if (suspended != null) {
+                // the remaining content is discarded as it is received
+                suspended.requestInput();
+                suspended = null;
+            }
+        }
+    }
+}
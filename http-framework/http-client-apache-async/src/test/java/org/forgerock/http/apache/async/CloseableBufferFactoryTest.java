@@ -68,9 +68,34 @@ public class CloseableBufferFactoryTest {
         assertThat(counter.get()).isEqualTo(2);
     }
 
+    @Test
+    public void shouldDropBuffersWhenPoolIsFull() throws Exception {
+        final AtomicInteger counter = new AtomicInteger(0);
+        CloseableBufferFactory<ByteBuffer> buffers = countingBufferFactory(counter, 1, 1);
+
+        // Consume the pre-allocated buffer, and another one
+        CloseableBufferFactory<ByteBuffer>.CloseableBuffer buffer1 = buffers.newInstance();
+        CloseableBufferFactory<ByteBuffer>.CloseableBuffer buffer2 = buffers.newInstance();
+        assertThat(counter.get()).isEqualTo(2);
+
+        // Only 1 buffer fits in the pool
+        buffer1.close();
+        buffer2.close();
+
+        buffers.newInstance();
+        assertThat(counter.get()).isEqualTo(2);
+        buffers.newInstance();
+        assertThat(counter.get()).isEqualTo(3);
+    }
+
     private static CloseableBufferFactory<ByteBuffer> countingBufferFactory(final AtomicInteger counter,
             final int poolInitialSize) {
-        return new CloseableBufferFactory<ByteBuffer>(poolInitialSize) {
+        return countingBufferFactory(counter, poolInitialSize, Integer.MAX_VALUE);
+    }
+
+    private static CloseableBufferFactory<ByteBuffer> countingBufferFactory(final AtomicInteger counter,
+            final int poolInitialSize, final int poolMaximumSize) {
+        return new CloseableBufferFactory<ByteBuffer>(poolInitialSize, poolMaximumSize) {
             @Override
             protected ByteBuffer allocate() {
                 counter.getAndIncrement();
@@ -0,0 +1,154 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.apache.async;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.http.apache.async.CloseableBufferFactory.closeableByteBufferFactory;
+import static org.forgerock.http.apache.async.PassThroughInputStream.HIGH_WATER_MARK;
+import static org.forgerock.http.apache.async.PassThroughInputStream.LOW_WATER_MARK;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.IOControl;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("javadoc")
+public class PassThroughInputStreamTest {
+
+    private static final int LENGTH = 4 * HIGH_WATER_MARK;
+
+    private byte[] bytes;
+    private ArrayDecoder decoder;
+    private RecordingIOControl ioControl;
+    private PassThroughInputStream in;
+
+    @BeforeMethod
+    public void beforeMethod() {
+        bytes = new byte[LENGTH];
+        new Random().nextBytes(bytes);
+        decoder = new ArrayDecoder(bytes);
+        ioControl = new RecordingIOControl();
+        in = new PassThroughInputStream(closeableByteBufferFactory(2, 8 * 1_024));
+    }
+
+    @Test
+    public void shouldSuspendInputUntilContentIsRead() throws Exception {
+        in.consume(decoder, ioControl);
+        assertThat(ioControl.suspended).isTrue();
+        assertThat(in.available()).isGreaterThanOrEqualTo(HIGH_WATER_MARK);
+
+        byte[] b = new byte[1_024];
+        while (in.available() > LOW_WATER_MARK) {
+            assertThat(ioControl.suspended).isTrue();
+            in.read(b);
+        }
+        assertThat(ioControl.suspended).isFalse();
+    }
+
+    @Test
+    public void shouldPassContentThrough() throws Exception {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        byte[] b = new byte[3_000];
+        int n;
+        do {
+            if (!ioControl.suspended && !decoder.isCompleted()) {
+                in.consume(decoder, ioControl);
+            }
+            n = in.read(b);
+            if (n > 0) {
+                content.write(b, 0, n);
+            }
+        } while (n != -1);
+
+        assertThat(content.toByteArray()).isEqualTo(bytes);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void shouldThrowFailureToReader() throws Exception {
+        in.fail(new IOException("Connection reset"));
+
+        in.read();
+    }
+
+    @Test
+    public void shouldDiscardContentOnceClosed() throws Exception {
+        in.consume(decoder, ioControl);
+
+        in.close();
+        assertThat(ioControl.suspended).isFalse();
+        in.consume(decoder, ioControl);
+
+        assertThat(decoder.isCompleted()).isTrue();
+        assertThat(in.available()).isEqualTo(0);
+    }
+
+    private static final class ArrayDecoder implements ContentDecoder {
+        private final ByteBuffer content;
+
+        private ArrayDecoder(byte[] content) {
+            this.content = ByteBuffer.wrap(content);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) {
+            if (!content.hasRemaining()) {
+                return -1;
+            }
+            final ByteBuffer chunk = content.slice();
+            chunk.limit(Math.min(Math.min(dst.remaining(), chunk.remaining()), 1_000));
+            dst.put(chunk);
+            content.position(content.position() + chunk.limit());
+            return chunk.limit();
+        }
+
+        @Override
+        public boolean isCompleted() {
+            return !content.hasRemaining();
+        }
+    }
+
+    private static final class RecordingIOControl implements IOControl {
+        private boolean suspended;
+
+        @Override
+        public void requestInput() {
+            suspended = false;
+        }
+
+        @Override
+        public void suspendInput() {
+            suspended = true;
+        }
+
+        @Override
+        public void requestOutput() {
+        }
+
+        @Override
+        public void suspendOutput() {
+        }
+
+        @Override
+        public void shutdown() {
+        }
+    }
+}
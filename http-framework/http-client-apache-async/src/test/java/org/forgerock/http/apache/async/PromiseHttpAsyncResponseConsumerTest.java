@@ -88,6 +88,30 @@ public class PromiseHttpAsyncResponseConsumerTest {
         }
     }
 
+    @Test
+    public void shouldPassEntityThrough() throws Exception {
+        ExecutorService passThroughExecutor = Executors.newCachedThreadPool();
+        try (BasicHttpServer httpServer = new BasicHttpServer(executorService,
+                "HTTP/1.1 200 OK\nContent-Length: 9\n\nForgeRock");
+                CloseableHttpAsyncClient client = HttpAsyncClients.createMinimal()) {
+            int port = httpServer.start();
+            URI uri = new URI(format("http://localhost:%d/foo", port));
+            final PromiseImpl<Response, NeverThrowsException> promise = PromiseImpl.create();
+            AsyncHttpClient.PromiseHttpAsyncResponseConsumer responseConsumer =
+                    new AsyncHttpClient.PromiseHttpAsyncResponseConsumer(promise, uri.toASCIIString(),
+                            newTemporaryStorage(), closeableByteBufferFactory(2, 256), passThroughExecutor);
+
+            client.start();
+            client.execute(requestProducer(uri), responseConsumer, null);
+
+            Response response = promise.get();
+            assertThat(response.getStatus()).isEqualTo(Status.OK);
+            assertThat(response.getEntity().getString()).isEqualTo("ForgeRock");
+        } finally {
+            passThroughExecutor.shutdown();
+        }
+    }
+
     private HttpAsyncRequestProducer requestProducer(URI uri) {
         return HttpAsyncMethods.create(new HttpGet(uri));
     }
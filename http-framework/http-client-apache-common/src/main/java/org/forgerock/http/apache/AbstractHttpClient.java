@@ -116,8 +116,7 @@ public abstract class AbstractHttpClient implements HttpClient {
      */
     protected HttpUriRequest createHttpUriRequest(final Request request) {
         // Create the Http request depending if there is an entity or not
-        HttpRequestBase clientRequest = request.getEntity().isRawContentEmpty()
-                ? new NonEntityRequest(request) : new EntityRequest(request);
+        HttpRequestBase clientRequest = hasEntity(request) ? new EntityRequest(request) : new NonEntityRequest(request);
         clientRequest.setURI(request.getUri().asURI());
 
         // Parse request Connection headers to be suppressed in message
@@ -135,6 +134,17 @@ public abstract class AbstractHttpClient implements HttpClient {
         return clientRequest;
     }
 
+    /**
+     * Returns whether the request encloses an entity, which is peeked at, so branched, to find out whether it is
+     * empty.
+     *
+     * @param request OpenIG request structure
+     * @return {@code true} if the request encloses an entity
+     */
+    protected boolean hasEntity(final Request request) {
+        return !request.getEntity().isRawContentEmpty();
+    }
+
     /**
      * Creates a new {@link Response} populated from the given AHC {@code result}.
      * The returned message has some of its headers filtered/ignored (proxy behaviour).
@@ -48,6 +48,10 @@ public interface HttpApplication {
      * <p>May return {@code null} indicating that the container should provide
      * a default buffer factory.</p>
      *
+     * <p>A {@link org.forgerock.http.io.IO#newPooledStorage(java.io.File)
+     * pooled storage} may be returned, so that the entities of requests reuse
+     * pooled chunks of memory.</p>
+     *
      * @return A {@code Buffer} {@code Factory} or {@code null}.
      */
     Factory<Buffer> getBufferFactory();
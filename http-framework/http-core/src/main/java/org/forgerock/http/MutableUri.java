@@ -16,14 +16,14 @@
 
 package org.forgerock.http;
 
-import static java.util.Collections.*;
 import static org.forgerock.http.util.Paths.joinPath;
-import static org.forgerock.http.util.Uris.*;
+import static org.forgerock.http.util.Uris.create;
 
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.ArrayList;
+import java.util.AbstractList;
 import java.util.List;
+import java.util.RandomAccess;
 
 import org.forgerock.http.util.Paths;
 
@@ -31,11 +31,22 @@ import org.forgerock.http.util.Paths;
  * A MutableUri is a modifiable {@link URI} substitute.
  * Unlike URIs, which are immutable, a MutableUri can have its fields updated independently.
  * That makes it easier if you just want to change a element of an Uri.
+ * <p>
+ * The URI is held as its separate raw (encoded) components, which are updated in place. The equivalent
+ * {@link URI} and its string representation are only rendered when {@link #asURI()}, {@link #toString()} or a
+ * comparison method is called, and are cached until the next update. Updates which cannot be validated on the
+ * component alone (opaque or relative URIs, registry-based authorities, non US-ASCII characters...) fall back to
+ * rebuilding and parsing the whole URI, which is what all the updates used to do.
  *
  * @see URI
  */
 public final class MutableUri implements Comparable<MutableUri> {
 
+    // Characters which may appear unescaped in the raw components, as accepted by the java.net.URI parser.
+    private static final String MARK = "-_.!~*'()";
+    private static final String RAW_USER_INFO_CHARS = MARK + ";:&=+$,";
+    private static final String RAW_PATH_CHARS = MARK + ":@&=+$,;/";
+    private static final String RAW_QUERY_AND_FRAGMENT_CHARS = MARK + ";/?:@&=+$,[]";
 
     /**
      * Factory method for avoiding typing {@code new MutableUri("http://...")}.
@@ -47,19 +58,29 @@ public final class MutableUri implements Comparable<MutableUri> {
         return new MutableUri(uri);
     }
 
-    /**
-     * The real URI, hidden by this class. Recreated each time a field is updated.
-     */
+    private String scheme;
+    private String rawUserInfo;
+    private String host;
+    private int port;
+    private String rawPath;
+    private String rawQuery;
+    private String rawFragment;
+
+    /** The equivalent URI, or {@code null} if it has not been rendered since the last update. */
     private URI uri;
-    private List<String> pathElements;
+
+    /** The string representation, or {@code null} if it has not been rendered since the last update. */
+    private String string;
+
+    /** The decoded path elements, or {@code null} if they have not been computed since the path was updated. */
+    private PathElements pathElements;
 
     /**
      * Builds a new MutableUri using the given URI.
      * @param uri URI
      */
     public MutableUri(final URI uri) {
-        this.uri = uri;
-        setPathElements(uri.getRawPath());
+        load(uri);
     }
 
     /**
@@ -67,7 +88,17 @@ public final class MutableUri implements Comparable<MutableUri> {
      * @param mutableUri URI
      */
     public MutableUri(final MutableUri mutableUri) {
-        this(mutableUri.asURI());
+        // The rendered URI, string and path elements are immutable, so they can be shared.
+        this.scheme = mutableUri.scheme;
+        this.rawUserInfo = mutableUri.rawUserInfo;
+        this.host = mutableUri.host;
+        this.port = mutableUri.port;
+        this.rawPath = mutableUri.rawPath;
+        this.rawQuery = mutableUri.rawQuery;
+        this.rawFragment = mutableUri.rawFragment;
+        this.uri = mutableUri.uri;
+        this.string = mutableUri.string;
+        this.pathElements = mutableUri.pathElements;
     }
 
     /**
@@ -106,6 +137,14 @@ public final class MutableUri implements Comparable<MutableUri> {
      * @return the equivalent {@link URI} instance.
      */
     public URI asURI() {
+        if (uri == null) {
+            try {
+                uri = new URI(toString());
+            } catch (URISyntaxException e) {
+                // Cannot happen: the components have been validated when they were updated.
+                throw new IllegalStateException(e);
+            }
+        }
         return uri;
     }
 
@@ -114,7 +153,7 @@ public final class MutableUri implements Comparable<MutableUri> {
      * @return the scheme name.
      */
     public String getScheme() {
-        return uri.getScheme();
+        return scheme;
     }
 
     /**
@@ -123,13 +162,12 @@ public final class MutableUri implements Comparable<MutableUri> {
      * @throws URISyntaxException if the new equivalent URI is invalid
      */
     public void setScheme(final String scheme) throws URISyntaxException {
-        this.uri = create(scheme,
-                          uri.getRawUserInfo(),
-                          uri.getHost(),
-                          uri.getPort(),
-                          uri.getRawPath(),
-                          uri.getRawQuery(),
-                          uri.getRawFragment());
+        if (isServerBased() && isScheme(scheme)) {
+            this.scheme = scheme;
+            updated();
+        } else {
+            load(create(scheme, rawUserInfo, host, port, rawPath, rawQuery, rawFragment));
+        }
     }
 
     /**
@@ -137,7 +175,7 @@ public final class MutableUri implements Comparable<MutableUri> {
      * @return the user info element.
      */
     public String getUserInfo() {
-        return uri.getUserInfo();
+        return isUnescaped(rawUserInfo) ? rawUserInfo : asURI().getUserInfo();
     }
 
     /**
@@ -145,7 +183,7 @@ public final class MutableUri implements Comparable<MutableUri> {
      * @return the raw user info element.
      */
     public String getRawUserInfo() {
-        return uri.getRawUserInfo();
+        return rawUserInfo;
     }
 
     /**
@@ -154,8 +192,12 @@ public final class MutableUri implements Comparable<MutableUri> {
      * @throws URISyntaxException if the new equivalent URI is invalid
      */
     public void setUserInfo(final String userInfo) throws URISyntaxException {
-        URI other = new URI(null, userInfo, "ignored", -1, null, null, null);
-        setRawUserInfo(other.getRawUserInfo());
+        if (userInfo == null || isUnescaped(userInfo, RAW_USER_INFO_CHARS)) {
+            setRawUserInfo(userInfo);
+        } else {
+            URI other = new URI(null, userInfo, "ignored", -1, null, null, null);
+            setRawUserInfo(other.getRawUserInfo());
+        }
     }
 
     /**
@@ -164,13 +206,12 @@ public final class MutableUri implements Comparable<MutableUri> {
      * @throws URISyntaxException if the new equivalent URI is invalid
      */
     public void setRawUserInfo(String rawUserInfo) throws URISyntaxException {
-        uri = create(uri.getScheme(),
-                     rawUserInfo,
-                     uri.getHost(),
-                     uri.getPort(),
-                     uri.getRawPath(),
-                     uri.getRawQuery(),
-                     uri.getRawFragment());
+        if (isServerBased() && (rawUserInfo == null || isRaw(rawUserInfo, RAW_USER_INFO_CHARS))) {
+            this.rawUserInfo = rawUserInfo;
+            updated();
+        } else {
+            load(create(scheme, rawUserInfo, host, port, rawPath, rawQuery, rawFragment));
+        }
     }
 
     /**
@@ -178,7 +219,7 @@ public final class MutableUri implements Comparable<MutableUri> {
      * @return the host element.
      */
     public String getHost() {
-        return uri.getHost();
+        return host;
     }
 
     /**
@@ -187,13 +228,12 @@ public final class MutableUri implements Comparable<MutableUri> {
      * @throws URISyntaxException if the new equivalent URI is invalid
      */
     public void setHost(final String host) throws URISyntaxException {
-        this.uri = create(uri.getScheme(),
-                          uri.getRawUserInfo(),
-                          host,
-                          uri.getPort(),
-                          uri.getRawPath(),
-                          uri.getRawQuery(),
-                          uri.getRawFragment());
+        if (isServerBased() && isHostName(host)) {
+            this.host = host;
+            updated();
+        } else {
+            load(create(scheme, rawUserInfo, host, port, rawPath, rawQuery, rawFragment));
+        }
     }
 
     /**
@@ -201,7 +241,7 @@ public final class MutableUri implements Comparable<MutableUri> {
      * @return the port element.
      */
     public int getPort() {
-        return uri.getPort();
+        return port;
     }
 
     /**
@@ -210,13 +250,12 @@ public final class MutableUri implements Comparable<MutableUri> {
      * @throws URISyntaxException if the new equivalent URI is invalid
      */
     public void setPort(final int port) throws URISyntaxException {
-        uri = create(uri.getScheme(),
-                     uri.getRawUserInfo(),
-                     uri.getHost(),
-                     port,
-                     uri.getRawPath(),
-                     uri.getRawQuery(),
-                     uri.getRawFragment());
+        if (isServerBased() && port >= -1) {
+            this.port = port;
+            updated();
+        } else {
+            load(create(scheme, rawUserInfo, host, port, rawPath, rawQuery, rawFragment));
+        }
     }
 
     /**
@@ -224,7 +263,7 @@ public final class MutableUri implements Comparable<MutableUri> {
      * @return the path element.
      */
     public String getPath() {
-        return uri.getPath();
+        return isUnescaped(rawPath) ? rawPath : asURI().getPath();
     }
 
     /**
@@ -232,7 +271,7 @@ public final class MutableUri implements Comparable<MutableUri> {
      * @return the raw path element.
      */
     public String getRawPath() {
-        return uri.getRawPath();
+        return rawPath;
     }
 
     /**
@@ -241,8 +280,12 @@ public final class MutableUri implements Comparable<MutableUri> {
      * @throws URISyntaxException if the new equivalent URI is invalid
      */
     public void setPath(final String path) throws URISyntaxException {
-        URI other = new URI(null, null, "ignored", -1, path, null, null);
-        setRawPath(other.getRawPath());
+        if (path != null && path.startsWith("/") && isUnescaped(path, RAW_PATH_CHARS)) {
+            setRawPath(path);
+        } else {
+            URI other = new URI(null, null, "ignored", -1, path, null, null);
+            setRawPath(other.getRawPath());
+        }
     }
 
     /**
@@ -251,14 +294,16 @@ public final class MutableUri implements Comparable<MutableUri> {
      * @throws URISyntaxException if the new equivalent URI is invalid
      */
     public void setRawPath(String rawPath) throws URISyntaxException {
-        uri = create(uri.getScheme(),
-                     uri.getRawUserInfo(),
-                     uri.getHost(),
-                     uri.getPort(),
-                     rawPath,
-                     uri.getRawQuery(),
-                     uri.getRawFragment());
-        setPathElements(uri.getRawPath());
+        if (isServerBased() && (rawPath == null || rawPath.isEmpty())) {
+            // A hierarchical URI with an authority and no path has an empty path.
+            this.rawPath = "";
+            pathUpdated();
+        } else if (isServerBased() && rawPath.startsWith("/") && isRaw(rawPath, RAW_PATH_CHARS)) {
+            this.rawPath = rawPath;
+            pathUpdated();
+        } else {
+            load(create(scheme, rawUserInfo, host, port, rawPath, rawQuery, rawFragment));
+        }
     }
 
     /**
@@ -266,7 +311,7 @@ public final class MutableUri implements Comparable<MutableUri> {
      * @return the path element.
      */
     public String getQuery() {
-        return uri.getQuery();
+        return isUnescaped(rawQuery) ? rawQuery : asURI().getQuery();
     }
 
     /**
@@ -274,7 +319,7 @@ public final class MutableUri implements Comparable<MutableUri> {
      * @return the raw query element.
      */
     public String getRawQuery() {
-        return uri.getRawQuery();
+        return rawQuery;
     }
 
     /**
@@ -283,8 +328,12 @@ public final class MutableUri implements Comparable<MutableUri> {
      * @throws URISyntaxException if the new equivalent URI is invalid
      */
     public void setQuery(final String query) throws URISyntaxException {
-        URI other = new URI(null, null, "ignored", -1, null, query, null);
-        setRawQuery(other.getRawQuery());
+        if (query == null || isUnescaped(query, RAW_QUERY_AND_FRAGMENT_CHARS)) {
+            setRawQuery(query);
+        } else {
+            URI other = new URI(null, null, "ignored", -1, null, query, null);
+            setRawQuery(other.getRawQuery());
+        }
     }
 
     /**
@@ -293,13 +342,12 @@ public final class MutableUri implements Comparable<MutableUri> {
      * @throws URISyntaxException if the new equivalent URI is invalid
      */
     public void setRawQuery(String rawQuery) throws URISyntaxException {
-        uri = create(uri.getScheme(),
-                     uri.getRawUserInfo(),
-                     uri.getHost(),
-                     uri.getPort(),
-                     uri.getRawPath(),
-                     rawQuery,
-                     uri.getRawFragment());
+        if (isServerBased() && (rawQuery == null || isRaw(rawQuery, RAW_QUERY_AND_FRAGMENT_CHARS))) {
+            this.rawQuery = rawQuery;
+            updated();
+        } else {
+            load(create(scheme, rawUserInfo, host, port, rawPath, rawQuery, rawFragment));
+        }
     }
 
     /**
@@ -307,7 +355,7 @@ public final class MutableUri implements Comparable<MutableUri> {
      * @return the fragment element.
      */
     public String getFragment() {
-        return uri.getFragment();
+        return isUnescaped(rawFragment) ? rawFragment : asURI().getFragment();
     }
 
     /**
@@ -315,7 +363,7 @@ public final class MutableUri implements Comparable<MutableUri> {
      * @return the raw fragment element.
      */
     public String getRawFragment() {
-        return uri.getRawFragment();
+        return rawFragment;
     }
 
     /**
@@ -324,8 +372,12 @@ public final class MutableUri implements Comparable<MutableUri> {
      * @throws URISyntaxException if the new equivalent URI is invalid
      */
     public void setFragment(final String fragment) throws URISyntaxException {
-        URI other = new URI(null, null, "ignored", -1, null, null, fragment);
-        setRawFragment(other.getRawFragment());
+        if (fragment == null || isUnescaped(fragment, RAW_QUERY_AND_FRAGMENT_CHARS)) {
+            setRawFragment(fragment);
+        } else {
+            URI other = new URI(null, null, "ignored", -1, null, null, fragment);
+            setRawFragment(other.getRawFragment());
+        }
     }
 
     /**
@@ -334,13 +386,12 @@ public final class MutableUri implements Comparable<MutableUri> {
      * @throws URISyntaxException if the new equivalent URI is invalid
      */
     public void setRawFragment(String rawFragment) throws URISyntaxException {
-        uri = create(uri.getScheme(),
-                     uri.getRawUserInfo(),
-                     uri.getHost(),
-                     uri.getPort(),
-                     uri.getRawPath(),
-                     uri.getRawQuery(),
-                     rawFragment);
+        if (isServerBased() && (rawFragment == null || isRaw(rawFragment, RAW_QUERY_AND_FRAGMENT_CHARS))) {
+            this.rawFragment = rawFragment;
+            updated();
+        } else {
+            load(create(scheme, rawUserInfo, host, port, rawPath, rawQuery, rawFragment));
+        }
     }
 
     /**
@@ -348,7 +399,8 @@ public final class MutableUri implements Comparable<MutableUri> {
      * @return the authority compound element.
      */
     public String getAuthority() {
-        return uri.getAuthority();
+        final String rawAuthority = getRawAuthority();
+        return isUnescaped(rawAuthority) ? rawAuthority : asURI().getAuthority();
     }
 
     /**
@@ -356,24 +408,12 @@ public final class MutableUri implements Comparable<MutableUri> {
      * @return the authority compound element.
      */
     public String getRawAuthority() {
-        return uri.getRawAuthority();
-    }
-
-    /**
-     * Sets the {@literal pathElements} from the URI path (encoded value).
-     * <p>
-     * This method does not set or recreate the {@literal uri}, this is the
-     * responsibility of the method caller.
-     *
-     * @param rawPath The raw (URI-encoded) path.
-     */
-    private void setPathElements(final String rawPath) {
-        this.pathElements = new ArrayList<String>(Paths.getPathElements(rawPath)) {
-            @Override
-            public String toString() {
-                return joinPath(this);
-            }
-        };
+        if (uri != null) {
+            return uri.getRawAuthority();
+        }
+        final StringBuilder sb = new StringBuilder();
+        appendAuthority(sb);
+        return sb.toString();
     }
 
     /**
@@ -383,7 +423,10 @@ public final class MutableUri implements Comparable<MutableUri> {
      * @return The URI path elements as an immutable {@code List}.
      */
     public List<String> getPathElements() {
-        return unmodifiableList(pathElements);
+        if (pathElements == null) {
+            pathElements = new PathElements(Paths.getPathElements(rawPath));
+        }
+        return pathElements;
     }
 
     /**
@@ -398,20 +441,7 @@ public final class MutableUri implements Comparable<MutableUri> {
         if (base == null) {
             return this;
         }
-        String scheme = base.getScheme();
-        String host = base.getHost();
-        int port = base.getPort();
-        if (scheme == null || host == null) {
-            return this;
-        }
-        try {
-            setScheme(scheme);
-            setHost(host);
-            setPort(port);
-        } catch (URISyntaxException e) {
-            throw new IllegalStateException(e);
-        }
-        return this;
+        return rebase(base.getScheme(), base.getHost(), base.getPort());
     }
 
     /**
@@ -423,7 +453,21 @@ public final class MutableUri implements Comparable<MutableUri> {
      * @return this (rebased) instance
      */
     public MutableUri rebase(URI base) {
-        return rebase(new MutableUri(base));
+        return rebase(base.getScheme(), base.getHost(), base.getPort());
+    }
+
+    private MutableUri rebase(final String scheme, final String host, final int port) {
+        if (scheme == null || host == null) {
+            return this;
+        }
+        try {
+            setScheme(scheme);
+            setHost(host);
+            setPort(port);
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+        return this;
     }
 
     @Override
@@ -438,8 +482,7 @@ public final class MutableUri implements Comparable<MutableUri> {
      * @see URI#relativize(URI)
      */
     public MutableUri relativize(final MutableUri uri) {
-        this.uri = this.uri.relativize(uri.asURI());
-        setPathElements(this.uri.getRawPath());
+        load(asURI().relativize(uri.asURI()));
         return this;
     }
 
@@ -450,14 +493,35 @@ public final class MutableUri implements Comparable<MutableUri> {
      * @see URI#resolve(URI)
      */
     public MutableUri resolve(final MutableUri uri) {
-        this.uri = this.uri.resolve(uri.asURI());
-        setPathElements(this.uri.getRawPath());
+        load(asURI().resolve(uri.asURI()));
         return this;
     }
 
     @Override
     public String toString() {
-        return uri.toString();
+        if (string == null) {
+            if (uri != null) {
+                string = uri.toString();
+            } else {
+                // Rendered the same way as Uris.create().
+                final StringBuilder sb = new StringBuilder(16 + length(rawUserInfo) + length(host)
+                        + length(rawPath) + length(rawQuery) + length(rawFragment));
+                if (scheme != null) {
+                    sb.append(scheme).append(':');
+                }
+                sb.append("//");
+                appendAuthority(sb);
+                sb.append(rawPath);
+                if (rawQuery != null) {
+                    sb.append('?').append(rawQuery);
+                }
+                if (rawFragment != null) {
+                    sb.append('#').append(rawFragment);
+                }
+                string = sb.toString();
+            }
+        }
+        return string;
     }
 
     /**
@@ -465,7 +529,8 @@ public final class MutableUri implements Comparable<MutableUri> {
      * @return the content of this URI as a US-ASCII string.
      */
     public String toASCIIString() {
-        return uri.toASCIIString();
+        final String s = toString();
+        return isAscii(s) ? s : asURI().toASCIIString();
     }
 
     @Override
@@ -477,12 +542,186 @@ public final class MutableUri implements Comparable<MutableUri> {
             return false;
         }
         MutableUri that = (MutableUri) o;
-        return uri.equals(that.uri);
+        return asURI().equals(that.asURI());
 
     }
 
     @Override
     public int hashCode() {
-        return uri.hashCode();
+        return asURI().hashCode();
+    }
+
+    /** Replaces all the components with those of the provided URI, which becomes the rendered URI. */
+    private void load(final URI uri) {
+        this.scheme = uri.getScheme();
+        this.rawUserInfo = uri.getRawUserInfo();
+        this.host = uri.getHost();
+        this.port = uri.getPort();
+        this.rawPath = uri.getRawPath();
+        this.rawQuery = uri.getRawQuery();
+        this.rawFragment = uri.getRawFragment();
+        this.uri = uri;
+        this.string = null;
+        this.pathElements = null;
+    }
+
+    private void updated() {
+        uri = null;
+        string = null;
+    }
+
+    private void pathUpdated() {
+        updated();
+        pathElements = null;
+    }
+
+    /**
+     * Returns {@code true} if this URI is a hierarchical URI with a server-based authority, the only kind of URI
+     * whose components are updated in place. The components of other URIs cannot be validated independently.
+     */
+    private boolean isServerBased() {
+        return host != null;
+    }
+
+    private void appendAuthority(final StringBuilder sb) {
+        if (rawUserInfo != null) {
+            sb.append(rawUserInfo).append('@');
+        }
+        sb.append(host);
+        if (port != -1) {
+            sb.append(':').append(port);
+        }
+    }
+
+    /**
+     * Returns {@code true} if the raw component is its own decoded value. Other components are decoded by the
+     * rendered URI, so that they are decoded exactly as {@link URI} does.
+     */
+    private static boolean isUnescaped(final String raw) {
+        return raw == null || raw.indexOf('%') < 0;
+    }
+
+    private static int length(final String s) {
+        return s != null ? s.length() : 0;
+    }
+
+    private static boolean isAlpha(final char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isAlphaNum(final char c) {
+        return isAlpha(c) || (c >= '0' && c <= '9');
+    }
+
+    private static boolean isHex(final char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
+    private static boolean isAscii(final String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Returns {@code true} if the decoded value only has characters which are not escaped in its raw form. */
+    private static boolean isUnescaped(final String value, final String allowed) {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (!isAlphaNum(c) && allowed.indexOf(c) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Returns {@code true} if the raw value is a valid US-ASCII raw component with the allowed characters. */
+    private static boolean isRaw(final String raw, final String allowed) {
+        final int length = raw.length();
+        for (int i = 0; i < length; i++) {
+            final char c = raw.charAt(i);
+            if (c == '%') {
+                if (i + 2 >= length || !isHex(raw.charAt(i + 1)) || !isHex(raw.charAt(i + 2))) {
+                    return false;
+                }
+                i += 2;
+            } else if (!isAlphaNum(c) && allowed.indexOf(c) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isScheme(final String scheme) {
+        if (scheme == null || scheme.isEmpty() || !isAlpha(scheme.charAt(0))) {
+            return false;
+        }
+        for (int i = 1; i < scheme.length(); i++) {
+            final char c = scheme.charAt(i);
+            if (!isAlphaNum(c) && c != '+' && c != '-' && c != '.') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns {@code true} if the host is a domain name which the URI parser accepts as a server-based host: dot
+     * separated labels of letters, digits and inner hyphens, the last one starting with a letter. IP addresses
+     * and other names are validated by parsing the whole URI.
+     */
+    private static boolean isHostName(final String host) {
+        if (host == null || host.isEmpty()) {
+            return false;
+        }
+        int labelStart = 0;
+        for (int i = 0; i <= host.length(); i++) {
+            if (i == host.length() || host.charAt(i) == '.') {
+                if (i == labelStart || host.charAt(i - 1) == '-') {
+                    return false;
+                }
+                labelStart = i + 1;
+            } else {
+                final char c = host.charAt(i);
+                if (!isAlphaNum(c) && (c != '-' || i == labelStart)) {
+                    return false;
+                }
+            }
+        }
+        final int lastLabel = host.lastIndexOf('.') + 1;
+        return isAlpha(host.charAt(lastLabel));
+    }
+
+    /**
+     * The decoded path elements, whose {@code toString} method returns the URL-encoded path elements joined with
+     * {@code "/"}, computed once.
+     */
+    private static final class PathElements extends AbstractList<String> implements RandomAccess {
+        private final List<String> elements;
+        private String joined;
+
+        private PathElements(final List<String> elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public String get(final int index) {
+            return elements.get(index);
+        }
+
+        @Override
+        public int size() {
+            return elements.size();
+        }
+
+        @Override
+        public String toString() {
+            if (joined == null) {
+                joined = joinPath(elements);
+            }
+            return joined;
+        }
     }
 }
@@ -0,0 +1,418 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.filter;
+
+import static org.forgerock.http.header.HeaderUtil.parseParameter;
+import static org.forgerock.http.header.HeaderUtil.split;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.forgerock.http.Filter;
+import org.forgerock.http.Handler;
+import org.forgerock.http.header.ContentEncodingHeader;
+import org.forgerock.http.header.ContentLengthHeader;
+import org.forgerock.http.header.ContentTypeHeader;
+import org.forgerock.http.io.Buffer;
+import org.forgerock.http.io.IO;
+import org.forgerock.http.protocol.Header;
+import org.forgerock.http.protocol.Request;
+import org.forgerock.http.protocol.Response;
+import org.forgerock.services.context.Context;
+import org.forgerock.util.Factory;
+import org.forgerock.util.Function;
+import org.forgerock.util.Reject;
+import org.forgerock.util.promise.NeverThrowsException;
+import org.forgerock.util.promise.Promise;
+
+/**
+ * {@link Filter} which compresses response entities with the {@code gzip} or {@code deflate} content coding,
+ * according to the {@code Accept-Encoding} header of the request.
+ * <p>
+ * The entity is compressed as it is read by the HTTP server adapter, without ever being buffered as a whole, and
+ * is sent with chunked transfer coding since its compressed length is not known in advance. Responses are left
+ * unchanged when:
+ * <ul>
+ *     <li>the client does not accept either coding,</li>
+ *     <li>the request is a {@code HEAD} request, or the status is informational, {@code 204 No Content},
+ *     {@code 206 Partial Content} or {@code 304 Not Modified},</li>
+ *     <li>the response already has a {@code Content-Encoding}, or a {@code Cache-Control: no-transform}
+ *     directive,</li>
+ *     <li>the content type is already compressed (images, audio, video, archives...) or is an event stream,</li>
+ *     <li>the {@code Content-Length} is smaller than the configured minimum length, or the entity is empty.</li>
+ * </ul>
+ * The {@code Vary: Accept-Encoding} header is added to every response which could have been compressed, so that
+ * caches do not serve compressed content to clients which do not support it. Strong entity tags of compressed
+ * responses are turned into weak ones, since the compressed representation is not byte-for-byte identical to
+ * the uncompressed one.
+ * <p>
+ * The {@link Deflater}s, and their native memory, are recycled between responses.
+ */
+public final class CompressionFilter implements Filter {
+
+    /** The name of the {@code gzip} content coding. */
+    public static final String GZIP = "gzip";
+
+    /** The name of the {@code deflate} content coding. */
+    public static final String DEFLATE = "deflate";
+
+    /** The default minimum {@code Content-Length} of the responses which are compressed. */
+    public static final int DEFAULT_MINIMUM_LENGTH = 1024;
+
+    private static final String ACCEPT_ENCODING = "Accept-Encoding";
+    private static final String CACHE_CONTROL = "Cache-Control";
+    private static final String CONTENT_RANGE = "Content-Range";
+    private static final String ETAG = "ETag";
+    private static final String VARY = "Vary";
+
+    /** Content types, without parameters, which are not worth compressing. */
+    private static final Set<String> INCOMPRESSIBLE_CONTENT_TYPES = new HashSet<>(Arrays.asList(
+            "application/gzip", "application/x-gzip", "application/zip", "application/x-bzip2",
+            "application/x-7z-compressed", "application/x-rar-compressed", "application/x-xz",
+            "application/zstd", "application/pdf", "font/woff", "font/woff2",
+            // Compression would hold back events until enough data is available.
+            "text/event-stream"));
+
+    /** The gzip member header: magic number, deflate method, no flags, no modification time, unknown OS. */
+    private static final byte[] GZIP_HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+
+    private static final byte[] NO_BYTES = new byte[0];
+
+    private static final int INPUT_BUFFER_LENGTH = 8 * 1024;
+
+    /** Recycled {@link Deflater}s producing raw deflate data, for the {@code gzip} coding. */
+    private static final BlockingQueue<Deflater> RAW_DEFLATERS = newDeflaterPool();
+
+    /** Recycled {@link Deflater}s producing zlib data, for the {@code deflate} coding. */
+    private static final BlockingQueue<Deflater> ZLIB_DEFLATERS = newDeflaterPool();
+
+    private final int minimumLength;
+    private final int level;
+    private final Factory<Buffer> storage;
+
+    CompressionFilter(final int minimumLength, final int level, final Factory<Buffer> storage) {
+        Reject.ifTrue(minimumLength < 0, "minimumLength must be positive or zero");
+        Reject.ifTrue(level != Deflater.DEFAULT_COMPRESSION
+                && (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION),
+                "level must be a valid Deflater compression level");
+        Reject.ifNull(storage, "storage must not be null");
+        this.minimumLength = minimumLength;
+        this.level = level;
+        this.storage = storage;
+    }
+
+    @Override
+    public Promise<Response, NeverThrowsException> filter(final Context context, final Request request,
+            final Handler next) {
+        if ("HEAD".equals(request.getMethod())) {
+            return next.handle(context, request);
+        }
+        final String encoding = selectEncoding(request.getHeaders().get(ACCEPT_ENCODING));
+        return next.handle(context, request)
+                   .then(new Function<Response, Response, NeverThrowsException>() {
+                       @Override
+                       public Response apply(final Response response) {
+                           if (!isCompressible(response)) {
+                               return response;
+                           }
+                           addVaryAcceptEncoding(response);
+                           if (encoding == null || !hasLengthToCompress(response)) {
+                               return response;
+                           }
+                           return compress(response, encoding);
+                       }
+                   });
+    }
+
+    /**
+     * Returns the content coding to apply to the response, or {@code null} if the client does not accept any of
+     * the supported content codings. The coding with the highest quality value is selected, and {@code gzip} is
+     * preferred when both codings have the same quality value.
+     */
+    static String selectEncoding(final Header acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        float gzip = -1f;
+        float deflate = -1f;
+        float any = -1f;
+        for (final String value : acceptEncoding.getValues()) {
+            for (final String element : split(value, ',')) {
+                final List<String> parts = split(element, ';');
+                if (parts.isEmpty()) {
+                    continue;
+                }
+                final String coding = parts.get(0).toLowerCase(Locale.ROOT);
+                final float quality = quality(parts);
+                if (GZIP.equals(coding) || "x-gzip".equals(coding)) {
+                    gzip = Math.max(gzip, quality);
+                } else if (DEFLATE.equals(coding)) {
+                    deflate = Math.max(deflate, quality);
+                } else if ("*".equals(coding)) {
+                    any = Math.max(any, quality);
+                }
+            }
+        }
+        // Codings which are not explicitly listed are accepted with the quality value of the wildcard, if any.
+        if (gzip < 0) {
+            gzip = any;
+        }
+        if (deflate < 0) {
+            deflate = any;
+        }
+        if (gzip <= 0 && deflate <= 0) {
+            return null;
+        }
+        return gzip >= deflate ? GZIP : DEFLATE;
+    }
+
+    private static float quality(final List<String> parts) {
+        for (int i = 1; i < parts.size(); i++) {
+            final String[] parameter = parseParameter(parts.get(i));
+            if ("q".equalsIgnoreCase(parameter[0]) && parameter[1] != null) {
+                try {
+                    return Float.parseFloat(parameter[1]);
+                } catch (final NumberFormatException e) {
+                    return 0f;
+                }
+            }
+        }
+        return 1f;
+    }
+
+    private static boolean isCompressible(final Response response) {
+        final int status = response.getStatus().getCode();
+        if (status < 200 || status == 204 || status == 206 || status == 304) {
+            return false;
+        }
+        final String contentEncoding = response.getHeaders().getFirst(ContentEncodingHeader.NAME);
+        if (contentEncoding != null && !"identity".equalsIgnoreCase(contentEncoding.trim())) {
+            return false;
+        }
+        if (response.getHeaders().containsKey(CONTENT_RANGE)) {
+            return false;
+        }
+        final Header cacheControl = response.getHeaders().get(CACHE_CONTROL);
+        if (cacheControl != null) {
+            for (final String value : cacheControl.getValues()) {
+                for (final String directive : split(value, ',')) {
+                    if ("no-transform".equalsIgnoreCase(directive)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        final String contentType = response.getHeaders().getFirst(ContentTypeHeader.NAME);
+        if (contentType != null) {
+            final int parameters = contentType.indexOf(';');
+            final String type = (parameters < 0 ? contentType : contentType.substring(0, parameters))
+                    .trim().toLowerCase(Locale.ROOT);
+            if ((type.startsWith("image/") && !type.equals("image/svg+xml"))
+                    || type.startsWith("audio/")
+                    || type.startsWith("video/")
+                    || INCOMPRESSIBLE_CONTENT_TYPES.contains(type)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean hasLengthToCompress(final Response response) {
+        final String contentLength = response.getHeaders().getFirst(ContentLengthHeader.NAME);
+        if (contentLength != null) {
+            try {
+                return Long.parseLong(contentLength.trim()) >= Math.max(minimumLength, 1);
+            } catch (final NumberFormatException e) {
+                // Let the content decide.
+            }
+        }
+        return !response.getEntity().isRawContentEmpty();
+    }
+
+    private static void addVaryAcceptEncoding(final Response response) {
+        final Header vary = response.getHeaders().get(VARY);
+        if (vary != null) {
+            for (final String value : vary.getValues()) {
+                for (final String name : split(value, ',')) {
+                    if ("*".equals(name) || ACCEPT_ENCODING.equalsIgnoreCase(name)) {
+                        return;
+                    }
+                }
+            }
+        }
+        response.getHeaders().add(VARY, ACCEPT_ENCODING);
+    }
+
+    /**
+     * Returns a new response whose entity is the compressed entity of the provided response. The entity of the
+     * provided response cannot be replaced in place, since setting the entity of a message closes its current
+     * content. The provided response is closed when the compressed entity is closed.
+     */
+    private Response compress(final Response response, final String encoding) {
+        final Response compressed = new Response(response.getStatus());
+        compressed.setVersion(response.getVersion());
+        compressed.setCause(response.getCause());
+        compressed.getHeaders().putAll(response.getHeaders());
+        compressed.getHeaders().remove(ContentLengthHeader.NAME);
+        compressed.getHeaders().put(ContentEncodingHeader.NAME, encoding);
+        final String etag = compressed.getHeaders().getFirst(ETAG);
+        if (etag != null && etag.startsWith("\"")) {
+            compressed.getHeaders().put(ETAG, "W/" + etag);
+        }
+        final InputStream content = new CompressingInputStream(response, GZIP.equals(encoding), level);
+        compressed.setEntity(IO.newBranchingInputStream(content, storage));
+        return compressed;
+    }
+
+    private static BlockingQueue<Deflater> newDeflaterPool() {
+        return new ArrayBlockingQueue<>(2 * Runtime.getRuntime().availableProcessors());
+    }
+
+    private static Deflater acquireDeflater(final boolean gzip, final int level) {
+        final Deflater deflater = (gzip ? RAW_DEFLATERS : ZLIB_DEFLATERS).poll();
+        if (deflater == null) {
+            return new Deflater(level, gzip);
+        }
+        deflater.setLevel(level);
+        return deflater;
+    }
+
+    private static void releaseDeflater(final Deflater deflater, final boolean gzip) {
+        deflater.reset();
+        if (!(gzip ? RAW_DEFLATERS : ZLIB_DEFLATERS).offer(deflater)) {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Compresses the entity of a response as it is read. The compressed data is written directly into the buffer
+     * provided by the reader, so that the only intermediate buffer is the one holding the uncompressed input.
+     */
+    private static final class CompressingInputStream extends InputStream {
+        private final Response response;
+        private final InputStream in;
+        private final boolean gzip;
+        private final CRC32 crc;
+        private final byte[] input = new byte[INPUT_BUFFER_LENGTH];
+        private final byte[] singleByte = new byte[1];
+        private final byte[] header;
+        private byte[] trailer;
+        private int headerPosition;
+        private int trailerPosition;
+        private Deflater deflater;
+        private boolean closed;
+
+        CompressingInputStream(final Response response, final boolean gzip, final int level) {
+            this.response = response;
+            this.in = response.getEntity().getRawContentInputStream();
+            this.gzip = gzip;
+            this.crc = gzip ? new CRC32() : null;
+            this.header = gzip ? GZIP_HEADER : NO_BYTES;
+            this.deflater = acquireDeflater(gzip, level);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int n = read(singleByte, 0, 1);
+            return n == -1 ? -1 : singleByte[0] & 0xff;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+            if (off < 0 || len < 0 || len > b.length - off) {
+                throw new IndexOutOfBoundsException();
+            }
+            if (len == 0) {
+                return 0;
+            }
+            if (headerPosition < header.length) {
+                return copy(header, headerPosition, b, off, len, true);
+            }
+            if (deflater != null) {
+                while (!deflater.finished()) {
+                    final int n = deflater.deflate(b, off, len);
+                    if (n > 0) {
+                        return n;
+                    }
+                    if (deflater.needsInput()) {
+                        final int read = in.read(input, 0, input.length);
+                        if (read < 0) {
+                            deflater.finish();
+                        } else if (read > 0) {
+                            if (crc != null) {
+                                crc.update(input, 0, read);
+                            }
+                            deflater.setInput(input, 0, read);
+                        }
+                    }
+                }
+                trailer = gzip ? gzipTrailer(crc.getValue(), deflater.getBytesRead()) : NO_BYTES;
+                releaseDeflater(deflater, gzip);
+                deflater = null;
+            }
+            if (trailerPosition < trailer.length) {
+                return copy(trailer, trailerPosition, b, off, len, false);
+            }
+            return -1;
+        }
+
+        private int copy(final byte[] source, final int position, final byte[] b, final int off, final int len,
+                final boolean isHeader) {
+            final int n = Math.min(len, source.length - position);
+            System.arraycopy(source, position, b, off, n);
+            if (isHeader) {
+                headerPosition += n;
+            } else {
+                trailerPosition += n;
+            }
+            return n;
+        }
+
+        private static byte[] gzipTrailer(final long crc, final long length) {
+            // CRC-32 and length modulo 2^32 of the uncompressed data, in little-endian byte order.
+            return new byte[] {
+                (byte) crc, (byte) (crc >> 8), (byte) (crc >> 16), (byte) (crc >> 24),
+                (byte) length, (byte) (length >> 8), (byte) (length >> 16), (byte) (length >> 24)
+            };
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (deflater != null) {
+                releaseDeflater(deflater, gzip);
+                deflater = null;
+            }
+            response.close();
+        }
+    }
+}
@@ -18,14 +18,18 @@ package org.forgerock.http.filter;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.zip.Deflater;
 
 import org.forgerock.http.Filter;
 import org.forgerock.http.Handler;
 import org.forgerock.http.handler.Handlers;
+import org.forgerock.http.io.Buffer;
+import org.forgerock.http.io.IO;
 import org.forgerock.http.protocol.Request;
 import org.forgerock.http.protocol.Response;
 import org.forgerock.http.session.SessionManager;
 import org.forgerock.services.context.Context;
+import org.forgerock.util.Factory;
 import org.forgerock.util.promise.NeverThrowsException;
 import org.forgerock.util.promise.Promise;
 
@@ -59,6 +63,34 @@ public final class Filters {
         return new OptionsFilter(allowedMethods);
     }
 
+    /**
+     * Creates a {@link Filter} which compresses the response entities with the {@code gzip} or {@code deflate}
+     * content coding, when they are accepted by the client and are at least
+     * {@link CompressionFilter#DEFAULT_MINIMUM_LENGTH} bytes long.
+     *
+     * @return A {@code Filter}.
+     * @see CompressionFilter
+     */
+    public static Filter newCompressionFilter() {
+        return newCompressionFilter(CompressionFilter.DEFAULT_MINIMUM_LENGTH, Deflater.DEFAULT_COMPRESSION,
+                IO.newTemporaryStorage());
+    }
+
+    /**
+     * Creates a {@link Filter} which compresses the response entities with the {@code gzip} or {@code deflate}
+     * content coding, when they are accepted by the client.
+     *
+     * @param minimumLength The minimum {@code Content-Length} of the responses to compress. Responses whose
+     *                      length is unknown are always compressed, unless their entity is empty.
+     * @param level The {@link Deflater} compression level.
+     * @param storage The temporary storage used if the compressed entity is branched.
+     * @return A {@code Filter}.
+     * @see CompressionFilter
+     */
+    public static Filter newCompressionFilter(int minimumLength, int level, Factory<Buffer> storage) {
+        return new CompressionFilter(minimumLength, level, storage);
+    }
+
     /**
      * Creates a session {@link Filter} that will use the provided
      * {@link SessionManager} to manage the users session.
@@ -97,6 +97,8 @@ public final class HttpClientHandler implements Handler, Closeable {
     /**
      * Specifies the temporary storage that should be used for storing HTTP
      * responses. By default {@link IO#newTemporaryStorage()} is used.
+     * {@link IO#newPooledStorage(java.io.File)} may be used instead, to store
+     * them in pooled chunks of memory.
      */
     @SuppressWarnings({ "unchecked", "rawtypes" })
     public static final Option<Factory<Buffer>> OPTION_TEMPORARY_STORAGE = (Option) Option.of(
@@ -23,9 +23,9 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
 
 import org.forgerock.http.protocol.Header;
+import org.forgerock.http.util.CaseInsensitiveHeaderMap;
 
 /**
  * Creates instances of {@link Header} classes from String representation.
@@ -58,7 +58,7 @@ public abstract class HeaderFactory<H extends Header> {
      * A map of header names to known {@code HeaderFactory} implementations.
      */
     public static final Map<String, HeaderFactory<?>> FACTORIES = unmodifiableMap(
-            new TreeMap<String, HeaderFactory<?>>(String.CASE_INSENSITIVE_ORDER) {
+            new CaseInsensitiveHeaderMap<HeaderFactory<?>>() {
                 {
                     put(AcceptApiVersionHeader.NAME, new AcceptApiVersionHeader.Factory());
                     put(AcceptLanguageHeader.NAME, new AcceptLanguageHeader.Factory());
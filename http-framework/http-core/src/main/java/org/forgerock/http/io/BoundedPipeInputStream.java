@@ -0,0 +1,194 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+
+/**
+ * A bounded pipe, whose content is written by a producer which receives it without blocking, such as a server
+ * notified that data of a request entity has arrived, and read by another thread as it arrives.
+ * <p>
+ * The reader waits for the content to arrive. The producer never waits: it writes no more than the
+ * {@linkplain #remaining() remaining} capacity of the pipe, and stops receiving content when a
+ * {@linkplain #write(byte[], int, int) write} reports that the pipe is full. The pipe then runs the callback it was
+ * created with once the reader has emptied half of it, on the reading thread, so that the producer resumes receiving
+ * content. Content written once the reader has closed the pipe is discarded, so that the producer can receive the
+ * rest of the content without anybody reading it.
+ *
+ * @see IO#newBoundedPipeInputStream(int, Runnable)
+ */
+public final class BoundedPipeInputStream extends InputStream {
+
+    /** The content waiting to be read, in a circular buffer. */
+    private final byte[] data;
+
+    /** Resumes the producer once the pipe is no longer full. */
+    private final Runnable resume;
+
+    /** The position in {@link #data} of the next byte to read. */
+    private int head;
+
+    /** The number of bytes waiting to be read. */
+    private int count;
+
+    /** Whether the producer waits for the pipe to be emptied before writing more content. */
+    private boolean suspended;
+    private boolean finished;
+    private boolean closed;
+    private IOException failure;
+
+    /** Reused by {@link #read()}, as streams are not read by concurrent threads. */
+    private final byte[] singleByte = new byte[1];
+
+    BoundedPipeInputStream(final int capacity, final Runnable resume) {
+        this.data = new byte[capacity];
+        this.resume = resume;
+    }
+
+    /**
+     * Returns the number of bytes which can be written to the pipe.
+     *
+     * @return The number of bytes which can be written to the pipe, which is positive unless the last write reported
+     *         that the pipe is full.
+     */
+    public synchronized int remaining() {
+        return closed ? data.length : data.length - count;
+    }
+
+    /**
+     * Writes content to the pipe, for the reader to read.
+     *
+     * @param b
+     *            The content to write.
+     * @param off
+     *            The offset of the content in {@code b}.
+     * @param len
+     *            The length of the content, which must not exceed the {@linkplain #remaining() remaining} capacity of
+     *            the pipe.
+     * @return {@code true} if more content can be written, or {@code false} if the pipe is full, in which case the
+     *         producer must stop writing until the pipe runs its callback.
+     */
+    public synchronized boolean write(final byte[] b, final int off, final int len) {
+        if (off < 0 || len < 0 || len > b.length - off || len > remaining()) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (closed) {
+            // nobody will read it
+            return true;
+        }
+        final int tail = (head + count) % data.length;
+        final int n = Math.min(len, data.length - tail);
+        System.arraycopy(b, off, data, tail, n);
+        System.arraycopy(b, off + n, data, 0, len - n);
+        count += len;
+        notifyAll();
+        suspended = count == data.length;
+        return !suspended;
+    }
+
+    /** Signals that the content has been written in full. */
+    public synchronized void finish() {
+        finished = true;
+        notifyAll();
+    }
+
+    /**
+     * Signals that the content could not be received in full. The reader reads the content written so far, and then
+     * gets the exception. This has no effect once the content has been written in full.
+     *
+     * @param e
+     *            The reason why the content could not be received.
+     */
+    public synchronized void fail(final Throwable e) {
+        if (!finished) {
+            failure = e instanceof IOException ? (IOException) e : new IOException(e);
+            notifyAll();
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        return read(singleByte, 0, 1) > 0 ? singleByte[0] & 0xff : -1;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        final int n;
+        synchronized (this) {
+            if (closed) {
+                throw new IOException("stream is closed");
+            }
+            if (len == 0) {
+                return 0;
+            }
+            while (count == 0 && !finished && failure == null) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for the content");
+                }
+            }
+            if (count == 0) {
+                if (failure != null) {
+                    throw failure;
+                }
+                return -1;
+            }
+            n = Math.min(len, count);
+            final int first = Math.min(n, data.length - head);
+            System.arraycopy(data, head, b, off, first);
+            System.arraycopy(data, 0, b, off + first, n - first);
+            head = (head + n) % data.length;
+            count -= n;
+            if (!suspended || count > data.length / 2) {
+                return n;
+            }
+            suspended = false;
+        }
+        // the producer may write to the pipe: do not hold its lock
+        resume.run();
+        return n;
+    }
+
+    @Override
+    public synchronized int available() {
+        return count;
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            count = 0;
+            if (!suspended) {
+                return;
+            }
+            suspended = false;
+        }
+        // the remaining content is discarded as it is received
+        resume.run();
+    }
+}
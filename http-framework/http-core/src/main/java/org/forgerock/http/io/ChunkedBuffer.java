@@ -0,0 +1,164 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.io;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A buffer that stores its data in fixed-size chunks taken from a {@link PooledStorage}, and grows by adding chunks up
+ * to the prescribed limit. The chunks are returned to the pool when the buffer is closed.
+ * <p>
+ * As the chunks are reused by other buffers once returned, all the operations are synchronized, so that no read can
+ * happen while the buffer is being closed.
+ */
+final class ChunkedBuffer implements Buffer {
+
+    /** The pool the chunks are taken from. */
+    private final PooledStorage pool;
+
+    /** The size of the chunks. */
+    private final int chunkSize;
+
+    /** Maximum buffer length, after which an {@link OverflowException} will be thrown. */
+    private final int limit;
+
+    /** The chunks storing buffer data, or {@code null} once the buffer is closed. */
+    private byte[][] chunks = new byte[4][];
+
+    /** Number of chunks taken from the pool. */
+    private int chunkCount;
+
+    /** Current length of the buffer. */
+    private int length;
+
+    ChunkedBuffer(final PooledStorage pool, final int limit) {
+        this.pool = pool;
+        this.chunkSize = pool.getChunkSize();
+        this.limit = limit;
+    }
+
+    @Override
+    public synchronized byte read(final int pos) throws IOException {
+        notClosed();
+        if (pos < 0 || pos >= length) {
+            throw new IndexOutOfBoundsException();
+        }
+        return chunks[pos / chunkSize][pos % chunkSize];
+    }
+
+    @Override
+    public synchronized int read(final int pos, final byte[] b, final int off, final int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        notClosed();
+        int n = 0;
+        if (pos >= 0 && pos < length) {
+            n = Math.min(len, length - pos);
+            for (int copied = 0; copied < n;) {
+                final int chunkOffset = (pos + copied) % chunkSize;
+                final int count = Math.min(n - copied, chunkSize - chunkOffset);
+                System.arraycopy(chunks[(pos + copied) / chunkSize], chunkOffset, b, off + copied, count);
+                copied += count;
+            }
+        }
+        return n;
+    }
+
+    @Override
+    public synchronized void append(final byte b) throws IOException {
+        notClosed();
+        if (length >= limit) {
+            throw new OverflowException();
+        }
+        if (length == chunkCount * chunkSize) {
+            addChunk();
+        }
+        chunks[length / chunkSize][length % chunkSize] = b;
+        length++;
+    }
+
+    @Override
+    public synchronized void append(final byte[] b, final int off, final int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        notClosed();
+        if (len > limit - length) {
+            throw new OverflowException();
+        }
+        for (int appended = 0; appended < len;) {
+            if (length == chunkCount * chunkSize) {
+                addChunk();
+            }
+            final int chunkOffset = length % chunkSize;
+            final int count = Math.min(len - appended, chunkSize - chunkOffset);
+            System.arraycopy(b, off + appended, chunks[length / chunkSize], chunkOffset, count);
+            appended += count;
+            length += count;
+        }
+    }
+
+    @Override
+    public synchronized int length() throws IOException {
+        notClosed();
+        return length;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (chunks != null) {
+            for (int i = 0; i < chunkCount; i++) {
+                pool.release(chunks[i]);
+            }
+            chunks = null;
+            chunkCount = 0;
+            length = 0;
+        }
+    }
+
+    /**
+     * Appends the data of this buffer to another buffer, chunk by chunk, without intermediate copy.
+     *
+     * @param buffer the buffer to append the data to.
+     * @throws IOException if an I/O exception occurs.
+     */
+    synchronized void appendTo(final Buffer buffer) throws IOException {
+        notClosed();
+        for (int i = 0; i < chunkCount; i++) {
+            buffer.append(chunks[i], 0, Math.min(chunkSize, length - i * chunkSize));
+        }
+    }
+
+    private void addChunk() {
+        if (chunkCount == chunks.length) {
+            // only the references to the chunks are copied
+            chunks = Arrays.copyOf(chunks, chunkCount * 2);
+        }
+        chunks[chunkCount++] = pool.acquire();
+    }
+
+    /**
+     * Throws an {@link IOException} if the buffer is closed.
+     */
+    private void notClosed() throws IOException {
+        if (chunks == null) {
+            throw new IOException("buffer is closed");
+        }
+    }
+}
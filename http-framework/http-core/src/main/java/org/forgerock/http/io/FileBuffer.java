@@ -17,37 +17,116 @@
 
 package org.forgerock.http.io;
 
+import static org.forgerock.util.Utils.closeSilently;
+
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A buffer that uses a local file for data storage.
+ * <p>
+ * The data is read with positional reads, which do not need to be serialized, and the length of the buffer is tracked
+ * rather than queried from the file system. As data is only ever appended, small reads are served from a cache of the
+ * recently read pages of the file, which never goes stale. Alternatively, the file can be
+ * {@linkplain IO#SYSPROP_MAP_FILE_BUFFERS mapped} into memory and read from there.
  */
 final class FileBuffer implements Buffer {
 
-    /** File to store buffered data in. */
-    private RandomAccessFile raf;
+    /** Whether buffers map their file into memory by default, see {@link IO#SYSPROP_MAP_FILE_BUFFERS}. */
+    private static final boolean MAP_FILES = Boolean.getBoolean(IO.SYSPROP_MAP_FILE_BUFFERS);
+
+    /** Size of the pages of the file that reads smaller than a page are served from. */
+    private static final int PAGE_SIZE = 8 * 1_024;
+
+    /** Number of recently read pages kept in memory. */
+    private static final int CACHED_PAGES = 4;
+
+    /** Buffers that were garbage collected without having been closed. */
+    private static final ReferenceQueue<FileBuffer> COLLECTED = new ReferenceQueue<>();
+
+    /** Keeps the cleanups reachable until they have been run. */
+    private static final Set<Cleanup> CLEANUPS = Collections.newSetFromMap(new ConcurrentHashMap<Cleanup, Boolean>());
+
+    /** Channel of the file to store buffered data in. */
+    private volatile FileChannel channel;
 
     /** Maximum file size, after which an {@link OverflowException} will be thrown. */
     private final int limit;
 
+    /** Whether the data is read from the file mapped into memory, rather than with positional reads. */
+    private final boolean mapFile;
+
+    /** Length of the buffered data. */
+    private volatile int length;
+
+    /** Recently read pages, indexed by page number modulo {@link #CACHED_PAGES}. */
+    private final Page[] pages = new Page[CACHED_PAGES];
+
+    /** The file mapped into memory, up to its length at the time it was mapped. */
+    private volatile MappedByteBuffer mapped;
+
+    /** Releases the file when the buffer is closed, or collected without having been closed. */
+    private final Cleanup cleanup;
+
+    /** Reused by {@link #append(byte)}, under the lock of the buffer. */
+    private final byte[] singleByte = new byte[1];
+
     FileBuffer(File file, int limit) throws FileNotFoundException {
-        raf = new RandomAccessFile(file, "rw");
+        this(file, limit, false);
+    }
+
+    FileBuffer(File file, int limit, boolean temporary) throws FileNotFoundException {
+        this(file, limit, temporary, MAP_FILES);
+    }
+
+    /**
+     * Creates a buffer that stores its data in the given file.
+     *
+     * @param file the file to use as storage for the buffer.
+     * @param limit the buffer length limit, after which an {@link OverflowException} will be thrown.
+     * @param temporary whether the file is deleted when the buffer is closed, or collected without having been closed.
+     * @param mapFile whether the data is read from the file mapped into memory, rather than with positional reads.
+     * @throws FileNotFoundException if the file cannot be created or opened for writing.
+     */
+    FileBuffer(File file, int limit, boolean temporary, boolean mapFile) throws FileNotFoundException {
+        cleanUpCollected();
+        channel = new RandomAccessFile(file, "rw").getChannel();
+        try {
+            length = (int) Math.min(Integer.MAX_VALUE, channel.size());
+        } catch (IOException e) {
+            closeSilently(channel);
+            FileNotFoundException fnfe = new FileNotFoundException(file.getPath());
+            fnfe.initCause(e);
+            throw fnfe;
+        }
         this.limit = limit;
+        this.mapFile = mapFile;
+        cleanup = new Cleanup(this, channel, temporary ? file : null);
+        CLEANUPS.add(cleanup);
     }
 
     @Override
     public byte read(final int pos) throws IOException {
-        notClosed();
-        synchronized (raf) {
-            if (pos < raf.length()) {
-                raf.seek(pos);
-                return (byte) raf.read();
-            }
+        final FileChannel channel = notClosed();
+        if (pos < 0 || pos >= length) {
+            throw new IndexOutOfBoundsException();
         }
-        throw new IndexOutOfBoundsException();
+        if (mapFile) {
+            return map(channel, pos + 1).get(pos);
+        }
+        final Page page = page(channel, pos);
+        return page.data[pos - page.offset()];
     }
 
     @Override
@@ -55,82 +134,179 @@ final class FileBuffer implements Buffer {
         if (off < 0 || len < 0 || len > b.length - off) {
             throw new IndexOutOfBoundsException();
         }
-        notClosed();
-        int n = 0;
-        if (pos < raf.length()) {
-            synchronized (raf) {
-                raf.seek(pos);
-                if ((n = raf.read(b, off, len)) == -1) {
-                    // obey the contract of buffer reads
-                    n = 0;
-                }
-            }
+        final FileChannel channel = notClosed();
+        // obey the contract of buffer reads: nothing is read beyond the end of the buffer
+        final int n = Math.min(len, length - pos);
+        if (pos < 0 || n <= 0) {
+            return 0;
         }
-        return n;
+        if (mapFile) {
+            final ByteBuffer view = map(channel, pos + n).duplicate();
+            view.position(pos);
+            view.get(b, off, n);
+            return n;
+        }
+        if (n >= PAGE_SIZE) {
+            return readFully(channel, ByteBuffer.wrap(b, off, n), pos);
+        }
+        final Page page = page(channel, pos);
+        final int count = Math.min(n, page.offset() + page.length - pos);
+        System.arraycopy(page.data, pos - page.offset(), b, off, count);
+        return count;
     }
 
     @Override
-    public void append(final byte b) throws IOException {
-        notClosed();
-        synchronized (raf) {
-            final int rafLength = (int) Math.min(Integer.MAX_VALUE, raf.length());
-            if (rafLength + 1 > limit) {
-                throw new OverflowException();
-            }
-            raf.seek(rafLength);
-            raf.write(b);
-        }
+    public synchronized void append(final byte b) throws IOException {
+        singleByte[0] = b;
+        append(singleByte, 0, 1);
     }
 
     @Override
-    public void append(byte[] b, int off, int len) throws IOException {
+    public synchronized void append(byte[] b, int off, int len) throws IOException {
         if (off < 0 || len < 0 || len > b.length - off) {
             throw new IndexOutOfBoundsException();
         }
-        notClosed();
-        synchronized (raf) {
-            int rafLength = (int) Math.min(Integer.MAX_VALUE, raf.length());
-            if (rafLength + len > limit) {
-                throw new OverflowException();
-            }
-            raf.seek(rafLength);
-            raf.write(b, off, len);
+        final FileChannel channel = notClosed();
+        if (len > limit - length) {
+            throw new OverflowException();
+        }
+        final ByteBuffer src = ByteBuffer.wrap(b, off, len);
+        int position = length;
+        while (src.hasRemaining()) {
+            position += channel.write(src, position);
         }
+        length = position;
     }
 
     @Override
     public int length() throws IOException {
         notClosed();
-        return (int) Math.min(Integer.MAX_VALUE, raf.length());
+        return length;
     }
 
     @Override
     public void close() throws IOException {
-        if (raf != null) {
-            try {
-                raf.close();
-            } finally {
-                raf = null;
+        if (channel != null) {
+            channel = null;
+            mapped = null;
+            cleanup.clear();
+            cleanup.run();
+        }
+    }
+
+    /**
+     * Throws an {@link IOException} if the buffer is closed.
+     *
+     * @return the channel of the file, if the buffer is not closed.
+     */
+    private FileChannel notClosed() throws IOException {
+        final FileChannel channel = this.channel;
+        if (channel == null) {
+            throw new IOException("buffer is closed");
+        }
+        return channel;
+    }
+
+    /**
+     * Returns the cached page that holds the data at the given position, loading it from the file if it is not cached
+     * or if it was cached before the data was appended.
+     */
+    private Page page(final FileChannel channel, final int pos) throws IOException {
+        final int index = pos / PAGE_SIZE;
+        final int slot = index % CACHED_PAGES;
+        Page page = pages[slot];
+        if (page == null || page.index != index || page.offset() + page.length <= pos) {
+            final int offset = index * PAGE_SIZE;
+            final byte[] data = new byte[PAGE_SIZE];
+            final int n = readFully(channel, ByteBuffer.wrap(data, 0, Math.min(PAGE_SIZE, length - offset)), offset);
+            page = new Page(index, data, n);
+            pages[slot] = page;
+        }
+        return page;
+    }
+
+    /**
+     * Returns the file mapped into memory, mapping it again if the mapping does not reach the given position.
+     */
+    private MappedByteBuffer map(final FileChannel channel, final int end) throws IOException {
+        MappedByteBuffer mapped = this.mapped;
+        if (mapped == null || mapped.capacity() < end) {
+            synchronized (this) {
+                mapped = this.mapped;
+                if (mapped == null || mapped.capacity() < end) {
+                    mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+                    this.mapped = mapped;
+                }
             }
         }
+        return mapped;
     }
 
-    @Override
-    public void finalize() throws Throwable {
-        try {
-            close();
-        } catch (IOException ioe) {
-            // inappropriate to throw an exception when object is being collected
+    private static int readFully(final FileChannel channel, final ByteBuffer dst, final int pos) throws IOException {
+        int n = 0;
+        while (dst.hasRemaining()) {
+            final int count = channel.read(dst, pos + n);
+            if (count == -1) {
+                break;
+            }
+            n += count;
         }
-        super.finalize();
+        return n;
     }
 
     /**
-     * Throws an {@link IOException} if the buffer is closed.
+     * Releases the files of the buffers that were garbage collected without having been closed. This is done as new
+     * buffers are created, rather than by a dedicated thread.
      */
-    private void notClosed() throws IOException {
-        if (raf == null) {
-            throw new IOException("buffer is closed");
+    static void cleanUpCollected() {
+        Reference<? extends FileBuffer> reference;
+        while ((reference = COLLECTED.poll()) != null) {
+            try {
+                ((Cleanup) reference).run();
+            } catch (IOException e) {
+                // nobody to report to: the buffer has been collected
+            }
+        }
+    }
+
+    /** A page of the file: pages are immutable, and are replaced once more data is available. */
+    private static final class Page {
+        private final int index;
+        private final byte[] data;
+        private final int length;
+
+        private Page(final int index, final byte[] data, final int length) {
+            this.index = index;
+            this.data = data;
+            this.length = length;
+        }
+
+        private int offset() {
+            return index * PAGE_SIZE;
+        }
+    }
+
+    /** Closes the channel of a buffer, and deletes its file if it is temporary. */
+    private static final class Cleanup extends PhantomReference<FileBuffer> {
+        private final FileChannel channel;
+        private final File file;
+
+        private Cleanup(final FileBuffer buffer, final FileChannel channel, final File file) {
+            super(buffer, COLLECTED);
+            this.channel = channel;
+            this.file = file;
+        }
+
+        private void run() throws IOException {
+            if (CLEANUPS.remove(this)) {
+                try {
+                    channel.close();
+                } finally {
+                    if (file != null) {
+                        file.delete();
+                    }
+                }
+            }
         }
     }
 }
@@ -30,6 +30,7 @@ import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.forgerock.util.Factory;
+import org.forgerock.util.Reject;
 
 /**
  * Utility class that can stream to and from streams.
@@ -45,6 +46,18 @@ public final class IO {
     /** 1 GiB. */
     public static final int DEFAULT_TMP_FILE_LIMIT = 1 * 1_024 * 1_024 * 1_024;
 
+    /** 1024 chunks, that is 8 MiB of {@link #DEFAULT_TMP_INIT_LENGTH 8 KiB} chunks. */
+    public static final int DEFAULT_POOLED_CHUNKS = 1_024;
+
+    /**
+     * System property which, when set to {@code true}, makes {@link #newFileBuffer(File, int) file buffers} read their
+     * data from the file mapped into memory, rather than with positional reads of the file. The default is
+     * {@code false}: mapped files are not unmapped until they are garbage collected. Closing a buffer drops its
+     * mapping, but on Windows a file cannot be deleted while it is still mapped, so the temporary files of closed
+     * buffers may then be left behind until the mapping has been collected.
+     */
+    public static final String SYSPROP_MAP_FILE_BUFFERS = "org.forgerock.http.io.MapFileBuffers";
+
     /** Size of buffer to use during streaming. */
     private static final int BUF_SIZE = 8 * 1_024;
 
@@ -115,12 +128,36 @@ public final class IO {
         return new BranchingStreamWrapper(in, bufferFactory);
     }
 
+    /**
+     * Creates a new bounded pipe, which a producer that receives content without blocking writes to, and which
+     * another thread reads as the content arrives.
+     * <p>
+     * This allows an entity that is received asynchronously to be handled as it arrives, rather than once it has been
+     * received in full. The pipe can be made a branching stream with
+     * {@link #newBranchingInputStream(InputStream, Factory)}.
+     *
+     * @param capacity
+     *            the number of bytes the pipe holds before the producer has to stop receiving content.
+     * @param resume
+     *            the callback which resumes the producer once the pipe is no longer full, and which is run by the
+     *            thread reading the pipe.
+     * @return The pipe.
+     */
+    public static BoundedPipeInputStream newBoundedPipeInputStream(final int capacity, final Runnable resume) {
+        Reject.ifTrue(capacity <= 0, "capacity must be positive");
+        return new BoundedPipeInputStream(capacity, resume);
+    }
+
     /**
      * Creates a new file buffer that uses a local file for data storage.
      * <p>
      * <strong>Note:</strong> The returned buffer is not synchronized. If
      * multiple threads access a buffer concurrently, threads that append to the
      * buffer should synchronize on the instance of this object.
+     * <p>
+     * Reads do not need to be synchronized with each other. The data is read
+     * with positional reads of the file, or from the file mapped into memory if
+     * the {@link #SYSPROP_MAP_FILE_BUFFERS} system property is set.
      *
      * @param file
      *            the file to use as storage for the buffer.
@@ -239,6 +276,56 @@ public final class IO {
         };
     }
 
+    /**
+     * Builds a pooled storage using the given directory (may be {@literal null})
+     * and default sizes. Equivalent to call
+     * {@code newPooledStorage(directory, DEFAULT_TMP_INIT_LENGTH, DEFAULT_POOLED_CHUNKS,
+     * DEFAULT_TMP_MEMORY_LIMIT, DEFAULT_TMP_FILE_LIMIT)}.
+     *
+     * @param directory
+     *            The directory where temporary files are created. If
+     *            {@code null}, then the system-dependent default temporary
+     *            directory will be used.
+     * @return The pooled storage.
+     */
+    public static PooledStorage newPooledStorage(final File directory) {
+        return newPooledStorage(directory, DEFAULT_TMP_INIT_LENGTH, DEFAULT_POOLED_CHUNKS,
+                DEFAULT_TMP_MEMORY_LIMIT, DEFAULT_TMP_FILE_LIMIT);
+    }
+
+    /**
+     * Builds a storage whose buffers keep their data in memory in chunks taken
+     * from a bounded pool, instead of in arrays allocated for each buffer, and
+     * then in a temporary file. The chunks are returned to the pool when the
+     * buffers are closed. The returned storage can be used wherever a
+     * {@link #newTemporaryStorage(File, int, int, int) temporary storage} is,
+     * and reports how often chunks were taken from its pool.
+     *
+     * @param directory
+     *            The directory where temporary files are created. If
+     *            {@code null}, then the system-dependent default temporary
+     *            directory will be used.
+     * @param chunkSize
+     *            The size of the chunks, in bytes.
+     * @param pooledChunks
+     *            The maximum number of chunks kept in the pool.
+     * @param memoryLimit
+     *            The length limit of the memory of a buffer. Attempts to
+     *            exceed this limit will result in promoting the buffer from a
+     *            memory to a file buffer.
+     * @param fileLimit
+     *            The length limit of the file buffer. Attempts to exceed this
+     *            limit will result in an {@link OverflowException} being
+     *            thrown.
+     * @return The pooled storage.
+     */
+    public static PooledStorage newPooledStorage(final File directory, final int chunkSize,
+            final int pooledChunks, final int memoryLimit, final int fileLimit) {
+        Reject.ifTrue(chunkSize <= 0, "chunkSize must be positive");
+        Reject.ifTrue(pooledChunks <= 0, "pooledChunks must be positive");
+        return new PooledStorage(directory, chunkSize, pooledChunks, memoryLimit, fileLimit);
+    }
+
     /**
      * Returns an input stream that holds no data.
      *
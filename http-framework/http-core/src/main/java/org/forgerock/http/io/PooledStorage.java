@@ -0,0 +1,134 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.io;
+
+import java.io.File;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.forgerock.util.Factory;
+
+/**
+ * A temporary storage whose buffers keep their data in fixed-size chunks of memory, taken from a bounded pool and
+ * returned to it when the buffers are closed. A buffer grows by adding a chunk, rather than by copying its data into a
+ * larger array, and promotes to the use of a temporary file once its memory limit is exceeded, like the buffers of a
+ * {@link IO#newTemporaryStorage(File, int, int, int) temporary storage}.
+ * <p>
+ * Chunks are allocated when the pool is empty, and dropped when it is full. The storage counts how many chunks were
+ * taken from the pool and how many had to be allocated, so that the pool can be sized.
+ *
+ * @see IO#newPooledStorage(File, int, int, int, int)
+ */
+public final class PooledStorage implements Factory<Buffer> {
+
+    /** The chunks that are not used by any buffer. */
+    private final BlockingQueue<byte[]> pool;
+
+    /** The size of the chunks, in bytes. */
+    private final int chunkSize;
+
+    /** The length limit of the memory of a buffer. */
+    private final int memoryLimit;
+
+    /** The length limit of the file of a buffer. */
+    private final int fileLimit;
+
+    /** The directory where temporary files are created. */
+    private final File directory;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    PooledStorage(final File directory, final int chunkSize, final int pooledChunks, final int memoryLimit,
+            final int fileLimit) {
+        this.pool = new ArrayBlockingQueue<>(pooledChunks);
+        this.chunkSize = chunkSize;
+        this.memoryLimit = memoryLimit;
+        this.fileLimit = fileLimit;
+        this.directory = directory;
+    }
+
+    @Override
+    public Buffer newInstance() {
+        return new TemporaryBuffer(new ChunkedBuffer(this, memoryLimit), fileLimit, directory);
+    }
+
+    /**
+     * Returns the number of chunks that were taken from the pool.
+     *
+     * @return The number of chunks that were taken from the pool.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of chunks that were allocated because the pool was empty.
+     *
+     * @return The number of chunks that were allocated because the pool was empty.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the ratio of the chunks that were taken from the pool to all the chunks that buffers used.
+     *
+     * @return The ratio, between 0 and 1, of the chunks that were taken from the pool, or 0 if no chunk was used.
+     */
+    public double getHitRate() {
+        final long hits = getHits();
+        final long total = hits + getMisses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Returns the number of chunks that are currently in the pool.
+     *
+     * @return The number of chunks that are currently in the pool.
+     */
+    public int getPooledChunks() {
+        return pool.size();
+    }
+
+    int getChunkSize() {
+        return chunkSize;
+    }
+
+    /** Takes a chunk from the pool, or allocates one if the pool is empty. */
+    byte[] acquire() {
+        final byte[] chunk = pool.poll();
+        if (chunk == null) {
+            misses.incrementAndGet();
+            return new byte[chunkSize];
+        }
+        hits.incrementAndGet();
+        return chunk;
+    }
+
+    /** Returns a chunk to the pool, unless the pool is full. */
+    void release(final byte[] chunk) {
+        pool.offer(chunk);
+    }
+
+    @Override
+    public String toString() {
+        return "PooledStorage(chunkSize=" + chunkSize + ", pooledChunks=" + getPooledChunks() + ", hits=" + getHits()
+                + ", misses=" + getMisses() + ", hitRate=" + getHitRate() + ")";
+    }
+}
@@ -22,14 +22,11 @@ import java.io.IOException;
 
 /**
  * A buffer that first uses memory, then a temporary file for data storage.
- * Initially, a {@link MemoryBuffer} is used; when the memory buffer limit is
- * exceeded it promotes to the use of a {@link FileBuffer}.
+ * Initially, a {@link MemoryBuffer} or a {@link ChunkedBuffer} is used; when the
+ * memory buffer limit is exceeded it promotes to the use of a {@link FileBuffer}.
  */
 final class TemporaryBuffer implements Buffer {
 
-    /** File used for temporary storage. */
-    private File file = null;
-
     /** The directory where temporary files are created. */
     private File directory;
 
@@ -40,7 +37,15 @@ final class TemporaryBuffer implements Buffer {
     private Buffer buffer;
 
     TemporaryBuffer(int initialLength, int memoryLimit, int fileLimit, File directory) {
-        buffer = IO.newMemoryBuffer(initialLength, memoryLimit);
+        this(IO.newMemoryBuffer(initialLength, memoryLimit), fileLimit, directory);
+    }
+
+    /**
+     * Creates a temporary buffer that first uses the given memory buffer, a {@link MemoryBuffer} or a
+     * {@link ChunkedBuffer}, and promotes to the use of a {@link FileBuffer} once its limit is exceeded.
+     */
+    TemporaryBuffer(Buffer memoryBuffer, int fileLimit, File directory) {
+        buffer = memoryBuffer;
         this.fileLimit = fileLimit;
         this.directory = directory;
     }
@@ -93,13 +98,10 @@ final class TemporaryBuffer implements Buffer {
     public void close() throws IOException {
         if (buffer != null) {
             try {
+                // the file buffer deletes its temporary file
                 buffer.close();
             } finally {
                 buffer = null;
-                if (file != null) {
-                    file.delete();
-                }
-                file = null;
             }
         }
     }
@@ -114,16 +116,29 @@ final class TemporaryBuffer implements Buffer {
     }
 
     private void promote() throws IOException {
-        if (buffer instanceof MemoryBuffer) {
-            MemoryBuffer membuf = (MemoryBuffer) buffer;
-            file = File.createTempFile("buf", null, directory);
-            buffer = IO.newFileBuffer(file, fileLimit);
-            // accesses byte array directly
-            buffer.append(membuf.data, 0, membuf.length());
-            membuf.close();
-        } else {
+        if (buffer instanceof FileBuffer) {
             // no further promotion possible
             throw new OverflowException();
         }
+        final Buffer memoryBuffer = buffer;
+        File file = File.createTempFile("buf", null, directory);
+        try {
+            // deleted once closed, or collected without having been closed
+            buffer = new FileBuffer(file, fileLimit, true);
+        } catch (IOException e) {
+            file.delete();
+            throw e;
+        }
+        try {
+            if (memoryBuffer instanceof MemoryBuffer) {
+                // accesses byte array directly
+                buffer.append(((MemoryBuffer) memoryBuffer).data, 0, memoryBuffer.length());
+            } else {
+                ((ChunkedBuffer) memoryBuffer).appendTo(buffer);
+            }
+        } finally {
+            // returns pooled chunks
+            memoryBuffer.close();
+        }
     }
 }
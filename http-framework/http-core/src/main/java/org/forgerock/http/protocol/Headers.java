@@ -26,28 +26,35 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
 
 import org.forgerock.http.header.GenericHeader;
 import org.forgerock.http.header.HeaderFactory;
 import org.forgerock.http.header.MalformedHeaderException;
+import org.forgerock.http.util.CaseInsensitiveHeaderMap;
 
 /**
- * Message headers, a case-insensitive multiple-value map.
+ * Message headers, a case-insensitive multiple-value map. Headers are iterated over in the order in which they were
+ * first added.
  */
 public class Headers implements Map<String, Object> {
 
-    private final Map<String, Header> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    /** Most requests and responses carry fewer headers than this, so that their headers are never rehashed. */
+    private static final int EXPECTED_HEADERS = 16;
+
+    private final CaseInsensitiveHeaderMap<Header> headers;
 
     /**
      * Constructs a {@code Headers} object that is case-insensitive for header names.
      */
-    public Headers() { }
+    public Headers() {
+        this.headers = new CaseInsensitiveHeaderMap<>(EXPECTED_HEADERS);
+    }
 
     /**
      * Defensive copy constructor.
      */
     Headers(final Headers headers) {
+        this.headers = new CaseInsensitiveHeaderMap<>(Math.max(headers.size(), EXPECTED_HEADERS));
         // Force header re-creation
         for (Map.Entry<String, Header> entry : headers.asMapOfHeaders().entrySet()) {
             add(entry.getKey(), entry.getValue().getValues());
@@ -253,7 +260,8 @@ public class Headers implements Map<String, Object> {
         if (value == null) {
             return;
         }
-        List<String> values = containsKey(key) ? new ArrayList<>(get(key).getValues()) : new ArrayList<String>();
+        final Header existing = get(key);
+        List<String> values = existing != null ? new ArrayList<>(existing.getValues()) : new ArrayList<String>();
         if (value instanceof Header) {
             for (String s : ((Header) value).getValues()) {
                 addNonNullStringValue(values, s);
@@ -368,7 +376,7 @@ public class Headers implements Map<String, Object> {
      * @return a copy of these headers as a multi-valued map of strings.
      */
     public Map<String, List<String>> copyAsMultiMapOfStrings() {
-        Map<String, List<String>> result = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        Map<String, List<String>> result = new CaseInsensitiveHeaderMap<>(headers.size());
         for (Header header : headers.values()) {
             result.put(header.getName(), new ArrayList<>(header.getValues()));
         }
@@ -21,8 +21,10 @@ package org.forgerock.http.protocol;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Objects;
 
 import org.forgerock.http.MutableUri;
+import org.forgerock.http.util.Uris;
 
 /**
  * A request message.
@@ -38,6 +40,12 @@ public final class Request extends MessageImpl<Request> {
     /** The fully-qualified URI of the resource being accessed. */
     private MutableUri uri;
 
+    /** The query parameters parsed from {@link #queryParametersRawQuery}, or {@code null} if not parsed yet. */
+    private Form queryParameters;
+
+    /** The raw query which {@link #queryParameters} were parsed from, used to detect changes to the URI. */
+    private String queryParametersRawQuery;
+
     /**
      * Creates a new request message.
      */
@@ -56,7 +64,7 @@ public final class Request extends MessageImpl<Request> {
     public Request(final Request request) throws IOException {
         super(request);
         method = request.method;
-        uri = new MutableUri(request.uri.asURI());
+        uri = new MutableUri(request.uri);
     }
 
     /**
@@ -78,7 +86,7 @@ public final class Request extends MessageImpl<Request> {
      */
     public Form getForm() {
         final Form form = new Form();
-        form.fromRequestQuery(this);
+        form.addAll(getQueryParameters());
         try {
             form.fromRequestEntity(this);
         } catch (IOException e) {
@@ -87,6 +95,76 @@ public final class Request extends MessageImpl<Request> {
         return form;
     }
 
+    /**
+     * Returns {@code true} if the query of the request URI contains a parameter with the provided name. Unlike
+     * {@code getForm().containsKey(name)}, this method scans the raw query and only decodes the names of the
+     * parameters which are encoded, and ignores the {@code application/x-www-form-urlencoded} entity.
+     *
+     * @param name
+     *            The decoded name of the query parameter.
+     * @return {@code true} if the query of the request URI contains a parameter with the provided name.
+     */
+    public boolean hasQueryParameter(final String name) {
+        final String query = uri != null ? uri.getRawQuery() : null;
+        if (query == null || name.isEmpty()) {
+            return false;
+        }
+        final int length = query.length();
+        int start = 0;
+        while (start < length) {
+            int end = query.indexOf('&', start);
+            if (end < 0) {
+                end = length;
+            }
+            int nameEnd = query.indexOf('=', start);
+            if (nameEnd < 0 || nameEnd > end) {
+                nameEnd = end;
+            }
+            if (isQueryParameterName(query, start, nameEnd, name)) {
+                return true;
+            }
+            start = end + 1;
+        }
+        return false;
+    }
+
+    private static boolean isQueryParameterName(final String query, final int start, final int end,
+            final String name) {
+        if (end - start == name.length() && query.regionMatches(start, name, 0, name.length())) {
+            return true;
+        }
+        for (int i = start; i < end; i++) {
+            final char c = query.charAt(i);
+            if (c == '%' || c == '+') {
+                // Encoded names can only be compared once decoded.
+                try {
+                    return name.equals(Uris.urlDecodeQueryParameterNameOrValue(query.substring(start, end)));
+                } catch (final IllegalArgumentException e) {
+                    // A malformed name cannot match.
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the query parameters of the request URI, which are parsed once and then cached until the query
+     * changes, either because the URI is replaced or because it is modified in place.
+     */
+    private Form getQueryParameters() {
+        final String query = uri != null ? uri.getRawQuery() : null;
+        if (queryParameters == null || !Objects.equals(query, queryParametersRawQuery)) {
+            final Form form = new Form();
+            if (query != null) {
+                form.fromQueryString(query);
+            }
+            queryParameters = form;
+            queryParametersRawQuery = query;
+        }
+        return queryParameters;
+    }
+
     /**
      * Returns the method to be performed on the resource.
      *
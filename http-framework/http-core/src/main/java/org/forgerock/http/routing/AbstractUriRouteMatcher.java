@@ -0,0 +1,107 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.routing;
+
+import java.util.List;
+
+import org.forgerock.http.ApiProducer;
+import org.forgerock.services.context.Context;
+import org.forgerock.services.routing.AbstractRouter;
+import org.forgerock.services.routing.RouteMatch;
+import org.forgerock.services.routing.RouteMatcher;
+
+/**
+ * A {@link RouteMatcher} which matches the path elements of a request against a URI template, using a
+ * delegate matcher created with {@link RouteMatchers#uriMatcher(RoutingMode, String)}.
+ * <p>
+ * When all the routes of an {@link AbstractRouter} use matchers of the same {@code AbstractUriRouteMatcher}
+ * class, the router compiles them into a {@link UriRouteTrie} instead of evaluating each of them in turn.
+ *
+ * @param <R> The type of the request.
+ */
+public abstract class AbstractUriRouteMatcher<R> extends RouteMatcher<R> {
+
+    private final RouteMatcher<List<String>> delegate;
+
+    /**
+     * Creates a new URI route matcher delegating to the provided path elements matcher.
+     *
+     * @param delegate The matcher created with {@link RouteMatchers#uriMatcher(RoutingMode, String)}.
+     */
+    protected AbstractUriRouteMatcher(RouteMatcher<List<String>> delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Returns the (URL-decoded) path elements of the request which are matched against the URI template.
+     * <p>
+     * The path elements must only depend on the context and the request, and not on the state of this matcher,
+     * since the routes of a router are compiled on the assumption that all its matchers of the same class return
+     * the same path elements.
+     *
+     * @param context The request context.
+     * @param request The request.
+     * @return The path elements to match.
+     */
+    protected abstract List<String> getPathElements(Context context, R request);
+
+    /**
+     * Returns the path elements matcher to which this matcher delegates.
+     *
+     * @return The path elements matcher.
+     */
+    final RouteMatcher<List<String>> getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public final RouteMatch evaluate(Context context, R request) {
+        return delegate.evaluate(context, getPathElements(context, request));
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+
+    @Override
+    public String idFragment() {
+        return delegate.idFragment();
+    }
+
+    @Override
+    public <D> D transformApi(D descriptor, ApiProducer<D> producer) {
+        return delegate.transformApi(descriptor, producer);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        AbstractUriRouteMatcher<?> that = (AbstractUriRouteMatcher<?>) o;
+        return delegate.equals(that.delegate);
+    }
+
+    @Override
+    public int hashCode() {
+        return delegate.hashCode();
+    }
+}
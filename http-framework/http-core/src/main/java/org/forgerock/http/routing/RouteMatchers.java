@@ -129,49 +129,15 @@ public final class RouteMatchers {
      * from a {@code Request} and passes it as a {@code ResourcePath} to the
      * common {@code ResourcePath} route matcher.
      */
-    private static final class RequestUriRouteMatcher extends RouteMatcher<Request> {
-
-        private final RouteMatcher<List<String>> delegate;
+    private static final class RequestUriRouteMatcher extends AbstractUriRouteMatcher<Request> {
 
         private RequestUriRouteMatcher(RouteMatcher<List<String>> delegate) {
-            this.delegate = delegate;
+            super(delegate);
         }
 
         @Override
-        public RouteMatch evaluate(Context context, Request request) {
-            return delegate.evaluate(context, getRemainingRequestUri(context, request));
-        }
-
-        @Override
-        public String toString() {
-            return delegate.toString();
-        }
-
-        @Override
-        public String idFragment() {
-            return delegate.idFragment();
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) {
-                return true;
-            }
-            if (!(o instanceof RequestUriRouteMatcher)) {
-                return false;
-            }
-            RequestUriRouteMatcher that = (RequestUriRouteMatcher) o;
-            return delegate.equals(that.delegate);
-        }
-
-        @Override
-        public <T> T transformApi(T descriptor, ApiProducer<T> producer) {
-            return delegate.transformApi(descriptor, producer);
-        }
-
-        @Override
-        public int hashCode() {
-            return delegate.hashCode();
+        protected List<String> getPathElements(Context context, Request request) {
+            return getRemainingRequestUri(context, request);
         }
     }
 
@@ -286,7 +252,7 @@ public final class RouteMatchers {
                     } catch (MalformedHeaderException e) {
                         // ignore - version isn't requested if the header is invalid
                     }
-                    return request.getForm().containsKey(OpenApiRequestFilter.API_PARAMETER)
+                    return request.hasQueryParameter(OpenApiRequestFilter.API_PARAMETER)
                             && (acceptApiVersionHeader == null || acceptApiVersionHeader.getResourceVersion() == null)
                             && request.getUri().getPathElements().isEmpty();
                 }
@@ -91,6 +91,33 @@ class UriRouteMatcher extends RouteMatcher<List<String>> {
         this.regex = UriTemplateParser.createRegex(mode, uriTemplate, variables);
     }
 
+    /**
+     * Returns the routing mode of this matcher.
+     *
+     * @return The routing mode.
+     */
+    RoutingMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Returns the URI template of this matcher.
+     *
+     * @return The URI template.
+     */
+    String getUriTemplate() {
+        return uriTemplate;
+    }
+
+    /**
+     * Returns the names of the URI template variables, in the order in which they appear in the template.
+     *
+     * @return The variable names.
+     */
+    List<String> getVariables() {
+        return variables;
+    }
+
     @Override
     public final RouteMatch evaluate(final Context context, final List<String> pathElements) {
         String uri = joinPath(pathElements);
@@ -179,7 +206,7 @@ class UriRouteMatcher extends RouteMatcher<List<String>> {
      * Parses routing mode and uri templates into regular expression for
      * matching incoming request URIs.
      */
-    private static final class UriTemplateParser {
+    static final class UriTemplateParser {
 
         /**
          * Creates a regular expression from the given {@literal mode} and {@literal uriTemplate}.
@@ -265,7 +292,7 @@ class UriRouteMatcher extends RouteMatcher<List<String>> {
             return resourceName;
         }
 
-        private static String removeTrailingSlash(String resourceName) {
+        static String removeTrailingSlash(String resourceName) {
             if (resourceName.endsWith("/")) {
                 return resourceName.substring(0, resourceName.length() - 1);
             }
@@ -282,14 +309,14 @@ class UriRouteMatcher extends RouteMatcher<List<String>> {
     /**
      * Contains the result of routing to a URI based route.
      */
-    private static final class UriRouteMatch implements RouteMatch {
+    static final class UriRouteMatch implements RouteMatch {
 
         private final String matched;
         private final String remaining;
         private final Map<String, String> variableMap;
         private final RoutingMode mode;
 
-        private UriRouteMatch(String matched, String remaining, Map<String, String> variableMap, RoutingMode mode) {
+        UriRouteMatch(String matched, String remaining, Map<String, String> variableMap, RoutingMode mode) {
             this.matched = matched;
             this.remaining = remaining;
             this.variableMap = variableMap;
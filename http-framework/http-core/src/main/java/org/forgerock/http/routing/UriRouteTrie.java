@@ -0,0 +1,320 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.routing;
+
+import static org.forgerock.http.routing.RoutingMode.EQUALS;
+import static org.forgerock.http.routing.RoutingMode.STARTS_WITH;
+import static org.forgerock.http.routing.UriRouteMatcher.UriTemplateParser.removeLeadingSlash;
+import static org.forgerock.http.routing.UriRouteMatcher.UriTemplateParser.removeTrailingSlash;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.forgerock.http.util.Paths;
+import org.forgerock.http.util.Uris;
+import org.forgerock.services.context.Context;
+import org.forgerock.services.routing.AbstractRouter;
+import org.forgerock.services.routing.IncomparableRouteMatchException;
+import org.forgerock.services.routing.RouteMatch;
+import org.forgerock.services.routing.RouteMatcher;
+import org.forgerock.util.Pair;
+
+/**
+ * The URI template routes of a router, compiled into a trie of path segments so that the best route for a request
+ * is found in a single walk down the request path, instead of matching the request against each route in turn.
+ * <p>
+ * Template segments are either literals, which must be equal to the URL-encoded path element, or a single
+ * variable, which matches any non-empty path element. The best route is the same as the one
+ * {@link AbstractRouter} would select by comparing the {@link RouteMatch}es of all the routes: the route matching
+ * the most path elements, then {@link RoutingMode#EQUALS} routes, then the routes with less variables, and then
+ * the first route in the iteration order of the routes. Routes whose templates mix literals and variables in a
+ * segment, such as {@code users/{id}.json}, are matched with their regular expression and compared with the best
+ * route of the trie.
+ * <p>
+ * A trie is immutable: the routes must be compiled again when they change.
+ *
+ * @param <R> The type of the request.
+ * @param <H> The type of the route handlers.
+ */
+public final class UriRouteTrie<R, H> {
+
+    /**
+     * Compiles the provided routes, if they all use {@link AbstractUriRouteMatcher}s of the same class, delegating
+     * to matchers created with {@link RouteMatchers#uriMatcher(RoutingMode, String)}.
+     *
+     * @param routes The routes to compile.
+     * @param <R> The type of the request.
+     * @param <H> The type of the route handlers.
+     * @return The compiled routes, or {@code null} if there are no routes or the routes cannot be compiled.
+     */
+    @SuppressWarnings("unchecked")
+    public static <R, H> UriRouteTrie<R, H> compile(Map<RouteMatcher<R>, H> routes) {
+        final List<Map.Entry<RouteMatcher<R>, H>> entries = new ArrayList<>(routes.entrySet());
+        Class<?> matcherClass = null;
+        for (Map.Entry<RouteMatcher<R>, H> entry : entries) {
+            final RouteMatcher<R> matcher = entry.getKey();
+            if (!(matcher instanceof AbstractUriRouteMatcher)
+                    || !(((AbstractUriRouteMatcher<R>) matcher).getDelegate() instanceof UriRouteMatcher)) {
+                return null;
+            }
+            if (matcherClass == null) {
+                matcherClass = matcher.getClass();
+            } else if (matcherClass != matcher.getClass()) {
+                return null;
+            }
+        }
+        return matcherClass != null ? new UriRouteTrie<>(entries) : null;
+    }
+
+    private final AbstractUriRouteMatcher<R> pathMatcher;
+    private final Node<H> root = new Node<>();
+    /** The routes which cannot be compiled into the trie, in iteration order. */
+    private final List<Route<H>> regexRoutes = new ArrayList<>();
+
+    @SuppressWarnings("unchecked")
+    private UriRouteTrie(List<Map.Entry<RouteMatcher<R>, H>> routes) {
+        this.pathMatcher = (AbstractUriRouteMatcher<R>) routes.get(0).getKey();
+        for (int position = 0; position < routes.size(); position++) {
+            final Map.Entry<RouteMatcher<R>, H> route = routes.get(position);
+            final UriRouteMatcher matcher =
+                    (UriRouteMatcher) ((AbstractUriRouteMatcher<R>) route.getKey()).getDelegate();
+            if (!insert(matcher, route.getValue(), position)) {
+                regexRoutes.add(new Route<>(matcher, route.getValue(), position));
+            }
+        }
+    }
+
+    /**
+     * Finds the best route for the provided request.
+     *
+     * @param context The request context.
+     * @param request The request.
+     * @return A {@code Pair} containing the {@code RouteMatch} and the handler of the best route, or a {@code Pair}
+     * of {@code null}s if no route matches the request.
+     * @throws IncomparableRouteMatchException Never, all the route matches are comparable.
+     */
+    public Pair<RouteMatch, H> getBestRouteMatch(Context context, R request) throws IncomparableRouteMatchException {
+        final List<String> pathElements = pathMatcher.getPathElements(context, request);
+        final String[] segments = encode(pathElements);
+
+        RouteMatch bestMatch = null;
+        H bestHandler = null;
+        int bestPosition = Integer.MAX_VALUE;
+
+        final Leaf<H> leaf = find(root, segments, 0, null);
+        if (leaf != null) {
+            bestMatch = leaf.newMatch(segments);
+            bestHandler = leaf.handler;
+            bestPosition = leaf.position;
+        }
+        for (Route<H> route : regexRoutes) {
+            final RouteMatch match = route.matcher.evaluate(context, pathElements);
+            if (match != null && (bestMatch == null || match.isBetterMatchThan(bestMatch)
+                    || (route.position < bestPosition && !bestMatch.isBetterMatchThan(match)))) {
+                bestMatch = match;
+                bestHandler = route.handler;
+                bestPosition = route.position;
+            }
+        }
+        return Pair.of(bestMatch, bestHandler);
+    }
+
+    /** Inserts the route into the trie, unless its template segments are not plain literals or variables. */
+    private boolean insert(UriRouteMatcher matcher, H handler, int position) {
+        final String template = removeTrailingSlash(removeLeadingSlash(matcher.getUriTemplate()));
+        if (template.isEmpty() && !matcher.getUriTemplate().isEmpty() && matcher.getMode() == STARTS_WITH) {
+            // Unlike the empty template, templates such as "/" only match the empty path when starting it.
+            return false;
+        }
+        final String[] segments = template.isEmpty() ? new String[0] : template.split("/", -1);
+        final List<Integer> variableSegments = new ArrayList<>();
+        for (int i = 0; i < segments.length; i++) {
+            final String segment = segments[i];
+            final int open = segment.indexOf('{');
+            if (open == 0 && segment.indexOf('}') == segment.length() - 1 && segment.indexOf('{', 1) < 0) {
+                variableSegments.add(i);
+            } else if (open >= 0) {
+                return false;
+            }
+        }
+
+        Node<H> node = root;
+        for (int i = 0; i < segments.length; i++) {
+            node = variableSegments.contains(i) ? node.variableChild() : node.literalChild(segments[i]);
+        }
+        final Leaf<H> leaf = new Leaf<>(handler, matcher.getMode(), segments.length, variableSegments,
+                matcher.getVariables(), position);
+        if (leaf.mode == EQUALS) {
+            node.equalsLeaf = better(node.equalsLeaf, leaf);
+        } else {
+            node.startsWithLeaf = better(node.startsWithLeaf, leaf);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the URL-encoded path elements, as they appear in the path joined by {@link Paths#joinPath(List)},
+     * which drops the leading empty elements.
+     */
+    private static String[] encode(List<String> pathElements) {
+        int first = 0;
+        while (first < pathElements.size() && pathElements.get(first).isEmpty()) {
+            first++;
+        }
+        final String[] segments = new String[pathElements.size() - first];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = Uris.urlEncodePathElement(pathElements.get(first + i));
+        }
+        return segments;
+    }
+
+    private static <H> Leaf<H> find(Node<H> node, String[] segments, int depth, Leaf<H> best) {
+        if (depth == segments.length) {
+            best = better(best, node.equalsLeaf);
+        }
+        best = better(best, node.startsWithLeaf);
+        if (depth < segments.length) {
+            final Node<H> literal = node.literals.get(segments[depth]);
+            if (literal != null) {
+                best = find(literal, segments, depth + 1, best);
+            }
+            if (node.variable != null && !segments[depth].isEmpty()) {
+                best = find(node.variable, segments, depth + 1, best);
+            }
+        }
+        return best;
+    }
+
+    /** Returns the best of the two leaves, by the order of {@link UriRouteMatcher.UriRouteMatch}, then position. */
+    private static <H> Leaf<H> better(Leaf<H> best, Leaf<H> candidate) {
+        if (candidate == null) {
+            return best;
+        } else if (best == null) {
+            return candidate;
+        } else if (candidate.length != best.length) {
+            return candidate.length > best.length ? candidate : best;
+        } else if (candidate.mode != best.mode) {
+            return candidate.mode == EQUALS ? candidate : best;
+        } else if (candidate.variableCount != best.variableCount) {
+            return candidate.variableCount < best.variableCount ? candidate : best;
+        } else {
+            return candidate.position < best.position ? candidate : best;
+        }
+    }
+
+    private static String join(String[] segments, int from, int to) {
+        if (from == to) {
+            return "";
+        } else if (from + 1 == to) {
+            return segments[from];
+        }
+        final StringBuilder builder = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            if (i > from) {
+                builder.append('/');
+            }
+            builder.append(segments[i]);
+        }
+        return builder.toString();
+    }
+
+    private static final class Node<H> {
+        private final Map<String, Node<H>> literals = new HashMap<>();
+        private Node<H> variable;
+        private Leaf<H> equalsLeaf;
+        private Leaf<H> startsWithLeaf;
+
+        private Node<H> literalChild(String segment) {
+            Node<H> child = literals.get(segment);
+            if (child == null) {
+                child = new Node<>();
+                literals.put(segment, child);
+            }
+            return child;
+        }
+
+        private Node<H> variableChild() {
+            if (variable == null) {
+                variable = new Node<>();
+            }
+            return variable;
+        }
+    }
+
+    private static final class Leaf<H> {
+        private final H handler;
+        private final RoutingMode mode;
+        private final int length;
+        private final int[] variableSegments;
+        private final List<String> variableNames;
+        /** The number of distinct variables, which is the size of the variables map of the route match. */
+        private final int variableCount;
+        private final int position;
+
+        private Leaf(H handler, RoutingMode mode, int length, List<Integer> variableSegments,
+                List<String> variableNames, int position) {
+            this.handler = handler;
+            this.mode = mode;
+            this.length = length;
+            this.variableSegments = new int[variableSegments.size()];
+            for (int i = 0; i < this.variableSegments.length; i++) {
+                this.variableSegments[i] = variableSegments.get(i);
+            }
+            this.variableNames = new ArrayList<>(variableNames);
+            this.variableCount = new HashSet<>(variableNames).size();
+            this.position = position;
+        }
+
+        private RouteMatch newMatch(String[] segments) {
+            final Map<String, String> variableMap;
+            switch (variableSegments.length) {
+            case 0:
+                variableMap = Collections.emptyMap();
+                break;
+            case 1:
+                variableMap = Collections.singletonMap(variableNames.get(0),
+                        Paths.urlDecode(segments[variableSegments[0]]));
+                break;
+            default:
+                variableMap = new LinkedHashMap<>(variableSegments.length);
+                for (int i = 0; i < variableSegments.length; i++) {
+                    variableMap.put(variableNames.get(i), Paths.urlDecode(segments[variableSegments[i]]));
+                }
+                break;
+            }
+            return new UriRouteMatcher.UriRouteMatch(join(segments, 0, length),
+                    join(segments, length, segments.length), variableMap, mode);
+        }
+    }
+
+    private static final class Route<H> {
+        private final UriRouteMatcher matcher;
+        private final H handler;
+        private final int position;
+
+        private Route(UriRouteMatcher matcher, H handler, int position) {
+            this.matcher = matcher;
+            this.handler = handler;
+            this.position = position;
+        }
+    }
+}
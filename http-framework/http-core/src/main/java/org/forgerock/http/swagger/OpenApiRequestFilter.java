@@ -66,7 +66,7 @@ public class OpenApiRequestFilter implements Filter {
 
     @Override
     public Promise<Response, NeverThrowsException> filter(Context context, Request request, Handler next) {
-        if (!(next instanceof Describable && request.getForm().containsKey(API_PARAMETER))) {
+        if (!(next instanceof Describable && request.hasQueryParameter(API_PARAMETER))) {
             return next.handle(context, request);
         }
 
@@ -0,0 +1,544 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A map whose keys are case-insensitive strings, such as header names, which iterates over its entries in
+ * insertion order. The original case of the keys is retained: replacing the value of a key keeps the case
+ * with which the key was first inserted.
+ * <p>
+ * Keys are compared with {@link String#equalsIgnoreCase(String)}, and hashed by folding their case one character
+ * at a time, so that, unlike maps of lower-cased keys, looking up a key does not allocate. The entries are stored in
+ * an open addressing table with linear probing. The hashes of well-known header names, such as
+ * {@code Content-Type} or {@code Authorization}, are computed once: looking up these headers with the constant
+ * names of the header classes, or any other string literal, does not even need to hash the name.
+ * <p>
+ * This map does not accept {@code null} keys. Like {@link java.util.LinkedHashMap}, it is not thread-safe
+ * and its iterators are fail-fast.
+ *
+ * @param <V> The type of the values.
+ */
+public class CaseInsensitiveHeaderMap<V> extends AbstractMap<String, V> {
+
+    /** Names of frequently used headers, whose case-insensitive hashes are pre-computed. */
+    private static final String[] WELL_KNOWN_NAMES = {
+        "Accept",
+        "Accept-API-Version",
+        "Accept-Charset",
+        "Accept-Encoding",
+        "Accept-Language",
+        "Authorization",
+        "Cache-Control",
+        "Connection",
+        "Content-API-Version",
+        "Content-Encoding",
+        "Content-Length",
+        "Content-Type",
+        "Cookie",
+        "Date",
+        "ETag",
+        "Expires",
+        "Host",
+        "If-Match",
+        "If-Modified-Since",
+        "If-None-Match",
+        "Last-Modified",
+        "Location",
+        "Origin",
+        "Pragma",
+        "Referer",
+        "Server",
+        "Set-Cookie",
+        "Transfer-Encoding",
+        "User-Agent",
+        "Vary",
+        "Warning",
+        "WWW-Authenticate",
+        "X-Forwarded-For",
+        "X-Forwarded-Host",
+        "X-Forwarded-Proto",
+        "X-ForgeRock-TransactionId",
+        "X-Requested-With",
+    };
+
+    /**
+     * The well-known names, indexed by their {@link String#hashCode()}, which the strings cache. Header names are
+     * string literals which the JVM interns, so that a name is well-known if it is the same instance as the one
+     * in this table.
+     */
+    private static final String[] INTERNED_NAMES = new String[256];
+    private static final int[] INTERNED_HASHES = new int[INTERNED_NAMES.length];
+
+    static {
+        for (String name : WELL_KNOWN_NAMES) {
+            final int index = name.hashCode() & (INTERNED_NAMES.length - 1);
+            // In case of collision, the second name is simply hashed on every look up.
+            if (INTERNED_NAMES[index] == null) {
+                INTERNED_NAMES[index] = name;
+                INTERNED_HASHES[index] = foldedHash(name);
+            }
+        }
+    }
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private Node<V>[] table;
+    /** The first and last inserted entries. */
+    private Node<V> head;
+    private Node<V> tail;
+    private int size;
+    private int modCount;
+    private Set<Entry<String, V>> entrySet;
+    private Set<String> keySet;
+
+    /**
+     * Constructs a new empty map.
+     */
+    public CaseInsensitiveHeaderMap() {
+        this(DEFAULT_CAPACITY / 2);
+    }
+
+    /**
+     * Constructs a new empty map, which can hold the provided number of entries without being resized.
+     *
+     * @param expectedSize The expected number of entries.
+     * @throws IllegalArgumentException If the expected size is negative.
+     */
+    public CaseInsensitiveHeaderMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Illegal expected size: " + expectedSize);
+        }
+        table = newTable(capacityFor(expectedSize));
+    }
+
+    /**
+     * Constructs a new map containing the entries of the provided map, in its iteration order. Keys which are equal
+     * ignoring case are merged, keeping the first key and the last value.
+     *
+     * @param map The map whose entries are to be placed into this map.
+     */
+    public CaseInsensitiveHeaderMap(Map<String, ? extends V> map) {
+        this(map.size());
+        putAll(map);
+    }
+
+    /**
+     * Returns the hash of the provided key, ignoring case.
+     *
+     * @param key The key.
+     * @return The case-insensitive hash of the key.
+     */
+    static int hash(String key) {
+        final int index = key.hashCode() & (INTERNED_NAMES.length - 1);
+        if (INTERNED_NAMES[index] == key) {
+            return INTERNED_HASHES[index];
+        }
+        return foldedHash(key);
+    }
+
+    private static int foldedHash(String key) {
+        int h = 0;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c < 0x80) {
+                if (c >= 'A' && c <= 'Z') {
+                    c += 'a' - 'A';
+                }
+            } else {
+                // Same folding as String.equalsIgnoreCase
+                c = Character.toLowerCase(Character.toUpperCase(c));
+            }
+            h = 31 * h + c;
+        }
+        // Spread the high bits, since the table index only uses the low bits
+        return h ^ (h >>> 16);
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = DEFAULT_CAPACITY;
+        while (isOverloaded(expectedSize, capacity)) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /** The table is kept at most two-thirds full, which keeps the linear probe sequences short. */
+    private static boolean isOverloaded(int size, int capacity) {
+        return size * 3L > capacity * 2L;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static <V> Node<V>[] newTable(int capacity) {
+        return new Node[capacity];
+    }
+
+    /** Returns the node of the provided key, or {@code null} if there is none. */
+    private Node<V> getNode(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        final String name = (String) key;
+        final int hash = hash(name);
+        final Node<V>[] tab = table;
+        final int mask = tab.length - 1;
+        for (int i = hash & mask;; i = (i + 1) & mask) {
+            final Node<V> node = tab[i];
+            if (node == null) {
+                return null;
+            } else if (node.hash == hash && (node.key == name || node.key.equalsIgnoreCase(name))) {
+                return node;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return getNode(key) != null;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        for (Node<V> node = head; node != null; node = node.after) {
+            if (Objects.equals(node.value, value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public V get(Object key) {
+        final Node<V> node = getNode(key);
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * Returns the key of this map which is equal to the provided key, ignoring case.
+     *
+     * @param key The key to look up.
+     * @return The key as it was inserted in this map, or {@code null} if this map does not contain the key.
+     */
+    public String getKey(Object key) {
+        final Node<V> node = getNode(key);
+        return node == null ? null : node.key;
+    }
+
+    @Override
+    public V put(String key, V value) {
+        Objects.requireNonNull(key, "key");
+        final int hash = hash(key);
+        final int mask = table.length - 1;
+        int i = hash & mask;
+        for (Node<V> node = table[i]; node != null; node = table[i]) {
+            if (node.hash == hash && (node.key == key || node.key.equalsIgnoreCase(key))) {
+                final V previous = node.value;
+                node.value = value;
+                return previous;
+            }
+            i = (i + 1) & mask;
+        }
+        final Node<V> node = new Node<>(hash, key, value);
+        table[i] = node;
+        if (tail == null) {
+            head = node;
+        } else {
+            tail.after = node;
+            node.before = tail;
+        }
+        tail = node;
+        modCount++;
+        if (isOverloaded(++size, table.length)) {
+            resize(table.length << 1);
+        }
+        return null;
+    }
+
+    private void resize(int capacity) {
+        final Node<V>[] tab = newTable(capacity);
+        final int mask = capacity - 1;
+        for (Node<V> node = head; node != null; node = node.after) {
+            int i = node.hash & mask;
+            while (tab[i] != null) {
+                i = (i + 1) & mask;
+            }
+            tab[i] = node;
+        }
+        table = tab;
+    }
+
+    @Override
+    public V remove(Object key) {
+        final Node<V> node = getNode(key);
+        if (node == null) {
+            return null;
+        }
+        removeNode(node);
+        return node.value;
+    }
+
+    private void removeNode(Node<V> node) {
+        final Node<V>[] tab = table;
+        final int mask = tab.length - 1;
+        int hole = node.hash & mask;
+        while (tab[hole] != node) {
+            hole = (hole + 1) & mask;
+        }
+        // Shift back the following entries of the probe sequence, rather than leaving a tombstone
+        tab[hole] = null;
+        for (int i = (hole + 1) & mask; tab[i] != null; i = (i + 1) & mask) {
+            final int home = tab[i].hash & mask;
+            // Move the entry unless its home slot is cyclically within (hole, i]
+            if (hole < i ? home <= hole || home > i : home <= hole && home > i) {
+                tab[hole] = tab[i];
+                tab[i] = null;
+                hole = i;
+            }
+        }
+
+        if (node.before == null) {
+            head = node.after;
+        } else {
+            node.before.after = node.after;
+        }
+        if (node.after == null) {
+            tail = node.before;
+        } else {
+            node.after.before = node.before;
+        }
+        node.before = null;
+        node.after = null;
+        size--;
+        modCount++;
+    }
+
+    @Override
+    public void clear() {
+        if (size > 0) {
+            table = newTable(table.length);
+            head = null;
+            tail = null;
+            size = 0;
+            modCount++;
+        }
+    }
+
+    @Override
+    public Set<String> keySet() {
+        if (keySet == null) {
+            keySet = new KeySet();
+        }
+        return keySet;
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<String, V>> {
+        @Override
+        public Iterator<Entry<String, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            final Entry<?, ?> entry = (Entry<?, ?>) o;
+            final Node<V> node = getNode(entry.getKey());
+            return node != null && Objects.equals(node.value, entry.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (contains(o)) {
+                removeNode(getNode(((Entry<?, ?>) o).getKey()));
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void clear() {
+            CaseInsensitiveHeaderMap.this.clear();
+        }
+    }
+
+    private final class KeySet extends AbstractSet<String> {
+        @Override
+        public Iterator<String> iterator() {
+            final Iterator<Entry<String, V>> entries = new EntryIterator();
+            return new Iterator<String>() {
+                @Override
+                public boolean hasNext() {
+                    return entries.hasNext();
+                }
+
+                @Override
+                public String next() {
+                    return entries.next().getKey();
+                }
+
+                @Override
+                public void remove() {
+                    entries.remove();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsKey(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            final Node<V> node = getNode(o);
+            if (node == null) {
+                return false;
+            }
+            removeNode(node);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            CaseInsensitiveHeaderMap.this.clear();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Entry<String, V>> {
+        private Node<V> next = head;
+        private Node<V> current;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry<String, V> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            current = next;
+            next = next.after;
+            return current;
+        }
+
+        @Override
+        public void remove() {
+            if (current == null) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeNode(current);
+            current = null;
+            expectedModCount = modCount;
+        }
+    }
+
+    private static final class Node<V> implements Entry<String, V> {
+        private final int hash;
+        private final String key;
+        private V value;
+        private Node<V> before;
+        private Node<V> after;
+
+        private Node(int hash, String key, V value) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            final V previous = this.value;
+            this.value = value;
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            final Entry<?, ?> entry = (Entry<?, ?>) o;
+            return key.equals(entry.getKey()) && Objects.equals(value, entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+}
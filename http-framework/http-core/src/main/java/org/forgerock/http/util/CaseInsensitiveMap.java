@@ -33,8 +33,8 @@ import org.forgerock.util.MapDecorator;
  */
 public class CaseInsensitiveMap<V> extends MapDecorator<String, V> {
 
-    /** Maps lowercase keys to the real string keys. */
-    private final Map<String, String> lc = new HashMap<>();
+    /** Maps case-insensitive keys to the real string keys. */
+    private final CaseInsensitiveHeaderMap<String> lc = new CaseInsensitiveHeaderMap<>();
 
     /**
      * Constructs a new empty case-insensitive map. The backing map is a new {@link HashMap}
@@ -60,7 +60,7 @@ public class CaseInsensitiveMap<V> extends MapDecorator<String, V> {
      */
     private Object translate(Object key) {
         if (key instanceof String) {
-            String k = lc.get(((String) key).toLowerCase());
+            String k = lc.get(key);
             if (k != null) {
                 // found a mapped-equivalent
                 key = k;
@@ -77,7 +77,7 @@ public class CaseInsensitiveMap<V> extends MapDecorator<String, V> {
     public void sync() {
         lc.clear();
         for (String key : map.keySet()) {
-            lc.put(key.toLowerCase(), key);
+            lc.put(key, key);
         }
     }
 
@@ -96,7 +96,7 @@ public class CaseInsensitiveMap<V> extends MapDecorator<String, V> {
     public V put(String key, V value) {
         // remove potentially differently-cased key
         V removed = remove(key);
-        lc.put(key.toLowerCase(), key);
+        lc.put(key, key);
         super.put(key, value);
         return removed;
     }
@@ -116,9 +116,7 @@ public class CaseInsensitiveMap<V> extends MapDecorator<String, V> {
     @Override
     public V remove(Object key) {
         V removed = super.remove(translate(key));
-        if (key instanceof String) {
-            lc.remove(((String) key).toLowerCase());
-        }
+        lc.remove(key);
         return removed;
     }
 }
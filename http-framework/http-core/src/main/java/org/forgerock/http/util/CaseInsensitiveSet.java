@@ -18,9 +18,7 @@
 package org.forgerock.http.util;
 
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
 
 /**
@@ -33,8 +31,8 @@ import java.util.Set;
  */
 public class CaseInsensitiveSet extends SetDecorator<String> {
 
-    /** Maps lowercase elements to the real string elements. */
-    private final Map<String, String> lc;
+    /** Maps case-insensitive elements to the real string elements. */
+    private final CaseInsensitiveHeaderMap<String> lc;
 
     /**
      * Constructs a new empty case-insensitive set. The backing set is a new {@link HashSet}
@@ -42,7 +40,7 @@ public class CaseInsensitiveSet extends SetDecorator<String> {
      */
     public CaseInsensitiveSet() {
         super(new HashSet<String>());
-        lc = new HashMap<>();
+        lc = new CaseInsensitiveHeaderMap<>();
     }
 
     /**
@@ -55,9 +53,9 @@ public class CaseInsensitiveSet extends SetDecorator<String> {
      */
     public CaseInsensitiveSet(Collection<String> c) {
         super(c instanceof Set ? (Set<String>) c : new HashSet<>(c));
-        lc = new HashMap<>(c.size());
+        lc = new CaseInsensitiveHeaderMap<>(c.size());
         for (String e : c) {
-            lc.put(e.toLowerCase(), e);
+            lc.put(e, e);
         }
     }
 
@@ -71,7 +69,7 @@ public class CaseInsensitiveSet extends SetDecorator<String> {
      */
     public CaseInsensitiveSet(int initialCapacity, float loadFactor) {
         super(new HashSet<String>(initialCapacity, loadFactor));
-        lc = new HashMap<>(initialCapacity, loadFactor);
+        lc = new CaseInsensitiveHeaderMap<>(initialCapacity);
     }
 
     /**
@@ -83,12 +81,12 @@ public class CaseInsensitiveSet extends SetDecorator<String> {
      */
     public CaseInsensitiveSet(int initialCapacity) {
         super(new HashSet<String>(initialCapacity));
-        lc = new HashMap<>(initialCapacity);
+        lc = new CaseInsensitiveHeaderMap<>(initialCapacity);
     }
 
     private Object translate(Object element) {
         if (element instanceof String) {
-            String e = lc.get(((String) element).toLowerCase());
+            String e = lc.get(element);
             if (e != null) {
                 // found a mapped-equivalent
                 element = e;
@@ -107,16 +105,14 @@ public class CaseInsensitiveSet extends SetDecorator<String> {
         if (contains(e)) {
             return false;
         }
-        lc.put(e.toLowerCase(), e);
+        lc.put(e, e);
         return super.add(e);
     }
 
     @Override
     public boolean remove(Object o) {
         boolean removed = super.remove(translate(o));
-        if (o instanceof String) {
-            lc.remove(((String) o).toLowerCase());
-        }
+        lc.remove(o);
         return removed;
     }
 
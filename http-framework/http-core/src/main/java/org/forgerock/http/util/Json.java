@@ -38,6 +38,7 @@ import org.forgerock.util.i18n.PreferredLocales;
 
 import com.fasterxml.jackson.annotation.JsonValue;
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
@@ -64,6 +65,9 @@ public final class Json {
     private static final ObjectMapper STRICT_MAPPER = new ObjectMapper()
             .registerModules(new JsonValueModule(), new LocalizableStringModule());
 
+    /** Writer used for objects which are not part of a JSON object model. */
+    private static final ObjectWriter STRICT_WRITER = STRICT_MAPPER.writer();
+
     /**
      * Attribute Key for the {@link org.forgerock.util.i18n.PreferredLocales} instance.
      */
@@ -242,7 +246,9 @@ public final class Json {
             return null;
         }
 
-        return LENIENT_MAPPER.readValue(in, Object.class);
+        try (JsonParser parser = LENIENT_MAPPER.getFactory().createParser(in)) {
+            return JsonStreams.readJson(parser);
+        }
     }
 
     private static Object parse(ObjectMapper mapper, Reader reader) throws IOException {
@@ -250,7 +256,9 @@ public final class Json {
             return null;
         }
 
-        return mapper.readValue(reader, Object.class);
+        try (JsonParser parser = mapper.getFactory().createParser(reader)) {
+            return JsonStreams.readJson(parser);
+        }
     }
 
     /**
@@ -263,7 +271,7 @@ public final class Json {
      *             If an error occurs during writing/mapping content.
      */
     public static byte[] writeJson(final Object objectToWrite) throws IOException {
-        return STRICT_MAPPER.writeValueAsBytes(objectToWrite);
+        return JsonStreams.writeJsonAsBytes(STRICT_MAPPER.getFactory(), objectToWrite, STRICT_WRITER);
     }
 
     /**
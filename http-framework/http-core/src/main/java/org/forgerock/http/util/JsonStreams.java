@@ -0,0 +1,203 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.util;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.forgerock.json.JsonValue;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.BufferRecyclers;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+
+/**
+ * Reads and writes JSON object models, made of {@link Map}, {@link List}, {@link String}, {@link Number},
+ * {@link Boolean}, {@code null} and {@link JsonValue} objects, directly with Jackson's streaming
+ * {@link JsonGenerator} and {@link JsonParser}, rather than through data binding.
+ * <p>
+ * Writing JSON object models this way avoids the serializer lookups performed by data binding for each value.
+ * Objects which are not part of a JSON object model, such as {@link org.forgerock.util.i18n.LocalizableString},
+ * are written with a fallback {@link ObjectWriter}. Reading produces the same representation as data binding to
+ * {@code Object.class}: {@link LinkedHashMap}, {@link ArrayList}, {@link String}, {@link Integer}, {@link Long},
+ * {@link BigInteger}, {@link Double}, {@link Boolean} and {@code null}.
+ */
+public final class JsonStreams {
+
+    /**
+     * Writes a JSON object model to a generator.
+     *
+     * @param generator
+     *            The generator to write to.
+     * @param object
+     *            The JSON object model to write.
+     * @param fallback
+     *            The writer used for objects which are not part of a JSON object model.
+     * @throws IOException
+     *             If an error occurs while writing.
+     */
+    public static void writeJson(final JsonGenerator generator, final Object object, final ObjectWriter fallback)
+            throws IOException {
+        final Object value = object instanceof JsonValue ? ((JsonValue) object).getObject() : object;
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof String) {
+            generator.writeString((String) value);
+        } else if (value instanceof Map && hasStringKeys((Map<?, ?>) value)) {
+            final Map<?, ?> map = (Map<?, ?>) value;
+            generator.writeStartObject(map);
+            for (final Map.Entry<?, ?> entry : map.entrySet()) {
+                generator.writeFieldName((String) entry.getKey());
+                writeJson(generator, entry.getValue(), fallback); // recursion
+            }
+            generator.writeEndObject();
+        } else if (value instanceof Collection) {
+            final Collection<?> collection = (Collection<?>) value;
+            generator.writeStartArray(collection, collection.size());
+            for (final Object element : collection) {
+                writeJson(generator, element, fallback); // recursion
+            }
+            generator.writeEndArray();
+        } else if (value instanceof Boolean) {
+            generator.writeBoolean((Boolean) value);
+        } else if (value instanceof Integer) {
+            generator.writeNumber((Integer) value);
+        } else if (value instanceof Long) {
+            generator.writeNumber((Long) value);
+        } else if (value instanceof Double) {
+            generator.writeNumber((Double) value);
+        } else if (value instanceof Float) {
+            generator.writeNumber((Float) value);
+        } else if (value instanceof BigDecimal) {
+            generator.writeNumber((BigDecimal) value);
+        } else if (value instanceof BigInteger) {
+            generator.writeNumber((BigInteger) value);
+        } else {
+            fallback.writeValue(generator, value);
+        }
+    }
+
+    /**
+     * Writes a JSON object model as UTF-8 encoded JSON.
+     *
+     * @param factory
+     *            The factory used to create the generator.
+     * @param object
+     *            The JSON object model to write.
+     * @param fallback
+     *            The writer used for objects which are not part of a JSON object model.
+     * @return The UTF-8 encoded JSON.
+     * @throws IOException
+     *             If an error occurs while writing.
+     */
+    public static byte[] writeJsonAsBytes(final JsonFactory factory, final Object object,
+            final ObjectWriter fallback) throws IOException {
+        // The first buffer segment is recycled between calls from the same thread.
+        final ByteArrayBuilder buffer = new ByteArrayBuilder(BufferRecyclers.getBufferRecycler());
+        try {
+            try (JsonGenerator generator = factory.createGenerator(buffer)) {
+                writeJson(generator, object, fallback);
+            }
+            return buffer.toByteArray();
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * Reads a JSON object model from a parser. If the parser is not positioned on a token, the next token is read
+     * first. When this method returns, the parser is positioned on the last token of the JSON value which has
+     * been read, so that trailing content can be detected by the caller.
+     *
+     * @param parser
+     *            The parser to read from.
+     * @return Any of {@code Map<String, Object>}, {@code List<Object>}, {@code String}, {@code Number},
+     *         {@code Boolean} or {@code null}.
+     * @throws IOException
+     *             If an error occurs while reading or parsing, or if there is no content to read.
+     */
+    public static Object readJson(final JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == null) {
+            token = parser.nextToken();
+            if (token == null) {
+                throw MismatchedInputException.from(parser, Object.class,
+                        "No content to map due to end-of-input");
+            }
+        }
+        return readValue(parser, token);
+    }
+
+    private static Object readValue(final JsonParser parser, final JsonToken token) throws IOException {
+        switch (token) {
+        case START_OBJECT:
+            final Map<String, Object> map = new LinkedHashMap<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String name = parser.currentName();
+                map.put(name, readValue(parser, parser.nextToken())); // recursion
+            }
+            return map;
+        case START_ARRAY:
+            final List<Object> list = new ArrayList<>();
+            for (JsonToken next = parser.nextToken(); next != JsonToken.END_ARRAY; next = parser.nextToken()) {
+                list.add(readValue(parser, next)); // recursion
+            }
+            return list;
+        case VALUE_STRING:
+            return parser.getText();
+        case VALUE_NUMBER_INT:
+            return parser.getNumberValue();
+        case VALUE_NUMBER_FLOAT:
+            return parser.getDoubleValue();
+        case VALUE_TRUE:
+            return Boolean.TRUE;
+        case VALUE_FALSE:
+            return Boolean.FALSE;
+        case VALUE_NULL:
+            return null;
+        case VALUE_EMBEDDED_OBJECT:
+            return parser.getEmbeddedObject();
+        default:
+            throw new JsonParseException(parser, "Unexpected token " + token);
+        }
+    }
+
+    private static boolean hasStringKeys(final Map<?, ?> map) {
+        for (final Object key : map.keySet()) {
+            if (!(key instanceof String)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private JsonStreams() {
+        // Prevent instantiation.
+    }
+}
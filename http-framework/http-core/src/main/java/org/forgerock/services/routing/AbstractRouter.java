@@ -23,9 +23,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.forgerock.http.ApiProducer;
 import org.forgerock.http.routing.RoutingMode;
+import org.forgerock.http.routing.UriRouteTrie;
 import org.forgerock.services.context.Context;
 import org.forgerock.services.descriptor.Describable;
 import org.forgerock.util.Pair;
@@ -52,6 +54,10 @@ public abstract class AbstractRouter<T extends AbstractRouter<T, R, H, D>, R, H,
         implements Describable<D, R>, Describable.Listener {
 
     private final Map<RouteMatcher<R>, H> routes = new ConcurrentHashMap<>();
+    /** Incremented after each change of the routes, so that they are compiled again. */
+    private final AtomicInteger routesVersion = new AtomicInteger();
+    /** The last compiled routes, which are out of date if their version is not the current routes version. */
+    private volatile CompiledRoutes<R, H> compiledRoutes;
     /** Matches the current route. */
     protected final RouteMatcher<R> thisRouterUriMatcher = uriMatcher(EQUALS, "");
     private volatile H defaultRoute;
@@ -109,6 +115,7 @@ public abstract class AbstractRouter<T extends AbstractRouter<T, R, H, D>, R, H,
                 H handler = route.getValue();
                 descriptorChanged |= updateApiDescriptor(routes.put(route.getKey(), handler), handler);
             }
+            routesVersion.incrementAndGet();
             if (descriptorChanged) {
                 notifyDescriptorChange();
             }
@@ -129,7 +136,9 @@ public abstract class AbstractRouter<T extends AbstractRouter<T, R, H, D>, R, H,
      * @return This router instance.
      */
     public final T addRoute(RouteMatcher<R> matcher, H handler) {
-        return updateApiDescriptorAndNotify(routes.put(matcher, handler), handler);
+        H oldHandler = routes.put(matcher, handler);
+        routesVersion.incrementAndGet();
+        return updateApiDescriptorAndNotify(oldHandler, handler);
     }
 
     private boolean updateApiDescriptor(H oldHandler, H newHandler) {
@@ -182,6 +191,7 @@ public abstract class AbstractRouter<T extends AbstractRouter<T, R, H, D>, R, H,
      */
     public final T removeAllRoutes() {
         routes.clear();
+        routesVersion.incrementAndGet();
         api = null;
         return getThis();
     }
@@ -202,6 +212,7 @@ public abstract class AbstractRouter<T extends AbstractRouter<T, R, H, D>, R, H,
             isModified |= removed != null;
             apiDescriptorModified |= updateApiDescriptor(removed, null);
         }
+        routesVersion.incrementAndGet();
         if (apiDescriptorModified) {
             notifyDescriptorChange();
         }
@@ -262,6 +273,10 @@ public abstract class AbstractRouter<T extends AbstractRouter<T, R, H, D>, R, H,
     }
 
     private Pair<RouteMatch, H> getBestRouteMatch(Context context, R request) throws IncomparableRouteMatchException {
+        UriRouteTrie<R, H> trie = getCompiledRoutes().trie;
+        if (trie != null) {
+            return trie.getBestRouteMatch(context, request);
+        }
         Pair<RouteMatch, H> bestMatch = Pair.of(null, null);
         for (Map.Entry<RouteMatcher<R>, H> route : routes.entrySet()) {
             RouteMatch result = route.getKey().evaluate(context, request);
@@ -274,6 +289,20 @@ public abstract class AbstractRouter<T extends AbstractRouter<T, R, H, D>, R, H,
         return bestMatch;
     }
 
+    /**
+     * Returns the compiled routes, compiling them again if they changed since they were last compiled. The routes
+     * may change while they are being compiled, in which case they will be compiled again for the next request.
+     */
+    private CompiledRoutes<R, H> getCompiledRoutes() {
+        final int version = routesVersion.get();
+        CompiledRoutes<R, H> compiled = compiledRoutes;
+        if (compiled == null || compiled.version != version) {
+            compiled = new CompiledRoutes<>(version, UriRouteTrie.compile(routes));
+            compiledRoutes = compiled;
+        }
+        return compiled;
+    }
+
     /**
      * Return a {@code Describable} handler that returns this {@code AbstractRouter}'s internal api description from the
      * {@link Describable#handleApiRequest(Context, Object)} method. All other methods should throw an
@@ -368,4 +397,18 @@ public abstract class AbstractRouter<T extends AbstractRouter<T, R, H, D>, R, H,
         }
         return descriptors.isEmpty() ? null : producer.merge(descriptors);
     }
+
+    /**
+     * A version of the routes compiled into a {@link UriRouteTrie}. The trie is {@code null} if the routes cannot
+     * be compiled and have to be evaluated in turn.
+     */
+    private static final class CompiledRoutes<R, H> {
+        private final int version;
+        private final UriRouteTrie<R, H> trie;
+
+        private CompiledRoutes(int version, UriRouteTrie<R, H> trie) {
+            this.version = version;
+            this.trie = trie;
+        }
+    }
 }
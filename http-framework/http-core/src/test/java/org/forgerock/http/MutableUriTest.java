@@ -519,4 +519,60 @@ public class MutableUriTest {
         assertThat(uri.toString()).isEqualTo("http://www.example.com///");
         assertThat(uri.getPathElements()).containsExactly("", "", "");
     }
+
+    @Test
+    public void shouldRenderChainedUpdates() throws Exception {
+        MutableUri uri = uri("http://www.example.com:8080/a/b?x=1#top");
+        uri.rebase(new URI("https://backend.example.org:8443"));
+        uri.setRawPath("/c/d%20e");
+        uri.setRawQuery("y=2");
+        uri.setFragment(null);
+        uri.setUserInfo("bjensen");
+        assertThat(uri.toString()).isEqualTo("https://bjensen@backend.example.org:8443/c/d%20e?y=2");
+        assertThat(uri.asURI()).isEqualTo(new URI("https://bjensen@backend.example.org:8443/c/d%20e?y=2"));
+        assertThat(uri.getPath()).isEqualTo("/c/d e");
+        assertThat(uri.getAuthority()).isEqualTo("bjensen@backend.example.org:8443");
+    }
+
+    @Test
+    public void shouldUpdatePathElementsWhenPathIsUpdated() throws Exception {
+        MutableUri uri = uri("http://www.example.com/a/b");
+        assertThat(uri.getPathElements()).containsExactly("a", "b");
+        uri.setRawPath("/c/d%2Fe");
+        assertThat(uri.getPathElements()).containsExactly("c", "d/e");
+        assertThat(uri.getPathElements().toString()).isEqualTo("c/d%2Fe");
+        uri.setPath(null);
+        assertThat(uri.getPathElements()).isEmpty();
+    }
+
+    @Test
+    public void shouldCopyIndependently() throws Exception {
+        MutableUri uri = uri("http://www.example.com/a?x=1");
+        MutableUri copy = new MutableUri(uri);
+        copy.setRawPath("/b");
+        copy.setPort(8080);
+        assertThat(uri.toString()).isEqualTo("http://www.example.com/a?x=1");
+        assertThat(uri.getPathElements()).containsExactly("a");
+        assertThat(copy.toString()).isEqualTo("http://www.example.com:8080/b?x=1");
+        assertThat(copy).isNotEqualTo(uri);
+    }
+
+    @Test
+    public void shouldUpdateUriWithIpv6Host() throws Exception {
+        MutableUri uri = uri("http://[::1]:8080/a");
+        uri.setRawPath("/b");
+        uri.setRawQuery("x=1");
+        assertThat(uri.toString()).isEqualTo("http://[::1]:8080/b?x=1");
+        assertThat(uri.getHost()).isEqualTo("[::1]");
+    }
+
+    @Test(expectedExceptions = URISyntaxException.class)
+    public void shouldFailWithInvalidRawQuery() throws Exception {
+        uri("http://www.example.com").setRawQuery("a=<b>");
+    }
+
+    @Test(expectedExceptions = URISyntaxException.class)
+    public void shouldFailWithInvalidHost() throws Exception {
+        uri("http://www.example.com").setHost("www.exa mple.com");
+    }
 }
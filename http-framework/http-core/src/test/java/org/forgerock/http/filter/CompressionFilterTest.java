@@ -0,0 +1,207 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.filter;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.forgerock.http.Handler;
+import org.forgerock.http.header.GenericHeader;
+import org.forgerock.http.io.IO;
+import org.forgerock.http.protocol.Request;
+import org.forgerock.http.protocol.Response;
+import org.forgerock.http.protocol.Status;
+import org.forgerock.services.context.Context;
+import org.forgerock.services.context.RootContext;
+import org.forgerock.util.promise.NeverThrowsException;
+import org.forgerock.util.promise.Promise;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("javadoc")
+public class CompressionFilterTest {
+
+    private static final String CONTENT;
+
+    static {
+        final StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < 1000; i++) {
+            builder.append("{\"_id\":\"").append(i).append("\",\"name\":\"user.").append(i).append("\"},");
+        }
+        CONTENT = builder.append("{}]").toString();
+    }
+
+    @DataProvider
+    public Object[][] acceptEncodings() {
+        return new Object[][] {
+            { null, null },
+            { "gzip", "gzip" },
+            { "x-gzip", "gzip" },
+            { "deflate", "deflate" },
+            { "deflate, gzip", "gzip" },
+            { "gzip;q=0.5, deflate", "deflate" },
+            { "br, *", "gzip" },
+            { "*;q=0.5, gzip;q=0", "deflate" },
+            { "identity", null },
+            { "*;q=0", null },
+            { "gzip;q=0, deflate;q=0", null },
+        };
+    }
+
+    @Test(dataProvider = "acceptEncodings")
+    public void shouldSelectEncoding(final String acceptEncoding, final String expected) {
+        final GenericHeader header = acceptEncoding == null ? null
+                : new GenericHeader("Accept-Encoding", acceptEncoding);
+        assertThat(CompressionFilter.selectEncoding(header)).isEqualTo(expected);
+    }
+
+    @Test
+    public void shouldCompressWithGzip() throws Exception {
+        final Response response = filter("gzip", newResponse(CONTENT, "application/json"));
+
+        assertThat(response.getHeaders().getFirst("Content-Encoding")).isEqualTo("gzip");
+        assertThat(response.getHeaders().getFirst("Content-Length")).isNull();
+        assertThat(response.getHeaders().getFirst("Vary")).isEqualTo("Accept-Encoding");
+        assertThat(response.getHeaders().getFirst("ETag")).isEqualTo("W/\"1\"");
+        final byte[] compressed = response.getEntity().getBytes();
+        assertThat(compressed.length).isLessThan(CONTENT.length());
+        assertThat(decode(new GZIPInputStream(new ByteArrayInputStream(compressed)))).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void shouldCompressWithDeflate() throws Exception {
+        final Response response = filter("deflate", newResponse(CONTENT, "application/json"));
+
+        assertThat(response.getHeaders().getFirst("Content-Encoding")).isEqualTo("deflate");
+        final byte[] compressed = response.getEntity().getBytes();
+        assertThat(decode(new InflaterInputStream(new ByteArrayInputStream(compressed)))).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void shouldDecodeCompressedEntity() throws Exception {
+        final Response response = filter("gzip", newResponse(CONTENT, "application/json"));
+
+        assertThat(response.getEntity().getString()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void shouldNotCompressWhenEncodingNotAccepted() throws Exception {
+        final Response original = newResponse(CONTENT, "application/json");
+        final Response response = filter("identity", original);
+
+        assertThat(response).isSameAs(original);
+        assertThat(response.getHeaders().getFirst("Content-Encoding")).isNull();
+        assertThat(response.getHeaders().getFirst("Vary")).isEqualTo("Accept-Encoding");
+        assertThat(response.getEntity().getString()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void shouldNotCompressSmallContent() throws Exception {
+        final Response original = newResponse("{}", "application/json");
+
+        assertThat(filter("gzip", original)).isSameAs(original);
+        assertThat(original.getHeaders().getFirst("Content-Encoding")).isNull();
+    }
+
+    @Test
+    public void shouldNotCompressCompressedContentTypes() throws Exception {
+        final Response original = newResponse(CONTENT, "image/png");
+
+        assertThat(filter("gzip", original)).isSameAs(original);
+        assertThat(original.getHeaders().getFirst("Content-Encoding")).isNull();
+        assertThat(original.getHeaders().getFirst("Vary")).isNull();
+    }
+
+    @Test
+    public void shouldNotCompressEncodedContent() throws Exception {
+        final Response original = newResponse(CONTENT, "application/json");
+        original.getHeaders().put("Content-Encoding", "br");
+
+        assertThat(filter("gzip", original)).isSameAs(original);
+    }
+
+    @Test
+    public void shouldNotCompressNoTransformContent() throws Exception {
+        final Response original = newResponse(CONTENT, "application/json");
+        original.getHeaders().put("Cache-Control", "private, no-transform");
+
+        assertThat(filter("gzip", original)).isSameAs(original);
+    }
+
+    @Test
+    public void shouldNotAddVaryTwice() throws Exception {
+        final Response original = newResponse(CONTENT, "application/json");
+        original.getHeaders().put("Vary", "Origin, accept-encoding");
+
+        final Response response = filter("gzip", original);
+
+        assertThat(response.getHeaders().get("Vary").getValues()).containsExactly("Origin, accept-encoding");
+    }
+
+    @Test
+    public void shouldCompressContentOfUnknownLength() throws Exception {
+        final Response original = new Response(Status.OK);
+        original.setEntity(IO.newBranchingInputStream(new ByteArrayInputStream(CONTENT.getBytes(UTF_8)),
+                IO.newTemporaryStorage()));
+
+        final Response response = filter("gzip", original);
+
+        assertThat(response.getHeaders().getFirst("Content-Encoding")).isEqualTo("gzip");
+        assertThat(response.getEntity().getString()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void shouldNotCompressEmptyContentOfUnknownLength() throws Exception {
+        final Response original = new Response(Status.OK);
+
+        assertThat(filter("gzip", original)).isSameAs(original);
+    }
+
+    private static Response filter(final String acceptEncoding, final Response response) throws Exception {
+        final Request request = new Request().setMethod("GET");
+        request.getHeaders().put("Accept-Encoding", acceptEncoding);
+        final Handler handler = new Handler() {
+            @Override
+            public Promise<Response, NeverThrowsException> handle(final Context context, final Request request) {
+                return Response.newResponsePromise(response);
+            }
+        };
+        return new CompressionFilter(CompressionFilter.DEFAULT_MINIMUM_LENGTH, Deflater.DEFAULT_COMPRESSION,
+                IO.newTemporaryStorage()).filter(new RootContext(), request, handler).get();
+    }
+
+    private static Response newResponse(final String content, final String contentType) {
+        final Response response = new Response(Status.OK);
+        response.getHeaders().put("Content-Type", contentType);
+        response.getHeaders().put("ETag", "\"1\"");
+        response.setEntity(content.getBytes(UTF_8));
+        return response;
+    }
+
+    private static String decode(final InputStream in) throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IO.stream(in, out);
+        return new String(out.toByteArray(), UTF_8);
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+@SuppressWarnings("javadoc")
+public class BoundedPipeInputStreamTest {
+
+    private static final int CAPACITY = 1_024;
+
+    @Test(timeOut = 10_000)
+    public void shouldPassContentThroughAsItIsWritten() throws Exception {
+        final byte[] content = new byte[100_000];
+        new Random().nextBytes(content);
+        final Producer producer = new Producer(content);
+        final BoundedPipeInputStream pipe = IO.newBoundedPipeInputStream(CAPACITY, producer);
+        producer.pipe = pipe;
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // the producer stops as soon as the pipe is full, and is resumed by the reader
+            executor.execute(producer);
+
+            assertThat(readAll(pipe)).isEqualTo(content);
+            assertThat(producer.runs.get()).isGreaterThan(1);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldReportFailureOnceContentHasBeenRead() throws IOException {
+        final BoundedPipeInputStream pipe = IO.newBoundedPipeInputStream(CAPACITY, new Producer(null));
+        pipe.write(new byte[] { 1, 2 }, 0, 2);
+        final IOException failure = new IOException("connection reset");
+        pipe.fail(failure);
+
+        assertThat(pipe.read()).isEqualTo(1);
+        assertThat(pipe.read()).isEqualTo(2);
+        try {
+            pipe.read();
+            failBecauseExceptionWasNotThrown(IOException.class);
+        } catch (IOException e) {
+            assertThat(e).isSameAs(failure);
+        }
+    }
+
+    @Test
+    public void shouldResumeProducerAndDiscardContentWhenClosed() throws IOException {
+        final Producer producer = new Producer(null);
+        final BoundedPipeInputStream pipe = IO.newBoundedPipeInputStream(CAPACITY, producer);
+        assertThat(pipe.write(new byte[CAPACITY], 0, CAPACITY)).isFalse();
+        assertThat(pipe.remaining()).isEqualTo(0);
+
+        pipe.close();
+
+        assertThat(producer.runs.get()).isEqualTo(1);
+        assertThat(pipe.remaining()).isEqualTo(CAPACITY);
+        assertThat(pipe.write(new byte[CAPACITY], 0, CAPACITY)).isTrue();
+        assertThat(pipe.available()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldNotResumeProducerBeforePipeIsHalfEmpty() throws IOException {
+        final Producer producer = new Producer(null);
+        final BoundedPipeInputStream pipe = IO.newBoundedPipeInputStream(CAPACITY, producer);
+        pipe.write(new byte[CAPACITY], 0, CAPACITY);
+
+        pipe.read(new byte[CAPACITY / 2 - 1]);
+        assertThat(producer.runs.get()).isEqualTo(0);
+
+        pipe.read();
+        assertThat(producer.runs.get()).isEqualTo(1);
+    }
+
+    private static byte[] readAll(final BoundedPipeInputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] b = new byte[300];
+        int n;
+        while ((n = in.read(b)) != -1) {
+            out.write(b, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    /** Writes its content for as long as the pipe is not full, in small writes, as a server receiving it would. */
+    private static final class Producer implements Runnable {
+        private final byte[] content;
+        private final AtomicInteger runs = new AtomicInteger();
+        private BoundedPipeInputStream pipe;
+        private int position;
+
+        private Producer(final byte[] content) {
+            this.content = content;
+        }
+
+        @Override
+        public void run() {
+            runs.incrementAndGet();
+            if (content == null) {
+                return;
+            }
+            while (position < content.length) {
+                final int n = Math.min(Math.min(100, content.length - position), pipe.remaining());
+                position += n;
+                // once the pipe is full, the reader may resume the producer before the write returns
+                if (!pipe.write(content, position - n, n)) {
+                    return;
+                }
+            }
+            pipe.finish();
+        }
+    }
+}
@@ -51,8 +51,10 @@ public class BufferTest {
     public Object[][] data() throws IOException {
         return new Object[][]{
                 {new FileBuffer(Files.createTempFile(tempDir, "buf", "tmp").toFile(), BUF_SIZE)},
+                {new FileBuffer(Files.createTempFile(tempDir, "buf", "tmp").toFile(), BUF_SIZE, false, true)},
                 {new MemoryBuffer(BUF_SIZE, BUF_SIZE)},
-                {new TemporaryBuffer(BUF_SIZE, BUF_SIZE, BUF_SIZE, tempDir.toFile())}
+                {new TemporaryBuffer(BUF_SIZE, BUF_SIZE, BUF_SIZE, tempDir.toFile())},
+                {new ChunkedBuffer(new PooledStorage(tempDir.toFile(), 1, BUF_SIZE, BUF_SIZE, BUF_SIZE), BUF_SIZE)}
         };
     }
 
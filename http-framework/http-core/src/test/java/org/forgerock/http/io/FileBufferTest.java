@@ -0,0 +1,133 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.forgerock.util.test.FileUtils;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("javadoc")
+public class FileBufferTest {
+
+    private static Path tempDir;
+
+    @BeforeClass
+    public static void beforeClass() throws IOException {
+        tempDir = Files.createTempDirectory(FileBufferTest.class.getSimpleName());
+    }
+
+    @AfterClass
+    public static void afterClass() throws IOException {
+        FileUtils.deleteRecursively(tempDir);
+    }
+
+    @DataProvider
+    public Object[][] mapFile() {
+        return new Object[][] { { false }, { true } };
+    }
+
+    @Test(dataProvider = "mapFile")
+    public void shouldReadDataAppendedAfterItsPageWasCached(boolean mapFile) throws IOException {
+        final byte[] data = new byte[20_000];
+        new Random().nextBytes(data);
+        try (FileBuffer buffer = new FileBuffer(newFile(), data.length, false, mapFile)) {
+            byte[] b = new byte[100];
+            for (int appended = 0; appended < data.length; appended += 1_000) {
+                buffer.append(data, appended, 1_000);
+
+                // the page of the last appended byte was cached before the byte was appended
+                int pos = appended + 1_000 - b.length;
+                assertThat(buffer.read(pos, b, 0, b.length)).isEqualTo(b.length);
+                assertThat(b).isEqualTo(Arrays.copyOfRange(data, pos, pos + b.length));
+                assertThat(buffer.read(appended + 999)).isEqualTo(data[appended + 999]);
+            }
+
+            b = new byte[data.length];
+            assertThat(buffer.read(0, b, 0, b.length)).isEqualTo(data.length);
+            assertThat(b).isEqualTo(data);
+        }
+    }
+
+    @Test(dataProvider = "mapFile")
+    public void shouldNotReadBeyondLength(boolean mapFile) throws IOException {
+        try (FileBuffer buffer = new FileBuffer(newFile(), 10, false, mapFile)) {
+            buffer.append(new byte[] { 1, 2, 3 }, 0, 3);
+
+            byte[] b = new byte[10];
+            assertThat(buffer.read(1, b, 0, b.length)).isEqualTo(2);
+            assertThat(buffer.read(3, b, 0, b.length)).isEqualTo(0);
+        }
+    }
+
+    @Test
+    public void shouldDeleteTemporaryFileWhenClosed() throws IOException {
+        File file = newFile();
+        FileBuffer buffer = new FileBuffer(file, 10, true);
+        buffer.append((byte) 1);
+
+        buffer.close();
+
+        assertThat(file).doesNotExist();
+    }
+
+    @Test
+    public void shouldFailToReadFromMappedFileWhenClosed() throws IOException {
+        File file = newFile();
+        FileBuffer buffer = new FileBuffer(file, 10, true, true);
+        buffer.append((byte) 1);
+        assertThat(buffer.read(0)).isEqualTo((byte) 1);
+
+        buffer.close();
+
+        try {
+            buffer.read(0);
+            failBecauseExceptionWasNotThrown(IOException.class);
+        } catch (IOException e) {
+            assertThat(e).hasMessage("buffer is closed");
+        }
+    }
+
+    @Test
+    public void shouldKeepFileWhenClosed() throws IOException {
+        File file = newFile();
+        FileBuffer buffer = new FileBuffer(file, 10);
+        buffer.append((byte) 1);
+
+        buffer.close();
+
+        assertThat(file).exists();
+        try (FileBuffer reopened = new FileBuffer(file, 10)) {
+            assertThat(reopened.length()).isEqualTo(1);
+        }
+    }
+
+    private static File newFile() throws IOException {
+        return Files.createTempFile(tempDir, "buf", "tmp").toFile();
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.forgerock.util.test.FileUtils;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("javadoc")
+public class PooledStorageTest {
+
+    private static final int CHUNK_SIZE = 1_024;
+    private static final int MEMORY_LIMIT = 8 * CHUNK_SIZE;
+
+    private static Path tempDir;
+    private PooledStorage storage;
+    private byte[] data;
+
+    @BeforeClass
+    public static void beforeClass() throws IOException {
+        tempDir = Files.createTempDirectory(PooledStorageTest.class.getSimpleName());
+    }
+
+    @AfterClass
+    public static void afterClass() throws IOException {
+        FileUtils.deleteRecursively(tempDir);
+    }
+
+    @BeforeMethod
+    public void beforeMethod() {
+        storage = IO.newPooledStorage(tempDir.toFile(), CHUNK_SIZE, 4, MEMORY_LIMIT, 4 * MEMORY_LIMIT);
+        data = new byte[MEMORY_LIMIT];
+        new Random().nextBytes(data);
+    }
+
+    @Test
+    public void shouldReadDataAcrossChunks() throws IOException {
+        try (Buffer buffer = storage.newInstance()) {
+            buffer.append(data, 0, 1_000);
+            buffer.append(data, 1_000, data.length - 1_000);
+
+            byte[] b = new byte[2_000];
+            assertThat(buffer.read(CHUNK_SIZE - 100, b, 0, b.length)).isEqualTo(b.length);
+            assertThat(b).isEqualTo(Arrays.copyOfRange(data, CHUNK_SIZE - 100, CHUNK_SIZE - 100 + b.length));
+            assertThat(buffer.read(CHUNK_SIZE)).isEqualTo(data[CHUNK_SIZE]);
+            assertThat(buffer.length()).isEqualTo(data.length);
+        }
+    }
+
+    @Test
+    public void shouldReuseChunksOnceClosed() throws IOException {
+        try (Buffer buffer = storage.newInstance()) {
+            buffer.append(data, 0, 2 * CHUNK_SIZE);
+        }
+        assertThat(storage.getMisses()).isEqualTo(2);
+        assertThat(storage.getPooledChunks()).isEqualTo(2);
+
+        try (Buffer buffer = storage.newInstance()) {
+            buffer.append(data, 0, 3 * CHUNK_SIZE);
+        }
+
+        assertThat(storage.getHits()).isEqualTo(2);
+        assertThat(storage.getMisses()).isEqualTo(3);
+        assertThat(storage.getHitRate()).isEqualTo(0.4);
+    }
+
+    @Test
+    public void shouldNotPoolMoreChunksThanItsCapacity() throws IOException {
+        try (Buffer buffer = storage.newInstance()) {
+            buffer.append(data, 0, data.length);
+        }
+
+        assertThat(storage.getPooledChunks()).isEqualTo(4);
+    }
+
+    @Test
+    public void shouldPromoteToFileAndReturnChunks() throws IOException {
+        try (Buffer buffer = storage.newInstance()) {
+            buffer.append(data, 0, data.length);
+            buffer.append(data, 0, data.length);
+
+            assertThat(storage.getPooledChunks()).isEqualTo(4);
+            byte[] b = new byte[2 * data.length];
+            assertThat(buffer.read(0, b, 0, b.length)).isEqualTo(b.length);
+            assertThat(Arrays.copyOfRange(b, 0, data.length)).isEqualTo(data);
+            assertThat(Arrays.copyOfRange(b, data.length, b.length)).isEqualTo(data);
+        }
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void shouldNotReadOnceClosed() throws IOException {
+        Buffer buffer = storage.newInstance();
+        buffer.append(data, 0, 10);
+        buffer.close();
+
+        buffer.read(0);
+    }
+}
@@ -376,6 +376,37 @@ public class HeadersTest {
     }
 
 
+    @Test
+    public void testHeadersAreIteratedInInsertionOrder() {
+        // Given
+        Headers headers = new Headers();
+        headers.add("X-Second", "1");
+        headers.add("Content-Type", "text/plain");
+        headers.add("Accept", "*/*");
+
+        // When
+        headers.add("x-second", "2");
+
+        // Then
+        assertThat(headers.keySet()).containsExactly("X-Second", "Content-Type", "Accept");
+        assertThat(headers.get("X-SECOND").getValues()).containsExactly("1", "2");
+    }
+
+    @Test
+    public void testKeySetRemovalIsCaseInsensitive() {
+        // Given
+        Headers headers = new Headers();
+        headers.put("Content-Type", "text/plain");
+        headers.put("Accept", "*/*");
+
+        // When
+        boolean removed = headers.keySet().remove("content-type");
+
+        // Then
+        assertThat(removed).isTrue();
+        assertThat(headers.keySet()).containsExactly("Accept");
+    }
+
     public List<Object> asList(Object... values) {
         return Arrays.asList(values);
     }
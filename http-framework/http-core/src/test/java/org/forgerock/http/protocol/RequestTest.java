@@ -94,4 +94,44 @@ public class RequestTest {
         assertThat(copy.getCookies().get("a")).hasSize(1);
         assertThat(copy.getCookies().get("a").get(0)).isEqualTo(cookie);
     }
+
+    @Test
+    public void testFormReflectsQueryChanges() throws Exception {
+        Request request = new Request().setUri("http://example.com?a=1&b=2");
+        assertThat(request.getForm().getFirst("a")).isEqualTo("1");
+
+        request.getForm().putSingle("a", "modified");
+        assertThat(request.getForm().getFirst("a")).isEqualTo("1");
+
+        request.getUri().setRawQuery("a=3");
+        assertThat(request.getForm().getFirst("a")).isEqualTo("3");
+        assertThat(request.getForm()).doesNotContainKey("b");
+
+        request.setUri("http://example.com");
+        assertThat(request.getForm()).isEmpty();
+    }
+
+    @Test
+    public void testHasQueryParameter() throws Exception {
+        Request request = new Request().setUri("http://example.com?_api&a=1&%5Fb=2&c+d=3&e=_api&=4");
+        assertThat(request.hasQueryParameter("_api")).isTrue();
+        assertThat(request.hasQueryParameter("a")).isTrue();
+        assertThat(request.hasQueryParameter("_b")).isTrue();
+        assertThat(request.hasQueryParameter("c d")).isTrue();
+        assertThat(request.hasQueryParameter("e")).isTrue();
+        assertThat(request.hasQueryParameter("_")).isFalse();
+        assertThat(request.hasQueryParameter("1")).isFalse();
+        assertThat(request.hasQueryParameter("")).isFalse();
+        assertThat(new Request().setUri("http://example.com").hasQueryParameter("a")).isFalse();
+    }
+
+    @Test
+    public void testHasQueryParameterIgnoresFormEntity() throws Exception {
+        Request request = new Request().setUri("http://example.com").setMethod("POST");
+        Form form = new Form();
+        form.add("_api", "");
+        form.toRequestEntity(request);
+        assertThat(request.getForm()).containsKey("_api");
+        assertThat(request.hasQueryParameter("_api")).isFalse();
+    }
 }
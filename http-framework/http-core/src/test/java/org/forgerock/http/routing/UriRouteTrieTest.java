@@ -0,0 +1,149 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.routing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.http.routing.RouteMatchers.requestResourceApiVersionMatcher;
+import static org.forgerock.http.routing.RouteMatchers.requestUriMatcher;
+import static org.forgerock.http.routing.RoutingMode.EQUALS;
+import static org.forgerock.http.routing.RoutingMode.STARTS_WITH;
+import static org.forgerock.http.routing.Version.version;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.forgerock.http.protocol.Request;
+import org.forgerock.services.context.Context;
+import org.forgerock.services.context.RootContext;
+import org.forgerock.services.routing.RouteMatch;
+import org.forgerock.services.routing.RouteMatcher;
+import org.forgerock.util.Pair;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("javadoc")
+public class UriRouteTrieTest {
+
+    private static Map<RouteMatcher<Request>, String> routes() {
+        Map<RouteMatcher<Request>, String> routes = new LinkedHashMap<>();
+        routes.put(requestUriMatcher(EQUALS, ""), "root");
+        routes.put(requestUriMatcher(STARTS_WITH, ""), "any");
+        routes.put(requestUriMatcher(EQUALS, "users"), "users");
+        routes.put(requestUriMatcher(EQUALS, "users/{id}"), "user");
+        routes.put(requestUriMatcher(STARTS_WITH, "users/{id}"), "user-sub");
+        routes.put(requestUriMatcher(EQUALS, "users/admin"), "admin");
+        routes.put(requestUriMatcher(STARTS_WITH, "{realm}/groups/{id}"), "group");
+        routes.put(requestUriMatcher(STARTS_WITH, "devices/{id}.json"), "device");
+        routes.put(requestUriMatcher(EQUALS, "a%20b/c"), "encoded");
+        return routes;
+    }
+
+    @DataProvider
+    public Object[][] requests() {
+        return new Object[][] {
+            // @formatter:off
+            /* path,                        route,      matched,              remaining,    variables */
+            { "",                           "root",     "",                   "",           "{}" },
+            { "/unknown/path",              "any",      "",                   "unknown/path", "{}" },
+            { "/users",                     "users",    "users",              "",           "{}" },
+            { "/users/bjensen",             "user",     "users/bjensen",      "",           "{id=bjensen}" },
+            { "/users/admin",               "admin",    "users/admin",        "",           "{}" },
+            { "/users/bjensen/devices",     "user-sub", "users/bjensen",      "devices",    "{id=bjensen}" },
+            { "/users/b%20jensen",          "user",     "users/b%20jensen",   "",           "{id=b jensen}" },
+            { "/root/groups/admins/members", "group",   "root/groups/admins", "members",    "{realm=root, id=admins}" },
+            { "/devices/phone.json/0",      "device",   "devices/phone.json", "0",          "{id=phone}" },
+            { "/devices/phone/0",           "any",      "",                   "devices/phone/0", "{}" },
+            { "/a%20b/c",                   "encoded",  "a%20b/c",            "",           "{}" },
+            // @formatter:on
+        };
+    }
+
+    @Test(dataProvider = "requests")
+    public void shouldSelectBestRoute(String path, String expectedRoute, String expectedMatched,
+            String expectedRemaining, String expectedVariables) throws Exception {
+        Map<RouteMatcher<Request>, String> routes = routes();
+        Context context = new RootContext();
+        Request request = new Request().setUri("http://localhost" + path);
+
+        Pair<RouteMatch, String> best = UriRouteTrie.compile(routes).getBestRouteMatch(context, request);
+
+        assertThat(best.getSecond()).isEqualTo(expectedRoute);
+        UriRouterContext routerContext = best.getFirst().decorateContext(context).asContext(UriRouterContext.class);
+        assertThat(routerContext.getMatchedUri()).isEqualTo(expectedMatched);
+        assertThat(routerContext.getRemainingUri()).isEqualTo(expectedRemaining);
+        assertThat(routerContext.getUriTemplateVariables().toString()).isEqualTo(expectedVariables);
+    }
+
+    @Test(dataProvider = "requests")
+    public void shouldSelectSameRouteAsRouteMatchers(String path, String expectedRoute, String expectedMatched,
+            String expectedRemaining, String expectedVariables) throws Exception {
+        Map<RouteMatcher<Request>, String> routes = routes();
+        Context context = new RootContext();
+        Request request = new Request().setUri("http://localhost" + path);
+
+        RouteMatch bestMatch = null;
+        String bestRoute = null;
+        for (Map.Entry<RouteMatcher<Request>, String> route : routes.entrySet()) {
+            RouteMatch match = route.getKey().evaluate(context, request);
+            if (match != null && match.isBetterMatchThan(bestMatch)) {
+                bestMatch = match;
+                bestRoute = route.getValue();
+            }
+        }
+
+        assertThat(UriRouteTrie.compile(routes).getBestRouteMatch(context, request).getSecond())
+                .isEqualTo(bestRoute);
+    }
+
+    @Test
+    public void shouldReturnNoMatchWhenNoRouteMatches() throws Exception {
+        Map<RouteMatcher<Request>, String> routes = new LinkedHashMap<>();
+        routes.put(requestUriMatcher(EQUALS, "users"), "users");
+
+        Pair<RouteMatch, String> best = UriRouteTrie.compile(routes)
+                .getBestRouteMatch(new RootContext(), new Request().setUri("http://localhost/groups"));
+
+        assertThat(best.getFirst()).isNull();
+        assertThat(best.getSecond()).isNull();
+    }
+
+    @Test
+    public void shouldPreferFirstRouteWhenMatchesAreEquivalent() throws Exception {
+        Map<RouteMatcher<Request>, String> routes = new LinkedHashMap<>();
+        routes.put(requestUriMatcher(EQUALS, "users/{id}"), "first");
+        routes.put(requestUriMatcher(EQUALS, "{type}/admin"), "second");
+
+        Pair<RouteMatch, String> best = UriRouteTrie.compile(routes)
+                .getBestRouteMatch(new RootContext(), new Request().setUri("http://localhost/users/admin"));
+
+        assertThat(best.getSecond()).isEqualTo("first");
+    }
+
+    @Test
+    public void shouldNotCompileOtherRouteMatchers() throws Exception {
+        Map<RouteMatcher<Request>, String> routes = new LinkedHashMap<>();
+        routes.put(requestUriMatcher(EQUALS, "users"), "users");
+        routes.put(requestResourceApiVersionMatcher(version(1)), "v1");
+
+        assertThat(UriRouteTrie.compile(routes)).isNull();
+    }
+
+    @Test
+    public void shouldNotCompileEmptyRoutes() throws Exception {
+        assertThat(UriRouteTrie.compile(new LinkedHashMap<RouteMatcher<Request>, String>())).isNull();
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("javadoc")
+public class CaseInsensitiveHeaderMapTest {
+
+    private CaseInsensitiveHeaderMap<String> map;
+
+    @BeforeMethod
+    public void before() {
+        map = new CaseInsensitiveHeaderMap<>();
+    }
+
+    @Test
+    public void shouldGetValueIgnoringCase() {
+        map.put("Content-Type", "text/plain");
+
+        assertThat(map.get("content-type")).isEqualTo("text/plain");
+        assertThat(map.get("CONTENT-TYPE")).isEqualTo("text/plain");
+        assertThat(map.get(new String("Content-Type"))).isEqualTo("text/plain");
+        assertThat(map.containsKey("cOnTeNt-TyPe")).isTrue();
+        assertThat(map.get("Content-Length")).isNull();
+    }
+
+    @Test
+    public void shouldHashNameIgnoringCase() {
+        assertThat(CaseInsensitiveHeaderMap.hash("Content-Type"))
+                .isEqualTo(CaseInsensitiveHeaderMap.hash("content-type"))
+                .isEqualTo(CaseInsensitiveHeaderMap.hash(new String("CONTENT-TYPE")));
+        assertThat(CaseInsensitiveHeaderMap.hash("X-Custom")).isEqualTo(CaseInsensitiveHeaderMap.hash("x-custom"));
+        assertThat(CaseInsensitiveHeaderMap.hash("Été")).isEqualTo(CaseInsensitiveHeaderMap.hash("éTÉ"));
+    }
+
+    @Test
+    public void shouldKeepFirstKeyWhenReplacingValue() {
+        map.put("Content-Type", "text/plain");
+
+        assertThat(map.put("content-type", "text/html")).isEqualTo("text/plain");
+        assertThat(map).containsExactly(entry("Content-Type", "text/html"));
+        assertThat(map.getKey("CONTENT-TYPE")).isEqualTo("Content-Type");
+    }
+
+    @Test
+    public void shouldIterateInInsertionOrder() {
+        map.put("Host", "1");
+        map.put("Accept", "2");
+        map.put("X-ForgeRock-TransactionId", "3");
+        map.put("accept", "4");
+
+        assertThat(map.keySet()).containsExactly("Host", "Accept", "X-ForgeRock-TransactionId");
+        assertThat(map.values()).containsExactly("1", "4", "3");
+    }
+
+    @Test
+    public void shouldRemoveIgnoringCase() {
+        map.put("Host", "1");
+        map.put("Accept", "2");
+        map.put("Cookie", "3");
+
+        assertThat(map.remove("ACCEPT")).isEqualTo("2");
+        assertThat(map.keySet().remove("cookie")).isTrue();
+        assertThat(map.remove("Accept")).isNull();
+        assertThat(map).containsExactly(entry("Host", "1"));
+    }
+
+    @Test
+    public void shouldRemoveWithIterator() {
+        for (int i = 0; i < 10; i++) {
+            map.put("X-Header-" + i, String.valueOf(i));
+        }
+
+        for (Iterator<Map.Entry<String, String>> iterator = map.entrySet().iterator(); iterator.hasNext();) {
+            if (Integer.parseInt(iterator.next().getValue()) % 2 == 0) {
+                iterator.remove();
+            }
+        }
+
+        assertThat(map.keySet()).containsExactly("X-Header-1", "X-Header-3", "X-Header-5", "X-Header-7",
+                "X-Header-9");
+        for (int i = 0; i < 10; i++) {
+            assertThat(map.containsKey("x-header-" + i)).isEqualTo(i % 2 == 1);
+        }
+    }
+
+    @Test
+    public void shouldGrowAndKeepEntries() {
+        for (int i = 0; i < 1000; i++) {
+            map.put("X-Header-" + i, String.valueOf(i));
+        }
+        for (int i = 0; i < 1000; i += 3) {
+            map.remove("x-header-" + i);
+        }
+
+        assertThat(map).hasSize(666);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(map.get("X-HEADER-" + i)).isEqualTo(i % 3 == 0 ? null : String.valueOf(i));
+        }
+    }
+
+    @Test
+    public void shouldBeEmptyAfterClear() {
+        map.put("Host", "1");
+        map.put("Accept", "2");
+
+        map.clear();
+        map.put("Cookie", "3");
+
+        assertThat(map).containsExactly(entry("Cookie", "3"));
+    }
+
+    @Test
+    public void shouldCopyMapMergingKeysIgnoringCase() {
+        Map<String, String> source = new LinkedHashMap<>();
+        source.put("Accept", "1");
+        source.put("Host", "2");
+        source.put("ACCEPT", "3");
+
+        assertThat(new CaseInsensitiveHeaderMap<>(source)).containsExactly(entry("Accept", "3"), entry("Host", "2"));
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.util;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.json.JsonValue.array;
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.forgerock.util.i18n.LocalizableString;
+import org.forgerock.util.i18n.PreferredLocales;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SuppressWarnings("javadoc")
+public class JsonStreamsTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModules(new Json.JsonValueModule(), new Json.LocalizableStringModule());
+
+    @DataProvider
+    private Object[][] documents() {
+        return new Object[][] {
+            { "{\"_id\":\"1\",\"_rev\":\"2\",\"name\":{\"givenName\":\"Barbara\",\"familyName\":\"Jensen\"}}" },
+            { "[1,-2,12345678901,123456789012345678901234567890,2.5,1.0E10,true,false,null]" },
+            { "{\"empty\":{},\"list\":[],\"nested\":[[{\"a\":[\"\\u00e9\\\"\\n\"]}]]}" },
+            { "\"a string\"" },
+            { "42" },
+            { "null" } };
+    }
+
+    @Test(dataProvider = "documents")
+    public void shouldReadSameRepresentationAsDataBinding(final String document) throws Exception {
+        final Object expected = MAPPER.readValue(document, Object.class);
+        final Object actual = read(document);
+        assertThat(actual).isEqualTo(expected);
+        if (expected != null) {
+            assertThat(actual).isExactlyInstanceOf(expected.getClass());
+        }
+    }
+
+    @Test(dataProvider = "documents")
+    public void shouldWriteSameJsonAsDataBinding(final String document) throws Exception {
+        final Object object = MAPPER.readValue(document, Object.class);
+        final byte[] json = JsonStreams.writeJsonAsBytes(MAPPER.getFactory(), object, MAPPER.writer());
+        assertThat(new String(json, UTF_8)).isEqualTo(MAPPER.writeValueAsString(object));
+    }
+
+    @Test
+    public void shouldReadMapsAndListsInDocumentOrder() throws Exception {
+        final Object object = read("{\"z\":[3,2,1],\"a\":{}}");
+        assertThat(object).isInstanceOf(LinkedHashMap.class);
+        assertThat(((Map<?, ?>) object).keySet()).containsExactly("z", "a");
+        assertThat(((Map<?, ?>) object).get("z")).isInstanceOf(ArrayList.class);
+        assertThat((List<?>) ((Map<?, ?>) object).get("z")).containsExactly(3, 2, 1);
+    }
+
+    @Test
+    public void shouldUnwrapNestedJsonValues() throws Exception {
+        final Object object = object(field("a", json(array(json("b"), 1))));
+        final byte[] json = JsonStreams.writeJsonAsBytes(MAPPER.getFactory(), json(object), MAPPER.writer());
+        assertThat(new String(json, UTF_8)).isEqualTo("{\"a\":[\"b\",1]}");
+    }
+
+    @Test
+    public void shouldWriteOtherObjectsWithFallbackWriter() throws Exception {
+        final Object object = object(field("message", new LocalizableString("a message")));
+        final byte[] json = JsonStreams.writeJsonAsBytes(MAPPER.getFactory(), object,
+                Json.makeLocalizingObjectWriter(MAPPER, new PreferredLocales()));
+        assertThat(new String(json, UTF_8)).isEqualTo("{\"message\":\"a message\"}");
+    }
+
+    @Test
+    public void shouldLeaveParserOnLastTokenOfValue() throws Exception {
+        try (JsonParser parser = MAPPER.getFactory().createParser("{\"a\":1} []")) {
+            assertThat(JsonStreams.readJson(parser)).isEqualTo(object(field("a", 1)));
+            assertThat(parser.nextToken()).isNotNull();
+        }
+    }
+
+    @Test(expectedExceptions = JsonMappingException.class)
+    public void shouldFailToReadEmptyContent() throws Exception {
+        read(" ");
+    }
+
+    @Test(expectedExceptions = JsonParseException.class)
+    public void shouldFailToReadTruncatedContent() throws Exception {
+        read("{\"a\":[1,");
+    }
+
+    private static Object read(final String document) throws IOException {
+        try (JsonParser parser = MAPPER.getFactory().createParser(document)) {
+            return JsonStreams.readJson(parser);
+        }
+    }
+}
@@ -19,6 +19,7 @@ import static org.forgerock.http.handler.Handlers.asDescribableHandler;
 import static org.forgerock.http.handler.Handlers.chainOf;
 import static org.forgerock.http.handler.Handlers.internalServerErrorHandler;
 import static org.forgerock.http.io.IO.newBranchingInputStream;
+import static org.forgerock.http.io.IO.newBoundedPipeInputStream;
 import static org.forgerock.http.io.IO.newTemporaryStorage;
 import static org.forgerock.http.protocol.Responses.newInternalServerError;
 import static org.forgerock.http.routing.UriRouterContext.uriRouterContext;
@@ -26,10 +27,12 @@ import static org.forgerock.util.Utils.closeSilently;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.concurrent.Executor;
 
 import org.forgerock.http.ApiProducer;
 import org.forgerock.http.DescribedHttpApplication;
@@ -38,8 +41,10 @@ import org.forgerock.http.HttpApplication;
 import org.forgerock.http.HttpApplicationException;
 import org.forgerock.http.filter.TransactionIdInboundFilter;
 import org.forgerock.http.handler.DescribableHandler;
+import org.forgerock.http.io.BoundedPipeInputStream;
 import org.forgerock.http.io.Buffer;
-import org.forgerock.http.io.IO;
+import org.forgerock.http.io.PooledStorage;
+import org.forgerock.http.protocol.Status;
 import org.forgerock.http.routing.UriRouterContext;
 import org.forgerock.http.session.SessionContext;
 import org.forgerock.http.util.CaseInsensitiveSet;
@@ -52,6 +57,10 @@ import org.forgerock.services.context.RootContext;
 import org.forgerock.util.Factory;
 import org.forgerock.util.promise.ResultHandler;
 import org.forgerock.util.promise.RuntimeExceptionHandler;
+import org.glassfish.grizzly.ReadHandler;
+import org.glassfish.grizzly.WriteHandler;
+import org.glassfish.grizzly.http.io.NIOInputStream;
+import org.glassfish.grizzly.http.io.NIOOutputStream;
 import org.glassfish.grizzly.http.server.HttpHandler;
 import org.glassfish.grizzly.http.server.Request;
 import org.glassfish.grizzly.http.server.Response;
@@ -75,6 +84,12 @@ final class HandlerAdapter extends HttpHandler {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(HandlerAdapter.class);
 
+    /** The size of the chunks of entities which are read and written without blocking. */
+    private static final int CHUNK_SIZE = 8 * 1_024;
+
+    /** The amount of a request entity which is received before the handler has read it. */
+    private static final int PIPE_CAPACITY = 4 * CHUNK_SIZE;
+
     private final HttpApplication httpApplication;
     private final Factory<Buffer> storage;
     private DescribableHandler describedHandler;
@@ -106,6 +121,9 @@ final class HandlerAdapter extends HttpHandler {
     @Override
     public void destroy() {
         httpApplication.stop();
+        if (storage instanceof PooledStorage) {
+            LOGGER.info("Entity buffer pool usage: {}", storage);
+        }
         describedHandler = null;
         super.destroy();
     }
@@ -113,18 +131,44 @@ final class HandlerAdapter extends HttpHandler {
     @Override
     public void service(final Request request, final Response response) throws Exception {
         final org.forgerock.http.protocol.Request chfRequest = toChfRequest(request);
+        response.suspend();
+        if (hasEntity(request, chfRequest)) {
+            // the request is handled while its entity is being received
+            final RequestReader reader = new RequestReader(request.getNIOInputStream());
+            chfRequest.setEntity(newBranchingInputStream(reader.pipe, storage));
+            reader.start();
+            // the entity may only be received once service() has returned: the handler must not wait for it on this
+            // thread
+            request.getRequestExecutor().execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        dispatch(request, response, chfRequest);
+                    } catch (RuntimeException e) {
+                        LOGGER.error("RuntimeException caught", e);
+                        response.setStatus(Status.INTERNAL_SERVER_ERROR.getCode());
+                        response.resume();
+                    }
+                }
+            });
+            return;
+        }
+        dispatch(request, response, chfRequest);
+    }
+
+    private void dispatch(final Request request, final Response response,
+            final org.forgerock.http.protocol.Request chfRequest) {
         final RootContext rootContext = new RootContext();
         final SessionContext sessionContext = new SessionContext(rootContext, new SessionAdapter(request.getSession()));
         final UriRouterContext uriRouterContext = createRouterContext(sessionContext, request, chfRequest);
         final AttributesContext attributesContext = new AttributesContext(new RequestAuditContext(uriRouterContext));
         final ClientContext context = createClientContext(attributesContext, request);
 
-        response.suspend();
         describedHandler.handle(context, chfRequest)
                 .thenOnResult(new ResultHandler<org.forgerock.http.protocol.Response>() {
                     @Override
                     public void handleResult(org.forgerock.http.protocol.Response chfResponse) {
-                        writeResponse(chfResponse, response, sessionContext);
+                        writeResponse(chfResponse, request, response, sessionContext);
                     }
                 })
                 .thenOnRuntimeException(new RuntimeExceptionHandler() {
@@ -133,19 +177,18 @@ final class HandlerAdapter extends HttpHandler {
                         LOGGER.error("RuntimeException caught", e);
                         writeResponse(
                                 newInternalServerError(e),
-                                response, sessionContext);
-                    }
-                })
-                .thenAlways(new Runnable() {
-                    @Override
-                    public void run() {
-                        response.resume();
+                                request, response, sessionContext);
                     }
                 });
     }
 
-    private void writeResponse(final org.forgerock.http.protocol.Response chfResponse, final Response grizzlyResponse,
-            final SessionContext sessionContext) {
+    /**
+     * Writes the status and headers of the response, and then starts writing its entity without blocking. The
+     * Grizzly response is resumed once the entity has been written, or if the response could not be written.
+     */
+    private void writeResponse(final org.forgerock.http.protocol.Response chfResponse, final Request grizzlyRequest,
+            final Response grizzlyResponse, final SessionContext sessionContext) {
+        final ResponseWriter writer;
         try {
             grizzlyResponse.setStatus(chfResponse.getStatus().getCode());
             sessionContext.getSession().save(chfResponse);
@@ -158,12 +201,14 @@ final class HandlerAdapter extends HttpHandler {
                     }
                 }
             }
-            IO.stream(chfResponse.getEntity().getRawContentInputStream(), grizzlyResponse.getOutputStream());
-        } catch (IOException e) {
+            writer = new ResponseWriter(chfResponse, grizzlyResponse, grizzlyRequest.getRequestExecutor());
+        } catch (IOException | RuntimeException e) {
             LOGGER.trace("Failed to write response", e);
-        } finally {
             closeSilently(chfResponse);
+            grizzlyResponse.resume();
+            return;
         }
+        writer.run();
     }
 
     private org.forgerock.http.protocol.Request toChfRequest(Request req) throws URISyntaxException {
@@ -187,15 +232,15 @@ final class HandlerAdapter extends HttpHandler {
             request.getHeaders().add(e, values);
         }
 
-        // include request entity if appears to be provided with request
-        if ((req.getContentLength() > 0 || req.getHeader("Transfer-Encoding") != null)
-                && !NON_ENTITY_METHODS.contains(request.getMethod())) {
-            request.setEntity(newBranchingInputStream(req.getInputStream(), storage));
-        }
-
         return request;
     }
 
+    /** Returns whether an entity appears to be provided with the request. */
+    private static boolean hasEntity(Request req, org.forgerock.http.protocol.Request request) {
+        return (req.getContentLength() > 0 || req.getHeader("Transfer-Encoding") != null)
+                && !NON_ENTITY_METHODS.contains(request.getMethod());
+    }
+
     private UriRouterContext createRouterContext(Context parent, Request req,
             org.forgerock.http.protocol.Request request) {
         return uriRouterContext(parent).matchedUri("").remainingUri(req.getRequestURI())
@@ -215,4 +260,135 @@ final class HandlerAdapter extends HttpHandler {
                             .build();
     }
 
+    /**
+     * Receives the entity of a request as its chunks arrive, and passes it through a pipe to the handler, which reads
+     * it while it is being received, on a thread of the request executor: the handler thread waits for the chunks,
+     * but no I/O thread is blocked by a slow client, and the entity is not stored in full. Once the pipe is full, the
+     * entity is no longer read from the connection until the handler has read from the pipe.
+     * <p>
+     * The handler thread then resumes receiving the entity itself, outside of the read notifications: no notification
+     * is pending while the pipe is full, as the reader only asks to be notified once it has read all the available
+     * data, so the handler thread and the notifications never read the entity at the same time.
+     */
+    private static final class RequestReader implements ReadHandler, Runnable {
+        private final NIOInputStream in;
+        private final BoundedPipeInputStream pipe = newBoundedPipeInputStream(PIPE_CAPACITY, this);
+        private final byte[] chunk = new byte[CHUNK_SIZE];
+
+        /** Whether the entity has been received in full, though it may not all have been passed to the handler. */
+        private volatile boolean allDataRead;
+
+        private RequestReader(NIOInputStream in) {
+            this.in = in;
+        }
+
+        private void start() {
+            in.notifyAvailable(this);
+        }
+
+        @Override
+        public void onDataAvailable() throws Exception {
+            transfer();
+        }
+
+        @Override
+        public void onAllDataRead() throws Exception {
+            allDataRead = true;
+            transfer();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            LOGGER.trace("Failed to read request", t);
+            closeSilently(in);
+            pipe.fail(t);
+        }
+
+        /** Resumes receiving the entity, once the handler has read from the full pipe. */
+        @Override
+        public void run() {
+            try {
+                transfer();
+            } catch (Exception e) {
+                onError(e);
+            }
+        }
+
+        private void transfer() throws IOException {
+            while (in.isReady()) {
+                final int n = in.read(chunk, 0, Math.min(Math.min(chunk.length, in.readyData()), pipe.remaining()));
+                if (n <= 0) {
+                    break;
+                }
+                if (!pipe.write(chunk, 0, n)) {
+                    // the pipe is full: the handler resumes the transfer once it has read from it
+                    return;
+                }
+            }
+            if (allDataRead) {
+                closeSilently(in);
+                pipe.finish();
+            } else {
+                in.notifyAvailable(this);
+            }
+        }
+    }
+
+    /**
+     * Writes the entity of a response, chunk by chunk, for as long as the client connection can accept data without
+     * blocking, and then waits to be notified that it can write again. Reading the entity may block, for instance
+     * when it is passed through from another server: the notifications hand the writing over to the executor of the
+     * request, rather than reading the entity on the notifying thread.
+     */
+    private static final class ResponseWriter implements WriteHandler, Runnable {
+        private final org.forgerock.http.protocol.Response chfResponse;
+        private final Response grizzlyResponse;
+        private final Executor executor;
+        private final InputStream in;
+        private final NIOOutputStream out;
+        private final byte[] chunk = new byte[CHUNK_SIZE];
+
+        private ResponseWriter(org.forgerock.http.protocol.Response chfResponse, Response grizzlyResponse,
+                Executor executor) throws IOException {
+            this.chfResponse = chfResponse;
+            this.grizzlyResponse = grizzlyResponse;
+            this.executor = executor;
+            this.in = chfResponse.getEntity().getRawContentInputStream();
+            this.out = grizzlyResponse.getNIOOutputStream();
+        }
+
+        @Override
+        public void run() {
+            try {
+                do {
+                    final int n = in.read(chunk);
+                    if (n == -1) {
+                        complete();
+                        return;
+                    }
+                    out.write(chunk, 0, n);
+                } while (out.canWrite());
+                out.notifyCanWrite(this);
+            } catch (Exception e) {
+                onError(e);
+            }
+        }
+
+        @Override
+        public void onWritePossible() {
+            executor.execute(this);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            LOGGER.trace("Failed to write response", t);
+            complete();
+        }
+
+        private void complete() {
+            closeSilently(in, out, chfResponse);
+            grizzlyResponse.resume();
+        }
+    }
+
 }
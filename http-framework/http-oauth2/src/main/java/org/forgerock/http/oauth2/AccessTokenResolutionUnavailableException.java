@@ -0,0 +1,37 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.oauth2;
+
+/**
+ * Signals that an access token could not be resolved because the resolver is temporarily unable to serve the
+ * request (for example because too many resolutions are already outstanding), and not because the token is invalid.
+ * <p>
+ * The {@link ResourceServerFilter} answers such failures with a {@literal 503 Service Unavailable} response rather
+ * than with an {@literal invalid_token} challenge.
+ */
+public class AccessTokenResolutionUnavailableException extends AccessTokenException {
+
+    /**
+     * Builds an {@link AccessTokenResolutionUnavailableException} with a given message.
+     *
+     * @param message
+     *         Exception's message
+     */
+    public AccessTokenResolutionUnavailableException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.oauth2;
+
+/**
+ * Signals that the authorization server definitively rejected an access token, for example because it is unknown,
+ * revoked or expired, as opposed to failures which may not happen again, such as server errors or I/O errors.
+ * <p>
+ * Only such failures are remembered by the {@link org.forgerock.http.oauth2.resolver.CachingAccessTokenResolver}.
+ */
+public class InvalidAccessTokenException extends AccessTokenException {
+
+    /**
+     * Builds an {@link InvalidAccessTokenException} with a given message.
+     *
+     * @param message
+     *         Exception's message
+     */
+    public InvalidAccessTokenException(final String message) {
+        super(message);
+    }
+}
@@ -70,6 +70,9 @@ public class ResourceServerFilter implements Filter {
             + "includes an unsupported parameter or parameter value, repeats the same parameter, "
             + "uses more than one method for including an access token, or is otherwise malformed.";
 
+    private static final String DESC_UNAVAILABLE =
+            "The access token cannot be validated at the moment, the request may be retried later.";
+
     private static final String DESC_INSUFFICIENT_SCOPE =
             "The request requires higher privileges than provided by the access token.";
 
@@ -89,6 +92,13 @@ public class ResourceServerFilter implements Filter {
                 Status.UNAUTHORIZED, realm, null, OAuth2Error.E_INVALID_TOKEN, DESC_INVALID_TOKEN);
     }
 
+    private static Response temporarilyUnavailable(final String realm, final AccessTokenException cause) {
+        final Response response = newResourceServerErrorResponse(
+                Status.SERVICE_UNAVAILABLE, realm, null, OAuth2Error.E_TEMPORARILY_UNAVAILABLE, DESC_UNAVAILABLE);
+        response.setCause(cause);
+        return response;
+    }
+
     private static Response insufficientScope(final String realm, final Set<String> scopes) {
         return newResourceServerErrorResponse(
                 Status.FORBIDDEN, realm, scopes, OAuth2Error.E_INSUFFICIENT_SCOPE, DESC_INSUFFICIENT_SCOPE);
@@ -159,6 +169,10 @@ public class ResourceServerFilter implements Filter {
         return new AsyncFunction<AccessTokenException, Response, NeverThrowsException>() {
             @Override
             public Promise<? extends Response, ? extends NeverThrowsException> apply(AccessTokenException e) {
+                if (e instanceof AccessTokenResolutionUnavailableException) {
+                    logger.debug("Access Token cannot be resolved at the moment", e);
+                    return newResponsePromise(temporarilyUnavailable(realm, e));
+                }
                 logger.debug("Access Token '{}' cannot be resolved", token, e);
                 return newResponsePromise(invalidToken(realm));
             }
@@ -16,20 +16,29 @@
 
 package org.forgerock.http.oauth2.resolver;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.forgerock.util.Reject.checkNotNull;
 import static org.forgerock.util.promise.Promises.newExceptionPromise;
 import static org.forgerock.util.time.Duration.duration;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.forgerock.http.oauth2.AccessTokenException;
 import org.forgerock.http.oauth2.AccessTokenInfo;
+import org.forgerock.http.oauth2.AccessTokenResolutionUnavailableException;
 import org.forgerock.http.oauth2.AccessTokenResolver;
+import org.forgerock.http.oauth2.InvalidAccessTokenException;
 import org.forgerock.services.context.Context;
 import org.forgerock.util.AsyncFunction;
 import org.forgerock.util.Function;
 import org.forgerock.util.PerItemEvictionStrategyCache;
+import org.forgerock.util.Reject;
+import org.forgerock.util.encode.Base64url;
 import org.forgerock.util.promise.Promise;
 import org.forgerock.util.time.Duration;
 import org.forgerock.util.time.TimeService;
@@ -37,16 +46,31 @@ import org.forgerock.util.time.TimeService;
 /**
  * A {@link CachingAccessTokenResolver} is a delegating {@link AccessTokenResolver} that uses a write-through cache
  * to enable fast {@link AccessTokenInfo} resolution.
+ * <p>
+ * Entries are keyed by a SHA-256 hash of the access token, so the cache never retains the bearer tokens themselves.
+ * The pending resolution is cached as soon as it is started: concurrent requests carrying the same token share a
+ * single call to the delegate resolver.
+ * <p>
+ * Tokens that are definitively invalid (the resolution failed with an {@link InvalidAccessTokenException}, or the
+ * token is already expired) may be remembered for a short, configurable, duration so that a flood of requests
+ * carrying an invalid or revoked token does not reach the authorization server for every request. Other failures,
+ * such as server or I/O errors, are never remembered: the next request tries again. The number of outstanding
+ * delegate resolutions may also be bounded: once the limit is reached, new resolutions fail immediately with an
+ * {@link AccessTokenResolutionUnavailableException} instead of queueing up.
  */
 public class CachingAccessTokenResolver implements AccessTokenResolver {
 
     private final AccessTokenResolver resolver;
     private final PerItemEvictionStrategyCache<String, Promise<AccessTokenInfo, AccessTokenException>> cache;
     private final AsyncFunction<Promise<AccessTokenInfo, AccessTokenException>, Duration, Exception> expires;
+    private final int maxOutstandingResolutions;
+    private final AtomicInteger outstandingResolutions = new AtomicInteger();
 
     /**
      * Builds a {@link CachingAccessTokenResolver} delegating to the given {@link AccessTokenResolver} using the given
      * (pre-configured) cache.
+     * <p>
+     * Unresolvable tokens are not cached and the number of outstanding resolutions is not bounded.
      *
      * @param time
      *         Time service used to compute the token cache time-to-live
@@ -59,15 +83,42 @@ public class CachingAccessTokenResolver implements AccessTokenResolver {
                                       final AccessTokenResolver resolver,
                                       final PerItemEvictionStrategyCache
                                               <String, Promise<AccessTokenInfo, AccessTokenException>> cache) {
+        this(time, resolver, cache, Duration.ZERO, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Builds a {@link CachingAccessTokenResolver} delegating to the given {@link AccessTokenResolver} using the given
+     * (pre-configured) cache.
+     *
+     * @param time
+     *         Time service used to compute the token cache time-to-live
+     * @param resolver
+     *         resolver to delegates to
+     * @param cache
+     *         access token cache
+     * @param invalidTokenTimeout
+     *         how long a token that is definitively invalid, or that is already expired, is remembered
+     *         ({@link Duration#ZERO} to not remember them)
+     * @param maxOutstandingResolutions
+     *         maximum number of concurrent calls to the delegate resolver (must be positive)
+     */
+    public CachingAccessTokenResolver(final TimeService time,
+                                      final AccessTokenResolver resolver,
+                                      final PerItemEvictionStrategyCache
+                                              <String, Promise<AccessTokenInfo, AccessTokenException>> cache,
+                                      final Duration invalidTokenTimeout,
+                                      final int maxOutstandingResolutions) {
+        Reject.ifTrue(maxOutstandingResolutions <= 0, "maxOutstandingResolutions must be positive");
         this.resolver = resolver;
         this.cache = cache;
-        this.expires = new AccessTokenExpirationFunction(time);
+        this.expires = new AccessTokenExpirationFunction(time, checkNotNull(invalidTokenTimeout));
+        this.maxOutstandingResolutions = maxOutstandingResolutions;
     }
 
     @Override
     public Promise<AccessTokenInfo, AccessTokenException> resolve(final Context context, final String token) {
         try {
-            return cache.getValue(token, resolveToken(context, token), expires);
+            return cache.getValue(hash(token), resolveToken(context, token), expires);
         } catch (InterruptedException e) {
             return newExceptionPromise(
                     new AccessTokenException("Timed out retrieving OAuth2 access token information", e));
@@ -82,29 +133,47 @@ public class CachingAccessTokenResolver implements AccessTokenResolver {
         return new Callable<Promise<AccessTokenInfo, AccessTokenException>>() {
             @Override
             public Promise<AccessTokenInfo, AccessTokenException> call() throws Exception {
-                return resolver.resolve(context, token);
+                if (outstandingResolutions.incrementAndGet() > maxOutstandingResolutions) {
+                    outstandingResolutions.decrementAndGet();
+                    return newExceptionPromise(new AccessTokenResolutionUnavailableException(
+                            "Too many outstanding OAuth2 access token resolutions"));
+                }
+                try {
+                    return resolver.resolve(context, token)
+                                   .thenAlways(new Runnable() {
+                                       @Override
+                                       public void run() {
+                                           outstandingResolutions.decrementAndGet();
+                                       }
+                                   });
+                } catch (RuntimeException e) {
+                    outstandingResolutions.decrementAndGet();
+                    throw e;
+                }
             }
         };
     }
 
+    /**
+     * Returns the cache key of the given access token: the Base64url encoded SHA-256 hash of the token.
+     */
+    static String hash(final String token) {
+        try {
+            return Base64url.encode(MessageDigest.getInstance("SHA-256").digest(token.getBytes(UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
     /** A function that will compute the access token's timeout. */
     private static class AccessTokenExpirationFunction
             implements AsyncFunction<Promise<AccessTokenInfo, AccessTokenException>, Duration, Exception> {
 
-        // @Checkstyle:off
-        private static final Function<AccessTokenException, Duration, AccessTokenException> TIMEOUT_ZERO =
-                new Function<AccessTokenException, Duration, AccessTokenException>() {
-                    @Override
-                    public Duration apply(AccessTokenException e) {
-                        // Do not cache the AccessToken if there was a problem while resolving it
-                        return Duration.ZERO;
-                    }
-                };
-        // @Checkstyle:on
-
         private final Function<AccessTokenInfo, Duration, AccessTokenException> computeTtl;
+        private final Function<AccessTokenException, Duration, AccessTokenException> invalidTokenTtl;
 
-        public AccessTokenExpirationFunction(final TimeService time) {
+        public AccessTokenExpirationFunction(final TimeService time, final Duration invalidTokenTimeout) {
             // @Checkstyle:off
             this.computeTtl = new Function<AccessTokenInfo, Duration, AccessTokenException>() {
                 @Override
@@ -114,20 +183,31 @@ public class CachingAccessTokenResolver implements AccessTokenResolver {
                     }
                     long expires = accessToken.getExpiresAt() - time.now();
                     if (expires <= 0) {
-                        // The token is already expired
-                        return Duration.ZERO;
+                        // The token is already expired, it will not become valid again
+                        return invalidTokenTimeout;
                     }
 
                     return duration(expires, TimeUnit.MILLISECONDS);
                 }
             };
+            this.invalidTokenTtl = new Function<AccessTokenException, Duration, AccessTokenException>() {
+                @Override
+                public Duration apply(AccessTokenException e) {
+                    if (e instanceof InvalidAccessTokenException) {
+                        return invalidTokenTimeout;
+                    }
+                    // The failure may be transient, or the token has not been checked at all: let the next request
+                    // try again
+                    return Duration.ZERO;
+                }
+            };
             // @Checkstyle:on
         }
 
         @Override
         public Promise<? extends Duration, ? extends Exception> apply(
                 Promise<AccessTokenInfo, AccessTokenException> accessTokenPromise) throws Exception {
-            return accessTokenPromise.then(computeTtl, TIMEOUT_ZERO);
+            return accessTokenPromise.then(computeTtl, invalidTokenTtl);
         }
 
     }
@@ -30,6 +30,7 @@ import java.util.Set;
 import org.forgerock.http.oauth2.AccessTokenException;
 import org.forgerock.http.oauth2.AccessTokenInfo;
 import org.forgerock.http.oauth2.AccessTokenResolver;
+import org.forgerock.http.oauth2.InvalidAccessTokenException;
 import org.forgerock.http.Handler;
 import org.forgerock.http.protocol.Entity;
 import org.forgerock.http.protocol.Form;
@@ -144,10 +145,14 @@ public class OpenAmAccessTokenResolver implements AccessTokenResolver {
                 if (content.isDefined("error")) {
                     String error = content.get("error").asString();
                     String description = content.get("error_description").asString();
-                    throw new AccessTokenException(format("Authorization Server returned an error "
-                                                                  + "(error: %s, description: %s)",
-                                                          error,
-                                                          description));
+                    String message = format("Authorization Server returned an error (error: %s, description: %s)",
+                                            error,
+                                            description);
+                    if (response.getStatus().isClientError()) {
+                        // The token info endpoint rejected the token itself
+                        throw new InvalidAccessTokenException(message);
+                    }
+                    throw new AccessTokenException(message);
                 }
 
                 throw new AccessTokenException("AccessToken returned by the AuthorizationServer has a problem");
@@ -149,6 +149,21 @@ public class ResourceServerFilterTest {
         runAndExpectUnauthorizedInvalidTokenResponse();
     }
 
+    @Test
+    public void shouldFailWithServiceUnavailableWhenTokenCannotBeResolvedYet() throws Exception {
+        when(resolver.resolve(any(Context.class), eq(TOKEN_ID)))
+                .thenReturn(Promises.<AccessTokenInfo, AccessTokenException> newExceptionPromise(
+                        new AccessTokenResolutionUnavailableException("busy")));
+        ResourceServerFilter filter = buildResourceServerFilter();
+        Request request = buildAuthorizedRequest();
+
+        Response response = filter.filter(newContextChain(), request, null).get();
+
+        assertThat(response.getStatus()).isEqualTo(Status.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(WWW_AUTHENTICATE_HEADER))
+                .startsWith(doubleQuote("Bearer realm='" + TEST_REALM + "', error='temporarily_unavailable'"));
+    }
+
     private void runAndExpectUnauthorizedInvalidTokenResponse() throws Exception {
         ResourceServerFilter filter = buildResourceServerFilter();
         Request request = buildAuthorizedRequest();
@@ -17,6 +17,7 @@
 package org.forgerock.http.oauth2.resolver;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.eq;
@@ -32,12 +33,15 @@ import java.util.concurrent.TimeUnit;
 
 import org.forgerock.http.oauth2.AccessTokenException;
 import org.forgerock.http.oauth2.AccessTokenInfo;
+import org.forgerock.http.oauth2.AccessTokenResolutionUnavailableException;
 import org.forgerock.http.oauth2.AccessTokenResolver;
+import org.forgerock.http.oauth2.InvalidAccessTokenException;
 import org.forgerock.services.context.Context;
 import org.forgerock.services.context.RootContext;
 import org.forgerock.util.AsyncFunction;
 import org.forgerock.util.PerItemEvictionStrategyCache;
 import org.forgerock.util.promise.Promise;
+import org.forgerock.util.promise.PromiseImpl;
 import org.forgerock.util.promise.Promises;
 import org.forgerock.util.time.Duration;
 import org.forgerock.util.time.TimeService;
@@ -81,7 +85,9 @@ public class CachingAccessTokenResolverTest {
         Promise<AccessTokenInfo, AccessTokenException> p2 = caching.resolve(new RootContext(), TOKEN);
 
         assertThat(p1.get()).isSameAs(p2.get());
-        verify(cache, times(2)).getValue(eq(TOKEN), any(Callable.class), any(AsyncFunction.class));
+        verify(cache, times(2)).getValue(eq(CachingAccessTokenResolver.hash(TOKEN)),
+                                         any(Callable.class),
+                                         any(AsyncFunction.class));
     }
 
     @Test
@@ -124,4 +130,89 @@ public class CachingAccessTokenResolverTest {
         verify(resolver, times(2)).resolve(any(Context.class), eq(TOKEN));
     }
 
+    @Test
+    public void shouldNotKeepTheAccessTokenAsCacheKey() throws Exception {
+        assertThat(CachingAccessTokenResolver.hash(TOKEN))
+                .isNotEqualTo(TOKEN)
+                .isEqualTo(CachingAccessTokenResolver.hash(new String(TOKEN)));
+    }
+
+    @Test
+    public void shouldCacheUnresolvableTokenForConfiguredDuration() throws Exception {
+        // Given
+        when(resolver.resolve(any(Context.class), eq(TOKEN)))
+                .thenReturn(Promises.<AccessTokenInfo, AccessTokenException>newExceptionPromise(
+                        new InvalidAccessTokenException("revoked")));
+        CachingAccessTokenResolver caching = new CachingAccessTokenResolver(
+                time, resolver, cache, Duration.duration(5, TimeUnit.SECONDS), Integer.MAX_VALUE);
+
+        // When
+        caching.resolve(new RootContext(), TOKEN);
+        caching.resolve(new RootContext(), TOKEN);
+
+        // Then
+        verify(resolver).resolve(any(Context.class), eq(TOKEN));
+        verify(executorService).schedule(any(Runnable.class), eq(5000L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void shouldNotCacheTransientFailures() throws Exception {
+        // Given
+        when(resolver.resolve(any(Context.class), eq(TOKEN)))
+                .thenReturn(Promises.<AccessTokenInfo, AccessTokenException>newExceptionPromise(
+                        new AccessTokenException("Authorization Server returned an error")));
+        CachingAccessTokenResolver caching = new CachingAccessTokenResolver(
+                time, resolver, cache, Duration.duration(5, TimeUnit.SECONDS), Integer.MAX_VALUE);
+
+        // When
+        caching.resolve(new RootContext(), TOKEN);
+        caching.resolve(new RootContext(), TOKEN);
+
+        // Then
+        verify(resolver, times(2)).resolve(any(Context.class), eq(TOKEN));
+    }
+
+    @Test
+    public void shouldShareInFlightResolution() throws Exception {
+        // Given
+        PromiseImpl<AccessTokenInfo, AccessTokenException> pending = PromiseImpl.create();
+        when(resolver.resolve(any(Context.class), eq(TOKEN))).thenReturn(pending);
+        CachingAccessTokenResolver caching = new CachingAccessTokenResolver(time, resolver, cache);
+
+        // When
+        Promise<AccessTokenInfo, AccessTokenException> p1 = caching.resolve(new RootContext(), TOKEN);
+        Promise<AccessTokenInfo, AccessTokenException> p2 = caching.resolve(new RootContext(), TOKEN);
+
+        // Then
+        assertThat(p1).isSameAs(p2);
+        verify(resolver).resolve(any(Context.class), eq(TOKEN));
+    }
+
+    @Test
+    public void shouldShedLoadWhenTooManyResolutionsAreOutstanding() throws Exception {
+        // Given
+        PromiseImpl<AccessTokenInfo, AccessTokenException> pending = PromiseImpl.create();
+        when(resolver.resolve(any(Context.class), anyString())).thenReturn(pending);
+        CachingAccessTokenResolver caching =
+                new CachingAccessTokenResolver(time, resolver, cache, Duration.ZERO, 1);
+        caching.resolve(new RootContext(), TOKEN);
+
+        // When
+        Promise<AccessTokenInfo, AccessTokenException> rejected = caching.resolve(new RootContext(), "OTHER");
+
+        // Then
+        assertThat(rejected.isDone()).isTrue();
+        try {
+            rejected.getOrThrow();
+            failBecauseExceptionWasNotThrown(AccessTokenResolutionUnavailableException.class);
+        } catch (AccessTokenResolutionUnavailableException e) {
+            // Expected
+        }
+
+        // Once the first resolution completes, new resolutions are accepted again
+        pending.handleException(new AccessTokenException("revoked"));
+        caching.resolve(new RootContext(), "OTHER");
+        verify(resolver).resolve(any(Context.class), eq("OTHER"));
+    }
+
 }
@@ -18,6 +18,7 @@
 package org.forgerock.http.oauth2.resolver;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
@@ -26,6 +27,7 @@ import static org.mockito.Mockito.when;
 import org.forgerock.http.Handler;
 import org.forgerock.http.oauth2.AccessTokenException;
 import org.forgerock.http.oauth2.AccessTokenInfo;
+import org.forgerock.http.oauth2.InvalidAccessTokenException;
 import org.forgerock.http.protocol.Request;
 import org.forgerock.http.protocol.Response;
 import org.forgerock.http.protocol.Status;
@@ -78,7 +80,7 @@ public class OpenAmAccessTokenResolverTest {
         assertThat(contextCaptor.getValue()).isSameAs(context);
     }
 
-    @Test(expectedExceptions = AccessTokenException.class)
+    @Test(expectedExceptions = InvalidAccessTokenException.class)
     public void shouldThrowAnOAuthTokenExceptionCausedByAnError() throws Exception {
 
         //Given
@@ -89,6 +91,24 @@ public class OpenAmAccessTokenResolverTest {
         resolver.resolve(new RootContext(), TOKEN).getOrThrow();
     }
 
+    @Test
+    public void shouldNotReportServerErrorsAsInvalidToken() throws Exception {
+
+        //Given
+        Handler client = new ResponseHandler(response(Status.INTERNAL_SERVER_ERROR,
+                                                      doubleQuote("{'error':'server_error'}")));
+        OpenAmAccessTokenResolver resolver = new OpenAmAccessTokenResolver(client, time, "/oauth2/tokeninfo");
+
+        //When
+        try {
+            resolver.resolve(new RootContext(), TOKEN).getOrThrow();
+            failBecauseExceptionWasNotThrown(AccessTokenException.class);
+        } catch (AccessTokenException e) {
+            //Then
+            assertThat(e).isNotInstanceOf(InvalidAccessTokenException.class);
+        }
+    }
+
     private static String doubleQuote(final String value) {
         return value.replaceAll("'", "\"");
     }
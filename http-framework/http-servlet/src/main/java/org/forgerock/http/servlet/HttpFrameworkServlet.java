@@ -20,11 +20,11 @@ import static java.util.Collections.list;
 import static org.forgerock.http.handler.Handlers.asDescribableHandler;
 import static org.forgerock.http.handler.Handlers.chainOf;
 import static org.forgerock.http.handler.Handlers.internalServerErrorHandler;
-import static org.forgerock.http.io.IO.newBranchingInputStream;
 import static org.forgerock.http.io.IO.newTemporaryStorage;
 import static org.forgerock.http.protocol.Responses.newInternalServerError;
 import static org.forgerock.http.routing.UriRouterContext.uriRouterContext;
 import static org.forgerock.util.Utils.closeSilently;
+import static org.forgerock.util.promise.Promises.newResultPromise;
 
 import java.io.File;
 import java.io.IOException;
@@ -48,6 +48,7 @@ import org.forgerock.http.HttpApplicationException;
 import org.forgerock.http.filter.TransactionIdInboundFilter;
 import org.forgerock.http.handler.DescribableHandler;
 import org.forgerock.http.io.Buffer;
+import org.forgerock.http.io.PooledStorage;
 import org.forgerock.http.protocol.Request;
 import org.forgerock.http.protocol.Response;
 import org.forgerock.http.protocol.Status;
@@ -62,6 +63,7 @@ import org.forgerock.services.context.Context;
 import org.forgerock.services.context.RequestAuditContext;
 import org.forgerock.services.context.RootContext;
 import org.forgerock.util.Factory;
+import org.forgerock.util.promise.ExceptionHandler;
 import org.forgerock.util.promise.NeverThrowsException;
 import org.forgerock.util.promise.Promise;
 import org.forgerock.util.promise.ResultHandler;
@@ -160,7 +162,11 @@ public final class HttpFrameworkServlet extends HttpServlet {
         case 2:
             return new Servlet2Adapter();
         default:
-            return new Servlet3Adapter();
+            if (servletContext.getMajorVersion() == 3 && servletContext.getMinorVersion() == 0) {
+                return new Servlet3Adapter();
+            }
+            // Servlet 3.1 containers and later support non-blocking IO
+            return new Servlet31Adapter();
         }
     }
 
@@ -207,7 +213,7 @@ public final class HttpFrameworkServlet extends HttpServlet {
         } catch (URISyntaxException e) {
             Response response = new Response(Status.BAD_REQUEST);
             response.setEntity(e.getMessage());
-            writeResponse(response, resp, sessionContext);
+            writeResponse(req, response, resp, sessionContext);
             return;
         }
 
@@ -228,40 +234,29 @@ public final class HttpFrameworkServlet extends HttpServlet {
         attributesContext.getAttributes().put(HttpServletRequest.class.getName(), req);
         attributesContext.getAttributes().put(HttpServletResponse.class.getName(), resp);
 
-        Context context = createClientContext(attributesContext, req);
+        final Context context = createClientContext(attributesContext, req);
 
         // handle request
         final ServletSynchronizer sync = adapter.createServletSynchronizer(req, resp);
-        try {
-            final Promise<Response, NeverThrowsException> promise =
-                    handler.handle(context, request)
-                            .thenOnResult(new ResultHandler<Response>() {
-                                @Override
-                                public void handleResult(Response response) {
-                                    writeResponse(request, response, resp, sessionContext, sync);
-                                }
-                            })
-                            .thenOnRuntimeException(new RuntimeExceptionHandler() {
-                                @Override
-                                public void handleRuntimeException(RuntimeException e) {
-                                    logger.error("RuntimeException caught", e);
-                                    writeResponse(request, newInternalServerError(), resp, sessionContext, sync);
-                                }
-                            });
-
-            sync.setAsyncListener(new Runnable() {
+        final PendingResponse pending = new PendingResponse();
+        sync.setAsyncListener(pending);
+
+        if (hasEntity(req, request)) {
+            try {
+                // the entity may be received without blocking, while the handler reads it
+                request.setEntity(adapter.readEntity(req, storage));
+            } catch (IOException e) {
+                sync.signalAndComplete();
+                throw e;
+            }
+            adapter.dispatchWithEntity(req, new Runnable() {
                 @Override
                 public void run() {
-                    promise.cancel(true);
+                    dispatch(context, request, req, resp, sessionContext, sync, pending);
                 }
             });
-        } catch (Throwable throwable) {
-            // Guard against any kind of Throwable that may be thrown synchronously (not caught by promise
-            // RuntimeExceptionHandler), possibly leaving a stale response in the web container :'(
-            // Servlet specification indicates that it's the responsibility of the Servlet implementer to call
-            // AsyncContext.complete()
-            logger.error("Throwable caught", throwable);
-            writeResponse(request, newInternalServerError(), resp, sessionContext, sync);
+        } else {
+            dispatch(context, request, req, resp, sessionContext, sync, pending);
         }
 
         try {
@@ -271,7 +266,35 @@ public final class HttpFrameworkServlet extends HttpServlet {
         }
     }
 
-    private Request createRequest(HttpServletRequest req) throws IOException, URISyntaxException {
+    private void dispatch(final Context context, final Request request, final HttpServletRequest req,
+            final HttpServletResponse resp, final SessionContext sessionContext, final ServletSynchronizer sync,
+            final PendingResponse pending) {
+        try {
+            pending.set(handler.handle(context, request)
+                    .thenOnResult(new ResultHandler<Response>() {
+                        @Override
+                        public void handleResult(Response response) {
+                            writeResponse(request, response, req, resp, sessionContext, sync, pending);
+                        }
+                    })
+                    .thenOnRuntimeException(new RuntimeExceptionHandler() {
+                        @Override
+                        public void handleRuntimeException(RuntimeException e) {
+                            logger.error("RuntimeException caught", e);
+                            writeResponse(request, newInternalServerError(), req, resp, sessionContext, sync, pending);
+                        }
+                    }));
+        } catch (Throwable throwable) {
+            // Guard against any kind of Throwable that may be thrown synchronously (not caught by promise
+            // RuntimeExceptionHandler), possibly leaving a stale response in the web container :'(
+            // Servlet specification indicates that it's the responsibility of the Servlet implementer to call
+            // AsyncContext.complete()
+            logger.error("Throwable caught", throwable);
+            writeResponse(request, newInternalServerError(), req, resp, sessionContext, sync, pending);
+        }
+    }
+
+    private Request createRequest(HttpServletRequest req) throws URISyntaxException {
         // populate request
         Request request = new Request();
         request.setMethod(req.getMethod());
@@ -292,15 +315,15 @@ public final class HttpFrameworkServlet extends HttpServlet {
             request.getHeaders().add(name, list(req.getHeaders(name)));
         }
 
-        // include request entity if appears to be provided with request
-        if ((req.getContentLength() > 0 || req.getHeader("Transfer-Encoding") != null)
-                && !NON_ENTITY_METHODS.contains(request.getMethod())) {
-            request.setEntity(newBranchingInputStream(req.getInputStream(), storage));
-        }
-
         return request;
     }
 
+    /** Returns whether a request entity appears to be provided with the request. */
+    private static boolean hasEntity(HttpServletRequest req, Request request) {
+        return (req.getContentLength() > 0 || req.getHeader("Transfer-Encoding") != null)
+                && !NON_ENTITY_METHODS.contains(request.getMethod());
+    }
+
     private ClientContext createClientContext(Context parent, HttpServletRequest req) {
         return ClientContext.buildExternalClientContext(parent)
                 .remoteUser(req.getRemoteUser())
@@ -323,52 +346,120 @@ public final class HttpFrameworkServlet extends HttpServlet {
                 .originalUri(request.getUri().asURI()).build();
     }
 
-    private void writeResponse(Request request, Response response, HttpServletResponse servletResponse,
-            SessionContext sessionContext, ServletSynchronizer synchronizer) {
+    private void writeResponse(final Request request, final Response response, final HttpServletRequest servletRequest,
+            final HttpServletResponse servletResponse, final SessionContext sessionContext,
+            final ServletSynchronizer synchronizer, final PendingResponse pending) {
+        if (pending.isEnded()) {
+            // the request timed out or failed while it was handled, e.g. while its entity was being received
+            closeSilently(request, response);
+            return;
+        }
+        final Runnable complete = new Runnable() {
+            @Override
+            public void run() {
+                closeSilently(request);
+                synchronizer.signalAndComplete();
+            }
+        };
         try {
-            writeResponse(response, servletResponse, sessionContext);
-        } finally {
-            closeSilently(request);
-            synchronizer.signalAndComplete();
+            writeResponse(servletRequest, response, servletResponse, sessionContext).thenAlways(complete);
+        } catch (RuntimeException e) {
+            complete.run();
+            throw e;
         }
     }
 
-    private void writeResponse(final Response response, final HttpServletResponse servletResponse,
-            final SessionContext sessionContext) {
+    private Promise<Void, IOException> writeResponse(final HttpServletRequest servletRequest,
+            final Response response, final HttpServletResponse servletResponse, final SessionContext sessionContext) {
+        /*
+         * Support for OPENIG-94/95 - The wrapped servlet may have already
+         * committed its response w/o creating a new OpenIG Response instance in
+         * the exchange.
+         */
+        if (response == null) {
+            return newResultPromise(null);
+        }
+        final Promise<Void, IOException> promise;
         try {
-            /*
-             * Support for OPENIG-94/95 - The wrapped servlet may have already
-             * committed its response w/o creating a new OpenIG Response instance in
-             * the exchange.
-             */
-            if (response != null) {
-                // response status-code (reason-phrase deprecated in Servlet API)
-                servletResponse.setStatus(response.getStatus().getCode());
-
-                // ensure that the session has been written back to the response
-                sessionContext.getSession().save(response);
-
-                // response headers
-                for (String name : response.getHeaders().keySet()) {
-                    for (String value : response.getHeaders().get(name).getValues()) {
-                        if (value != null && value.length() > 0) {
-                            servletResponse.addHeader(name, value);
-                        }
+            // response status-code (reason-phrase deprecated in Servlet API)
+            servletResponse.setStatus(response.getStatus().getCode());
+
+            // ensure that the session has been written back to the response
+            sessionContext.getSession().save(response);
+
+            // response headers
+            for (String name : response.getHeaders().keySet()) {
+                for (String value : response.getHeaders().get(name).getValues()) {
+                    if (value != null && value.length() > 0) {
+                        servletResponse.addHeader(name, value);
                     }
                 }
-                // response entity (if applicable)
-                // TODO does this also set content length?
-                response.getEntity().copyRawContentTo(servletResponse.getOutputStream());
             }
+            // response entity (if applicable), which may be written without blocking
+            // TODO does this also set content length?
+            promise = adapter.writeEntity(servletRequest, servletResponse, response);
         } catch (IOException e) {
             logger.error("Failed to write response", e);
-        } finally {
             closeSilently(response);
+            return newResultPromise(null);
+        } catch (RuntimeException e) {
+            closeSilently(response);
+            throw e;
         }
+        return promise
+                .thenOnException(new ExceptionHandler<IOException>() {
+                    @Override
+                    public void handleException(IOException e) {
+                        logger.error("Failed to write response", e);
+                    }
+                })
+                .thenAlways(new Runnable() {
+                    @Override
+                    public void run() {
+                        closeSilently(response);
+                    }
+                });
     }
 
     @Override
     public void destroy() {
         application.stop();
+        if (storage instanceof PooledStorage) {
+            logger.info("Entity buffer pool usage: {}", storage);
+        }
+    }
+
+    /**
+     * The response of the handler to a request, which is cancelled once the container has completed the request, or
+     * given up on it because it failed or timed out. As the request is handled while its entity is being received,
+     * the container may give up before the handler has returned the response, which is then no longer written.
+     */
+    private static final class PendingResponse implements Runnable {
+        private volatile Promise<Response, NeverThrowsException> promise;
+        private volatile boolean ended;
+
+        /** Invoked by the container once the request has completed, failed, or timed out. */
+        @Override
+        public void run() {
+            ended = true;
+            cancel(promise);
+        }
+
+        private void set(final Promise<Response, NeverThrowsException> promise) {
+            this.promise = promise;
+            if (ended) {
+                cancel(promise);
+            }
+        }
+
+        private boolean isEnded() {
+            return ended;
+        }
+
+        private static void cancel(final Promise<Response, NeverThrowsException> promise) {
+            if (promise != null) {
+                promise.cancel(true);
+            }
+        }
     }
 }
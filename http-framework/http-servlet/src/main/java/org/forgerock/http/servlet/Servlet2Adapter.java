@@ -16,10 +16,21 @@
 
 package org.forgerock.http.servlet;
 
+import static org.forgerock.http.io.IO.newBranchingInputStream;
+import static org.forgerock.util.promise.Promises.newExceptionPromise;
+import static org.forgerock.util.promise.Promises.newResultPromise;
+
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.concurrent.CountDownLatch;
 
+import org.forgerock.http.io.BranchingInputStream;
+import org.forgerock.http.io.Buffer;
+import org.forgerock.http.protocol.Response;
+import org.forgerock.util.Factory;
+import org.forgerock.util.promise.Promise;
+
 /**
  * An adapter for use in Servlet 2.x containers.
  */
@@ -65,4 +76,46 @@ final class Servlet2Adapter implements ServletVersionAdapter {
             HttpServletResponse httpResponse) {
         return new Servlet2Synchronizer();
     }
+
+    @Override
+    public BranchingInputStream readEntity(HttpServletRequest httpRequest, Factory<Buffer> storage)
+            throws IOException {
+        return readBlockingEntity(httpRequest, storage);
+    }
+
+    @Override
+    public void dispatchWithEntity(HttpServletRequest httpRequest, Runnable dispatch) {
+        // The entity is read with blocking IO, by the handler.
+        dispatch.run();
+    }
+
+    @Override
+    public Promise<Void, IOException> writeEntity(HttpServletRequest httpRequest, HttpServletResponse httpResponse,
+            Response response) {
+        return writeBlockingEntity(httpResponse, response);
+    }
+
+    /**
+     * Blocking implementation, which reads the entity as the handler consumes
+     * it. Package private because it is also used in Servlet 3, and as the
+     * fall-back implementation in Servlet 3.1 when async is not supported.
+     */
+    static BranchingInputStream readBlockingEntity(HttpServletRequest httpRequest, Factory<Buffer> storage)
+            throws IOException {
+        return newBranchingInputStream(httpRequest.getInputStream(), storage);
+    }
+
+    /**
+     * Blocking implementation. Package private because it is also used in
+     * Servlet 3, and as the fall-back implementation in Servlet 3.1 when async
+     * is not supported.
+     */
+    static Promise<Void, IOException> writeBlockingEntity(HttpServletResponse httpResponse, Response response) {
+        try {
+            response.getEntity().copyRawContentTo(httpResponse.getOutputStream());
+            return newResultPromise(null);
+        } catch (IOException e) {
+            return newExceptionPromise(e);
+        }
+    }
 }
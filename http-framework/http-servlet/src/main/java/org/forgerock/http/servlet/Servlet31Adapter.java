@@ -0,0 +1,227 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.servlet;
+
+import static org.forgerock.http.io.IO.newBranchingInputStream;
+import static org.forgerock.http.io.IO.newBoundedPipeInputStream;
+import static org.forgerock.util.Utils.closeSilently;
+import static org.forgerock.util.promise.Promises.newExceptionPromise;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.forgerock.http.io.BoundedPipeInputStream;
+import org.forgerock.http.io.BranchingInputStream;
+import org.forgerock.http.io.Buffer;
+import org.forgerock.http.protocol.Response;
+import org.forgerock.util.Factory;
+import org.forgerock.util.promise.Promise;
+import org.forgerock.util.promise.PromiseImpl;
+
+/**
+ * An adapter for use in Servlet 3.1 and later containers, which reads request entities and writes response entities
+ * with non-blocking IO when the request is processed asynchronously.
+ */
+final class Servlet31Adapter implements ServletVersionAdapter {
+
+    /** Size of the chunks in which entities are read and written. */
+    private static final int CHUNK_SIZE = 8 * 1_024;
+
+    /** The amount of a request entity which is received before the handler has read it. */
+    private static final int PIPE_CAPACITY = 4 * CHUNK_SIZE;
+
+    /**
+     * Receives the entity of a request as its chunks arrive, and passes it through a pipe to the handler, which reads
+     * it while it is being received, on a thread of its own: the handler thread waits for the chunks, but no container
+     * thread is blocked by a slow client, and the entity is not stored in full. Once the pipe is full, the entity is
+     * no longer read until the handler has read from the pipe.
+     * <p>
+     * The handler thread then resumes reading the entity itself, outside of the container callbacks: the container
+     * only calls {@link #onDataAvailable()} again once {@link ServletInputStream#isReady()} has returned
+     * {@code false}, which it has not when the pipe is full, so the handler thread and the container never read the
+     * entity at the same time. If the request times out or fails before the entity has been received, the handler
+     * gets an exception rather than waiting for the rest of the entity.
+     */
+    private static final class EntityReader implements ReadListener, AsyncListener, Runnable {
+        private final ServletInputStream in;
+        private final BoundedPipeInputStream pipe = newBoundedPipeInputStream(PIPE_CAPACITY, this);
+        private final byte[] chunk = new byte[CHUNK_SIZE];
+
+        private EntityReader(ServletInputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public void onDataAvailable() throws IOException {
+            while (in.isReady()) {
+                final int n = in.read(chunk, 0, Math.min(chunk.length, pipe.remaining()));
+                if (n == -1) {
+                    break;
+                }
+                if (!pipe.write(chunk, 0, n)) {
+                    // the pipe is full: the handler resumes reading once it has read from it
+                    return;
+                }
+            }
+            if (in.isFinished()) {
+                // the container may not notify that all data was read, if it was read by the handler thread
+                pipe.finish();
+            }
+        }
+
+        @Override
+        public void onAllDataRead() {
+            pipe.finish();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            pipe.fail(t);
+        }
+
+        /** Resumes reading the entity, once the handler has read from the full pipe. */
+        @Override
+        public void run() {
+            try {
+                onDataAvailable();
+            } catch (IOException | RuntimeException e) {
+                onError(e);
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            pipe.fail(new IOException("The request completed before its entity was received"));
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            pipe.fail(new IOException("The request timed out before its entity was received"));
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            pipe.fail(event.getThrowable());
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Reregister.
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    /**
+     * Writes the entity of a response, chunk by chunk, for as long as the client connection can accept data without
+     * blocking, and then lets the container call back when it can write again.
+     */
+    private static final class EntityWriter implements WriteListener {
+        private final PromiseImpl<Void, IOException> promise = PromiseImpl.create();
+        private final InputStream in;
+        private final ServletOutputStream out;
+        private final byte[] chunk = new byte[CHUNK_SIZE];
+
+        private EntityWriter(InputStream in, ServletOutputStream out) {
+            this.in = in;
+            this.out = out;
+        }
+
+        @Override
+        public void onWritePossible() throws IOException {
+            try {
+                while (out.isReady()) {
+                    final int n = in.read(chunk);
+                    if (n == -1) {
+                        closeSilently(in);
+                        promise.handleResult(null);
+                        return;
+                    }
+                    out.write(chunk, 0, n);
+                }
+            } catch (IOException e) {
+                onError(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            closeSilently(in);
+            promise.handleException(t instanceof IOException ? (IOException) t : new IOException(t));
+        }
+    }
+
+    private final Servlet3Adapter servlet3Adapter = new Servlet3Adapter();
+
+    Servlet31Adapter() {
+        // Nothing to do.
+    }
+
+    @Override
+    public ServletSynchronizer createServletSynchronizer(HttpServletRequest httpRequest,
+            HttpServletResponse httpResponse) {
+        return servlet3Adapter.createServletSynchronizer(httpRequest, httpResponse);
+    }
+
+    @Override
+    public BranchingInputStream readEntity(HttpServletRequest httpRequest, Factory<Buffer> storage)
+            throws IOException {
+        if (!httpRequest.isAsyncStarted()) {
+            // Non-blocking IO is only available to asynchronous requests.
+            return servlet3Adapter.readEntity(httpRequest, storage);
+        }
+        final EntityReader reader = new EntityReader(httpRequest.getInputStream());
+        httpRequest.getAsyncContext().addListener(reader);
+        reader.in.setReadListener(reader);
+        return newBranchingInputStream(reader.pipe, storage);
+    }
+
+    @Override
+    public void dispatchWithEntity(HttpServletRequest httpRequest, Runnable dispatch) {
+        if (!httpRequest.isAsyncStarted()) {
+            servlet3Adapter.dispatchWithEntity(httpRequest, dispatch);
+            return;
+        }
+        // The entity is only received once service() has returned: the handler must not wait for it on this thread.
+        httpRequest.getAsyncContext().start(dispatch);
+    }
+
+    @Override
+    public Promise<Void, IOException> writeEntity(HttpServletRequest httpRequest, HttpServletResponse httpResponse,
+            Response response) {
+        if (!httpRequest.isAsyncStarted()) {
+            return servlet3Adapter.writeEntity(httpRequest, httpResponse, response);
+        }
+        final EntityWriter writer;
+        try {
+            writer = new EntityWriter(response.getEntity().getRawContentInputStream(),
+                    httpResponse.getOutputStream());
+        } catch (IOException e) {
+            return newExceptionPromise(e);
+        }
+        writer.out.setWriteListener(writer);
+        return writer.promise;
+    }
+}
@@ -16,6 +16,9 @@
 
 package org.forgerock.http.servlet;
 
+import static org.forgerock.http.servlet.Servlet2Adapter.readBlockingEntity;
+import static org.forgerock.http.servlet.Servlet2Adapter.writeBlockingEntity;
+
 import java.io.IOException;
 
 import javax.servlet.AsyncContext;
@@ -24,7 +27,12 @@ import javax.servlet.AsyncListener;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.forgerock.http.io.BranchingInputStream;
+import org.forgerock.http.io.Buffer;
+import org.forgerock.http.protocol.Response;
 import org.forgerock.http.servlet.Servlet2Adapter.Servlet2Synchronizer;
+import org.forgerock.util.Factory;
+import org.forgerock.util.promise.Promise;
 
 /**
  * An adapter for use in Servlet 3.x containers.
@@ -100,4 +108,23 @@ final class Servlet3Adapter implements ServletVersionAdapter {
             return new Servlet2Synchronizer();
         }
     }
+
+    @Override
+    public BranchingInputStream readEntity(HttpServletRequest httpRequest, Factory<Buffer> storage)
+            throws IOException {
+        // Non-blocking IO requires Servlet 3.1.
+        return readBlockingEntity(httpRequest, storage);
+    }
+
+    @Override
+    public void dispatchWithEntity(HttpServletRequest httpRequest, Runnable dispatch) {
+        // The entity is read with blocking IO, by the handler.
+        dispatch.run();
+    }
+
+    @Override
+    public Promise<Void, IOException> writeEntity(HttpServletRequest httpRequest, HttpServletResponse httpResponse,
+            Response response) {
+        return writeBlockingEntity(httpResponse, response);
+    }
 }
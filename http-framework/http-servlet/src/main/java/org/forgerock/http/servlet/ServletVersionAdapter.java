@@ -16,15 +16,23 @@
 
 package org.forgerock.http.servlet;
 
+import java.io.IOException;
+
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.forgerock.http.io.BranchingInputStream;
+import org.forgerock.http.io.Buffer;
+import org.forgerock.http.protocol.Response;
+import org.forgerock.util.Factory;
+import org.forgerock.util.promise.Promise;
+
 /**
  * A Servlet API version adapter provides an abstraction which allows Servlet
  * and Filter implementations to interact with the Servlet container
- * independently of the Servlet API version. At the moment the adapter only
- * provides an abstraction for performing asynchronous processing, but other API
- * features could be added in future (such as async IO).
+ * independently of the Servlet API version. The adapter provides an
+ * abstraction for performing asynchronous processing, and for reading and
+ * writing entities, which Servlet 3.1 containers can do without blocking.
  */
 interface ServletVersionAdapter {
 
@@ -38,4 +46,51 @@ interface ServletVersionAdapter {
      * @return Returns a new synchronizer appropriate for the HTTP request.
      */
     ServletSynchronizer createServletSynchronizer(HttpServletRequest httpRequest, HttpServletResponse httpResponse);
+
+    /**
+     * Returns the entity of the provided HTTP request, which the handler reads
+     * as it is received. Containers which support non-blocking IO receive the
+     * entity without blocking a thread while the handler waits for it.
+     *
+     * @param httpRequest
+     *            The HTTP request, which has an entity.
+     * @param storage
+     *            The factory of the buffers in which the entity is stored
+     *            when it is branched.
+     * @return The request entity.
+     * @throws IOException
+     *             If the entity could not be read.
+     */
+    BranchingInputStream readEntity(HttpServletRequest httpRequest, Factory<Buffer> storage) throws IOException;
+
+    /**
+     * Dispatches a request whose entity is read with
+     * {@link #readEntity(HttpServletRequest, Factory)}. Containers which
+     * receive the entity without blocking only notify that it has arrived
+     * once the servlet has returned from {@code service()}: the request is
+     * then dispatched to another container thread, so that the handler can
+     * wait for its entity.
+     *
+     * @param httpRequest
+     *            The HTTP request, whose entity is read.
+     * @param dispatch
+     *            Dispatches the request to the handler.
+     */
+    void dispatchWithEntity(HttpServletRequest httpRequest, Runnable dispatch);
+
+    /**
+     * Writes the entity of the provided response to the HTTP response. The
+     * returned promise is completed once the entity has been written.
+     *
+     * @param httpRequest
+     *            The HTTP request.
+     * @param httpResponse
+     *            The HTTP response, whose status and headers have been set.
+     * @param response
+     *            The response whose entity is written.
+     * @return A promise completed once the entity has been written, or with an
+     *         {@link IOException} if it could not be written.
+     */
+    Promise<Void, IOException> writeEntity(HttpServletRequest httpRequest, HttpServletResponse httpResponse,
+            Response response);
 }
@@ -0,0 +1,265 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.servlet;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+import static org.forgerock.http.io.IO.newTemporaryStorage;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.forgerock.http.io.BranchingInputStream;
+import org.forgerock.http.protocol.Response;
+import org.forgerock.http.protocol.Status;
+import org.forgerock.util.promise.Promise;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("javadoc")
+public class Servlet31AdapterTest {
+
+    private static final int LENGTH = 100_000;
+
+    private byte[] bytes;
+    private HttpServletRequest request;
+    private AsyncContext asyncContext;
+    private HttpServletResponse response;
+    private Servlet31Adapter adapter;
+
+    @BeforeMethod
+    public void beforeMethod() {
+        bytes = new byte[LENGTH];
+        new Random().nextBytes(bytes);
+        request = mock(HttpServletRequest.class);
+        response = mock(HttpServletResponse.class);
+        asyncContext = mock(AsyncContext.class);
+        when(request.isAsyncStarted()).thenReturn(true);
+        when(request.getAsyncContext()).thenReturn(asyncContext);
+        adapter = new Servlet31Adapter();
+    }
+
+    @Test
+    public void shouldPassEntityThroughAsDataArrives() throws Exception {
+        ChunkedInputStream in = new ChunkedInputStream(bytes);
+        when(request.getInputStream()).thenReturn(in);
+
+        BranchingInputStream entity = adapter.readEntity(request, newTemporaryStorage());
+        in.listener.onDataAvailable();
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        byte[] b = new byte[1_024];
+        int n;
+        do {
+            if (!in.ready) {
+                // the container notifies the listener once more data has arrived
+                in.ready = true;
+                in.listener.onDataAvailable();
+            }
+            // the reads resume the listener once the pipe is no longer full
+            n = entity.read(b);
+            if (n > 0) {
+                received.write(b, 0, n);
+            }
+        } while (n != -1);
+
+        assertThat(received.toByteArray()).isEqualTo(bytes);
+    }
+
+    @Test(timeOut = 10_000)
+    public void shouldReadEntityOnAnotherThreadOnceServiceHasReturned() throws Exception {
+        ChunkedInputStream in = new ChunkedInputStream(bytes);
+        when(request.getInputStream()).thenReturn(in);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                new Thread((Runnable) invocation.getArguments()[0]).start();
+                return null;
+            }
+        }).when(asyncContext).start(any(Runnable.class));
+        final BranchingInputStream entity = adapter.readEntity(request, newTemporaryStorage());
+        final ByteArrayOutputStream received = new ByteArrayOutputStream();
+        final CountDownLatch handled = new CountDownLatch(1);
+
+        // the handler reads the entity synchronously
+        adapter.dispatchWithEntity(request, new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    byte[] b = new byte[1_024];
+                    int n;
+                    while ((n = entity.read(b)) != -1) {
+                        received.write(b, 0, n);
+                    }
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                } finally {
+                    handled.countDown();
+                }
+            }
+        });
+
+        // like the container, only notify the listener once service() has returned, when it was not ready
+        while (!handled.await(1, MILLISECONDS)) {
+            if (in.takeNotification()) {
+                in.listener.onDataAvailable();
+            }
+        }
+        assertThat(received.toByteArray()).isEqualTo(bytes);
+    }
+
+    @Test
+    public void shouldFailEntityWhenRequestTimesOut() throws Exception {
+        ChunkedInputStream in = new ChunkedInputStream(bytes);
+        when(request.getInputStream()).thenReturn(in);
+
+        BranchingInputStream entity = adapter.readEntity(request, newTemporaryStorage());
+        ArgumentCaptor<AsyncListener> listener = ArgumentCaptor.forClass(AsyncListener.class);
+        verify(asyncContext).addListener(listener.capture());
+        in.listener.onDataAvailable();
+        listener.getValue().onTimeout(new AsyncEvent(asyncContext));
+
+        // the data received so far can be read, but the rest of the entity will not be received
+        assertThat(entity.read(new byte[LENGTH])).isEqualTo(3_000);
+        try {
+            entity.read();
+            failBecauseExceptionWasNotThrown(IOException.class);
+        } catch (IOException e) {
+            assertThat(e).hasMessageContaining("timed out");
+        }
+    }
+
+    @Test
+    public void shouldWriteEntityWhenPossible() throws Exception {
+        final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        final int[] writable = new int[1];
+        ServletOutputStream out = mock(ServletOutputStream.class);
+        when(out.isReady()).thenAnswer(new Answer<Boolean>() {
+            @Override
+            public Boolean answer(InvocationOnMock invocation) {
+                return writable[0] > 0;
+            }
+        });
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                Object[] arguments = invocation.getArguments();
+                written.write((byte[]) arguments[0], (Integer) arguments[1], (Integer) arguments[2]);
+                writable[0]--;
+                return null;
+            }
+        }).when(out).write(any(byte[].class), anyInt(), anyInt());
+        when(response.getOutputStream()).thenReturn(out);
+        Response chfResponse = new Response(Status.OK);
+        chfResponse.setEntity(bytes);
+
+        Promise<Void, IOException> promise = adapter.writeEntity(request, response, chfResponse);
+        ArgumentCaptor<WriteListener> listener = ArgumentCaptor.forClass(WriteListener.class);
+        verify(out).setWriteListener(listener.capture());
+        while (!promise.isDone()) {
+            writable[0] = 2;
+            listener.getValue().onWritePossible();
+        }
+
+        promise.getOrThrow();
+        assertThat(written.toByteArray()).isEqualTo(bytes);
+    }
+
+    /**
+     * Provides the content in small chunks, and is no longer ready after each one. As a container does, it owes the
+     * listener a notification once it has reported that it was not ready.
+     */
+    private static final class ChunkedInputStream extends ServletInputStream {
+        private final byte[] content;
+        private int position;
+        private boolean ready = true;
+        private boolean notificationOwed = true;
+        private volatile ReadListener listener;
+
+        private ChunkedInputStream(byte[] content) {
+            this.content = content;
+        }
+
+        @Override
+        public synchronized boolean isFinished() {
+            return position == content.length;
+        }
+
+        @Override
+        public synchronized boolean isReady() {
+            if (isFinished()) {
+                return false;
+            }
+            notificationOwed = !ready;
+            return ready;
+        }
+
+        /** Returns whether the listener is owed a notification, in which case the content is ready again. */
+        private synchronized boolean takeNotification() {
+            if (!notificationOwed) {
+                return false;
+            }
+            notificationOwed = false;
+            ready = true;
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            listener = readListener;
+        }
+
+        @Override
+        public int read() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            assertThat(ready).isTrue();
+            final int n = Math.min(Math.min(len, 3_000), content.length - position);
+            if (n == 0) {
+                return -1;
+            }
+            System.arraycopy(content, position, b, off, n);
+            position += n;
+            ready = false;
+            return n;
+        }
+    }
+}
@@ -18,6 +18,9 @@ package org.forgerock.json.crypto;
 import static org.forgerock.json.JsonValueFunctions.identity;
 import static org.forgerock.util.Reject.checkNotNull;
 
+import java.util.Collection;
+
+import org.forgerock.json.JsonPointer;
 import org.forgerock.json.JsonValue;
 import org.forgerock.json.JsonValueException;
 import org.forgerock.json.JsonValueTraverseFunction;
@@ -41,6 +44,34 @@ public class JsonDecryptFunction extends JsonValueTraverseFunction {
         this.decryptor = checkNotNull(decryptor);
     }
 
+    /**
+     * Decrypts the given fields of a JSON value in a single pass, leaving the original value untouched. Unlike
+     * {@link #apply(JsonValue)}, the rest of the value is neither traversed nor copied more than once.
+     * <p>
+     * Fields that are missing or not encrypted are left as is. Encrypted values nested in a decrypted field are
+     * decrypted as well.
+     *
+     * @param value the JSON value containing the fields to decrypt.
+     * @param fields the pointers, relative to {@code value}, of the fields to decrypt.
+     * @return a copy of {@code value} in which the given fields are decrypted.
+     * @throws JsonValueException if the decryptor fails to decrypt one of the fields.
+     */
+    public JsonValue decryptFields(JsonValue value, Collection<JsonPointer> fields) {
+        final JsonValue result = value.copy();
+        for (final JsonPointer pointer : JsonEncryptFunction.shortestFirst(fields)) {
+            final JsonValue field = result.get(pointer);
+            if (field == null || !JsonCrypto.isJsonCrypto(field)) {
+                continue;
+            }
+            final JsonValue decrypted = apply(field);
+            if (pointer.isEmpty()) {
+                return decrypted;
+            }
+            result.put(pointer, decrypted.getObject());
+        }
+        return result;
+    }
+
     @Override
     protected Object traverseMap(JsonValue value) {
         if (JsonCrypto.isJsonCrypto(value)) {
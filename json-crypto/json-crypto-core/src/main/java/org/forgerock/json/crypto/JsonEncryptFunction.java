@@ -17,6 +17,13 @@ package org.forgerock.json.crypto;
 
 import static org.forgerock.util.Reject.checkNotNull;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.forgerock.json.JsonPointer;
 import org.forgerock.json.JsonValue;
 import org.forgerock.util.Function;
 
@@ -42,4 +49,46 @@ public class JsonEncryptFunction implements Function<JsonValue, JsonValue, JsonC
     public JsonValue apply(JsonValue value) throws JsonCryptoException {
         return new JsonCrypto(encryptor.getType(), encryptor.encrypt(value)).toJsonValue();
     }
+
+    /**
+     * Encrypts all the given fields of a JSON value in a single pass, leaving the original value untouched.
+     * <p>
+     * Fields that are missing or already encrypted are left as is. A field nested in another one of the given fields
+     * is encrypted as part of its parent only.
+     *
+     * @param value the JSON value containing the fields to encrypt.
+     * @param fields the pointers, relative to {@code value}, of the fields to encrypt.
+     * @return a copy of {@code value} in which the given fields are encrypted.
+     * @throws JsonCryptoException if the encryptor fails to encrypt one of the fields.
+     */
+    public JsonValue encryptFields(JsonValue value, Collection<JsonPointer> fields) throws JsonCryptoException {
+        final JsonValue result = value.copy();
+        for (final JsonPointer pointer : shortestFirst(fields)) {
+            final JsonValue field = result.get(pointer);
+            if (field == null || JsonCrypto.isJsonCrypto(field)) {
+                continue;
+            }
+            final JsonValue encrypted = apply(field);
+            if (pointer.isEmpty()) {
+                return encrypted;
+            }
+            result.put(pointer, encrypted.getObject());
+        }
+        return result;
+    }
+
+    /**
+     * Sorts the given pointers so that parents come before their children: once a parent is encrypted, its children
+     * cannot be found anymore and are skipped.
+     */
+    static List<JsonPointer> shortestFirst(Collection<JsonPointer> pointers) {
+        final List<JsonPointer> sorted = new ArrayList<>(pointers);
+        Collections.sort(sorted, new Comparator<JsonPointer>() {
+            @Override
+            public int compare(JsonPointer p1, JsonPointer p2) {
+                return Integer.compare(p1.size(), p2.size());
+            }
+        });
+        return sorted;
+    }
 }
@@ -48,6 +48,20 @@ final class HKDFKeyGenerator {
         }
     };
 
+    /**
+     * HMAC-SHA-256 instances, reused by each thread for every key derivation and MAC computation since getting a new
+     * instance from the provider is far more expensive than re-initialising an existing one.
+     */
+    private static final ThreadLocal<Mac> THREAD_LOCAL_HMAC = ThreadLocal.withInitial(HKDFKeyGenerator::newHmac);
+
+    private static Mac newHmac() {
+        try {
+            return Mac.getInstance(HMAC_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     /**
      * The HKDF "extract" phase that generates a master key from some input key material. This method adds 128-bits
      * of random salt to the derived key. This master key should not be used directly, but instead fed into
@@ -147,13 +161,18 @@ final class HKDFKeyGenerator {
         return expandKey(masterKey, outputKeyAlgorithm, outputKeyAlgorithm, outputKeySize);
     }
 
-    private static Mac getHmac(Key key) {
+    /**
+     * Returns the HMAC-SHA-256 instance of the calling thread, initialised with the given key. The instance is shared
+     * by all the callers on the same thread: it must not be used anymore once this method is called again.
+     *
+     * @param key the HMAC key.
+     * @return the initialised HMAC.
+     */
+    static Mac getHmac(Key key) {
         try {
-            Mac hmac = Mac.getInstance(HMAC_ALGORITHM);
+            Mac hmac = THREAD_LOCAL_HMAC.get();
             hmac.init(key);
             return hmac;
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalStateException(e);
         } catch (InvalidKeyException e) {
             throw new IllegalArgumentException("Invalid HKDF key", e);
         }
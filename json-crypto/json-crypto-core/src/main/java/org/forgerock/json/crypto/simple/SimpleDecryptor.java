@@ -20,6 +20,9 @@ import java.io.IOException;
 import java.security.GeneralSecurityException;
 import java.security.Key;
 import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.logging.Level;
@@ -50,9 +53,23 @@ public class SimpleDecryptor implements JsonDecryptor {
     /** Converts between JSON constructs and Java objects. */
     private final ObjectMapper mapper = new ObjectMapper();
 
+    /** Maximum number of values whose derived keys are kept in {@link #derivedKeys}. */
+    private static final int MAX_DERIVED_KEYS = 1024;
+
     /** TODO: Description. */
     private final SimpleKeySelector selector;
 
+    /** Derived keys of recently decrypted values, least recently used first. Guarded by its own monitor. */
+    private final Map<List<Object>, DerivedKeys> derivedKeys =
+            new LinkedHashMap<List<Object>, DerivedKeys>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<List<Object>, DerivedKeys> eldest) {
+                    return size() > MAX_DERIVED_KEYS;
+                }
+            };
+
     /**
      * TODO: Description.
      *
@@ -81,35 +98,16 @@ public class SimpleDecryptor implements JsonDecryptor {
             JsonValue key = value.get("key").required();
             String cipher = value.get("cipher").required().asString();
             Key symmetricKey;
-            if (key.isString()) {
-                symmetricKey = select(key.asString());
-            } else {
-                Key privateKey = select(key.get("key").required().asString());
-                Cipher asymmetric = Cipher.getInstance(key.get("cipher").required().asString());
-                asymmetric.init(Cipher.DECRYPT_MODE, privateKey);
-                byte[] ciphertext = Base64.decode(key.get("data").required().asString());
-                symmetricKey = new SecretKeySpec(asymmetric.doFinal(ciphertext), cipher.split("/", 2)[0]);
-            }
-
             if (value.isDefined("salt")) {
                 final byte[] macTag = Base64.decode(value.get("mac").required().asString());
-                HKDFKeyGenerator.HKDFMasterKey masterKey = HKDFKeyGenerator.extractMasterKey(symmetricKey.getEncoded(),
-                        Base64.decode(value.get("salt").required().asString()));
-
-                Key macKey = HKDFKeyGenerator.expandKey(masterKey, SimpleEncryptor.MAC_ALGORITHM,
-                        SimpleEncryptor.MAC_KEY_SIZE);
                 final Map<String, Object> map = new TreeMap<>(value.asMap());
                 map.remove("mac");
-                final byte[] computedMacTag = SimpleEncryptor.mac(map, macKey);
-                if (!MessageDigest.isEqual(macTag, computedMacTag)) {
-                    throw new GeneralSecurityException("Invalid tag");
-                }
-
-                symmetricKey = HKDFKeyGenerator.expandKey(masterKey, symmetricKey.getAlgorithm(),
-                        SimpleEncryptor.ASYMMETRIC_AES_KEY_SIZE);
+                symmetricKey = deriveKeys(key, cipher, value.get("salt").required().asString(), map, macTag);
+            } else {
+                symmetricKey = inputKey(key, cipher, select(alias(key)));
             }
 
-            Cipher symmetric = Cipher.getInstance(cipher);
+            Cipher symmetric = SimpleEncryptor.getCipher(cipher);
             String iv = value.get("iv").asString();
 
             IvParameterSpec ivps = (iv == null ? null : new IvParameterSpec(Base64.decode(iv)));
@@ -122,4 +120,73 @@ public class SimpleDecryptor implements JsonDecryptor {
         }
     }
 
+    private static String alias(JsonValue key) {
+        return key.isString() ? key.asString() : key.get("key").required().asString();
+    }
+
+    /**
+     * Returns the key the value was encrypted with: either the selected key itself or, for asymmetric encryption,
+     * the session key unwrapped with it.
+     */
+    private static Key inputKey(JsonValue key, String cipher, Key selected) throws GeneralSecurityException {
+        if (key.isString()) {
+            return selected;
+        }
+        Cipher asymmetric = SimpleEncryptor.getCipher(key.get("cipher").required().asString());
+        asymmetric.init(Cipher.DECRYPT_MODE, selected);
+        byte[] ciphertext = Base64.decode(key.get("data").required().asString());
+        return new SecretKeySpec(asymmetric.doFinal(ciphertext), cipher.split("/", 2)[0]);
+    }
+
+    /**
+     * Derives the MAC and encryption keys of a salted value, verifies its MAC and returns the encryption key.
+     * <p>
+     * The derived keys only depend on the selected key, on the wrapped session key (if any) and on the random salt of
+     * the value, so they are cached: decrypting the same stored value again, as happens on every read of encrypted
+     * configuration, does not repeat the key unwrapping nor the HKDF derivation. The MAC is verified every time.
+     */
+    private Key deriveKeys(JsonValue key, String cipher, String salt, Map<String, Object> macInput, byte[] macTag)
+            throws GeneralSecurityException, JsonCryptoException {
+        final Key selected = select(alias(key));
+        final List<Object> cacheKey = key.isString()
+                ? Arrays.<Object>asList(selected, cipher, salt)
+                : Arrays.<Object>asList(selected, cipher, salt,
+                        key.get("cipher").required().asString(), key.get("data").required().asString());
+
+        DerivedKeys derived;
+        synchronized (derivedKeys) {
+            derived = derivedKeys.get(cacheKey);
+        }
+        if (derived == null) {
+            Key symmetricKey = inputKey(key, cipher, selected);
+            HKDFKeyGenerator.HKDFMasterKey masterKey =
+                    HKDFKeyGenerator.extractMasterKey(symmetricKey.getEncoded(), Base64.decode(salt));
+            derived = new DerivedKeys(
+                    HKDFKeyGenerator.expandKey(masterKey, SimpleEncryptor.MAC_ALGORITHM, SimpleEncryptor.MAC_KEY_SIZE),
+                    HKDFKeyGenerator.expandKey(masterKey, symmetricKey.getAlgorithm(),
+                            SimpleEncryptor.ASYMMETRIC_AES_KEY_SIZE));
+        }
+
+        final byte[] computedMacTag = SimpleEncryptor.mac(macInput, derived.macKey);
+        if (!MessageDigest.isEqual(macTag, computedMacTag)) {
+            throw new GeneralSecurityException("Invalid tag");
+        }
+        // Only remember keys that authenticated a value
+        synchronized (derivedKeys) {
+            derivedKeys.put(cacheKey, derived);
+        }
+        return derived.encryptionKey;
+    }
+
+    /** The keys derived from the input key and salt of a value. */
+    private static final class DerivedKeys {
+        private final Key macKey;
+        private final Key encryptionKey;
+
+        private DerivedKeys(final Key macKey, final Key encryptionKey) {
+            this.macKey = macKey;
+            this.encryptionKey = encryptionKey;
+        }
+    }
+
 }
@@ -50,6 +50,12 @@ public class SimpleEncryptor implements JsonEncryptor {
 
     static final int ASYMMETRIC_AES_KEY_SIZE = 128 / 8;
 
+    /**
+     * Cipher instances, reused by each thread and keyed by transformation. A cipher is always re-initialised before
+     * being used, which resets any state left by a previous operation.
+     */
+    private static final ThreadLocal<Map<String, Cipher>> THREAD_LOCAL_CIPHERS = ThreadLocal.withInitial(HashMap::new);
+
     /** Converts between Java objects and JSON constructs. */
     private final ObjectMapper mapper = new ObjectMapper();
 
@@ -62,6 +68,12 @@ public class SimpleEncryptor implements JsonEncryptor {
     /** The key alias to list in the encrypted object. */
     private String alias;
 
+    /**
+     * The encoded form of a symmetric key, extracted once rather than for every value. Salts are still drawn for
+     * every value, so each value keeps its own derived encryption and MAC keys.
+     */
+    private final byte[] keyMaterial;
+
     /**
      * Constructs a new simple encryptor for the specified cipher, key and alias.
      *
@@ -73,6 +85,7 @@ public class SimpleEncryptor implements JsonEncryptor {
         this.cipher = cipher;
         this.key = key;
         this.alias = alias;
+        this.keyMaterial = key instanceof SecretKey ? key.getEncoded() : null;
     }
 
     @Override
@@ -89,10 +102,10 @@ public class SimpleEncryptor implements JsonEncryptor {
      * @throws IOException if an I/O exception occurred.
      */
     private Object symmetric(Object object) throws GeneralSecurityException, IOException {
-        Cipher symmetric = Cipher.getInstance(cipher);
+        Cipher symmetric = getCipher(cipher);
 
-        HKDFKeyGenerator.HKDFMasterKey masterKey = HKDFKeyGenerator.extractMasterKey(key.getEncoded());
-        Key encryptionKey = HKDFKeyGenerator.expandKey(masterKey, "AES", key.getEncoded().length);
+        HKDFKeyGenerator.HKDFMasterKey masterKey = HKDFKeyGenerator.extractMasterKey(keyMaterial);
+        Key encryptionKey = HKDFKeyGenerator.expandKey(masterKey, "AES", keyMaterial.length);
         Key macKey = HKDFKeyGenerator.expandKey(masterKey, MAC_ALGORITHM, MAC_KEY_SIZE);
 
         symmetric.init(Cipher.ENCRYPT_MODE, encryptionKey);
@@ -133,12 +146,12 @@ public class SimpleEncryptor implements JsonEncryptor {
         final Key encryptionKey = HKDFKeyGenerator.expandKey(masterKey, "AES", ASYMMETRIC_AES_KEY_SIZE);
         final Key macKey = HKDFKeyGenerator.expandKey(masterKey, MAC_ALGORITHM, MAC_KEY_SIZE);
 
-        Cipher symmetric = Cipher.getInstance(symmetricCipher);
+        Cipher symmetric = getCipher(symmetricCipher);
         symmetric.init(Cipher.ENCRYPT_MODE, encryptionKey);
         byte[] iv = symmetric.getIV();
         String data = Base64.encode(symmetric.doFinal(mapper.writeValueAsBytes(object)));
 
-        Cipher asymmetric = Cipher.getInstance(cipher);
+        Cipher asymmetric = getCipher(cipher);
         asymmetric.init(Cipher.ENCRYPT_MODE, key);
         HashMap<String, Object> keyObject = new HashMap<>();
         keyObject.put("cipher", this.cipher);
@@ -171,15 +184,29 @@ public class SimpleEncryptor implements JsonEncryptor {
     }
 
     static byte[] mac(final Map<String, Object> input, final Key macKey) {
-        try {
-            Mac mac = Mac.getInstance(MAC_ALGORITHM);
-            mac.init(macKey);
-            updateMac(mac, input);
-            // Truncate the MAC to half size
-            return Arrays.copyOfRange(mac.doFinal(), 0, MAC_KEY_SIZE / 2);
-        } catch (GeneralSecurityException e) {
-            throw new IllegalStateException(e);
+        // MAC_ALGORITHM is the HKDF HMAC algorithm, so reuse its per-thread instance
+        Mac mac = HKDFKeyGenerator.getHmac(macKey);
+        updateMac(mac, input);
+        // Truncate the MAC to half size
+        return Arrays.copyOfRange(mac.doFinal(), 0, MAC_KEY_SIZE / 2);
+    }
+
+    /**
+     * Returns the cipher of the calling thread for the given transformation. The returned cipher must be initialised
+     * before use, and must not be used anymore once this method is called again for the same transformation.
+     *
+     * @param transformation the cipher transformation, e.g. {@literal "AES/CBC/PKCS5Padding"}.
+     * @return the cipher.
+     * @throws GeneralSecurityException if the transformation is not supported.
+     */
+    static Cipher getCipher(final String transformation) throws GeneralSecurityException {
+        final Map<String, Cipher> ciphers = THREAD_LOCAL_CIPHERS.get();
+        Cipher cipher = ciphers.get(transformation);
+        if (cipher == null) {
+            cipher = Cipher.getInstance(transformation);
+            ciphers.put(transformation, cipher);
         }
+        return cipher;
     }
 
     @SuppressWarnings("unchecked")
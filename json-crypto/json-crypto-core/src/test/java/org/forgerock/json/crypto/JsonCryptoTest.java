@@ -144,6 +144,27 @@ public class JsonCryptoTest {
         assertThat(value.get("description").getObject()).isEqualTo(PLAINTEXT);
     }
 
+    @Test
+    public void testRepeatedDecryption() throws JsonCryptoException {
+        SimpleDecryptor decryptor = new SimpleDecryptor(selector);
+        JsonValue symmetric = new SimpleEncryptor(SYMMETRIC_CIPHER, secretKey, "secretKey")
+                .encrypt(new JsonValue(PLAINTEXT));
+        JsonValue asymmetric = new SimpleEncryptor(ASYMMETRIC_CIPHER, publicKey, "privateKey")
+                .encrypt(new JsonValue(PLAINTEXT));
+        for (int i = 0; i < 3; i++) {
+            assertThat(decryptor.decrypt(symmetric).getObject()).isEqualTo(PLAINTEXT);
+            assertThat(decryptor.decrypt(asymmetric).getObject()).isEqualTo(PLAINTEXT);
+        }
+    }
+
+    @Test
+    public void testEncryptionUsesFreshSalt() throws JsonCryptoException {
+        SimpleEncryptor encryptor = new SimpleEncryptor(SYMMETRIC_CIPHER, secretKey, "secretKey");
+        JsonValue first = encryptor.encrypt(new JsonValue(PLAINTEXT));
+        JsonValue second = encryptor.encrypt(new JsonValue(PLAINTEXT));
+        assertThat(first.get("salt").asString()).isNotEqualTo(second.get("salt").asString());
+    }
+
     // ----- exceptions ----------
 
     @Test(expectedExceptions = JsonCryptoException.class)
@@ -163,6 +184,19 @@ public class JsonCryptoTest {
         new SimpleDecryptor(selector).decrypt(value);
     }
 
+    @Test(expectedExceptions = JsonCryptoException.class)
+    public void testTamperedValueAfterSuccessfulDecryption() throws Exception {
+        SimpleDecryptor decryptor = new SimpleDecryptor(selector);
+        JsonValue value = new JsonValue(PLAINTEXT);
+        value = new SimpleEncryptor(SYMMETRIC_CIPHER, secretKey, "secretKey").encrypt(value);
+        decryptor.decrypt(value);
+
+        byte[] data = Base64.decode(value.get("data").asString());
+        data[0] ^= 0x01;
+        value.put("data", Base64.encode(data));
+        decryptor.decrypt(value);
+    }
+
     @Test(expectedExceptions = JsonCryptoException.class)
     public void testTamperedIV() throws Exception {
         JsonValue value = new JsonValue(PLAINTEXT);
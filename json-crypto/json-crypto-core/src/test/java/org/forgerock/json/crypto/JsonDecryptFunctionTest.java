@@ -22,6 +22,9 @@ import static org.forgerock.json.JsonValue.object;
 import static org.forgerock.json.crypto.JsonDecryptorUtilsTest.BASE64_DECRYPTOR;
 import static org.forgerock.json.crypto.JsonDecryptorUtilsTest.BASE64_ENCRYPTOR;
 
+import java.util.Arrays;
+import java.util.Collections;
+
 import org.forgerock.json.JsonPointer;
 import org.forgerock.json.JsonValue;
 import org.testng.annotations.Test;
@@ -62,6 +65,30 @@ public class JsonDecryptFunctionTest {
         assertThat(decode64(crypted2).get("foo").get("bar").asString()).isEqualTo(forgeRock);
     }
 
+    @Test
+    public void shouldDecryptGivenFieldsOnly() throws Exception {
+        JsonValue crypted = json(object(
+                field("password", encode64(json("secret")).getObject()),
+                field("other", encode64(json("untouched")).getObject())));
+
+        JsonValue decrypted = new JsonDecryptFunction(BASE64_DECRYPTOR).decryptFields(crypted,
+                Arrays.asList(new JsonPointer("/password"), new JsonPointer("/missing")));
+
+        assertThat(decrypted.get("password").asString()).isEqualTo("secret");
+        assertThat(JsonCrypto.isJsonCrypto(decrypted.get("other"))).isTrue();
+        assertThat(JsonCrypto.isJsonCrypto(crypted.get("password"))).isTrue();
+    }
+
+    @Test
+    public void shouldDecryptRootField() throws Exception {
+        JsonValue crypted = encode64(json("ForgeRock"));
+
+        JsonValue decrypted = new JsonDecryptFunction(BASE64_DECRYPTOR).decryptFields(crypted,
+                Collections.singletonList(new JsonPointer()));
+
+        assertThat(decrypted.asString()).isEqualTo("ForgeRock");
+    }
+
     private static JsonValue encode64(JsonValue value) throws JsonCryptoException {
         return value.as(new JsonEncryptFunction(BASE64_ENCRYPTOR));
     }
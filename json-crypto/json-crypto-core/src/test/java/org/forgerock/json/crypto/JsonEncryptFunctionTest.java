@@ -21,6 +21,9 @@ import static org.forgerock.json.JsonValue.json;
 import static org.forgerock.json.JsonValue.object;
 import static org.forgerock.json.crypto.JsonDecryptorUtilsTest.BASE64_ENCRYPTOR;
 
+import java.util.Arrays;
+
+import org.forgerock.json.JsonPointer;
 import org.forgerock.json.JsonValue;
 import org.testng.annotations.Test;
 
@@ -41,4 +44,22 @@ public class JsonEncryptFunctionTest {
 
         assertThat(encrypted.isEqualTo(expected)).isTrue();
     }
+
+    @Test
+    public void shouldEncryptGivenFieldsOnly() throws Exception {
+        JsonValue jsonValue = json(object(
+                field("user", object(field("password", "secret"), field("name", "bjensen"))),
+                field("description", "plain")));
+
+        JsonValue encrypted = new JsonEncryptFunction(BASE64_ENCRYPTOR).encryptFields(jsonValue,
+                Arrays.asList(new JsonPointer("/user/password"), new JsonPointer("/user"), new JsonPointer("/none")));
+
+        assertThat(JsonCrypto.isJsonCrypto(encrypted.get("user"))).isTrue();
+        assertThat(encrypted.get("description").asString()).isEqualTo("plain");
+        // The original value is left untouched
+        assertThat(jsonValue.get(new JsonPointer("/user/password")).asString()).isEqualTo("secret");
+        // The nested field is encrypted as part of its parent only
+        JsonValue decrypted = encrypted.as(new JsonDecryptFunction(JsonDecryptorUtilsTest.BASE64_DECRYPTOR));
+        assertThat(decrypted.isEqualTo(jsonValue)).isTrue();
+    }
 }
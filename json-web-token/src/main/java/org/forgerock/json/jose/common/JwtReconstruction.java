@@ -138,7 +138,7 @@ public class JwtReconstruction {
 
         String header = Utils.base64urlDecode(encodedHeader);
 
-        byte[] signature = Base64url.decode(encodedSignature);
+        byte[] signature = base64urlDecode(encodedSignature);
 
         JwsHeader jwsHeader = new JwsHeader(Utils.parseJson(header));
 
@@ -165,10 +165,10 @@ public class JwtReconstruction {
 
 
         String header = Utils.base64urlDecode(encodedHeader);
-        byte[] encryptedContentEncryptionKey = Base64url.decode(encodedEncryptedKey);
-        byte[] initialisationVector = Base64url.decode(encodedInitialisationVector);
-        byte[] ciphertext = Base64url.decode(encodedCiphertext);
-        byte[] authenticationTag = Base64url.decode(encodedAuthenticationTag);
+        byte[] encryptedContentEncryptionKey = base64urlDecode(encodedEncryptedKey);
+        byte[] initialisationVector = base64urlDecode(encodedInitialisationVector);
+        byte[] ciphertext = base64urlDecode(encodedCiphertext);
+        byte[] authenticationTag = base64urlDecode(encodedAuthenticationTag);
 
 
         JweHeader jweHeader = new JweHeader(Utils.parseJson(header));
@@ -200,7 +200,7 @@ public class JwtReconstruction {
 
         String header = Utils.base64urlDecode(encodedHeader);
         String payloadString = Utils.base64urlDecode(encodedPayload);
-        byte[] signature = Base64url.decode(encodedSignature);
+        byte[] signature = base64urlDecode(encodedSignature);
 
         //split into parts
         String[] encryptedJwtParts = payloadString.split("\\.", -1);
@@ -216,4 +216,19 @@ public class JwtReconstruction {
         return new SignedEncryptedJwt(jwsHeader, encryptedJwt,
                 (encodedHeader + "." + encodedPayload).getBytes(Utils.CHARSET), signature);
     }
+
+    /**
+     * Base64url decodes one of the JWT parts.
+     *
+     * @param encoded The Base64url encoded JWT part.
+     * @return The decoded bytes.
+     * @throws InvalidJwtException If the JWT part is not valid Base64url.
+     */
+    private static byte[] base64urlDecode(String encoded) {
+        byte[] decoded = Base64url.decode(encoded);
+        if (decoded == null) {
+            throw new InvalidJwtException("JWT part is not valid Base64url");
+        }
+        return decoded;
+    }
 }
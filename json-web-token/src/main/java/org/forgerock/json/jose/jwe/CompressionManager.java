@@ -16,6 +16,7 @@
 
 package org.forgerock.json.jose.jwe;
 
+import org.forgerock.json.jose.exceptions.InvalidJwtException;
 import org.forgerock.json.jose.exceptions.JweException;
 import org.forgerock.json.jose.jwe.handlers.compression.CompressionHandler;
 import org.forgerock.json.jose.jwe.handlers.compression.DeflateCompressionHandler;
@@ -74,8 +75,13 @@ public class CompressionManager {
      * @param compressionAlgorithm the compression algorithm to use.
      * @param data the base64url-encoded data to decompress.
      * @return the decompressed data.
+     * @throws InvalidJwtException if the data is not valid Base64url.
      */
     public byte[] decompress(CompressionAlgorithm compressionAlgorithm, String data) {
-        return getCompressionHandler(compressionAlgorithm).decompress(Base64url.decode(data));
+        final byte[] decoded = Base64url.decode(data);
+        if (decoded == null) {
+            throw new InvalidJwtException("Invalid Base64url encoding");
+        }
+        return getCompressionHandler(compressionAlgorithm).decompress(decoded);
     }
 }
@@ -57,6 +57,12 @@ public class EcJWK extends JWK {
      */
     private final static String CURVE = "crv";
 
+    /** The public key built from this JWK, created on first use. */
+    private volatile ECPublicKey publicKey;
+
+    /** The private key built from this JWK, created on first use. */
+    private volatile ECPrivateKey privateKey;
+
     /**
      * Creates a public EcJWK.
      * @param publicKey The public key for the JWK
@@ -227,11 +233,26 @@ public class EcJWK extends JWK {
         return super.toString();
     }
 
+    @Override
+    protected void clearCachedKeys() {
+        publicKey = null;
+        privateKey = null;
+    }
+
     /**
-     * Converts the JWK to a ECPublicKey.
+     * Converts the JWK to a ECPublicKey. The key is built once and then reused by subsequent calls.
      * @return an ECPublicKey
      */
     public ECPublicKey toECPublicKey() {
+        ECPublicKey key = publicKey;
+        if (key == null) {
+            key = createECPublicKey();
+            publicKey = key;
+        }
+        return key;
+    }
+
+    private ECPublicKey createECPublicKey() {
         try {
             final SupportedEllipticCurve curve = SupportedEllipticCurve.forName(getCurve());
 
@@ -246,10 +267,19 @@ public class EcJWK extends JWK {
     }
 
     /**
-     * Converts the JWK to a ECPrivateKey.
+     * Converts the JWK to a ECPrivateKey. The key is built once and then reused by subsequent calls.
      * @return an ECPrivateKey
      */
     public ECPrivateKey toECPrivateKey() {
+        ECPrivateKey key = privateKey;
+        if (key == null) {
+            key = createECPrivateKey();
+            privateKey = key;
+        }
+        return key;
+    }
+
+    private ECPrivateKey createECPrivateKey() {
         try {
             final SupportedEllipticCurve curve = SupportedEllipticCurve.forName(getCurve());
 
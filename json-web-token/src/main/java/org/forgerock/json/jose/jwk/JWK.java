@@ -113,6 +113,27 @@ public abstract class JWK extends JWObject {
         }
     }
 
+    /**
+     * Sets or removes the value of the specified member, discarding any key objects previously built from this JWK.
+     *
+     * @param key The map key.
+     * @param value The value to set.
+     */
+    @Override
+    public void put(String key, Object value) {
+        super.put(key, value);
+        clearCachedKeys();
+    }
+
+    /**
+     * Discards the {@link java.security.Key} instances cached by this JWK, as they may no longer match its
+     * parameters. Implementations caching key objects must override this method; it may be called from the
+     * constructor of this class.
+     */
+    protected void clearCachedKeys() {
+        // Nothing cached by default
+    }
+
     /**
      * Gets the kty parameter of the JWK.
      * @return A KeyType for the JWK
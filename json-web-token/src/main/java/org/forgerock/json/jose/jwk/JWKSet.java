@@ -19,10 +19,13 @@ package org.forgerock.json.jose.jwk;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 
 import org.forgerock.json.JsonException;
 import org.forgerock.json.JsonValue;
@@ -35,16 +38,27 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
  * Holds a Set of JWKs.
+ * <p>
+ * The JWKs are checked once when the set is constructed (or when its {@literal "keys"} are replaced), and indexed by
+ * key ID and by algorithm and key usage, so that {@link #findJwk(String)} and {@link #findJwk(Algorithm, KeyUse)}
+ * only parse the JWK they return, rather than the whole set. So that the indexes cannot go stale, the
+ * {@literal "keys"} are stored as an immutable {@link JsonValue#snapshot() snapshot}: they can only be changed by
+ * replacing them with {@link #put(String, Object)}.
  */
 public class JWKSet extends JWObject {
 
     private static final Logger logger = LoggerFactory.getLogger(JWKSet.class);
 
+    private static final String KEYS = "keys";
+
+    /** The parsed and indexed keys, rebuilt whenever the {@literal "keys"} field is replaced. */
+    private volatile Index index = Index.EMPTY;
+
     /**
      * Constructs an empty JWKSet.
      */
     public JWKSet() {
-        put("keys", Collections.EMPTY_LIST);
+        put(KEYS, Collections.EMPTY_LIST);
     }
 
     /**
@@ -55,7 +69,7 @@ public class JWKSet extends JWObject {
         if (jwk == null) {
             throw new JsonException("JWK must not be null");
         }
-        put("keys", Collections.singletonList(jwk.toJsonValue().asMap()));
+        put(KEYS, Collections.singletonList(jwk.toJsonValue().asMap()));
     }
 
     /**
@@ -66,7 +80,7 @@ public class JWKSet extends JWObject {
         if (jwks == null) {
             throw new JsonException("JWK set must not be null");
         }
-        put("keys", jwks.expect(List.class));
+        put(KEYS, jwks.expect(List.class));
     }
 
     /**
@@ -82,7 +96,7 @@ public class JWKSet extends JWObject {
         for (JWK jwk : jwkList) {
             jwkListAsJson.add(jwk.toJsonValue().asMap());
         }
-        put("keys", jwkListAsJson);
+        put(KEYS, jwkListAsJson);
     }
 
     /**
@@ -91,7 +105,7 @@ public class JWKSet extends JWObject {
      */
     public List<JWK> getJWKsAsList() {
         List<JWK> listOfJWKs = new LinkedList<>();
-        JsonValue jwks = get("keys");
+        JsonValue jwks = get(KEYS);
         Iterator<JsonValue> i = jwks.iterator();
         while (i.hasNext()) {
             listOfJWKs.add(JWK.parse(i.next()));
@@ -101,10 +115,28 @@ public class JWKSet extends JWObject {
 
     /**
      * Get the JWKs in the set.
-     * @return a list of JWKs as JsonValues
+     * @return a copy of the list of JWKs as JsonValues. Modifying the copy does not modify the set: use
+     * {@link #put(String, Object)} to replace its {@literal "keys"}.
      */
     public JsonValue getJWKsAsJsonValue() {
-        return get("keys");
+        return get(KEYS).copy();
+    }
+
+    /**
+     * Sets or removes the value of the specified member, re-indexing the JWKs when the {@literal "keys"} member is
+     * replaced. The {@literal "keys"} are stored as an immutable snapshot of the given value.
+     *
+     * @param key The map key.
+     * @param value The value to set.
+     */
+    @Override
+    public void put(String key, Object value) {
+        if (KEYS.equals(key)) {
+            super.put(key, value != null ? new JsonValue(value).snapshot().getObject() : null);
+            index = Index.build(get(KEYS));
+        } else {
+            super.put(key, value);
+        }
     }
 
     /**
@@ -161,20 +193,14 @@ public class JWKSet extends JWObject {
      * without key usage defined. If still no JWK found, then returns null.
      */
     public JWK findJwk(Algorithm algorithm, KeyUse keyUse) {
+        final Index current = index;
         //First, we try to find a JWK that matches the keyUse
-        for (JWK jwk : getJWKsAsList()) {
-            try {
-                if (algorithm.getJwaAlgorithmName().equalsIgnoreCase(jwk.getAlgorithm()) && (keyUse == jwk.getUse())) {
-                    return jwk;
-                }
-            } catch (IllegalArgumentException e) {
-                // We raise a warning as the JWKs could be the client one, with some non-compliant JWK.
-                logger.warn("Can't load JWK with kid'" + jwk.getKeyId() + "'", e);
-            }
+        JsonValue jwk = current.byAlgorithmAndUse.get(new AlgorithmAndUse(algorithm.getJwaAlgorithmName(), keyUse));
+        if (jwk == null && keyUse != null) {
+            //At this point, no jwk was found. We can try to find a JWK without a keyUse now
+            jwk = current.byAlgorithmAndUse.get(new AlgorithmAndUse(algorithm.getJwaAlgorithmName(), null));
         }
-
-        //At this point, no jwk was found. We can try to find a JWK without a keyUse now
-        return keyUse != null ? findJwk(algorithm, null) :  null;
+        return jwk != null ? JWK.parse(jwk) : null;
     }
 
     /**
@@ -184,11 +210,92 @@ public class JWKSet extends JWObject {
      * @return A jwk that matches the kid. If no JWK found, returns null
      */
     public JWK findJwk(String kid) {
-        for (JWK jwk : getJWKsAsList()) {
-            if (kid.equals(jwk.getKeyId())) {
-                return jwk;
+        final JsonValue jwk = index.byKid.get(kid);
+        return jwk != null ? JWK.parse(jwk) : null;
+    }
+
+    /**
+     * Immutable lookup tables over the JWKs of a set. They hold the immutable JSON of the JWKs rather than parsed
+     * JWKs, so that the JWKs returned by the lookups can be modified without affecting the set.
+     */
+    private static final class Index {
+
+        private static final Index EMPTY = new Index(Collections.<String, JsonValue>emptyMap(),
+                Collections.<AlgorithmAndUse, JsonValue>emptyMap());
+
+        private final Map<String, JsonValue> byKid;
+        private final Map<AlgorithmAndUse, JsonValue> byAlgorithmAndUse;
+
+        private Index(Map<String, JsonValue> byKid, Map<AlgorithmAndUse, JsonValue> byAlgorithmAndUse) {
+            this.byKid = byKid;
+            this.byAlgorithmAndUse = byAlgorithmAndUse;
+        }
+
+        /**
+         * Parses every JWK of the given list once, to index it. When several JWKs share a kid, or an algorithm and key
+         * usage, the first one in the set wins, as it did with the previous linear search.
+         */
+        private static Index build(JsonValue keys) {
+            if (keys == null || !keys.isList() || keys.size() == 0) {
+                return EMPTY;
             }
+            final Map<String, JsonValue> byKid = new HashMap<>();
+            final Map<AlgorithmAndUse, JsonValue> byAlgorithmAndUse = new HashMap<>();
+            for (JsonValue key : keys) {
+                final JWK jwk;
+                try {
+                    jwk = JWK.parse(key);
+                } catch (JsonException | IllegalArgumentException e) {
+                    logger.warn("Can't parse JWK '" + key + "'", e);
+                    continue;
+                }
+                final String kid = jwk.getKeyId();
+                if (kid != null && !byKid.containsKey(kid)) {
+                    byKid.put(kid, key);
+                }
+                try {
+                    final String algorithm = jwk.getAlgorithm();
+                    if (algorithm != null) {
+                        final AlgorithmAndUse lookup = new AlgorithmAndUse(algorithm, jwk.getUse());
+                        if (!byAlgorithmAndUse.containsKey(lookup)) {
+                            byAlgorithmAndUse.put(lookup, key);
+                        }
+                    }
+                } catch (JsonException | IllegalArgumentException e) {
+                    // We raise a warning as the JWKs could be the client one, with some non-compliant JWK.
+                    logger.warn("Can't load JWK with kid'" + kid + "'", e);
+                }
+            }
+            return new Index(Collections.unmodifiableMap(byKid), Collections.unmodifiableMap(byAlgorithmAndUse));
+        }
+    }
+
+    /** Case-insensitive algorithm name and optional key usage, used as a lookup key. */
+    private static final class AlgorithmAndUse {
+
+        private final String algorithm;
+        private final KeyUse keyUse;
+
+        private AlgorithmAndUse(String algorithm, KeyUse keyUse) {
+            this.algorithm = algorithm.toLowerCase(Locale.ROOT);
+            this.keyUse = keyUse;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof AlgorithmAndUse)) {
+                return false;
+            }
+            final AlgorithmAndUse that = (AlgorithmAndUse) o;
+            return algorithm.equals(that.algorithm) && keyUse == that.keyUse;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(algorithm, keyUse);
         }
-        return null;
     }
 }
@@ -156,6 +156,12 @@ public class RsaJWK extends JWK {
      */
     private final static String FACTORS = "factors";
 
+    /** The public key built from this JWK, created on first use. */
+    private volatile RSAPublicKey publicKey;
+
+    /** The private key built from this JWK, created on first use. */
+    private volatile RSAPrivateKey privateKey;
+
     /**
      * Creates a RsaJWK.
      * @param use the use of the JWK
@@ -406,11 +412,26 @@ public class RsaJWK extends JWK {
         return get(FACTORS).asList();
     }
 
+    @Override
+    protected void clearCachedKeys() {
+        publicKey = null;
+        privateKey = null;
+    }
+
     /**
-     * Creates a RSAPublicKey from the JWK.
+     * Creates a RSAPublicKey from the JWK. The key is built once and then reused by subsequent calls.
      * @return a RSAPublicKey
      */
     public RSAPublicKey toRSAPublicKey() {
+        RSAPublicKey key = publicKey;
+        if (key == null) {
+            key = createRSAPublicKey();
+            publicKey = key;
+        }
+        return key;
+    }
+
+    private RSAPublicKey createRSAPublicKey() {
         try {
             RSAPublicKeySpec spec = new RSAPublicKeySpec(asPositiveBigInteger(getModulus()),
                     asPositiveBigInteger(getPublicExponent()));
@@ -422,10 +443,19 @@ public class RsaJWK extends JWK {
     }
 
     /**
-     * Creates a RSAPrivateKey from the JWK.
+     * Creates a RSAPrivateKey from the JWK. The key is built once and then reused by subsequent calls.
      * @return a RSAPrivateKey
      */
     public RSAPrivateKey toRSAPrivateKey() {
+        RSAPrivateKey key = privateKey;
+        if (key == null) {
+            key = createRSAPrivateKey();
+            privateKey = key;
+        }
+        return key;
+    }
+
+    private RSAPrivateKey createRSAPrivateKey() {
 
         if (getPrivateExponent() == null) {
             return null;
@@ -564,6 +594,10 @@ public class RsaJWK extends JWK {
      * @return a Base64 decoded, positively-forced BigInteger representation of the provided String.
      */
     private BigInteger asPositiveBigInteger(String toConvert) {
-        return new BigInteger(BIG_INTEGER_POSITIVE, Base64url.decode(toConvert));
+        final byte[] magnitude = Base64url.decode(toConvert);
+        if (magnitude == null) {
+            throw new JsonException("Invalid Base64url encoded value");
+        }
+        return new BigInteger(BIG_INTEGER_POSITIVE, magnitude);
     }
 }
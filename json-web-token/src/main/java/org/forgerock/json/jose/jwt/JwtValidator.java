@@ -0,0 +1,513 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.json.jose.jwt;
+
+import static org.forgerock.json.jose.jwt.JwtClaimsSetKey.AUD;
+import static org.forgerock.json.jose.jwt.JwtClaimsSetKey.EXP;
+import static org.forgerock.json.jose.jwt.JwtClaimsSetKey.ISS;
+import static org.forgerock.json.jose.jwt.JwtClaimsSetKey.NBF;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.util.Reject;
+import org.forgerock.util.time.Duration;
+import org.forgerock.util.time.TimeService;
+
+/**
+ * An immutable, reusable validation policy for JWTs.
+ * <p>
+ * A policy is compiled once, through a {@link Builder}, from the accepted algorithms, issuers and audiences, the
+ * allowed clock skew and the required claims. Validating a JWT then evaluates every check in a single pass over its
+ * raw claims, and reports all of the failed checks rather than stopping at the first one:
+ *
+ * <pre>
+ * JwtValidator validator = JwtValidator.builder()
+ *         .issuers("https://issuer.example.com")
+ *         .audiences("my-client")
+ *         .clockSkew(Duration.duration("30 seconds"))
+ *         .requireExpirationTime()
+ *         .build();
+ *
+ * List&lt;JwtValidator.Failure&gt; failures = validator.validate(jwt);
+ * </pre>
+ *
+ * This class is thread safe.
+ */
+public final class JwtValidator {
+
+    /** The reasons for which a JWT can fail validation. */
+    public enum Reason {
+        /** The JWT header algorithm is not one of the accepted algorithms. */
+        INVALID_ALGORITHM,
+        /** A required claim is not present. */
+        MISSING_CLAIM,
+        /** A claim is present but does not have the expected type or value. */
+        INVALID_CLAIM,
+        /** The issuer ({@literal iss}) claim is not one of the accepted issuers. */
+        INVALID_ISSUER,
+        /** None of the audience ({@literal aud}) claim values is one of the accepted audiences. */
+        INVALID_AUDIENCE,
+        /** The expiration time, or another expiry claim, is in the past. */
+        EXPIRED,
+        /** The not before ({@literal nbf}) time is in the future. */
+        NOT_YET_VALID
+    }
+
+    /** A failed check, identifying the reason of the failure and the claim or header parameter concerned. */
+    public static final class Failure {
+
+        private final Reason reason;
+        private final String name;
+
+        private Failure(final Reason reason, final String name) {
+            this.reason = reason;
+            this.name = name;
+        }
+
+        /**
+         * Returns the reason of the failure.
+         *
+         * @return The reason of the failure.
+         */
+        public Reason getReason() {
+            return reason;
+        }
+
+        /**
+         * Returns the name of the claim, or of the header parameter, that failed validation.
+         *
+         * @return The name of the claim or header parameter.
+         */
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String toString() {
+            return reason + "(" + name + ")";
+        }
+    }
+
+    /**
+     * Creates a new builder of validation policy.
+     *
+     * @return A new builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** A builder of {@link JwtValidator}. Builders are not thread safe, but the validators they build are. */
+    public static final class Builder {
+
+        private final Set<String> algorithms = new HashSet<>();
+        private final Set<String> issuers = new HashSet<>();
+        private final Set<String> audiences = new HashSet<>();
+        private final Set<String> requiredClaims = new HashSet<>();
+        private final Set<String> expiryClaims = new HashSet<>();
+        private final Map<String, Object> expectedValues = new LinkedHashMap<>();
+        private boolean checkNotBefore;
+        private Duration clockSkew = Duration.ZERO;
+        private TimeService timeService = TimeService.SYSTEM;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds accepted algorithms. If no algorithm is added, the header algorithm is not checked.
+         *
+         * @param algorithms The accepted algorithms.
+         * @return This builder.
+         */
+        public Builder algorithms(final Algorithm... algorithms) {
+            for (final Algorithm algorithm : algorithms) {
+                this.algorithms.add(algorithm.getJwaAlgorithmName());
+            }
+            return this;
+        }
+
+        /**
+         * Adds accepted issuers. If at least one issuer is added, the {@literal iss} claim is required and must be
+         * equal to one of them.
+         *
+         * @param issuers The accepted issuers.
+         * @return This builder.
+         */
+        public Builder issuers(final String... issuers) {
+            this.issuers.addAll(Arrays.asList(issuers));
+            return this;
+        }
+
+        /**
+         * Adds accepted audiences. If at least one audience is added, the {@literal aud} claim is required and one
+         * of its values must be equal to one of them.
+         *
+         * @param audiences The accepted audiences.
+         * @return This builder.
+         */
+        public Builder audiences(final String... audiences) {
+            this.audiences.addAll(Arrays.asList(audiences));
+            return this;
+        }
+
+        /**
+         * Sets the clock skew tolerated when checking the expiry and not before times. Defaults to zero.
+         *
+         * @param clockSkew The tolerated clock skew.
+         * @return This builder.
+         */
+        public Builder clockSkew(final Duration clockSkew) {
+            Reject.ifNull(clockSkew);
+            Reject.ifTrue(clockSkew.isUnlimited(), "The clock skew must be limited");
+            this.clockSkew = clockSkew;
+            return this;
+        }
+
+        /**
+         * Requires the given claims to be present, whatever their value.
+         *
+         * @param claims The names of the required claims.
+         * @return This builder.
+         */
+        public Builder requiredClaims(final String... claims) {
+            this.requiredClaims.addAll(Arrays.asList(claims));
+            return this;
+        }
+
+        /**
+         * Requires the expiration time ({@literal exp}) claim to be present. When present, it is always checked.
+         *
+         * @return This builder.
+         */
+        public Builder requireExpirationTime() {
+            return requiredClaims(EXP.value());
+        }
+
+        /**
+         * Requires a claim to be present and to be an IntDate in the future, like the expiration time. This is
+         * useful for custom expiry claims, such as idle timeouts.
+         *
+         * @param claim The name of the expiry claim.
+         * @return This builder.
+         */
+        public Builder expiryClaim(final String claim) {
+            this.expiryClaims.add(claim);
+            return requiredClaims(claim);
+        }
+
+        /**
+         * Requires a claim to be present and to be equal to the given value.
+         *
+         * @param claim The name of the claim.
+         * @param value The expected value of the claim.
+         * @return This builder.
+         */
+        public Builder claimEquals(final String claim, final Object value) {
+            Reject.ifNull(value);
+            this.expectedValues.put(claim, value);
+            return requiredClaims(claim);
+        }
+
+        /**
+         * Rejects the JWTs whose not before ({@literal nbf}) claim, when present, is in the future. The not before
+         * time is not checked by default.
+         *
+         * @return This builder.
+         */
+        public Builder checkNotBefore() {
+            this.checkNotBefore = true;
+            return this;
+        }
+
+        /**
+         * Sets the time service used to get the current time. Defaults to {@link TimeService#SYSTEM}.
+         *
+         * @param timeService The time service.
+         * @return This builder.
+         */
+        public Builder timeService(final TimeService timeService) {
+            Reject.ifNull(timeService);
+            this.timeService = timeService;
+            return this;
+        }
+
+        /**
+         * Compiles the policy into an immutable validator.
+         *
+         * @return A new validator.
+         */
+        public JwtValidator build() {
+            final Map<String, ClaimCheck> checks = new HashMap<>();
+            // the builder is left untouched, so that it can build other validators
+            final Set<String> requiredClaims = new HashSet<>(this.requiredClaims);
+            if (!issuers.isEmpty()) {
+                // the issuer is a single value, unlike the audience
+                checks.put(ISS.value(), new ValueInCheck(ISS.value(), Reason.INVALID_ISSUER, issuers, false));
+                requiredClaims.add(ISS.value());
+            }
+            if (!audiences.isEmpty()) {
+                checks.put(AUD.value(), new ValueInCheck(AUD.value(), Reason.INVALID_AUDIENCE, audiences, true));
+                requiredClaims.add(AUD.value());
+            }
+            final long skew = clockSkew.to(TimeUnit.MILLISECONDS);
+            checks.put(EXP.value(), new ExpiryCheck(EXP.value(), skew));
+            if (checkNotBefore) {
+                checks.put(NBF.value(), new NotBeforeCheck(NBF.value(), skew));
+            }
+            for (final String claim : expiryClaims) {
+                checks.put(claim, new ExpiryCheck(claim, skew));
+            }
+            for (final Map.Entry<String, Object> expected : expectedValues.entrySet()) {
+                checks.put(expected.getKey(), new EqualsCheck(expected.getKey(), expected.getValue()));
+            }
+            int index = 0;
+            for (final String claim : requiredClaims) {
+                ClaimCheck check = checks.get(claim);
+                if (check == null) {
+                    check = new PresenceCheck(claim);
+                    checks.put(claim, check);
+                }
+                check.requiredIndex = index++;
+            }
+            return new JwtValidator(this, checks, index);
+        }
+    }
+
+    private final Set<String> algorithms;
+    private final Map<String, ClaimCheck> checks;
+    private final List<ClaimCheck> requiredChecks;
+    private final TimeService timeService;
+
+    private JwtValidator(final Builder builder, final Map<String, ClaimCheck> checks, final int requiredCount) {
+        this.algorithms = Collections.unmodifiableSet(new HashSet<>(builder.algorithms));
+        this.checks = Collections.unmodifiableMap(checks);
+        final ClaimCheck[] required = new ClaimCheck[requiredCount];
+        for (final ClaimCheck check : checks.values()) {
+            if (check.requiredIndex >= 0) {
+                required[check.requiredIndex] = check;
+            }
+        }
+        this.requiredChecks = Collections.unmodifiableList(Arrays.asList(required));
+        this.timeService = builder.timeService;
+    }
+
+    /**
+     * Validates the header algorithm and the claims of the given JWT.
+     *
+     * @param jwt The JWT to validate.
+     * @return The failed checks, or an empty list if the JWT is valid.
+     */
+    public List<Failure> validate(final Jwt jwt) {
+        Reject.ifNull(jwt);
+        List<Failure> failures = null;
+        if (!algorithms.isEmpty()) {
+            final String algorithm = jwt.getHeader().getAlgorithmString();
+            if (algorithm == null || !algorithms.contains(algorithm)) {
+                failures = add(failures, new Failure(Reason.INVALID_ALGORITHM, JwtHeaderKey.ALG.value()));
+            }
+        }
+        return validate(jwt.getClaimsSet().getAll(), failures);
+    }
+
+    /**
+     * Validates the given claims set.
+     *
+     * @param claimsSet The claims set to validate.
+     * @return The failed checks, or an empty list if the claims set is valid.
+     */
+    public List<Failure> validate(final JwtClaimsSet claimsSet) {
+        Reject.ifNull(claimsSet);
+        return validate(claimsSet.getAll(), null);
+    }
+
+    /**
+     * Validates the given raw claims, as held by a {@link JwtClaimsSet}.
+     *
+     * @param claims The claims to validate.
+     * @return The failed checks, or an empty list if the claims are valid.
+     */
+    public List<Failure> validate(final Map<String, Object> claims) {
+        Reject.ifNull(claims);
+        return validate(claims, null);
+    }
+
+    /**
+     * Returns {@code true} if the given JWT passes all of the checks of this policy.
+     *
+     * @param jwt The JWT to validate.
+     * @return {@code true} if the JWT is valid.
+     */
+    public boolean isValid(final Jwt jwt) {
+        return validate(jwt).isEmpty();
+    }
+
+    private List<Failure> validate(final Map<String, Object> claims, List<Failure> failures) {
+        final long now = timeService.now();
+        final boolean[] seen = requiredChecks.isEmpty() ? null : new boolean[requiredChecks.size()];
+        int seenCount = 0;
+        for (final Map.Entry<String, Object> claim : claims.entrySet()) {
+            final ClaimCheck check = checks.get(claim.getKey());
+            if (check == null || claim.getValue() == null) {
+                continue;
+            }
+            if (check.requiredIndex >= 0) {
+                seen[check.requiredIndex] = true;
+                seenCount++;
+            }
+            final Reason reason = check.check(claim.getValue(), now);
+            if (reason != null) {
+                failures = add(failures, new Failure(reason, check.claim));
+            }
+        }
+        if (seenCount < requiredChecks.size()) {
+            for (final ClaimCheck check : requiredChecks) {
+                if (!seen[check.requiredIndex]) {
+                    failures = add(failures, new Failure(Reason.MISSING_CLAIM, check.claim));
+                }
+            }
+        }
+        return failures == null ? Collections.<Failure>emptyList() : failures;
+    }
+
+    private static List<Failure> add(List<Failure> failures, final Failure failure) {
+        if (failures == null) {
+            failures = new ArrayList<>(2);
+        }
+        failures.add(failure);
+        return failures;
+    }
+
+    /** A check applied to the raw value of a single claim. */
+    private abstract static class ClaimCheck {
+
+        final String claim;
+        /** Position in the required checks, or -1 if the claim is optional. */
+        int requiredIndex = -1;
+
+        ClaimCheck(final String claim) {
+            this.claim = claim;
+        }
+
+        /** Returns the reason of the failure, or {@code null} if the value is valid. */
+        abstract Reason check(Object value, long now);
+    }
+
+    private static final class PresenceCheck extends ClaimCheck {
+
+        PresenceCheck(final String claim) {
+            super(claim);
+        }
+
+        @Override
+        Reason check(final Object value, final long now) {
+            return null;
+        }
+    }
+
+    private static final class EqualsCheck extends ClaimCheck {
+
+        private final Object expected;
+
+        EqualsCheck(final String claim, final Object expected) {
+            super(claim);
+            this.expected = expected;
+        }
+
+        @Override
+        Reason check(final Object value, final long now) {
+            return expected.equals(value) ? null : Reason.INVALID_CLAIM;
+        }
+    }
+
+    /** Checks a string, or a list of strings if the claim is multi-valued, contains one of the accepted values. */
+    private static final class ValueInCheck extends ClaimCheck {
+
+        private final Reason reason;
+        private final Set<String> accepted;
+        private final boolean multiValued;
+
+        ValueInCheck(final String claim, final Reason reason, final Collection<String> accepted,
+                final boolean multiValued) {
+            super(claim);
+            this.reason = reason;
+            this.accepted = Collections.unmodifiableSet(new HashSet<>(accepted));
+            this.multiValued = multiValued;
+        }
+
+        @Override
+        Reason check(final Object value, final long now) {
+            if (value instanceof String) {
+                return accepted.contains(value) ? null : reason;
+            } else if (multiValued && value instanceof List) {
+                for (final Object element : (List<?>) value) {
+                    if (element instanceof String && accepted.contains(element)) {
+                        return null;
+                    }
+                }
+                return reason;
+            }
+            return Reason.INVALID_CLAIM;
+        }
+    }
+
+    private static final class ExpiryCheck extends ClaimCheck {
+
+        private final long skew;
+
+        ExpiryCheck(final String claim, final long skew) {
+            super(claim);
+            this.skew = skew;
+        }
+
+        @Override
+        Reason check(final Object value, final long now) {
+            if (!(value instanceof Number)) {
+                return Reason.INVALID_CLAIM;
+            }
+            // The JWT must not be accepted on or after its expiry time
+            return now - skew >= ((Number) value).longValue() * 1000L ? Reason.EXPIRED : null;
+        }
+    }
+
+    private static final class NotBeforeCheck extends ClaimCheck {
+
+        private final long skew;
+
+        NotBeforeCheck(final String claim, final long skew) {
+            super(claim);
+            this.skew = skew;
+        }
+
+        @Override
+        Reason check(final Object value, final long now) {
+            if (!(value instanceof Number)) {
+                return Reason.INVALID_CLAIM;
+            }
+            return now + skew < ((Number) value).longValue() * 1000L ? Reason.NOT_YET_VALID : null;
+        }
+    }
+}
@@ -68,9 +68,14 @@ public final class BigIntegerUtils {
      * Decode a big-endian base64 url encoding of a magnitude big integer and transform it as a positive big integer.
      * @param magnitudeBase64UrlEncoded  big-endian base64 url encoding of a big integer magnitude
      * @return a positive big integer with the magnitude decoded from thhe
+     * @throws IllegalArgumentException if the magnitude is not valid base64 url
      */
     public static BigInteger base64UrlDecode(String magnitudeBase64UrlEncoded) {
         final int positive = 1;
-        return new BigInteger(positive, Base64url.decode(magnitudeBase64UrlEncoded));
+        final byte[] magnitude = Base64url.decode(magnitudeBase64UrlEncoded);
+        if (magnitude == null) {
+            throw new IllegalArgumentException("Invalid base64 url encoding of a big integer");
+        }
+        return new BigInteger(positive, magnitude);
     }
 }
@@ -65,9 +65,14 @@ public final class Utils {
      *
      * @param s The Base64url encoded String to decode.
      * @return The UTF-8 decoded String.
+     * @throws InvalidJwtException If the String is not valid Base64url.
      */
     public static String base64urlDecode(String s) {
-        return new String(Base64url.decode(s), CHARSET);
+        final byte[] decoded = Base64url.decode(s);
+        if (decoded == null) {
+            throw new InvalidJwtException("Invalid Base64url encoding");
+        }
+        return new String(decoded, CHARSET);
     }
 
     /**
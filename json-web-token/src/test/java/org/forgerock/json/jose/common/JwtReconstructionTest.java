@@ -19,6 +19,7 @@ package org.forgerock.json.jose.common;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import org.forgerock.json.jose.builders.JwtBuilderFactory;
+import org.forgerock.json.jose.exceptions.InvalidJwtException;
 import org.forgerock.json.jose.helper.KeysHelper;
 import org.forgerock.json.jose.jwe.EncryptedJwt;
 import org.forgerock.json.jose.jwe.EncryptionMethod;
@@ -69,6 +70,23 @@ public class JwtReconstructionTest {
         assertThat(jwt.getClaimsSet().getClaim(CLAIM_KEY)).isEqualTo(CLAIM_VALUE);
     }
 
+    @Test(expectedExceptions = InvalidJwtException.class)
+    public void shouldRejectJwtPartWithIllegalBase64urlCharacters() {
+        // Given
+        SigningHandler signingHandler = new SigningManager().newRsaSigningHandler(KeysHelper.getRSAPrivateKey());
+        JwtClaimsSet jwtClaimsSet = jwtBuilderFactory.claims().claim(CLAIM_KEY, CLAIM_VALUE).build();
+
+        String jwtString = jwtBuilderFactory.jws(signingHandler)
+                .headers()
+                    .alg(JwsAlgorithm.RS256)
+                .done()
+                .claims(jwtClaimsSet)
+                .build();
+
+        // When
+        jwtBuilderFactory.reconstruct(jwtString + "!", SignedJwt.class);
+    }
+
     @Test
     public void canReconstructSignedPlaintextJwt() {
         // Given
@@ -16,6 +16,7 @@
 
 package org.forgerock.json.jose.jwk;
 
+import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.forgerock.json.JsonValue.field;
 import static org.forgerock.json.JsonValue.json;
@@ -143,6 +144,70 @@ public class JWKSetTest  implements ITest {
         }
     }
 
+    @Test
+    public void testFoundJWKsCannotCorruptTheSet() throws NoSuchAlgorithmException {
+        //Given
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        KeyPair keyPair = keyPairGenerator.generateKeyPair();
+        RsaJWK rsaJwk = new RsaJWK((RSAPublicKey) keyPair.getPublic(), KeyUse.SIG,
+                JwsAlgorithm.RS256.getJwaAlgorithmName(), "rsaJwk", null, null, null);
+        JWKSet jwkSet = JWKSet.parse(json(object(field("keys", singletonList(rsaJwk.toJsonValue().getObject())))));
+
+        //When
+        RsaJWK byKid = (RsaJWK) jwkSet.findJwk("rsaJwk");
+        RsaJWK byAlgorithm = (RsaJWK) jwkSet.findJwk(JwsAlgorithm.RS256, KeyUse.SIG);
+        byKid.put("kid", "modified");
+        byAlgorithm.put("n", rsaJwk.getPublicExponent());
+
+        //Then
+        assertThat(byKid.toRSAPublicKey()).isEqualTo(keyPair.getPublic());
+        assertThat(jwkSet.findJwk("modified")).isNull();
+        assertThat(jwkSet.findJwk("rsaJwk").getKeyId()).isEqualTo("rsaJwk");
+        assertThat(((RsaJWK) jwkSet.findJwk(JwsAlgorithm.RS256, KeyUse.SIG)).toRSAPublicKey())
+                .isEqualTo(keyPair.getPublic());
+    }
+
+    @Test
+    public void testFindJWKAfterKeysAreReplaced() throws NoSuchAlgorithmException {
+        //Given
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        RsaJWK rsaJwk = new RsaJWK((RSAPublicKey) keyPairGenerator.generateKeyPair().getPublic(), KeyUse.SIG,
+                JwsAlgorithm.RS256.getJwaAlgorithmName(), "rsaJwk", null, null, null);
+        JWKSet jwkSet = new JWKSet();
+
+        //When
+        jwkSet.put("keys", singletonList(rsaJwk.toJsonValue().getObject()));
+
+        //Then
+        assertThat(jwkSet.findJwk("rsaJwk")).isNotNull();
+        assertThat(jwkSet.findJwk("unknown")).isNull();
+        assertThat(jwkSet.findJwk(JwsAlgorithm.RS256, KeyUse.ENC)).isNull();
+    }
+
+    @Test
+    public void testKeysCannotBeModifiedBehindTheIndex() throws NoSuchAlgorithmException {
+        //Given
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        RsaJWK rsaJwk = new RsaJWK((RSAPublicKey) keyPairGenerator.generateKeyPair().getPublic(), KeyUse.SIG,
+                JwsAlgorithm.RS256.getJwaAlgorithmName(), "rsaJwk", null, null, null);
+        List<Object> keys = new ArrayList<>();
+        keys.add(rsaJwk.toJsonValue().getObject());
+        JWKSet jwkSet = new JWKSet(json(keys));
+
+        //When
+        keys.clear();
+        JsonValue copy = jwkSet.getJWKsAsJsonValue();
+        copy.asList().clear();
+
+        //Then
+        assertThat(copy.size()).isEqualTo(0);
+        assertThat(jwkSet.getJWKsAsJsonValue().size()).isEqualTo(1);
+        assertThat(jwkSet.findJwk("rsaJwk")).isNotNull();
+    }
+
     @DataProvider
     private Object[][] jwks() throws NoSuchAlgorithmException {
         final List<Object[]> results = new ArrayList<>();
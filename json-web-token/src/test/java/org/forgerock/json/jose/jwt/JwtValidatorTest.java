@@ -0,0 +1,212 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.json.jose.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.forgerock.util.time.Duration;
+import org.forgerock.util.time.TimeService;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("javadoc")
+public class JwtValidatorTest {
+
+    private static final long NOW = 1_500_000_000_000L;
+
+    private TimeService time;
+
+    @BeforeMethod
+    public void setUp() {
+        time = mock(TimeService.class);
+        when(time.now()).thenReturn(NOW);
+    }
+
+    @Test
+    public void shouldAcceptValidClaims() {
+        //Given
+        JwtValidator validator = JwtValidator.builder()
+                .issuers("ISSUER")
+                .audiences("AUDIENCE")
+                .requireExpirationTime()
+                .timeService(time)
+                .build();
+        JwtClaimsSet claims = new JwtClaimsSet();
+        claims.setIssuer("ISSUER");
+        claims.addAudience("OTHER");
+        claims.addAudience("AUDIENCE");
+        claims.setExpirationTime(new Date(NOW + 60_000L));
+        claims.setNotBeforeTime(new Date(NOW - 60_000L));
+
+        //When
+        List<JwtValidator.Failure> failures = validator.validate(claims);
+
+        //Then
+        assertThat(failures).isEmpty();
+    }
+
+    @Test
+    public void shouldReportAllFailures() {
+        //Given
+        JwtValidator validator = JwtValidator.builder()
+                .issuers("ISSUER")
+                .audiences("AUDIENCE")
+                .requiredClaims("sub")
+                .checkNotBefore()
+                .timeService(time)
+                .build();
+        JwtClaimsSet claims = new JwtClaimsSet();
+        claims.setIssuer("WRONG");
+        claims.setExpirationTime(new Date(NOW - 1_000L));
+        claims.setNotBeforeTime(new Date(NOW + 60_000L));
+
+        //When
+        List<JwtValidator.Failure> failures = validator.validate(claims);
+
+        //Then
+        assertThat(reasonsOf(failures)).containsOnly(
+                JwtValidator.Reason.INVALID_ISSUER,
+                JwtValidator.Reason.EXPIRED,
+                JwtValidator.Reason.NOT_YET_VALID,
+                JwtValidator.Reason.MISSING_CLAIM);
+        assertThat(failures).hasSize(5);
+    }
+
+    @Test
+    public void shouldNotCheckNotBeforeTimeByDefault() {
+        //Given
+        JwtValidator validator = JwtValidator.builder()
+                .timeService(time)
+                .build();
+        JwtClaimsSet claims = new JwtClaimsSet();
+        claims.setNotBeforeTime(new Date(NOW + 60_000L));
+
+        //When
+        List<JwtValidator.Failure> failures = validator.validate(claims);
+
+        //Then
+        assertThat(failures).isEmpty();
+    }
+
+    @Test
+    public void shouldTolerateClockSkew() {
+        //Given
+        JwtValidator validator = JwtValidator.builder()
+                .clockSkew(Duration.duration("30 seconds"))
+                .checkNotBefore()
+                .timeService(time)
+                .build();
+        JwtClaimsSet claims = new JwtClaimsSet();
+        claims.setExpirationTime(new Date(NOW - 10_000L));
+        claims.setNotBeforeTime(new Date(NOW + 10_000L));
+
+        //When
+        List<JwtValidator.Failure> failures = validator.validate(claims);
+
+        //Then
+        assertThat(failures).isEmpty();
+    }
+
+    @Test
+    public void shouldRejectExpiredCustomExpiryClaim() {
+        //Given
+        JwtValidator validator = JwtValidator.builder()
+                .expiryClaim("idle")
+                .timeService(time)
+                .build();
+        JwtClaimsSet claims = new JwtClaimsSet();
+        claims.setClaim("idle", NOW / 1000L);
+
+        //When
+        List<JwtValidator.Failure> failures = validator.validate(claims);
+
+        //Then
+        assertThat(failures).hasSize(1);
+        assertThat(failures.get(0).getReason()).isEqualTo(JwtValidator.Reason.EXPIRED);
+        assertThat(failures.get(0).getName()).isEqualTo("idle");
+    }
+
+    @Test
+    public void shouldCheckClaimValues() {
+        //Given
+        JwtValidator validator = JwtValidator.builder()
+                .claimEquals("typ", "session")
+                .timeService(time)
+                .build();
+        JwtClaimsSet valid = new JwtClaimsSet();
+        valid.setType("session");
+        JwtClaimsSet invalid = new JwtClaimsSet();
+        invalid.setType("other");
+
+        //When
+        List<JwtValidator.Failure> validFailures = validator.validate(valid);
+        List<JwtValidator.Failure> invalidFailures = validator.validate(invalid);
+
+        //Then
+        assertThat(validFailures).isEmpty();
+        assertThat(reasonsOf(invalidFailures)).containsExactly(JwtValidator.Reason.INVALID_CLAIM);
+    }
+
+    @Test
+    public void shouldNotChangeBuilderWhenBuilding() {
+        //Given
+        JwtValidator.Builder builder = JwtValidator.builder().timeService(time);
+        JwtValidator first = builder.build();
+        builder.issuers("ISSUER");
+        builder.build();
+
+        //When
+        List<JwtValidator.Failure> failures = first.validate(new JwtClaimsSet());
+
+        //Then
+        assertThat(failures).isEmpty();
+        assertThat(reasonsOf(builder.build().validate(new JwtClaimsSet())))
+                .containsExactly(JwtValidator.Reason.MISSING_CLAIM);
+    }
+
+    @Test
+    public void shouldOnlyAcceptSingleIssuer() {
+        //Given
+        JwtValidator validator = JwtValidator.builder()
+                .issuers("ISSUER")
+                .timeService(time)
+                .build();
+        Map<String, Object> claims = Collections.<String, Object>singletonMap("iss", Arrays.asList("ISSUER"));
+
+        //When
+        List<JwtValidator.Failure> failures = validator.validate(claims);
+
+        //Then
+        assertThat(reasonsOf(failures)).containsExactly(JwtValidator.Reason.INVALID_CLAIM);
+    }
+
+    private static List<JwtValidator.Reason> reasonsOf(List<JwtValidator.Failure> failures) {
+        JwtValidator.Reason[] reasons = new JwtValidator.Reason[failures.size()];
+        for (int i = 0; i < reasons.length; i++) {
+            reasons[i] = failures.get(i).getReason();
+        }
+        return Arrays.asList(reasons);
+    }
+}
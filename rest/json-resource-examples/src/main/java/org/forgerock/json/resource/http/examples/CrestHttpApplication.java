@@ -139,7 +139,7 @@ public class CrestHttpApplication implements DescribedHttpApplication {
         router.addRoute(new DelegatingRouteMatcher<Request>(RouteMatchers.requestUriMatcher(RoutingMode.EQUALS, "/")) {
             @Override
             public RouteMatch evaluate(Context context, Request request) {
-                if (request.getForm().containsKey("_crestapi")) {
+                if (request.hasQueryParameter("_crestapi")) {
                     return null;
                 }
                 return super.evaluate(context, request);
@@ -53,6 +53,7 @@ import org.forgerock.http.protocol.Response;
 import org.forgerock.http.protocol.Status;
 import org.forgerock.http.routing.Version;
 import org.forgerock.http.util.Json;
+import org.forgerock.http.util.JsonStreams;
 import org.forgerock.json.JsonValue;
 import org.forgerock.json.resource.ActionRequest;
 import org.forgerock.json.resource.BadRequestException;
@@ -300,7 +301,7 @@ public final class HttpUtils {
             }
             resp.setStatus(Status.valueOf(re.getCode()));
             final JsonGenerator writer = getJsonGenerator(req, resp);
-            Json.makeLocalizingObjectWriter(JSON_MAPPER, req).writeValue(writer, re.toJsonValue().getObject());
+            JsonStreams.writeJson(writer, re.toJsonValue(), Json.makeLocalizingObjectWriter(JSON_MAPPER, req));
             closeSilently(writer);
             return newResultPromise(resp);
         } catch (final IOException ignored) {
@@ -869,7 +870,7 @@ public final class HttpUtils {
                 jsonParser = JSON_MAPPER.getFactory().createParser(req.getEntity().getRawContentInputStream());
             }
             try (JsonParser parser = jsonParser) {
-                Object content = parser.readValueAs(Object.class);
+                Object content = JsonStreams.readJson(parser);
 
                 // Ensure that there is no trailing data following the JSON resource.
                 boolean hasTrailingGarbage;
@@ -59,6 +59,7 @@ import org.forgerock.http.protocol.Status;
 import org.forgerock.http.routing.UriRouterContext;
 import org.forgerock.http.routing.Version;
 import org.forgerock.http.util.Json;
+import org.forgerock.http.util.JsonStreams;
 import org.forgerock.json.JsonValue;
 import org.forgerock.json.resource.ActionRequest;
 import org.forgerock.json.resource.ActionResponse;
@@ -154,8 +155,8 @@ final class RequestRunner implements RequestVisitor<Promise<Response, NeverThrow
                             writeApiVersionHeaders(result);
                             writeAdvice();
                             if (result != null) {
-                                Json.makeLocalizingObjectWriter(JSON_MAPPER, httpRequest)
-                                        .writeValue(jsonGenerator, result.getJsonContent().getObject());
+                                JsonStreams.writeJson(jsonGenerator, result.getJsonContent(),
+                                        Json.makeLocalizingObjectWriter(JSON_MAPPER, httpRequest));
                             } else {
                                 // No content.
                                 httpResponse.setStatus(Status.NO_CONTENT);
@@ -523,12 +524,12 @@ final class RequestRunner implements RequestVisitor<Promise<Response, NeverThrow
                 final String key = property.getKey();
                 if (!FIELD_CONTENT_ID.equals(key) && !FIELD_CONTENT_REVISION.equals(key)) {
                     jsonGenerator.writeFieldName(key);
-                    objectWriter.writeValue(jsonGenerator, property.getValue());
+                    JsonStreams.writeJson(jsonGenerator, property.getValue(), objectWriter);
                 }
             }
             jsonGenerator.writeEndObject();
         } else {
-            objectWriter.writeValue(jsonGenerator, resource.getContent().getObject());
+            JsonStreams.writeJson(jsonGenerator, resource.getContent(), objectWriter);
         }
     }
 
@@ -20,6 +20,7 @@ import static org.forgerock.json.resource.Responses.newQueryResponse;
 import static org.forgerock.json.resource.Responses.newResourceResponse;
 import static org.forgerock.util.promise.Promises.newExceptionPromise;
 import static org.forgerock.util.promise.Promises.newResultPromise;
+import static org.forgerock.util.query.QueryFilters.compile;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -27,7 +28,6 @@ import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
@@ -38,27 +38,20 @@ import org.forgerock.json.JsonValue;
 import org.forgerock.json.JsonValueException;
 import org.forgerock.util.encode.Base64;
 import org.forgerock.util.promise.Promise;
+import org.forgerock.util.query.CompiledQueryFilter;
 import org.forgerock.util.query.QueryFilter;
-import org.forgerock.util.query.QueryFilterVisitor;
 
 /**
  * A simple in-memory collection resource provider which uses a {@code Map} to
  * store resources. This resource provider is intended for testing purposes only
  * and there are no performance guarantees.
+ * <p>
+ * Resources are stored as immutable {@link JsonValue#snapshot() snapshots},
+ * which are returned as-is to readers. Callers which need to modify the content
+ * of a returned resource should {@link JsonValue#copy() copy} it first, which
+ * only copies the parts of the content that are actually modified.
  */
 public final class MemoryBackend implements CollectionResourceProvider {
-    private enum FilterResult {
-        FALSE, TRUE, UNDEFINED;
-
-        static FilterResult valueOf(final boolean b) {
-            return b ? TRUE : FALSE;
-        }
-
-        boolean toBoolean() {
-            return this == TRUE; // UNDEFINED collapses to FALSE.
-        }
-    }
-
     private static final class Cookie {
         private final List<SortKey> sortKeys;
         private final int lastResultIndex;
@@ -161,192 +154,6 @@ public final class MemoryBackend implements CollectionResourceProvider {
         }
     }
 
-    private static final QueryFilterVisitor<FilterResult, ResourceResponse, JsonPointer> RESOURCE_FILTER =
-            new QueryFilterVisitor<FilterResult, ResourceResponse, JsonPointer>() {
-
-            @Override
-            public FilterResult visitAndFilter(final ResourceResponse p,
-                    final List<org.forgerock.util.query.QueryFilter<JsonPointer>> subFilters) {
-                FilterResult result = FilterResult.TRUE;
-                for (final org.forgerock.util.query.QueryFilter<JsonPointer> subFilter : subFilters) {
-                    final FilterResult r = subFilter.accept(this, p);
-                    if (r.ordinal() < result.ordinal()) {
-                        result = r;
-                    }
-                    if (result == FilterResult.FALSE) {
-                        break;
-                    }
-                }
-                return result;
-            }
-
-            @Override
-            public FilterResult visitBooleanLiteralFilter(final ResourceResponse p, final boolean value) {
-                return FilterResult.valueOf(value);
-            }
-
-            @Override
-            public FilterResult visitContainsFilter(final ResourceResponse p, final JsonPointer field,
-                    final Object valueAssertion) {
-                for (final Object value : getValues(p, field)) {
-                    if (isCompatible(valueAssertion, value)) {
-                        if (valueAssertion instanceof String) {
-                            final String s1 =
-                                    ((String) valueAssertion).toLowerCase(Locale.ENGLISH);
-                            final String s2 = ((String) value).toLowerCase(Locale.ENGLISH);
-                            if (s2.contains(s1)) {
-                                return FilterResult.TRUE;
-                            }
-                        } else {
-                            // Use equality matching for numbers and booleans.
-                            if (compareValues(valueAssertion, value) == 0) {
-                                return FilterResult.TRUE;
-                            }
-                        }
-                    }
-                }
-                return FilterResult.FALSE;
-            }
-
-            @Override
-            public FilterResult visitEqualsFilter(final ResourceResponse p, final JsonPointer field,
-                    final Object valueAssertion) {
-                for (final Object value : getValues(p, field)) {
-                    if (isCompatible(valueAssertion, value)
-                            && compareValues(valueAssertion, value) == 0) {
-                        return FilterResult.TRUE;
-                    }
-                }
-                return FilterResult.FALSE;
-            }
-
-            @Override
-            public FilterResult visitExtendedMatchFilter(final ResourceResponse p,
-                    final JsonPointer field, final String matchingRuleId,
-                    final Object valueAssertion) {
-                // This backend does not support any extended filters.
-                return FilterResult.UNDEFINED;
-            }
-
-            @Override
-            public FilterResult visitGreaterThanFilter(final ResourceResponse p,
-                    final JsonPointer field, final Object valueAssertion) {
-                for (final Object value : getValues(p, field)) {
-                    if (isCompatible(valueAssertion, value)
-                            && compareValues(valueAssertion, value) < 0) {
-                        return FilterResult.TRUE;
-                    }
-                }
-                return FilterResult.FALSE;
-            }
-
-            @Override
-            public FilterResult visitGreaterThanOrEqualToFilter(final ResourceResponse p,
-                    final JsonPointer field, final Object valueAssertion) {
-                for (final Object value : getValues(p, field)) {
-                    if (isCompatible(valueAssertion, value)
-                            && compareValues(valueAssertion, value) <= 0) {
-                        return FilterResult.TRUE;
-                    }
-                }
-                return FilterResult.FALSE;
-            }
-
-            @Override
-            public FilterResult visitLessThanFilter(final ResourceResponse p, final JsonPointer field,
-                    final Object valueAssertion) {
-                for (final Object value : getValues(p, field)) {
-                    if (isCompatible(valueAssertion, value)
-                            && compareValues(valueAssertion, value) > 0) {
-                        return FilterResult.TRUE;
-                    }
-                }
-                return FilterResult.FALSE;
-            }
-
-            @Override
-            public FilterResult visitLessThanOrEqualToFilter(final ResourceResponse p,
-                    final JsonPointer field, final Object valueAssertion) {
-                for (final Object value : getValues(p, field)) {
-                    if (isCompatible(valueAssertion, value)
-                            && compareValues(valueAssertion, value) >= 0) {
-                        return FilterResult.TRUE;
-                    }
-                }
-                return FilterResult.FALSE;
-            }
-
-            @Override
-            public FilterResult visitNotFilter(final ResourceResponse p,
-                    final org.forgerock.util.query.QueryFilter<JsonPointer> subFilter) {
-                switch (subFilter.accept(this, p)) {
-                case FALSE:
-                    return FilterResult.TRUE;
-                case UNDEFINED:
-                    return FilterResult.UNDEFINED;
-                default: // TRUE
-                    return FilterResult.FALSE;
-                }
-            }
-
-            @Override
-            public FilterResult visitOrFilter(final ResourceResponse p,
-                    final List<org.forgerock.util.query.QueryFilter<JsonPointer>> subFilters) {
-                FilterResult result = FilterResult.FALSE;
-                for (final org.forgerock.util.query.QueryFilter<JsonPointer> subFilter : subFilters) {
-                    final FilterResult r = subFilter.accept(this, p);
-                    if (r.ordinal() > result.ordinal()) {
-                        result = r;
-                    }
-                    if (result == FilterResult.TRUE) {
-                        break;
-                    }
-                }
-                return result;
-            }
-
-            @Override
-            public FilterResult visitPresentFilter(final ResourceResponse p, final JsonPointer field) {
-                final JsonValue value = p.getContent().get(field);
-                return FilterResult.valueOf(value != null);
-            }
-
-            @Override
-            public FilterResult visitStartsWithFilter(final ResourceResponse p,
-                    final JsonPointer field, final Object valueAssertion) {
-                for (final Object value : getValues(p, field)) {
-                    if (isCompatible(valueAssertion, value)) {
-                        if (valueAssertion instanceof String) {
-                            final String s1 =
-                                    ((String) valueAssertion).toLowerCase(Locale.ENGLISH);
-                            final String s2 = ((String) value).toLowerCase(Locale.ENGLISH);
-                            if (s2.startsWith(s1)) {
-                                return FilterResult.TRUE;
-                            }
-                        } else {
-                            // Use equality matching for numbers and booleans.
-                            if (compareValues(valueAssertion, value) == 0) {
-                                return FilterResult.TRUE;
-                            }
-                        }
-                    }
-                }
-                return FilterResult.FALSE;
-            }
-
-            private List<Object> getValues(final ResourceResponse resource, final JsonPointer field) {
-                final JsonValue value = resource.getContent().get(field);
-                if (value == null) {
-                    return Collections.emptyList();
-                } else if (value.isList()) {
-                    return value.asList();
-                } else {
-                    return Collections.singletonList(value.getObject());
-                }
-            }
-
-        };
-
     private static final Comparator<Object> VALUE_COMPARATOR = new Comparator<Object>() {
         @Override
         public int compare(final Object o1, final Object o2) {
@@ -374,12 +181,6 @@ public final class MemoryBackend implements CollectionResourceProvider {
         }
     }
 
-    private static boolean isCompatible(final Object v1, final Object v2) {
-        return (v1 instanceof String && v2 instanceof String)
-                || (v1 instanceof Number && v2 instanceof Number)
-                || (v1 instanceof Boolean && v2 instanceof Boolean);
-    }
-
     private final AtomicLong nextResourceId = new AtomicLong();
     private final Map<String, ResourceResponse> resources = new ConcurrentHashMap<>();
     private final Object writeLock = new Object();
@@ -441,13 +242,9 @@ public final class MemoryBackend implements CollectionResourceProvider {
             while (true) {
                 final String eid =
                         id != null ? id : String.valueOf(nextResourceId.getAndIncrement());
-                final ResourceResponse tmp = newResourceResponse(eid, rev, value);
                 synchronized (writeLock) {
-                    final ResourceResponse existingResource = resources.put(eid, tmp);
-                    if (existingResource != null) {
+                    if (resources.containsKey(eid)) {
                         if (id != null) {
-                            // Already exists - put the existing resource back.
-                            resources.put(id, existingResource);
                             throw new PreconditionFailedException("The resource with ID '" + id
                                     + "' could not be created because "
                                     + "there is already another resource with the same ID");
@@ -456,8 +253,8 @@ public final class MemoryBackend implements CollectionResourceProvider {
                         }
                     } else {
                         // Add succeeded.
-                        addIdAndRevision(tmp);
-                        resource = tmp;
+                        resource = newStoredResource(eid, rev, value);
+                        resources.put(eid, resource);
                         break;
                     }
                 }
@@ -499,6 +296,7 @@ public final class MemoryBackend implements CollectionResourceProvider {
             synchronized (writeLock) {
                 final ResourceResponse existingResource = getResourceForUpdate(id, rev);
                 final String newRev = getNextRevision(existingResource.getRevision());
+                // The stored content is a snapshot, so this only copies what the patch operations modify.
                 final JsonValue newContent = existingResource.getContent().copy();
                 for (final PatchOperation operation : request.getPatchOperations()) {
                     try {
@@ -559,8 +357,7 @@ public final class MemoryBackend implements CollectionResourceProvider {
                                 + "' does not exist");
                     }
                 }
-                resource = newResourceResponse(id, newRev, newContent);
-                addIdAndRevision(resource);
+                resource = newStoredResource(id, newRev, newContent);
                 resources.put(id, resource);
             }
             return newResultPromise(resource);
@@ -581,7 +378,8 @@ public final class MemoryBackend implements CollectionResourceProvider {
             return new NotSupportedException("Query by expression not supported").asPromise();
         } else {
             // No filtering or query by filter.
-            final QueryFilter<JsonPointer> filter = request.getQueryFilter();
+            final QueryFilter<JsonPointer> queryFilter = request.getQueryFilter();
+            final CompiledQueryFilter filter = queryFilter != null ? compile(queryFilter) : null;
 
             // If paged results are requested then decode the cookie in order to determine
             // the index of the first result to be returned.
@@ -615,7 +413,7 @@ public final class MemoryBackend implements CollectionResourceProvider {
             if (sortKeys.isEmpty()) {
                 // No sorting so stream the results.
                 for (final ResourceResponse resource : resources.values()) {
-                    if (filter == null || filter.accept(RESOURCE_FILTER, resource).toBoolean()) {
+                    if (filter == null || filter.matches(resource.getContent())) {
                         if (resultIndex >= firstResultIndex && resultIndex < lastResultIndex) {
                             handler.handleResource(resource);
                         }
@@ -629,7 +427,7 @@ public final class MemoryBackend implements CollectionResourceProvider {
                 // would need to impose administrative limits in order to control memory utilization.
                 final List<ResourceResponse> results = new ArrayList<>();
                 for (final ResourceResponse resource : resources.values()) {
-                    if (filter == null || filter.accept(RESOURCE_FILTER, resource).toBoolean()) {
+                    if (filter == null || filter.matches(resource.getContent())) {
                         results.add(resource);
                     }
                 }
@@ -700,8 +498,7 @@ public final class MemoryBackend implements CollectionResourceProvider {
             synchronized (writeLock) {
                 final ResourceResponse existingResource = getResourceForUpdate(id, rev);
                 final String newRev = getNextRevision(existingResource.getRevision());
-                resource = newResourceResponse(id, newRev, request.getContent());
-                addIdAndRevision(resource);
+                resource = newStoredResource(id, newRev, request.getContent());
                 resources.put(id, resource);
             }
             return newResultPromise(resource);
@@ -711,16 +508,18 @@ public final class MemoryBackend implements CollectionResourceProvider {
     }
 
     /*
-     * Add the ID and revision to the JSON content so that they are included
-     * with subsequent responses. We shouldn't really update the passed in
-     * content in case it is shared by other components, but we'll do it here
-     * anyway for simplicity.
+     * Returns the resource to store, whose content is a snapshot of the passed
+     * in content with the ID and revision added, so that they are included
+     * with subsequent responses. The passed in content is left unchanged, in
+     * case it is shared by other components.
      */
-    private void addIdAndRevision(final ResourceResponse resource) throws ResourceException {
-        final JsonValue content = resource.getContent();
+    private ResourceResponse newStoredResource(final String id, final String rev, final JsonValue content)
+            throws ResourceException {
+        final JsonValue storedContent = content.snapshot().copy();
         try {
-            content.asMap().put(ResourceResponse.FIELD_CONTENT_ID, resource.getId());
-            content.asMap().put(ResourceResponse.FIELD_CONTENT_REVISION, resource.getRevision());
+            storedContent.asMap().put(ResourceResponse.FIELD_CONTENT_ID, id);
+            storedContent.asMap().put(ResourceResponse.FIELD_CONTENT_REVISION, rev);
+            return newResourceResponse(id, rev, storedContent.snapshot());
         } catch (final JsonValueException e) {
             throw new BadRequestException(
                     "The request could not be processed because the provided "
@@ -28,7 +28,11 @@ import org.forgerock.util.query.QueryFilterParser;
  */
 public final class QueryFilters {
 
-    private static final QueryFilterParser<JsonPointer> PARSER = new QueryFilterParser<JsonPointer>() {
+    /** Maximum number of parsed filters kept by {@link #parse(String)}. */
+    private static final int PARSED_FILTER_CACHE_SIZE = 256;
+
+    private static final QueryFilterParser<JsonPointer> PARSER =
+            new QueryFilterParser<JsonPointer>(PARSED_FILTER_CACHE_SIZE) {
         @Override
         protected JsonPointer parseField(String s) {
             return new JsonPointer(s);
@@ -37,6 +41,8 @@ public final class QueryFilters {
 
     /**
      * Parses the provided query string into a {@link QueryFilter}.
+     * <p>
+     * The most recently parsed filters are cached, so the returned filter may be shared with other callers.
      *
      * @param query The query string to parse.
      * @return A {@code QueryFilter}.
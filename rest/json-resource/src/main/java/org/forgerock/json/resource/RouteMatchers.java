@@ -22,6 +22,7 @@ import static org.forgerock.http.routing.RouteMatchers.uriMatcher;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.forgerock.http.routing.AbstractUriRouteMatcher;
 import org.forgerock.http.routing.ResourceApiVersionBehaviourManager;
 import org.forgerock.http.routing.RoutingMode;
 import org.forgerock.http.routing.Version;
@@ -104,53 +105,19 @@ public final class RouteMatchers {
      * resource name from a {@code Request} and passes it as a
      * {@code ResourcePath} to the common {@code ResourcePath} route predicate.
      */
-    private static final class RequestUriRouteMatcher extends RouteMatcher<Request> {
-
-        private final RouteMatcher<List<String>> delegate;
+    private static final class RequestUriRouteMatcher extends AbstractUriRouteMatcher<Request> {
 
         private RequestUriRouteMatcher(RouteMatcher<List<String>> delegate) {
-            this.delegate = delegate;
+            super(delegate);
         }
 
         @Override
-        public RouteMatch evaluate(Context context, Request request) {
+        protected List<String> getPathElements(Context context, Request request) {
             final List<String> pathElements = new ArrayList<>(request.getResourcePathObject().size());
             for (String pathElement : request.getResourcePathObject()) {
                 pathElements.add(pathElement);
             }
-            return delegate.evaluate(context, pathElements);
-        }
-
-        @Override
-        public String toString() {
-            return delegate.toString();
-        }
-
-        @Override
-        public String idFragment() {
-            return delegate.idFragment();
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) {
-                return true;
-            }
-            if (!(o instanceof RequestUriRouteMatcher)) {
-                return false;
-            }
-            RequestUriRouteMatcher that = (RequestUriRouteMatcher) o;
-            return delegate.equals(that.delegate);
-        }
-
-        @Override
-        public <T> T transformApi(T t, ApiProducer<T> apiProducer) {
-            return delegate.transformApi(t, apiProducer);
-        }
-
-        @Override
-        public int hashCode() {
-            return delegate.hashCode();
+            return pathElements;
         }
     }
 
@@ -401,6 +401,25 @@ public final class MemoryBackendTest {
                 userBobWithIdAndRev(0, 1).getObject());
     }
 
+    @Test
+    public void testReturnedResourcesAreImmutableSnapshots() throws Exception {
+        final Connection connection = getConnection();
+        final JsonValue content = userAlice();
+        final ResourceResponse created = connection.create(ctx(), newCreateRequest("users", content));
+        assertThat(content.isDefined("_id")).isFalse();
+        try {
+            created.getContent().put("name", "eve");
+            fail("Modification succeeded unexpectedly");
+        } catch (final UnsupportedOperationException e) {
+            // Expected.
+        }
+
+        connection.patch(ctx(), newPatchRequest("users/0", replace("/name", "bob")));
+        assertThat(created.getContent().getObject()).isEqualTo(userAliceWithIdAndRev(0, 0).getObject());
+        final ResourceResponse read = connection.read(ctx(), newReadRequest("users/0"));
+        assertThat(read.getContent()).stringAt("name").isEqualTo("bob");
+    }
+
     private Connection getConnection() {
         final MemoryBackend users = new MemoryBackend();
         final Router router = new Router();
@@ -0,0 +1,177 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.json;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A cursor over the child values of a {@link JsonValue}, obtained with {@link JsonValue#cursor()}. The cursor
+ * exposes the raw Java object, the key and the index of the current child value directly, and only creates a
+ * {@link JsonValue} or a {@link JsonPointer} for it when {@link #getValue()} or {@link #getPointer()} is called.
+ * This makes it possible to traverse large JSON structures without allocating a wrapper for each value:
+ *
+ * <pre>
+ * JsonCursor cursor = value.cursor();
+ * while (cursor.next()) {
+ *     if (cursor.getObject() instanceof String) {
+ *         ...
+ *     }
+ * }
+ * </pre>
+ *
+ * Child values of a {@code Map} are visited in the iteration order of the map, those of a {@code List} in list
+ * order. Other values have no child values. The cursor does not support concurrent modifications of the JSON
+ * value it traverses.
+ */
+public final class JsonCursor {
+
+    /** The JSON value whose child values are traversed. */
+    private final JsonValue parent;
+
+    /** Iterates over the map entries or the list elements. */
+    private final Iterator<?> iterator;
+
+    /** {@code true} if the child values are the values of a map. */
+    private final boolean isMap;
+
+    /** The position of the current child value, or {@code -1} if there is none. */
+    private int index = -1;
+
+    /** The key of the current child value if it is a map value. */
+    private String key;
+
+    /** The raw Java object representing the current child value. */
+    private Object object;
+
+    /** {@code true} if the cursor is positioned on a child value. */
+    private boolean positioned;
+
+    JsonCursor(final JsonValue parent) {
+        this.parent = parent;
+        final Object value = parent.getObject();
+        if (value instanceof Map) {
+            this.iterator = ((Map<?, ?>) value).entrySet().iterator();
+            this.isMap = true;
+        } else if (value instanceof List) {
+            this.iterator = ((List<?>) value).iterator();
+            this.isMap = false;
+        } else {
+            this.iterator = Collections.emptyIterator();
+            this.isMap = false;
+        }
+    }
+
+    /**
+     * Moves the cursor to the next child value.
+     *
+     * @return {@code true} if the cursor is positioned on a child value, or {@code false} if there are no more
+     *         child values.
+     */
+    public boolean next() {
+        if (!iterator.hasNext()) {
+            positioned = false;
+            key = null;
+            object = null;
+            return false;
+        }
+        index++;
+        if (isMap) {
+            final Map.Entry<?, ?> entry = (Map.Entry<?, ?>) iterator.next();
+            key = (String) entry.getKey();
+            object = unwrap(entry.getValue());
+        } else {
+            object = unwrap(iterator.next());
+        }
+        positioned = true;
+        return true;
+    }
+
+    /**
+     * Returns the position of the current child value, starting from {@code 0}. For a {@code List}, this is
+     * the index of the current element.
+     *
+     * @return the position of the current child value.
+     * @throws IllegalStateException
+     *             if the cursor is not positioned on a child value.
+     */
+    public int getIndex() {
+        checkPositioned();
+        return index;
+    }
+
+    /**
+     * Returns the {@code Map} key, or the {@code List} index as a string, of the current child value.
+     *
+     * @return the key of the current child value.
+     * @throws IllegalStateException
+     *             if the cursor is not positioned on a child value.
+     */
+    public String getKey() {
+        checkPositioned();
+        return isMap ? key : Integer.toString(index);
+    }
+
+    /**
+     * Returns the raw Java object representing the current child value.
+     *
+     * @return the raw Java object representing the current child value, which may be {@code null}.
+     * @throws IllegalStateException
+     *             if the cursor is not positioned on a child value.
+     */
+    public Object getObject() {
+        checkPositioned();
+        return object;
+    }
+
+    /**
+     * Returns the pointer of the current child value in its JSON structure.
+     *
+     * @return the pointer of the current child value.
+     * @throws IllegalStateException
+     *             if the cursor is not positioned on a child value.
+     */
+    public JsonPointer getPointer() {
+        checkPositioned();
+        return isMap ? parent.getPointer().child(key) : parent.getPointer().child(index);
+    }
+
+    /**
+     * Returns a new JSON value representing the current child value. This is the value which would be returned
+     * by {@link JsonValue#get(String)} with the key of the current child value.
+     *
+     * @return the current child value.
+     * @throws IllegalStateException
+     *             if the cursor is not positioned on a child value.
+     */
+    public JsonValue getValue() {
+        checkPositioned();
+        return new JsonValue(object, parent, isMap ? key : Integer.valueOf(index));
+    }
+
+    private void checkPositioned() {
+        if (!positioned) {
+            throw new IllegalStateException("The cursor is not positioned on a child value");
+        }
+    }
+
+    private static Object unwrap(final Object object) {
+        return object instanceof JsonValue ? ((JsonValue) object).getObject() : object;
+    }
+}
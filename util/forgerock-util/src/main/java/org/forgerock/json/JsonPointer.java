@@ -22,21 +22,53 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Identifies a specific value within a JSON structure. Conforms with
  * <a href="http://tools.ietf.org/html/draft-pbryan-zyp-json-pointer-02">draft-pbryan-zip-json-pointer-02</a>.
+ * <p>
+ * JSON pointers are immutable. Each pointer references its parent pointer and its leaf reference token, so that
+ * {@link #child(String)} and {@link #parent()} are constant time operations, and pointers derived from one another
+ * share their common ancestors. The hash code is computed on creation, while the string representation and the
+ * array of reference tokens are computed once, when first needed.
  */
 public class JsonPointer implements Iterable<String> {
 
-    /** The reference tokens that make-up the JSON pointer. */
-    private String[] tokens = new String[0];
+    /** The root pointer shared as the ancestor of all non-root pointers. */
+    private static final JsonPointer ROOT = new JsonPointer();
+
+    /** Maximum number of pointers kept by {@link #intern()}. */
+    private static final int MAX_INTERNED_POINTERS = 1024;
+
+    /** Canonical instances of interned pointers. */
+    private static final ConcurrentMap<JsonPointer, JsonPointer> INTERNED = new ConcurrentHashMap<>();
+
+    /** The pointer to the parent value, or {@code null} if this pointer references the root value. */
+    private final JsonPointer parent;
+
+    /** The last (leaf) reference token, or {@code null} if this pointer references the root value. */
+    private final String leaf;
+
+    /** The number of reference tokens. */
+    private final int size;
+
+    /** The hash code, equal to the hash code of the list of reference tokens. */
+    private final int hash;
+
+    /** The reference tokens that make-up the JSON pointer, computed when first needed. */
+    private volatile String[] tokens;
+
+    /** The JSON pointer string value, computed when first needed. */
+    private String string;
 
     /**
      * Constructs a JSON pointer, identifying the root value of a JSON structure.
      */
     public JsonPointer() {
-        // empty tokens represents pointer to root value
+        // no parent and no tokens represents pointer to root value
+        this(new String[0], false);
     }
 
     /**
@@ -46,19 +78,7 @@ public class JsonPointer implements Iterable<String> {
      * @throws JsonException if the pointer is malformed.
      */
     public JsonPointer(String pointer) {
-        String[] split = pointer.split("/", -1);
-        int length = split.length;
-        ArrayList<String> list = new ArrayList<>(length);
-        for (int n = 0; n < length; n++) {
-            if (n == 0 && split[n].length() == 0) {
-                continue; // leading slash ignored
-            } else if (n == length - 1 && split[n].length() == 0) {
-                continue; // trailing slash ignored
-            } else {
-                list.add(decode(split[n]));
-            }
-        }
-        tokens = list.toArray(tokens);
+        this(parse(pointer), false);
     }
 
     /**
@@ -67,7 +87,7 @@ public class JsonPointer implements Iterable<String> {
      * @param tokens an array of string reference tokens.
      */
     public JsonPointer(String... tokens) {
-        this.tokens = Arrays.copyOf(tokens, tokens.length);
+        this(tokens, true);
     }
 
     /**
@@ -76,11 +96,58 @@ public class JsonPointer implements Iterable<String> {
      * @param iterable an iterable collection of reference tokens.
      */
     public JsonPointer(Iterable<String> iterable) {
+        this(toTokens(iterable), false);
+    }
+
+    /**
+     * Constructs a JSON pointer from an array of reference tokens.
+     *
+     * @param tokens an array of string reference tokens.
+     * @param copy {@code true} if the array must be copied, {@code false} if it is owned by the new pointer
+     *             and must not be modified afterwards.
+     */
+    private JsonPointer(final String[] tokens, final boolean copy) {
+        final int length = tokens.length;
+        if (length == 0) {
+            this.parent = null;
+            this.leaf = null;
+        } else {
+            JsonPointer ancestor = ROOT;
+            for (int i = 0; i < length - 1; i++) {
+                ancestor = new JsonPointer(ancestor, tokens[i]);
+            }
+            this.parent = ancestor;
+            this.leaf = tokens[length - 1];
+        }
+        this.size = length;
+        this.hash = parent != null ? hash(parent, leaf) : 1;
+        this.tokens = copy ? tokens.clone() : tokens;
+    }
+
+    /**
+     * Constructs a child JSON pointer.
+     *
+     * @param parent the parent pointer.
+     * @param leaf the last reference token.
+     */
+    private JsonPointer(final JsonPointer parent, final String leaf) {
+        this.parent = parent;
+        this.leaf = leaf;
+        this.size = parent.size + 1;
+        this.hash = hash(parent, leaf);
+    }
+
+    private static int hash(final JsonPointer parent, final String leaf) {
+        // Same as Arrays.hashCode(tokens).
+        return 31 * parent.hash + (leaf == null ? 0 : leaf.hashCode());
+    }
+
+    private static String[] toTokens(final Iterable<String> iterable) {
         ArrayList<String> list = new ArrayList<>();
         for (String element : iterable) {
             list.add(element);
         }
-        tokens = list.toArray(tokens);
+        return list.toArray(new String[list.size()]);
     }
 
     /**
@@ -114,6 +181,51 @@ public class JsonPointer implements Iterable<String> {
         return new JsonPointer(iterable);
     }
 
+    /**
+     * Splits a JSON pointer string into decoded reference tokens. Leading and trailing slashes are ignored.
+     *
+     * @param pointer the JSON pointer string.
+     * @return the reference tokens.
+     * @throws JsonException if a reference token is malformed.
+     */
+    private static String[] parse(final String pointer) {
+        final int length = pointer.length();
+        int count = 1;
+        for (int i = 0; i < length; i++) {
+            if (pointer.charAt(i) == '/') {
+                count++;
+            }
+        }
+        final String[] tokens = new String[count];
+        int size = 0;
+        int start = 0;
+        for (int n = 0; n < count; n++) {
+            int end = pointer.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            if (start == end && (n == 0 || n == count - 1)) {
+                // leading or trailing slash ignored
+            } else {
+                tokens[size++] = decode(pointer, start, end);
+            }
+            start = end + 1;
+        }
+        return size == count ? tokens : Arrays.copyOf(tokens, size);
+    }
+
+    /**
+     * Returns {@code true} if the character is left unchanged by both the encoding and the decoding of
+     * reference tokens.
+     *
+     * @param c the character.
+     * @return {@code true} if the character does not need encoding.
+     */
+    private static boolean isPlain(final char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || "!$&'()*+,-.:;=?@[]_~".indexOf(c) >= 0;
+    }
+
     /**
      * Encodes a reference token into a string value suitable to expressing in a JSON
      * pointer string value.
@@ -121,27 +233,84 @@ public class JsonPointer implements Iterable<String> {
      * @param value the reference token value to be encoded.
      * @return the encode reference token value.
      */
-    private String encode(String value) {
-        try {
-            return new URI(null, null, null, null, value).toASCIIString().substring(1).replaceAll("/", "%2F");
-        } catch (URISyntaxException use) { // shouldn't happen
-            throw new IllegalStateException(use.getMessage());
+    private static String encode(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (!isPlain(value.charAt(i))) {
+                try {
+                    return new URI(null, null, null, null, value).toASCIIString().substring(1)
+                            .replaceAll("/", "%2F");
+                } catch (URISyntaxException use) { // shouldn't happen
+                    throw new IllegalStateException(use.getMessage());
+                }
+            }
         }
+        return value;
     }
 
     /**
      * Decodes a reference token into a string value that the pointer maintains.
      *
-     * @param value the reference token value to decode.
+     * @param pointer the JSON pointer string containing the reference token value to decode.
+     * @param start the index of the first character of the reference token value.
+     * @param end the index after the last character of the reference token value.
      * @return the decoded reference token value.
      * @throws JsonException if the reference token value is malformed.
      */
-    private String decode(String value) {
-        try {
-            return new URI("#" + value).getFragment();
-        } catch (URISyntaxException use) {
-            throw new JsonException(use.getMessage());
+    private static String decode(final String pointer, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            if (!isPlain(pointer.charAt(i))) {
+                try {
+                    return new URI("#" + pointer.substring(start, end)).getFragment();
+                } catch (URISyntaxException use) {
+                    throw new JsonException(use.getMessage());
+                }
+            }
         }
+        return pointer.substring(start, end);
+    }
+
+    /**
+     * Returns the reference tokens, which must not be modified.
+     *
+     * @return the reference tokens.
+     */
+    private String[] tokens() {
+        String[] result = tokens;
+        if (result == null) {
+            result = new String[size];
+            JsonPointer pointer = this;
+            for (int i = size - 1; i >= 0; i--) {
+                result[i] = pointer.leaf;
+                pointer = pointer.parent;
+            }
+            tokens = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the canonical instance of this pointer. Interning the constant pointers which are used the most
+     * makes their comparison with other interned pointers an identity check. Only a limited number of pointers
+     * are interned: once the limit has been reached, pointers which have not been interned yet are returned
+     * as is.
+     *
+     * @return a pointer equal to this pointer.
+     */
+    public JsonPointer intern() {
+        JsonPointer interned = INTERNED.get(this);
+        if (interned == null) {
+            if (INTERNED.size() >= MAX_INTERNED_POINTERS) {
+                return this;
+            }
+            // Compute the lazily initialized state once and for all.
+            tokens();
+            toString();
+            interned = INTERNED.putIfAbsent(this, this);
+            if (interned == null) {
+                interned = this;
+            }
+        }
+        return interned;
     }
 
     /**
@@ -150,7 +319,7 @@ public class JsonPointer implements Iterable<String> {
      * @return the number of reference tokens in the pointer.
      */
     public int size() {
-        return tokens.length;
+        return size;
     }
 
     /**
@@ -161,10 +330,10 @@ public class JsonPointer implements Iterable<String> {
      * @throws IndexOutOfBoundsException if the index is out of range.
      */
     public String get(int index) {
-        if (index < 0 || index >= tokens.length) {
+        if (index < 0 || index >= size) {
             throw new IndexOutOfBoundsException();
         }
-        return tokens[index];
+        return index == size - 1 ? leaf : tokens()[index];
     }
 
     /**
@@ -175,7 +344,7 @@ public class JsonPointer implements Iterable<String> {
      * @return a newly allocated array of strings, containing the pointer's reference tokens.
      */
     public String[] toArray() {
-        return Arrays.copyOf(tokens, tokens.length);
+        return tokens().clone();
     }
 
     /**
@@ -185,11 +354,6 @@ public class JsonPointer implements Iterable<String> {
      * @return a pointer to the parent of of this JSON pointer. Can be null.
      */
     public JsonPointer parent() {
-        JsonPointer parent = null;
-        if (this.tokens.length > 0) {
-            parent = new JsonPointer();
-            parent.tokens = Arrays.copyOf(this.tokens, this.tokens.length - 1);
-        }
         return parent;
     }
 
@@ -227,7 +391,7 @@ public class JsonPointer implements Iterable<String> {
      *         in this pointer.
      */
     public JsonPointer relativePointer() {
-        return tokens.length > 0 ? relativePointer(tokens.length - 1) : this;
+        return size > 0 ? relativePointer(size - 1) : this;
     }
 
     /**
@@ -272,17 +436,14 @@ public class JsonPointer implements Iterable<String> {
      *             If {@code sz} is negative or greater than {@code size()}.
      */
     public JsonPointer relativePointer(int sz) {
-        int length = tokens.length;
-        if (sz < 0 || sz > length) {
+        if (sz < 0 || sz > size) {
             throw new IndexOutOfBoundsException();
-        } else if (sz == length) {
+        } else if (sz == size) {
             return this;
         } else if (sz == 0) {
-            return new JsonPointer();
+            return ROOT;
         } else {
-            JsonPointer relativePointer = new JsonPointer();
-            relativePointer.tokens = Arrays.copyOfRange(tokens, length - sz, length);
-            return relativePointer;
+            return new JsonPointer(Arrays.copyOfRange(tokens(), size - sz, size), false);
         }
     }
 
@@ -293,7 +454,7 @@ public class JsonPointer implements Iterable<String> {
      * @return the last (leaf) reference token of the JSON pointer if it exists, {@code null} otherwise
      */
     public String leaf() {
-        return tokens.length > 0 ? tokens[tokens.length - 1] : null;
+        return leaf;
     }
 
     /**
@@ -308,10 +469,7 @@ public class JsonPointer implements Iterable<String> {
         if (child == null) {
             throw new NullPointerException();
         }
-        JsonPointer pointer = new JsonPointer();
-        pointer.tokens = Arrays.copyOf(this.tokens, this.tokens.length + 1);
-        pointer.tokens[pointer.tokens.length - 1] = child;
-        return pointer;
+        return new JsonPointer(size > 0 ? this : ROOT, child);
     }
 
     /**
@@ -338,7 +496,7 @@ public class JsonPointer implements Iterable<String> {
      *         structure.
      */
     public boolean isEmpty() {
-        return size() == 0;
+        return size == 0;
     }
 
     /**
@@ -348,18 +506,19 @@ public class JsonPointer implements Iterable<String> {
      */
     @Override
     public Iterator<String> iterator() {
+        final String[] elements = tokens();
         return new Iterator<String>() {
             int cursor = 0;
             @Override
             public boolean hasNext() {
-                return cursor < tokens.length;
+                return cursor < elements.length;
             }
             @Override
             public String next() {
-                if (cursor >= tokens.length) {
+                if (cursor >= elements.length) {
                     throw new NoSuchElementException();
                 }
-                return tokens[cursor++];
+                return elements[cursor++];
             }
             @Override
             public void remove() {
@@ -375,14 +534,19 @@ public class JsonPointer implements Iterable<String> {
      */
     @Override
     public String toString() {
-        final StringBuilder sb = new StringBuilder();
-        for (String token : tokens) {
-            sb.append('/').append(encode(token));
-        }
-        if (sb.length() == 0) {
-            sb.append('/');
+        String result = string;
+        if (result == null) {
+            final StringBuilder sb = new StringBuilder();
+            for (String token : tokens()) {
+                sb.append('/').append(encode(token));
+            }
+            if (sb.length() == 0) {
+                sb.append('/');
+            }
+            result = sb.toString();
+            string = result;
         }
-        return sb.toString();
+        return result;
     }
 
     /**
@@ -395,9 +559,25 @@ public class JsonPointer implements Iterable<String> {
      */
     @Override
     public boolean equals(Object o) {
-        return o instanceof JsonPointer
-                && ((JsonPointer) o).size() == size()
-                && Arrays.equals(tokens, ((JsonPointer) o).tokens);
+        if (this == o) {
+            return true;
+        } else if (!(o instanceof JsonPointer)) {
+            return false;
+        }
+        JsonPointer p1 = this;
+        JsonPointer p2 = (JsonPointer) o;
+        if (p1.size != p2.size || p1.hash != p2.hash) {
+            return false;
+        }
+        // Compare leaf to root, until reaching a common ancestor.
+        while (p1 != p2 && p1.size > 0) {
+            if (p1.leaf == null ? p2.leaf != null : !p1.leaf.equals(p2.leaf)) {
+                return false;
+            }
+            p1 = p1.parent;
+            p2 = p2.parent;
+        }
+        return true;
     }
 
     /**
@@ -407,6 +587,6 @@ public class JsonPointer implements Iterable<String> {
      */
     @Override
     public int hashCode() {
-        return Arrays.hashCode(tokens);
+        return hash;
     }
 }
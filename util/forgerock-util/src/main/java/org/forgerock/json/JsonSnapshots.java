@@ -0,0 +1,413 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.json;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Immutable and copy-on-write representations of JSON structures, which support {@link JsonValue#snapshot()} and
+ * {@link JsonValue#copy()}.
+ * <p>
+ * A snapshot is made of {@link ImmutableMap} and {@link ImmutableList} nodes, which can be shared by any number of
+ * threads and values. Copying a snapshot does not copy any node: the copy is a {@link CopyOnWriteMap} or
+ * {@link CopyOnWriteList} which reads from the immutable node it was created from. The first time the copy is
+ * modified, or one of its maps or lists is accessed, it copies the top level of that node only, and wraps the
+ * nested maps and lists in new copy-on-write nodes. Modifying a value deep within a copy therefore only copies the
+ * nodes on the path from the root to that value, and taking a new snapshot of the copy only rebuilds those nodes.
+ * <p>
+ * As the top level of a copy-on-write node may be copied when it is read, that copy is published atomically: a copy
+ * can be read by concurrent threads, just as the {@link LinkedHashMap} and {@link ArrayList} nodes of a deep copy can.
+ * Like them, it must not be modified while other threads access it. All the nodes are {@link Serializable}.
+ */
+final class JsonSnapshots {
+
+    /**
+     * Returns an immutable representation of a JSON structure, sharing the immutable nodes it already contains.
+     *
+     * @param object the JSON structure.
+     * @return the immutable representation.
+     */
+    static Object freeze(final Object object) {
+        final Object value = object instanceof JsonValue ? ((JsonValue) object).getObject() : object;
+        if (value instanceof ImmutableMap || value instanceof ImmutableList) {
+            return value;
+        } else if (value instanceof CopyOnWriteMap) {
+            final CopyOnWriteMap map = (CopyOnWriteMap) value;
+            return map.map == null ? map.source : freezeMap(map.map);
+        } else if (value instanceof CopyOnWriteList) {
+            final CopyOnWriteList list = (CopyOnWriteList) value;
+            return list.list == null ? list.source : freezeList(list.list);
+        } else if (value instanceof Map) {
+            return freezeMap((Map<?, ?>) value);
+        } else if (value instanceof List) {
+            return freezeList((List<?>) value);
+        }
+        return value;
+    }
+
+    /**
+     * Returns a copy-on-write representation of an immutable JSON structure, or {@code null} if the object is not
+     * an immutable map or list.
+     *
+     * @param object the JSON structure.
+     * @return the copy-on-write representation, or {@code null}.
+     */
+    static Object thaw(final Object object) {
+        if (object instanceof ImmutableMap) {
+            return new CopyOnWriteMap((ImmutableMap) object);
+        } else if (object instanceof ImmutableList) {
+            return new CopyOnWriteList((ImmutableList) object);
+        } else if (object instanceof CopyOnWriteMap && ((CopyOnWriteMap) object).map == null) {
+            return new CopyOnWriteMap(((CopyOnWriteMap) object).source);
+        } else if (object instanceof CopyOnWriteList && ((CopyOnWriteList) object).list == null) {
+            return new CopyOnWriteList(((CopyOnWriteList) object).source);
+        }
+        return null;
+    }
+
+    private static ImmutableMap freezeMap(final Map<?, ?> map) {
+        final Map<String, Object> result = new LinkedHashMap<>((int) (map.size() / 0.75f) + 1);
+        for (final Map.Entry<?, ?> entry : map.entrySet()) {
+            result.put((String) entry.getKey(), freeze(entry.getValue())); // recursion
+        }
+        return new ImmutableMap(result);
+    }
+
+    private static ImmutableList freezeList(final List<?> list) {
+        final Object[] elements = new Object[list.size()];
+        int i = 0;
+        for (final Object element : list) {
+            elements[i++] = freeze(element); // recursion
+        }
+        return new ImmutableList(elements);
+    }
+
+    private static boolean isContainer(final Object object) {
+        return object instanceof ImmutableMap || object instanceof ImmutableList;
+    }
+
+    /** An immutable JSON object, whose nested maps and lists are immutable too. */
+    static final class ImmutableMap extends AbstractMap<String, Object> implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final Map<String, Object> map;
+        private transient Set<Entry<String, Object>> entrySet;
+        private int hash;
+
+        private ImmutableMap(final Map<String, Object> map) {
+            this.map = map;
+        }
+
+        @Override
+        public int size() {
+            return map.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return map.isEmpty();
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return map.containsKey(key);
+        }
+
+        @Override
+        public Object get(final Object key) {
+            return map.get(key);
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            Set<Entry<String, Object>> result = entrySet;
+            if (result == null) {
+                // The view is immutable, so that it does not matter if concurrent threads create their own.
+                result = Collections.unmodifiableMap(map).entrySet();
+                entrySet = result;
+            }
+            return result;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o == this || map.equals(o);
+        }
+
+        @Override
+        public int hashCode() {
+            int h = hash;
+            if (h == 0) {
+                h = map.hashCode();
+                hash = h;
+            }
+            return h;
+        }
+    }
+
+    /** An immutable JSON array, whose nested maps and lists are immutable too. */
+    static final class ImmutableList extends AbstractList<Object> implements RandomAccess, Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] elements;
+        private int hash;
+
+        private ImmutableList(final Object[] elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public Object get(final int index) {
+            return elements[index];
+        }
+
+        @Override
+        public int size() {
+            return elements.length;
+        }
+
+        @Override
+        public int hashCode() {
+            int h = hash;
+            if (h == 0) {
+                h = super.hashCode();
+                hash = h;
+            }
+            return h;
+        }
+    }
+
+    /** A mutable JSON object which copies the immutable object it was created from when first needed. */
+    static final class CopyOnWriteMap extends AbstractMap<String, Object> implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        @SuppressWarnings("rawtypes")
+        private static final AtomicReferenceFieldUpdater<CopyOnWriteMap, Map> MAP =
+                AtomicReferenceFieldUpdater.newUpdater(CopyOnWriteMap.class, Map.class, "map");
+
+        private final ImmutableMap source;
+
+        /** The copy of the source, or {@code null} until needed. */
+        private volatile Map<String, Object> map;
+
+        private CopyOnWriteMap(final ImmutableMap source) {
+            this.source = source;
+        }
+
+        @Override
+        public int size() {
+            final Map<String, Object> map = this.map;
+            return map != null ? map.size() : source.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            final Map<String, Object> map = this.map;
+            return map != null ? map.isEmpty() : source.isEmpty();
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            final Map<String, Object> map = this.map;
+            return map != null ? map.containsKey(key) : source.containsKey(key);
+        }
+
+        @Override
+        public Object get(final Object key) {
+            final Map<String, Object> map = this.map;
+            if (map != null) {
+                return map.get(key);
+            }
+            final Object value = source.get(key);
+            // Values other than maps and lists cannot be modified through the returned reference.
+            return isContainer(value) ? owned().get(key) : value;
+        }
+
+        @Override
+        public Object put(final String key, final Object value) {
+            return owned().put(key, value);
+        }
+
+        @Override
+        public Object remove(final Object key) {
+            return owned().remove(key);
+        }
+
+        @Override
+        public void putAll(final Map<? extends String, ?> m) {
+            owned().putAll(m);
+        }
+
+        @Override
+        public void clear() {
+            map = new LinkedHashMap<>();
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return owned().entrySet();
+        }
+
+        @Override
+        public Set<String> keySet() {
+            return owned().keySet();
+        }
+
+        @Override
+        public Collection<Object> values() {
+            return owned().values();
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o == this || current().equals(o);
+        }
+
+        @Override
+        public int hashCode() {
+            return current().hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return current().toString();
+        }
+
+        private Map<String, Object> current() {
+            final Map<String, Object> map = this.map;
+            return map != null ? map : source;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Map<String, Object> owned() {
+            final Map<String, Object> map = this.map;
+            if (map != null) {
+                return map;
+            }
+            final Map<String, Object> copy = new LinkedHashMap<>((int) (source.size() / 0.75f) + 1);
+            for (final Entry<String, Object> entry : source.map.entrySet()) {
+                final Object value = entry.getValue();
+                copy.put(entry.getKey(), isContainer(value) ? thaw(value) : value);
+            }
+            // Concurrent readers must all use the same copy.
+            return MAP.compareAndSet(this, null, copy) ? copy : this.map;
+        }
+    }
+
+    /** A mutable JSON array which copies the immutable array it was created from when first needed. */
+    static final class CopyOnWriteList extends AbstractList<Object> implements RandomAccess, Serializable {
+        private static final long serialVersionUID = 1L;
+
+        @SuppressWarnings("rawtypes")
+        private static final AtomicReferenceFieldUpdater<CopyOnWriteList, List> LIST =
+                AtomicReferenceFieldUpdater.newUpdater(CopyOnWriteList.class, List.class, "list");
+
+        private final ImmutableList source;
+
+        /** The copy of the source, or {@code null} until needed. */
+        private volatile List<Object> list;
+
+        private CopyOnWriteList(final ImmutableList source) {
+            this.source = source;
+        }
+
+        @Override
+        public int size() {
+            final List<Object> list = this.list;
+            return list != null ? list.size() : source.size();
+        }
+
+        @Override
+        public Object get(final int index) {
+            final List<Object> list = this.list;
+            if (list != null) {
+                return list.get(index);
+            }
+            final Object value = source.get(index);
+            // Values other than maps and lists cannot be modified through the returned reference.
+            return isContainer(value) ? owned().get(index) : value;
+        }
+
+        @Override
+        public Object set(final int index, final Object element) {
+            return owned().set(index, element);
+        }
+
+        @Override
+        public void add(final int index, final Object element) {
+            owned().add(index, element);
+            modCount++;
+        }
+
+        @Override
+        public Object remove(final int index) {
+            final Object removed = owned().remove(index);
+            modCount++;
+            return removed;
+        }
+
+        @Override
+        public void clear() {
+            list = new ArrayList<>();
+            modCount++;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (o == this) {
+                return true;
+            }
+            final List<Object> list = this.list;
+            return (list != null ? list : source).equals(o);
+        }
+
+        @Override
+        public int hashCode() {
+            final List<Object> list = this.list;
+            return (list != null ? list : source).hashCode();
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<Object> owned() {
+            final List<Object> list = this.list;
+            if (list != null) {
+                return list;
+            }
+            final ArrayList<Object> copy = new ArrayList<>(source.size());
+            for (final Object value : source.elements) {
+                copy.add(isContainer(value) ? thaw(value) : value);
+            }
+            // Concurrent readers must all use the same copy.
+            return LIST.compareAndSet(this, null, copy) ? copy : this.list;
+        }
+    }
+
+    private JsonSnapshots() {
+        // Prevent instantiation.
+    }
+}
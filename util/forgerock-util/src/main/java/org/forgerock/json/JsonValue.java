@@ -208,11 +208,87 @@ public class JsonValue implements Cloneable, Iterable<JsonValue> {
                 : object;
     }
 
+    /** The pointer to the root value of a JSON structure. */
+    private static final JsonPointer ROOT_POINTER = new JsonPointer();
+
+    /**
+     * Deep copies a raw JSON object: maps and lists are copied, other values are shared.
+     *
+     * @param object the object to copy.
+     * @return the copy.
+     */
+    private static Object copyObject(final Object object) {
+        final Object value = unwrap(object);
+        final Object thawed = JsonSnapshots.thaw(value);
+        if (thawed != null) {
+            // Immutable values, and copy-on-write values which have not been modified, are copied lazily.
+            return thawed;
+        } else if (value instanceof Map) {
+            final Map<?, ?> map = (Map<?, ?>) value;
+            final Map<String, Object> result = object(map.size());
+            for (final Map.Entry<?, ?> entry : map.entrySet()) {
+                result.put((String) entry.getKey(), copyObject(entry.getValue())); // recursion
+            }
+            return result;
+        } else if (value instanceof List) {
+            final List<?> list = (List<?>) value;
+            final ArrayList<Object> result = new ArrayList<>(list.size());
+            for (final Object element : list) {
+                result.add(copyObject(element)); // recursion
+            }
+            return result;
+        }
+        return value;
+    }
+
     /** The Java object representing this JSON value. */
     private Object object;
 
-    /** The pointer to the value within a JSON structure. */
-    private JsonPointer pointer;
+    /**
+     * The location of the value within a JSON structure: either its {@link JsonPointer}, or a {@link Location} from
+     * which the pointer is computed when first requested, or {@code null} for a root value. Both are immutable, so
+     * that the pointer can be computed and cached without synchronization by concurrent readers.
+     */
+    private Object location;
+
+    /**
+     * The location of a value relative to the location of the value it was obtained from. Only the location of that
+     * value is retained, not the value itself, so that a child value does not keep its whole JSON structure
+     * reachable.
+     */
+    private static final class Location {
+        /** The {@link JsonPointer} or {@link Location} of the parent value, or {@code null} for a root value. */
+        private final Object parent;
+
+        /** A {@code String} key, an {@code Integer} index or a relative {@link JsonPointer}. */
+        private final Object token;
+
+        private Location(final Object parent, final Object token) {
+            this.parent = parent;
+            this.token = token;
+        }
+
+        private JsonPointer toPointer() {
+            final JsonPointer parentPointer = toPointer(parent);
+            if (token instanceof String) {
+                return parentPointer.child((String) token);
+            } else if (token instanceof Integer) {
+                return parentPointer.child((Integer) token);
+            }
+            JsonPointer result = parentPointer;
+            for (final String element : (JsonPointer) token) {
+                result = result.child(element);
+            }
+            return result;
+        }
+
+        private static JsonPointer toPointer(final Object location) {
+            if (location instanceof Location) {
+                return ((Location) location).toPointer();
+            }
+            return location != null ? (JsonPointer) location : ROOT_POINTER;
+        }
+    }
 
     /**
      * Constructs a JSON value object with a given object. This constructor will
@@ -236,17 +312,31 @@ public class JsonValue implements Cloneable, Iterable<JsonValue> {
      */
     public JsonValue(final Object object, final JsonPointer pointer) {
         this.object = object;
-        this.pointer = pointer;
+        this.location = pointer;
         if (object instanceof JsonValue) {
             final JsonValue jv = (JsonValue) object;
             this.object = jv.object;
             if (pointer == null) {
-                this.pointer = jv.pointer;
+                this.location = jv.location;
             }
         }
-        if (this.pointer == null) {
-            this.pointer = new JsonPointer();
-        }
+    }
+
+    /**
+     * Constructs a JSON value object whose pointer is computed from the pointer of its parent value when it is
+     * first requested. This constructor will automatically unwrap {@link JsonValue} objects.
+     *
+     * @param object
+     *            the Java object representing the JSON value.
+     * @param parent
+     *            the value containing, directly or not, this value, which is not retained.
+     * @param token
+     *            the {@code String} key, {@code Integer} index or relative {@link JsonPointer} of this value in
+     *            its parent value.
+     */
+    JsonValue(final Object object, final JsonValue parent, final Object token) {
+        this.object = unwrap(object);
+        this.location = new Location(parent.location, token);
     }
 
     /**
@@ -679,8 +769,11 @@ public class JsonValue implements Cloneable, Iterable<JsonValue> {
      */
     @Override
     public JsonValue clone() {
-        final JsonValue result = new JsonValue(this.object, this.pointer);
-        if (isMap()) {
+        final JsonValue result = new JsonValue(this);
+        final Object thawed = JsonSnapshots.thaw(object);
+        if (thawed != null) {
+            result.object = thawed;
+        } else if (isMap()) {
             result.object = new LinkedHashMap<>(this.asMap());
         } else if (isList()) {
             result.object = new ArrayList<>(this.asList());
@@ -709,6 +802,10 @@ public class JsonValue implements Cloneable, Iterable<JsonValue> {
     /**
      * Returns a deep copy of this JSON value.
      * <p>
+     * The parts of this value which are {@link #snapshot snapshots} are copied
+     * lazily: their maps and lists are only copied when they are modified or
+     * accessed through the returned value.
+     * <p>
      * Note: This method is recursive, and currently has no ability to detect or
      * correct for structures containing cyclic references. Processing such a
      * structure will result in a {@link StackOverflowError} being thrown.
@@ -717,20 +814,33 @@ public class JsonValue implements Cloneable, Iterable<JsonValue> {
      */
     public JsonValue copy() {
         // TODO: track original values to resolve cyclic references
-        final JsonValue result = new JsonValue(object, pointer); // start with shallow copy
-        if (this.isMap()) {
-            final Map<String, Object> map = object(size());
-            for (final String key : keys()) {
-                map.put(key, this.get(key).copy().getObject()); // recursion
-            }
-            result.object = map;
-        } else if (isList()) {
-            final ArrayList<Object> list = new ArrayList<>(size());
-            for (final JsonValue element : this) {
-                list.add(element.copy().getObject()); // recursion
-            }
-            result.object = list;
-        }
+        final JsonValue result = new JsonValue(this); // start with shallow copy
+        result.object = copyObject(object);
+        return result;
+    }
+
+    /**
+     * Returns an immutable snapshot of this JSON value, which can be shared
+     * with other components and threads without copying it. Attempts to modify
+     * the maps and lists of the snapshot throw an
+     * {@link UnsupportedOperationException}.
+     * <p>
+     * Taking a snapshot of a snapshot returns the same immutable structure. The
+     * {@link #copy} of a snapshot is created in constant time: it only copies
+     * the maps and lists on the path to each value which is modified or
+     * accessed through it. Taking a snapshot of such a copy shares the maps and
+     * lists which were not copied, so only the first snapshot of a mutable
+     * JSON structure traverses all of it.
+     * <p>
+     * Note: This method is recursive, and currently has no ability to detect or
+     * correct for structures containing cyclic references. Processing such a
+     * structure will result in a {@link StackOverflowError} being thrown.
+     *
+     * @return an immutable snapshot of this JSON value.
+     */
+    public JsonValue snapshot() {
+        final JsonValue result = new JsonValue(this);
+        result.object = JsonSnapshots.freeze(object);
         return result;
     }
 
@@ -743,7 +853,12 @@ public class JsonValue implements Cloneable, Iterable<JsonValue> {
      * @return this JSON value or a new JSON value containing the default value.
      */
     public JsonValue defaultTo(final Object object) {
-        return (this.object != null ? this : new JsonValue(object, this.pointer));
+        if (this.object != null) {
+            return this;
+        }
+        final JsonValue result = new JsonValue(this);
+        result.setObject(object);
+        return result;
     }
 
     /**
@@ -785,7 +900,7 @@ public class JsonValue implements Cloneable, Iterable<JsonValue> {
                 result = list.get(index);
             }
         }
-        return new JsonValue(result, pointer.child(index));
+        return new JsonValue(result, this, index);
     }
 
     /**
@@ -798,15 +913,30 @@ public class JsonValue implements Cloneable, Iterable<JsonValue> {
      * @return the child value, or {@code null} if no such value exists.
      */
     public JsonValue get(final JsonPointer pointer) {
-        JsonValue result = this;
+        if (pointer.isEmpty()) {
+            return this;
+        }
+        Object result = object;
         for (final String token : pointer) {
-            final JsonValue member = result.get(token);
-            if (member.isNull() && !result.isDefined(token)) {
-                return null; // undefined value yields null, not a JSON value containing null
+            if (result instanceof Map) {
+                final Map<?, ?> map = (Map<?, ?>) result;
+                final Object member = map.get(token);
+                if (member == null && !map.containsKey(token)) {
+                    return null; // undefined value yields null, not a JSON value containing null
+                }
+                result = unwrap(member);
+            } else if (result instanceof List) {
+                final List<?> list = (List<?>) result;
+                final int index = toIndex(token);
+                if (index < 0 || index >= list.size()) {
+                    return null;
+                }
+                result = unwrap(list.get(index));
+            } else {
+                return null;
             }
-            result = member;
         }
-        return result;
+        return new JsonValue(result, this, pointer);
     }
 
     /**
@@ -819,6 +949,28 @@ public class JsonValue implements Cloneable, Iterable<JsonValue> {
      * @return a JSON value containing the value or {@code null}.
      */
     public JsonValue get(final String key) {
+        return new JsonValue(getObject(key), this, key);
+    }
+
+    /**
+     * Returns the raw Java object representing this JSON value.
+     *
+     * @return the raw Java object representing this JSON value.
+     */
+    public Object getObject() {
+        return object;
+    }
+
+    /**
+     * Returns the raw Java object representing the specified item value, without wrapping it in a JSON value.
+     * If no such member value exists, then {@code null} is returned.
+     *
+     * @param key
+     *            the {@code Map} key or {@code List} index identifying the item
+     *            to return.
+     * @return the raw Java object representing the item value, or {@code null}.
+     */
+    public Object getObject(final String key) {
         Object result = null;
         if (isMap()) {
             result = asMap().get(key);
@@ -829,16 +981,110 @@ public class JsonValue implements Cloneable, Iterable<JsonValue> {
                 result = list.get(index);
             }
         }
-        return new JsonValue(result, pointer.child(key));
+        return unwrap(result);
     }
 
     /**
-     * Returns the raw Java object representing this JSON value.
+     * Returns the specified item value as a {@link Boolean} object. This method is equivalent to
+     * {@code get(key).asBoolean()}, without creating a JSON value for the item.
      *
-     * @return the raw Java object representing this JSON value.
+     * @param key
+     *            the {@code Map} key or {@code List} index identifying the item
+     *            to return.
+     * @return the boolean value, or {@code null} if there is no such item or if it is {@code null}.
+     * @throws JsonValueException
+     *             if the item value is not a boolean type.
      */
-    public Object getObject() {
-        return object;
+    public Boolean getBoolean(final String key) {
+        return getExpected(key, Boolean.class);
+    }
+
+    /**
+     * Returns the specified item value as a {@link Double} object. This method is equivalent to
+     * {@code get(key).asDouble()}, without creating a JSON value for the item.
+     *
+     * @param key
+     *            the {@code Map} key or {@code List} index identifying the item
+     *            to return.
+     * @return the double-precision floating point value, or {@code null} if there is no such item or if it is
+     *         {@code null}.
+     * @throws JsonValueException
+     *             if the item value is not a number.
+     */
+    public Double getDouble(final String key) {
+        final Number number = getNumber(key);
+        return (number == null ? null : Double.valueOf(number.doubleValue()));
+    }
+
+    /**
+     * Returns the specified item value as an {@link Integer} object. This method is equivalent to
+     * {@code get(key).asInteger()}, without creating a JSON value for the item.
+     *
+     * @param key
+     *            the {@code Map} key or {@code List} index identifying the item
+     *            to return.
+     * @return the integer value, or {@code null} if there is no such item or if it is {@code null}.
+     * @throws JsonValueException
+     *             if the item value is not a number.
+     */
+    public Integer getInteger(final String key) {
+        final Number number = getNumber(key);
+        return (number == null ? null : Integer.valueOf(number.intValue()));
+    }
+
+    /**
+     * Returns the specified item value as a {@link Long} object. This method is equivalent to
+     * {@code get(key).asLong()}, without creating a JSON value for the item.
+     *
+     * @param key
+     *            the {@code Map} key or {@code List} index identifying the item
+     *            to return.
+     * @return the long value, or {@code null} if there is no such item or if it is {@code null}.
+     * @throws JsonValueException
+     *             if the item value is not a number.
+     */
+    public Long getLong(final String key) {
+        final Number number = getNumber(key);
+        return (number == null ? null : Long.valueOf(number.longValue()));
+    }
+
+    /**
+     * Returns the specified item value as a {@link Number} object. This method is equivalent to
+     * {@code get(key).asNumber()}, without creating a JSON value for the item.
+     *
+     * @param key
+     *            the {@code Map} key or {@code List} index identifying the item
+     *            to return.
+     * @return the numeric value, or {@code null} if there is no such item or if it is {@code null}.
+     * @throws JsonValueException
+     *             if the item value is not a number.
+     */
+    public Number getNumber(final String key) {
+        return getExpected(key, Number.class);
+    }
+
+    /**
+     * Returns the specified item value as a {@link String} object. This method is equivalent to
+     * {@code get(key).asString()}, without creating a JSON value for the item.
+     *
+     * @param key
+     *            the {@code Map} key or {@code List} index identifying the item
+     *            to return.
+     * @return the string value, or {@code null} if there is no such item or if it is {@code null}.
+     * @throws JsonValueException
+     *             if the item value is not a string.
+     */
+    public String getString(final String key) {
+        return getExpected(key, String.class);
+    }
+
+    private <T> T getExpected(final String key, final Class<T> type) {
+        final Object result = getObject(key);
+        if (result != null && !type.isInstance(result)) {
+            // Only create the child value when reporting the error.
+            get(key).expect(type);
+        }
+        return type.cast(result);
     }
 
     /**
@@ -847,7 +1093,25 @@ public class JsonValue implements Cloneable, Iterable<JsonValue> {
      * @return the pointer of the JSON value in its JSON structure.
      */
     public JsonPointer getPointer() {
-        return pointer;
+        // Read once: the location may be replaced concurrently by the pointer computed from it.
+        final Object location = this.location;
+        if (location instanceof Location) {
+            final JsonPointer pointer = ((Location) location).toPointer();
+            this.location = pointer;
+            return pointer;
+        }
+        return location != null ? (JsonPointer) location : ROOT_POINTER;
+    }
+
+    /**
+     * Returns a cursor over the child values that this JSON value contains. Unlike {@link #iterator()}, the
+     * cursor gives access to the raw Java objects representing the child values, and only creates a JSON value
+     * or a JSON pointer for a child value when requested.
+     *
+     * @return a cursor over the child values that this JSON value contains.
+     */
+    public JsonCursor cursor() {
+        return new JsonCursor(this);
     }
 
     /**
@@ -965,7 +1229,7 @@ public class JsonValue implements Cloneable, Iterable<JsonValue> {
                 @Override
                 public JsonValue next() {
                     final Object element = i.next();
-                    return new JsonValue(element, pointer.child(cursor++));
+                    return new JsonValue(element, JsonValue.this, cursor++);
                 }
 
                 @Override
@@ -1250,43 +1514,47 @@ public class JsonValue implements Cloneable, Iterable<JsonValue> {
      *
      * @return a string representation of the JSON value.
      */
-    @SuppressWarnings("unchecked")
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder();
-        if (isNull()) {
+        appendObject(sb, object);
+        return sb.toString();
+    }
+
+    private static void appendObject(final StringBuilder sb, final Object value) {
+        final Object object = unwrap(value);
+        if (object == null) {
             sb.append("null");
-        } else if (isMap()) {
+        } else if (object instanceof Map) {
             sb.append("{ ");
-            final Map<Object, Object> map = (Map<Object, Object>) object;
-            for (final Iterator<Object> i = map.keySet().iterator(); i.hasNext();) {
-                final Object key = i.next();
+            final Map<?, ?> map = (Map<?, ?>) object;
+            for (final Iterator<? extends Map.Entry<?, ?>> i = map.entrySet().iterator(); i.hasNext();) {
+                final Map.Entry<?, ?> entry = i.next();
                 sb.append('"');
-                appendEscapedString(sb, key.toString());
+                appendEscapedString(sb, entry.getKey().toString());
                 sb.append("\": ");
-                sb.append(new JsonValue(map.get(key)).toString()); // recursion
+                appendObject(sb, entry.getValue()); // recursion
                 if (i.hasNext()) {
                     sb.append(", ");
                 }
             }
             sb.append(" }");
-        } else if (isCollection()) {
+        } else if (object instanceof Collection) {
             sb.append("[ ");
-            for (final Iterator<Object> i = ((Collection<Object>) object).iterator(); i.hasNext();) {
-                sb.append(new JsonValue(i.next()).toString()); // recursion
+            for (final Iterator<?> i = ((Collection<?>) object).iterator(); i.hasNext();) {
+                appendObject(sb, i.next()); // recursion
                 if (i.hasNext()) {
                     sb.append(", ");
                 }
             }
             sb.append(" ]");
-        } else if (isString()) {
+        } else if (object instanceof String) {
             sb.append('"');
             appendEscapedString(sb, object.toString());
             sb.append('"');
         } else {
             sb.append(object.toString());
         }
-        return sb.toString();
     }
 
     /**
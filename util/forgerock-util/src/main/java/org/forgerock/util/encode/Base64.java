@@ -17,6 +17,9 @@
 
 package org.forgerock.util.encode;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
@@ -689,6 +692,218 @@ public final class Base64 {
         return dArr;
     }
 
+    /**
+     * Returns the number of characters produced by the encoding methods which write into a caller provided array
+     * or buffer, including padding but without line separators.
+     *
+     * @param length
+     *            The number of bytes to encode.
+     * @return The number of characters of the encoded representation.
+     */
+    public static int encodedLength(final int length) {
+        return Base64Codec.STANDARD.encodedLength(length);
+    }
+
+    /**
+     * Returns the maximum number of bytes produced by the decoding methods which write into a caller provided
+     * array or buffer. The actual number is smaller if the input contains padding, line separators or other
+     * characters outside of the BASE64 alphabet.
+     *
+     * @param length
+     *            The number of characters to decode.
+     * @return The maximum number of decoded bytes.
+     */
+    public static int maxDecodedLength(final int length) {
+        return Base64Codec.maxDecodedLength(length);
+    }
+
+    /**
+     * Encodes bytes into a caller provided byte array, with padding and without line separators.
+     *
+     * @param src
+     *            The array containing the bytes to encode.
+     * @param srcOffset
+     *            The offset of the first byte to encode.
+     * @param length
+     *            The number of bytes to encode.
+     * @param dst
+     *            The array to write the encoded characters to.
+     * @param dstOffset
+     *            The offset at which the encoded characters are written.
+     * @return The number of characters written, which is {@link #encodedLength(int) encodedLength(length)}.
+     * @throws IndexOutOfBoundsException
+     *             If the source range is not within the source array.
+     * @throws IllegalArgumentException
+     *             If the destination array cannot hold the encoded characters.
+     */
+    public static int encode(final byte[] src, final int srcOffset, final int length, final byte[] dst,
+            final int dstOffset) {
+        return Base64Codec.STANDARD.encode(src, srcOffset, length, dst, dstOffset);
+    }
+
+    /**
+     * Encodes bytes into a caller provided char array, with padding and without line separators.
+     *
+     * @param src
+     *            The array containing the bytes to encode.
+     * @param srcOffset
+     *            The offset of the first byte to encode.
+     * @param length
+     *            The number of bytes to encode.
+     * @param dst
+     *            The array to write the encoded characters to.
+     * @param dstOffset
+     *            The offset at which the encoded characters are written.
+     * @return The number of characters written, which is {@link #encodedLength(int) encodedLength(length)}.
+     * @throws IndexOutOfBoundsException
+     *             If the source range is not within the source array.
+     * @throws IllegalArgumentException
+     *             If the destination array cannot hold the encoded characters.
+     */
+    public static int encode(final byte[] src, final int srcOffset, final int length, final char[] dst,
+            final int dstOffset) {
+        return Base64Codec.STANDARD.encode(src, srcOffset, length, dst, dstOffset);
+    }
+
+    /**
+     * Encodes the remaining bytes of a buffer into another buffer, with padding and without line separators. The
+     * position of the source buffer is moved to its limit, and the position of the destination buffer is moved
+     * past the encoded characters.
+     *
+     * @param src
+     *            The buffer containing the bytes to encode.
+     * @param dst
+     *            The buffer to write the encoded characters to.
+     * @return The number of characters written.
+     * @throws java.nio.BufferOverflowException
+     *             If the destination buffer cannot hold the encoded characters, in which case neither buffer is
+     *             modified.
+     */
+    public static int encode(final ByteBuffer src, final ByteBuffer dst) {
+        return Base64Codec.STANDARD.encode(src, dst);
+    }
+
+    /**
+     * Decodes BASE64 characters into a caller provided byte array. Padding, line separators and any other
+     * characters outside of the BASE64 alphabet are ignored.
+     *
+     * @param src
+     *            The array containing the characters to decode.
+     * @param srcOffset
+     *            The offset of the first character to decode.
+     * @param length
+     *            The number of characters to decode.
+     * @param dst
+     *            The array to write the decoded bytes to.
+     * @param dstOffset
+     *            The offset at which the decoded bytes are written.
+     * @return The number of bytes written.
+     * @throws IndexOutOfBoundsException
+     *             If the source range is not within the source array.
+     * @throws IllegalArgumentException
+     *             If the destination array cannot hold {@link #maxDecodedLength(int) maxDecodedLength(length)}
+     *             bytes.
+     */
+    public static int decode(final byte[] src, final int srcOffset, final int length, final byte[] dst,
+            final int dstOffset) {
+        return Base64Codec.STANDARD.decode(src, srcOffset, length, dst, dstOffset);
+    }
+
+    /**
+     * Decodes BASE64 characters into a caller provided byte array. Padding, line separators and any other
+     * characters outside of the BASE64 alphabet are ignored.
+     *
+     * @param src
+     *            The array containing the characters to decode.
+     * @param srcOffset
+     *            The offset of the first character to decode.
+     * @param length
+     *            The number of characters to decode.
+     * @param dst
+     *            The array to write the decoded bytes to.
+     * @param dstOffset
+     *            The offset at which the decoded bytes are written.
+     * @return The number of bytes written.
+     * @throws IndexOutOfBoundsException
+     *             If the source range is not within the source array.
+     * @throws IllegalArgumentException
+     *             If the destination array cannot hold {@link #maxDecodedLength(int) maxDecodedLength(length)}
+     *             bytes.
+     */
+    public static int decode(final char[] src, final int srcOffset, final int length, final byte[] dst,
+            final int dstOffset) {
+        return Base64Codec.STANDARD.decode(src, srcOffset, length, dst, dstOffset);
+    }
+
+    /**
+     * Decodes BASE64 characters into a caller provided byte array. Padding, line separators and any other
+     * characters outside of the BASE64 alphabet are ignored.
+     *
+     * @param src
+     *            The characters to decode.
+     * @param srcOffset
+     *            The offset of the first character to decode.
+     * @param length
+     *            The number of characters to decode.
+     * @param dst
+     *            The array to write the decoded bytes to.
+     * @param dstOffset
+     *            The offset at which the decoded bytes are written.
+     * @return The number of bytes written.
+     * @throws IndexOutOfBoundsException
+     *             If the source range is not within the source characters.
+     * @throws IllegalArgumentException
+     *             If the destination array cannot hold {@link #maxDecodedLength(int) maxDecodedLength(length)}
+     *             bytes.
+     */
+    public static int decode(final CharSequence src, final int srcOffset, final int length, final byte[] dst,
+            final int dstOffset) {
+        return Base64Codec.STANDARD.decode(src, srcOffset, length, dst, dstOffset);
+    }
+
+    /**
+     * Decodes the remaining BASE64 characters of a buffer into another buffer. Padding, line separators and any
+     * other characters outside of the BASE64 alphabet are ignored. The position of the source buffer is moved to
+     * its limit, and the position of the destination buffer is moved past the decoded bytes.
+     *
+     * @param src
+     *            The buffer containing the characters to decode.
+     * @param dst
+     *            The buffer to write the decoded bytes to.
+     * @return The number of bytes written.
+     * @throws java.nio.BufferOverflowException
+     *             If the destination buffer cannot hold {@link #maxDecodedLength(int) maxDecodedLength} bytes for
+     *             the remaining characters, in which case neither buffer is modified.
+     */
+    public static int decode(final ByteBuffer src, final ByteBuffer dst) {
+        return Base64Codec.STANDARD.decode(src, dst);
+    }
+
+    /**
+     * Returns an output stream which BASE64 encodes the bytes written to it, with padding and without line
+     * separators, and writes the encoded characters to the given stream. Closing the returned stream writes the
+     * final, padded group of characters and closes the given stream.
+     *
+     * @param out
+     *            The stream to write the encoded characters to.
+     * @return The encoding stream.
+     */
+    public static OutputStream wrap(final OutputStream out) {
+        return Base64Codec.STANDARD.wrap(out);
+    }
+
+    /**
+     * Returns an input stream which decodes the BASE64 characters read from the given stream. Padding, line
+     * separators and any other characters outside of the BASE64 alphabet are ignored.
+     *
+     * @param in
+     *            The stream to read the encoded characters from.
+     * @return The decoding stream.
+     */
+    public static InputStream wrap(final InputStream in) {
+        return Base64Codec.STANDARD.wrap(in);
+    }
+
     private Base64() {
         // No impl.
     }
@@ -0,0 +1,625 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.util.encode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.forgerock.util.Reject;
+
+/**
+ * Table driven BASE64 encoder and decoder for one alphabet, which writes into caller provided arrays and buffers.
+ * <p>
+ * Encoding processes the input in groups of three bytes, each of which is turned into four characters without
+ * any branch. Decoding processes the input in groups of four characters with a single validity check per group,
+ * and only falls back to a character by character loop when a group contains a character which is not part of
+ * the alphabet, such as padding, line separators or white space. A lenient codec ignores such characters, as
+ * well as trailing bits which do not form a whole byte. A strict codec only accepts trailing padding, and
+ * reports any other character outside of the alphabet as an error.
+ */
+final class Base64Codec {
+
+    /** The RFC 2045 alphabet, with padding. */
+    static final Base64Codec STANDARD = new Base64Codec(
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/", true, false, "");
+
+    /**
+     * The RFC 4648 URL and filename safe alphabet, without padding. The strict decoder also accepts {@code +} and
+     * {@code /}, as the previous implementation did.
+     */
+    static final Base64Codec URL = new Base64Codec(
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_", false, true, "+/");
+
+    /** The size of the buffers used by the streams, a multiple of both three and four. */
+    private static final int STREAM_BUFFER_SIZE = 3 * 4 * 512;
+
+    private static final byte PAD = '=';
+
+    private final byte[] encodeTable;
+    private final char[] encodeCharTable;
+    private final int[] decodeTable = new int[256];
+    private final boolean padding;
+    private final boolean strict;
+
+    private Base64Codec(final String alphabet, final boolean padding, final boolean strict,
+            final String extraDecodeCharacters) {
+        this.encodeCharTable = alphabet.toCharArray();
+        this.encodeTable = new byte[encodeCharTable.length];
+        for (int i = 0; i < encodeCharTable.length; i++) {
+            encodeTable[i] = (byte) encodeCharTable[i];
+        }
+        this.padding = padding;
+        this.strict = strict;
+        Arrays.fill(decodeTable, -1);
+        for (int i = 0; i < encodeCharTable.length; i++) {
+            decodeTable[encodeCharTable[i]] = i;
+        }
+        for (int i = 0; i < extraDecodeCharacters.length(); i++) {
+            // The extra characters have the same value as the characters at the end of the standard alphabet.
+            decodeTable[extraDecodeCharacters.charAt(i)] = 62 + i;
+        }
+    }
+
+    /**
+     * Returns the number of characters needed to encode the given number of bytes.
+     */
+    int encodedLength(final int length) {
+        if (padding) {
+            return (length + 2) / 3 * 4;
+        }
+        return length / 3 * 4 + (length % 3 == 0 ? 0 : length % 3 + 1);
+    }
+
+    /**
+     * Returns the maximum number of bytes decoded from the given number of characters.
+     */
+    static int maxDecodedLength(final int length) {
+        return length / 4 * 3 + length % 4 * 3 / 4;
+    }
+
+    int encode(final byte[] src, final int srcOffset, final int length, final byte[] dst, final int dstOffset) {
+        checkRange(src.length, srcOffset, length);
+        checkCapacity(dst.length, dstOffset, encodedLength(length));
+        final byte[] table = encodeTable;
+        final int evenEnd = srcOffset + length / 3 * 3;
+        int s = srcOffset;
+        int d = dstOffset;
+        while (s < evenEnd) {
+            final int i = (src[s] & 0xff) << 16 | (src[s + 1] & 0xff) << 8 | src[s + 2] & 0xff;
+            dst[d] = table[i >>> 18];
+            dst[d + 1] = table[i >>> 12 & 0x3f];
+            dst[d + 2] = table[i >>> 6 & 0x3f];
+            dst[d + 3] = table[i & 0x3f];
+            s += 3;
+            d += 4;
+        }
+        final int left = srcOffset + length - evenEnd;
+        if (left > 0) {
+            final int i = (src[s] & 0xff) << 10 | (left == 2 ? (src[s + 1] & 0xff) << 2 : 0);
+            dst[d++] = table[i >> 12];
+            dst[d++] = table[i >>> 6 & 0x3f];
+            if (left == 2) {
+                dst[d++] = table[i & 0x3f];
+            } else if (padding) {
+                dst[d++] = PAD;
+            }
+            if (padding) {
+                dst[d++] = PAD;
+            }
+        }
+        return d - dstOffset;
+    }
+
+    int encode(final byte[] src, final int srcOffset, final int length, final char[] dst, final int dstOffset) {
+        checkRange(src.length, srcOffset, length);
+        checkCapacity(dst.length, dstOffset, encodedLength(length));
+        final char[] table = encodeCharTable;
+        final int evenEnd = srcOffset + length / 3 * 3;
+        int s = srcOffset;
+        int d = dstOffset;
+        while (s < evenEnd) {
+            final int i = (src[s] & 0xff) << 16 | (src[s + 1] & 0xff) << 8 | src[s + 2] & 0xff;
+            dst[d] = table[i >>> 18];
+            dst[d + 1] = table[i >>> 12 & 0x3f];
+            dst[d + 2] = table[i >>> 6 & 0x3f];
+            dst[d + 3] = table[i & 0x3f];
+            s += 3;
+            d += 4;
+        }
+        final int left = srcOffset + length - evenEnd;
+        if (left > 0) {
+            final int i = (src[s] & 0xff) << 10 | (left == 2 ? (src[s + 1] & 0xff) << 2 : 0);
+            dst[d++] = table[i >> 12];
+            dst[d++] = table[i >>> 6 & 0x3f];
+            if (left == 2) {
+                dst[d++] = table[i & 0x3f];
+            } else if (padding) {
+                dst[d++] = (char) PAD;
+            }
+            if (padding) {
+                dst[d++] = (char) PAD;
+            }
+        }
+        return d - dstOffset;
+    }
+
+    int encode(final ByteBuffer src, final ByteBuffer dst) {
+        final int length = src.remaining();
+        final int encodedLength = encodedLength(length);
+        if (dst.remaining() < encodedLength) {
+            throw new BufferOverflowException();
+        }
+        if (src.hasArray() && dst.hasArray()) {
+            encode(src.array(), src.arrayOffset() + src.position(), length,
+                    dst.array(), dst.arrayOffset() + dst.position());
+        } else {
+            final byte[] table = encodeTable;
+            final int end = src.position() + length;
+            int s = src.position();
+            int d = dst.position();
+            for (; s + 2 < end; s += 3, d += 4) {
+                final int i = (src.get(s) & 0xff) << 16 | (src.get(s + 1) & 0xff) << 8 | src.get(s + 2) & 0xff;
+                dst.put(d, table[i >>> 18]);
+                dst.put(d + 1, table[i >>> 12 & 0x3f]);
+                dst.put(d + 2, table[i >>> 6 & 0x3f]);
+                dst.put(d + 3, table[i & 0x3f]);
+            }
+            final int left = end - s;
+            if (left > 0) {
+                final int i = (src.get(s) & 0xff) << 10 | (left == 2 ? (src.get(s + 1) & 0xff) << 2 : 0);
+                dst.put(d++, table[i >> 12]);
+                dst.put(d++, table[i >>> 6 & 0x3f]);
+                if (left == 2) {
+                    dst.put(d++, table[i & 0x3f]);
+                } else if (padding) {
+                    dst.put(d++, PAD);
+                }
+                if (padding) {
+                    dst.put(d, PAD);
+                }
+            }
+        }
+        src.position(src.position() + length);
+        dst.position(dst.position() + encodedLength);
+        return encodedLength;
+    }
+
+    int decode(final byte[] src, final int srcOffset, final int length, final byte[] dst, final int dstOffset) {
+        checkRange(src.length, srcOffset, length);
+        checkCapacity(dst.length, dstOffset, maxDecodedLength(length));
+        final int[] table = decodeTable;
+        final int end = srcOffset + length;
+        int s = srcOffset;
+        int d = dstOffset;
+        int bits = 0;
+        int count = 0;
+        boolean padded = false;
+        while (s < end) {
+            if (count == 0 && !padded && s + 3 < end) {
+                // A value of -1 in any position makes the whole group negative.
+                final int i = table[src[s] & 0xff] << 18 | table[src[s + 1] & 0xff] << 12
+                        | table[src[s + 2] & 0xff] << 6 | table[src[s + 3] & 0xff];
+                if (i >= 0) {
+                    dst[d] = (byte) (i >> 16);
+                    dst[d + 1] = (byte) (i >> 8);
+                    dst[d + 2] = (byte) i;
+                    s += 4;
+                    d += 3;
+                    continue;
+                }
+            }
+            final int ch = src[s++] & 0xff;
+            final int c = table[ch];
+            if (c >= 0 && !padded) {
+                bits = bits << 6 | c;
+                if (++count == 4) {
+                    dst[d++] = (byte) (bits >> 16);
+                    dst[d++] = (byte) (bits >> 8);
+                    dst[d++] = (byte) bits;
+                    bits = 0;
+                    count = 0;
+                }
+            } else if (strict) {
+                if (ch != PAD) {
+                    return -1;
+                }
+                padded = true;
+            }
+        }
+        if (strict && count == 1) {
+            return -1;
+        }
+        return decodeTail(bits, count, dst, d) - dstOffset;
+    }
+
+    int decode(final char[] src, final int srcOffset, final int length, final byte[] dst, final int dstOffset) {
+        checkRange(src.length, srcOffset, length);
+        checkCapacity(dst.length, dstOffset, maxDecodedLength(length));
+        final int end = srcOffset + length;
+        int s = srcOffset;
+        int d = dstOffset;
+        int bits = 0;
+        int count = 0;
+        boolean padded = false;
+        while (s < end) {
+            if (count == 0 && !padded && s + 3 < end) {
+                final int i = value(src[s]) << 18 | value(src[s + 1]) << 12 | value(src[s + 2]) << 6
+                        | value(src[s + 3]);
+                if (i >= 0) {
+                    dst[d] = (byte) (i >> 16);
+                    dst[d + 1] = (byte) (i >> 8);
+                    dst[d + 2] = (byte) i;
+                    s += 4;
+                    d += 3;
+                    continue;
+                }
+            }
+            final char ch = src[s++];
+            final int c = value(ch);
+            if (c >= 0 && !padded) {
+                bits = bits << 6 | c;
+                if (++count == 4) {
+                    dst[d++] = (byte) (bits >> 16);
+                    dst[d++] = (byte) (bits >> 8);
+                    dst[d++] = (byte) bits;
+                    bits = 0;
+                    count = 0;
+                }
+            } else if (strict) {
+                if (ch != PAD) {
+                    return -1;
+                }
+                padded = true;
+            }
+        }
+        if (strict && count == 1) {
+            return -1;
+        }
+        return decodeTail(bits, count, dst, d) - dstOffset;
+    }
+
+    int decode(final CharSequence src, final int srcOffset, final int length, final byte[] dst,
+            final int dstOffset) {
+        checkRange(src.length(), srcOffset, length);
+        checkCapacity(dst.length, dstOffset, maxDecodedLength(length));
+        final int end = srcOffset + length;
+        int s = srcOffset;
+        int d = dstOffset;
+        int bits = 0;
+        int count = 0;
+        boolean padded = false;
+        while (s < end) {
+            if (count == 0 && !padded && s + 3 < end) {
+                final int i = value(src.charAt(s)) << 18 | value(src.charAt(s + 1)) << 12
+                        | value(src.charAt(s + 2)) << 6 | value(src.charAt(s + 3));
+                if (i >= 0) {
+                    dst[d] = (byte) (i >> 16);
+                    dst[d + 1] = (byte) (i >> 8);
+                    dst[d + 2] = (byte) i;
+                    s += 4;
+                    d += 3;
+                    continue;
+                }
+            }
+            final char ch = src.charAt(s++);
+            final int c = value(ch);
+            if (c >= 0 && !padded) {
+                bits = bits << 6 | c;
+                if (++count == 4) {
+                    dst[d++] = (byte) (bits >> 16);
+                    dst[d++] = (byte) (bits >> 8);
+                    dst[d++] = (byte) bits;
+                    bits = 0;
+                    count = 0;
+                }
+            } else if (strict) {
+                if (ch != PAD) {
+                    return -1;
+                }
+                padded = true;
+            }
+        }
+        if (strict && count == 1) {
+            return -1;
+        }
+        return decodeTail(bits, count, dst, d) - dstOffset;
+    }
+
+    int decode(final ByteBuffer src, final ByteBuffer dst) {
+        final int length = src.remaining();
+        if (dst.remaining() < maxDecodedLength(length)) {
+            throw new BufferOverflowException();
+        }
+        final int decodedLength;
+        if (src.hasArray() && dst.hasArray()) {
+            decodedLength = decode(src.array(), src.arrayOffset() + src.position(), length,
+                    dst.array(), dst.arrayOffset() + dst.position());
+        } else {
+            final int[] table = decodeTable;
+            final int end = src.position() + length;
+            int d = dst.position();
+            int bits = 0;
+            int count = 0;
+            boolean padded = false;
+            for (int s = src.position(); s < end; s++) {
+                final int ch = src.get(s) & 0xff;
+                final int c = table[ch];
+                if (c >= 0 && !padded) {
+                    bits = bits << 6 | c;
+                    if (++count == 4) {
+                        dst.put(d++, (byte) (bits >> 16));
+                        dst.put(d++, (byte) (bits >> 8));
+                        dst.put(d++, (byte) bits);
+                        bits = 0;
+                        count = 0;
+                    }
+                } else if (strict) {
+                    if (ch != PAD) {
+                        return -1;
+                    }
+                    padded = true;
+                }
+            }
+            if (strict && count == 1) {
+                return -1;
+            }
+            if (count == 2) {
+                dst.put(d++, (byte) (bits >> 4));
+            } else if (count == 3) {
+                dst.put(d++, (byte) (bits >> 10));
+                dst.put(d++, (byte) (bits >> 2));
+            }
+            decodedLength = d - dst.position();
+        }
+        if (decodedLength < 0) {
+            return -1;
+        }
+        src.position(src.position() + length);
+        dst.position(dst.position() + decodedLength);
+        return decodedLength;
+    }
+
+    /**
+     * Returns an output stream which encodes the bytes written to it, and writes the encoded characters to the
+     * given stream. Closing the returned stream writes the final group and closes the given stream.
+     */
+    OutputStream wrap(final OutputStream out) {
+        return new EncodingOutputStream(Reject.checkNotNull(out), this);
+    }
+
+    /**
+     * Returns an input stream which decodes the characters read from the given stream.
+     */
+    InputStream wrap(final InputStream in) {
+        return new DecodingInputStream(Reject.checkNotNull(in), this);
+    }
+
+    private int value(final char c) {
+        return c < 256 ? decodeTable[c] : -1;
+    }
+
+    private static int decodeTail(final int bits, final int count, final byte[] dst, final int offset) {
+        int d = offset;
+        if (count == 2) {
+            dst[d++] = (byte) (bits >> 4);
+        } else if (count == 3) {
+            dst[d++] = (byte) (bits >> 10);
+            dst[d++] = (byte) (bits >> 2);
+        }
+        return d;
+    }
+
+    private static void checkRange(final int arrayLength, final int offset, final int length) {
+        if (offset < 0 || length < 0 || offset > arrayLength - length) {
+            throw new IndexOutOfBoundsException("offset " + offset + ", length " + length
+                    + ", array length " + arrayLength);
+        }
+    }
+
+    private static void checkCapacity(final int arrayLength, final int offset, final int required) {
+        if (offset < 0 || offset > arrayLength - required) {
+            throw new IllegalArgumentException("The destination array is too small, " + required
+                    + " elements are required from offset " + offset);
+        }
+    }
+
+    /** Encodes the bytes written to it in groups of three bytes. */
+    private static final class EncodingOutputStream extends OutputStream {
+        private final OutputStream out;
+        private final Base64Codec codec;
+        private final byte[] pending = new byte[3];
+        private final byte[] encoded = new byte[STREAM_BUFFER_SIZE / 3 * 4];
+        private int pendingCount;
+        private boolean closed;
+
+        EncodingOutputStream(final OutputStream out, final Base64Codec codec) {
+            this.out = out;
+            this.codec = codec;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            checkNotClosed();
+            pending[pendingCount++] = (byte) b;
+            if (pendingCount == 3) {
+                out.write(encoded, 0, codec.encode(pending, 0, 3, encoded, 0));
+                pendingCount = 0;
+            }
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            checkNotClosed();
+            checkRange(b.length, off, len);
+            int offset = off;
+            int remaining = len;
+            while (pendingCount != 0 && remaining > 0) {
+                write(b[offset++]);
+                remaining--;
+            }
+            if (remaining == 0) {
+                return;
+            }
+            while (remaining >= 3) {
+                final int chunk = Math.min(remaining / 3 * 3, STREAM_BUFFER_SIZE);
+                out.write(encoded, 0, codec.encode(b, offset, chunk, encoded, 0));
+                offset += chunk;
+                remaining -= chunk;
+            }
+            System.arraycopy(b, offset, pending, 0, remaining);
+            pendingCount = remaining;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                if (pendingCount > 0) {
+                    out.write(encoded, 0, codec.encode(pending, 0, pendingCount, encoded, 0));
+                    pendingCount = 0;
+                }
+            } finally {
+                out.close();
+            }
+        }
+
+        private void checkNotClosed() throws IOException {
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+        }
+    }
+
+    /**
+     * Decodes the characters read from the underlying stream. Those outside the alphabet are either ignored or,
+     * for a strict codec, fail the read.
+     */
+    private static final class DecodingInputStream extends InputStream {
+        private final InputStream in;
+        private final int[] table;
+        private final boolean strict;
+        private final byte[] encoded = new byte[STREAM_BUFFER_SIZE / 3 * 4];
+        private final byte[] decoded = new byte[STREAM_BUFFER_SIZE + 2];
+        private int position;
+        private int limit;
+        private int bits;
+        private int count;
+        private boolean padded;
+        private boolean eof;
+
+        DecodingInputStream(final InputStream in, final Base64Codec codec) {
+            this.in = in;
+            this.table = codec.decodeTable;
+            this.strict = codec.strict;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (position == limit && !fill()) {
+                return -1;
+            }
+            return decoded[position++] & 0xff;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            checkRange(b.length, off, len);
+            if (len == 0) {
+                return 0;
+            }
+            if (position == limit && !fill()) {
+                return -1;
+            }
+            final int n = Math.min(len, limit - position);
+            System.arraycopy(decoded, position, b, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            long skipped = 0;
+            while (skipped < n && (position < limit || fill())) {
+                final int step = (int) Math.min(n - skipped, limit - position);
+                position += step;
+                skipped += step;
+            }
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return limit - position;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        /** Decodes the next chunk of the underlying stream, returns {@code false} at the end of the stream. */
+        private boolean fill() throws IOException {
+            position = 0;
+            limit = 0;
+            while (limit == 0 && !eof) {
+                final int n = in.read(encoded);
+                if (n < 0) {
+                    eof = true;
+                    if (strict && count == 1) {
+                        throw new IOException("Truncated Base64 content");
+                    }
+                    limit = decodeTail(bits, count, decoded, 0);
+                    break;
+                }
+                int d = 0;
+                for (int s = 0; s < n; s++) {
+                    final int ch = encoded[s] & 0xff;
+                    final int c = table[ch];
+                    if (c >= 0 && !padded) {
+                        bits = bits << 6 | c;
+                        if (++count == 4) {
+                            decoded[d++] = (byte) (bits >> 16);
+                            decoded[d++] = (byte) (bits >> 8);
+                            decoded[d++] = (byte) bits;
+                            bits = 0;
+                            count = 0;
+                        }
+                    } else if (strict) {
+                        if (ch != PAD) {
+                            throw new IOException("Illegal Base64 character " + ch);
+                        }
+                        padded = true;
+                    }
+                }
+                limit = d;
+            }
+            return limit > 0;
+        }
+    }
+}
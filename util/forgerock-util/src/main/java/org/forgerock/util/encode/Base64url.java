@@ -16,11 +16,16 @@
 
 package org.forgerock.util.encode;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
 /**
- * Makes use of the very fast and memory efficient Base64 class to encode and
- * decode to and from BASE64 in full accordance with RFC 2045. And then replaces
- * + and / for - and _ respectively and removes the padding character = to be in
- * accordance with RFC 4648.
+ * Encodes and decodes to and from the URL and filename safe BASE64 alphabet, in which + and / are replaced by - and
+ * _ respectively, without the padding character = to be in accordance with RFC 4648. The decoder also accepts
+ * trailing padding and the + and / characters of the standard alphabet, but rejects content containing any other
+ * character, or a single trailing character which does not form a whole byte.
  */
 public final class Base64url {
     /**
@@ -28,19 +33,15 @@ public final class Base64url {
      *
      * @param content
      *            The Base64url encoded String to decode.
-     * @return The decoded byte[] array.
+     * @return The decoded byte[] array, or {@code null} if the content is not valid Base64url.
      */
     public static byte[] decode(final String content) {
-        final StringBuilder builder =
-                new StringBuilder(content.replaceAll("-", "+").replaceAll("_", "/"));
-        final int modulus = builder.length() % 4;
-        final int numberOfPaddingChars = 4 - modulus;
-        if (modulus != 0) {
-            for (int i = 0; i < numberOfPaddingChars; i++) {
-                builder.append('=');
-            }
+        final byte[] decoded = new byte[maxDecodedLength(content.length())];
+        final int length = Base64Codec.URL.decode(content, 0, content.length(), decoded, 0);
+        if (length < 0) {
+            return null;
         }
-        return Base64.decode(builder.toString());
+        return length == decoded.length ? decoded : Arrays.copyOf(decoded, length);
     }
 
     /**
@@ -51,8 +52,218 @@ public final class Base64url {
      * @return The Base64url encoded byte array.
      */
     public static String encode(final byte[] content) {
-        return Base64.encode(content).replaceAll("\\+", "-").replaceAll("/", "_").replaceAll("=",
-                "");
+        final char[] encoded = new char[encodedLength(content.length)];
+        Base64Codec.URL.encode(content, 0, content.length, encoded, 0);
+        return new String(encoded);
+    }
+
+    /**
+     * Returns the number of characters produced by encoding the given number of bytes, without padding.
+     *
+     * @param length
+     *            The number of bytes to encode.
+     * @return The number of characters of the encoded representation.
+     */
+    public static int encodedLength(final int length) {
+        return Base64Codec.URL.encodedLength(length);
+    }
+
+    /**
+     * Returns the maximum number of bytes produced by decoding the given number of characters. The actual number
+     * is smaller if the input contains padding.
+     *
+     * @param length
+     *            The number of characters to decode.
+     * @return The maximum number of decoded bytes.
+     */
+    public static int maxDecodedLength(final int length) {
+        return Base64Codec.maxDecodedLength(length);
+    }
+
+    /**
+     * Encodes bytes into a caller provided byte array, without padding.
+     *
+     * @param src
+     *            The array containing the bytes to encode.
+     * @param srcOffset
+     *            The offset of the first byte to encode.
+     * @param length
+     *            The number of bytes to encode.
+     * @param dst
+     *            The array to write the encoded characters to.
+     * @param dstOffset
+     *            The offset at which the encoded characters are written.
+     * @return The number of characters written, which is {@link #encodedLength(int) encodedLength(length)}.
+     * @throws IndexOutOfBoundsException
+     *             If the source range is not within the source array.
+     * @throws IllegalArgumentException
+     *             If the destination array cannot hold the encoded characters.
+     */
+    public static int encode(final byte[] src, final int srcOffset, final int length, final byte[] dst,
+            final int dstOffset) {
+        return Base64Codec.URL.encode(src, srcOffset, length, dst, dstOffset);
+    }
+
+    /**
+     * Encodes bytes into a caller provided char array, without padding.
+     *
+     * @param src
+     *            The array containing the bytes to encode.
+     * @param srcOffset
+     *            The offset of the first byte to encode.
+     * @param length
+     *            The number of bytes to encode.
+     * @param dst
+     *            The array to write the encoded characters to.
+     * @param dstOffset
+     *            The offset at which the encoded characters are written.
+     * @return The number of characters written, which is {@link #encodedLength(int) encodedLength(length)}.
+     * @throws IndexOutOfBoundsException
+     *             If the source range is not within the source array.
+     * @throws IllegalArgumentException
+     *             If the destination array cannot hold the encoded characters.
+     */
+    public static int encode(final byte[] src, final int srcOffset, final int length, final char[] dst,
+            final int dstOffset) {
+        return Base64Codec.URL.encode(src, srcOffset, length, dst, dstOffset);
+    }
+
+    /**
+     * Encodes the remaining bytes of a buffer into another buffer, without padding. The position of the source
+     * buffer is moved to its limit, and the position of the destination buffer is moved past the encoded
+     * characters.
+     *
+     * @param src
+     *            The buffer containing the bytes to encode.
+     * @param dst
+     *            The buffer to write the encoded characters to.
+     * @return The number of characters written.
+     * @throws java.nio.BufferOverflowException
+     *             If the destination buffer cannot hold the encoded characters, in which case neither buffer is
+     *             modified.
+     */
+    public static int encode(final ByteBuffer src, final ByteBuffer dst) {
+        return Base64Codec.URL.encode(src, dst);
+    }
+
+    /**
+     * Decodes Base64url characters into a caller provided byte array. Trailing padding is ignored.
+     *
+     * @param src
+     *            The array containing the characters to decode.
+     * @param srcOffset
+     *            The offset of the first character to decode.
+     * @param length
+     *            The number of characters to decode.
+     * @param dst
+     *            The array to write the decoded bytes to.
+     * @param dstOffset
+     *            The offset at which the decoded bytes are written.
+     * @return The number of bytes written, or -1 if the characters are not valid Base64url.
+     * @throws IndexOutOfBoundsException
+     *             If the source range is not within the source array.
+     * @throws IllegalArgumentException
+     *             If the destination array cannot hold {@link #maxDecodedLength(int) maxDecodedLength(length)}
+     *             bytes.
+     */
+    public static int decode(final byte[] src, final int srcOffset, final int length, final byte[] dst,
+            final int dstOffset) {
+        return Base64Codec.URL.decode(src, srcOffset, length, dst, dstOffset);
+    }
+
+    /**
+     * Decodes Base64url characters into a caller provided byte array. Trailing padding is ignored.
+     *
+     * @param src
+     *            The array containing the characters to decode.
+     * @param srcOffset
+     *            The offset of the first character to decode.
+     * @param length
+     *            The number of characters to decode.
+     * @param dst
+     *            The array to write the decoded bytes to.
+     * @param dstOffset
+     *            The offset at which the decoded bytes are written.
+     * @return The number of bytes written, or -1 if the characters are not valid Base64url.
+     * @throws IndexOutOfBoundsException
+     *             If the source range is not within the source array.
+     * @throws IllegalArgumentException
+     *             If the destination array cannot hold {@link #maxDecodedLength(int) maxDecodedLength(length)}
+     *             bytes.
+     */
+    public static int decode(final char[] src, final int srcOffset, final int length, final byte[] dst,
+            final int dstOffset) {
+        return Base64Codec.URL.decode(src, srcOffset, length, dst, dstOffset);
+    }
+
+    /**
+     * Decodes Base64url characters into a caller provided byte array. Trailing padding is ignored.
+     *
+     * @param src
+     *            The characters to decode.
+     * @param srcOffset
+     *            The offset of the first character to decode.
+     * @param length
+     *            The number of characters to decode.
+     * @param dst
+     *            The array to write the decoded bytes to.
+     * @param dstOffset
+     *            The offset at which the decoded bytes are written.
+     * @return The number of bytes written, or -1 if the characters are not valid Base64url.
+     * @throws IndexOutOfBoundsException
+     *             If the source range is not within the source characters.
+     * @throws IllegalArgumentException
+     *             If the destination array cannot hold {@link #maxDecodedLength(int) maxDecodedLength(length)}
+     *             bytes.
+     */
+    public static int decode(final CharSequence src, final int srcOffset, final int length, final byte[] dst,
+            final int dstOffset) {
+        return Base64Codec.URL.decode(src, srcOffset, length, dst, dstOffset);
+    }
+
+    /**
+     * Decodes the remaining Base64url characters of a buffer into another buffer. Trailing padding is ignored. The
+     * position of the source buffer is moved to its limit, and the position of the destination buffer is moved
+     * past the decoded bytes.
+     *
+     * @param src
+     *            The buffer containing the characters to decode.
+     * @param dst
+     *            The buffer to write the decoded bytes to.
+     * @return The number of bytes written, or -1 if the characters are not valid Base64url, in which case neither
+     *         position is moved.
+     * @throws java.nio.BufferOverflowException
+     *             If the destination buffer cannot hold {@link #maxDecodedLength(int) maxDecodedLength} bytes for
+     *             the remaining characters, in which case neither buffer is modified.
+     */
+    public static int decode(final ByteBuffer src, final ByteBuffer dst) {
+        return Base64Codec.URL.decode(src, dst);
+    }
+
+    /**
+     * Returns an output stream which Base64url encodes the bytes written to it, without padding, and writes the
+     * encoded characters to the given stream. Closing the returned stream writes the final group of characters
+     * and closes the given stream.
+     *
+     * @param out
+     *            The stream to write the encoded characters to.
+     * @return The encoding stream.
+     */
+    public static OutputStream wrap(final OutputStream out) {
+        return Base64Codec.URL.wrap(out);
+    }
+
+    /**
+     * Returns an input stream which decodes the Base64url characters read from the given stream. Trailing padding
+     * is ignored, and reading throws an {@link java.io.IOException} once the stream is found not to be valid
+     * Base64url.
+     *
+     * @param in
+     *            The stream to read the encoded characters from.
+     * @return The decoding stream.
+     */
+    public static InputStream wrap(final InputStream in) {
+        return Base64Codec.URL.wrap(in);
     }
 
     private Base64url() {
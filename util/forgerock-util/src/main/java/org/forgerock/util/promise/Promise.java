@@ -16,6 +16,7 @@
 package org.forgerock.util.promise;
 
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -584,6 +585,143 @@ public interface Promise<V, E extends Exception> extends Future<V> {
             AsyncFunction<? super E, VOUT, EOUT> onException,
             AsyncFunction<? super RuntimeException, VOUT, EOUT> onRuntimeException);
 
+    /**
+     * Submits the provided function for execution by the given {@link Executor}
+     * once this {@code Promise} has completed with a result, and returns a new
+     * {@code Promise} representing the outcome of the function. If this
+     * {@code Promise} does not complete with a result then the function will
+     * not be invoked and the exception will be forwarded to the returned
+     * {@code Promise}, without involving the executor.
+     * <p>
+     * This method can be used to move expensive transformations off the thread
+     * completing this {@code Promise}, typically an I/O thread.
+     *
+     * @param <VOUT>
+     *            The type of the function's result, or {@link Void} if the
+     *            function does not return anything (i.e. it only has
+     *            side-effects). Note that the type may be different to the type
+     *            of this {@code Promise}.
+     * @param executor
+     *            The executor which will execute the function.
+     * @param onResult
+     *            The function which will be executed upon successful completion
+     *            of this {@code Promise}.
+     * @return A new {@code Promise} representing the outcome of the
+     *         function.
+     */
+    default <VOUT> Promise<VOUT, E> thenOn(Executor executor, Function<? super V, VOUT, E> onResult) {
+        return thenAsyncOn(executor, Promises.<V, VOUT, E>asyncFunction(onResult));
+    }
+
+    /**
+     * Submits the provided functions for execution by the given {@link Executor}
+     * once this {@code Promise} has completed, and returns a new
+     * {@code Promise} representing the outcome of the invoked function.
+     * <p>
+     * This method can be used to move expensive transformations off the thread
+     * completing this {@code Promise}, typically an I/O thread.
+     *
+     * @param <VOUT>
+     *            The type of the functions' result, or {@link Void} if the
+     *            functions do not return anything (i.e. they only have
+     *            side-effects). Note that the type may be different to the type
+     *            of this {@code Promise}.
+     * @param <EOUT>
+     *            The type of the exception thrown by the functions if they
+     *            fail, or {@link NeverThrowsException} if they cannot fail.
+     *            Note that the type may be different to the type of this
+     *            {@code Promise}.
+     * @param executor
+     *            The executor which will execute the functions.
+     * @param onResult
+     *            The function which will be executed upon successful completion
+     *            of this {@code Promise}.
+     * @param onException
+     *            The function which will be executed upon failure of this
+     *            {@code Promise}.
+     * @param onRuntimeException
+     *            The function which will be executed upon failure with
+     *            {@link RuntimeException} of this {@code Promise}.
+     * @return A new {@code Promise} representing the outcome of the
+     *         invoked function.
+     */
+    default <VOUT, EOUT extends Exception> Promise<VOUT, EOUT> thenOn(Executor executor,
+            Function<? super V, VOUT, EOUT> onResult, Function<? super E, VOUT, EOUT> onException,
+            Function<? super RuntimeException, VOUT, EOUT> onRuntimeException) {
+        return thenAsyncOn(executor, Promises.<V, VOUT, EOUT>asyncFunction(onResult),
+                Promises.<E, VOUT, EOUT>asyncFunction(onException),
+                Promises.<RuntimeException, VOUT, EOUT>asyncFunction(onRuntimeException));
+    }
+
+    /**
+     * Submits the provided asynchronous function for execution by the given
+     * {@link Executor} once this {@code Promise} has completed with a result,
+     * and returns a new {@code Promise} representing the outcome of the
+     * function. If this {@code Promise} complete with an exception then the
+     * function will not be invoked and the error will be forwarded to the
+     * returned {@code Promise}, without involving the executor.
+     * <p>
+     * This method can be used to move expensive continuations off the thread
+     * completing this {@code Promise}, typically an I/O thread.
+     *
+     * @param <VOUT>
+     *            The type of the function's result, or {@link Void} if the
+     *            function does not return anything (i.e. it only has
+     *            side-effects). Note that the type may be different to the type
+     *            of this {@code Promise}.
+     * @param executor
+     *            The executor which will execute the function.
+     * @param onResult
+     *            The asynchronous function which will be executed upon
+     *            successful completion of this {@code Promise}.
+     * @return A new {@code Promise} representing the outcome of the
+     *         function.
+     */
+    default <VOUT> Promise<VOUT, E> thenAsyncOn(Executor executor, AsyncFunction<? super V, VOUT, E> onResult) {
+        return thenAsync(Promises.<V, VOUT, E>onExecutor(executor, onResult));
+    }
+
+    /**
+     * Submits the provided asynchronous functions for execution by the given
+     * {@link Executor} once this {@code Promise} has completed, and returns a
+     * new {@code Promise} representing the outcome of the invoked function.
+     * <p>
+     * This method can be used to move expensive continuations off the thread
+     * completing this {@code Promise}, typically an I/O thread.
+     *
+     * @param <VOUT>
+     *            The type of the functions' result, or {@link Void} if the
+     *            functions do not return anything (i.e. they only have
+     *            side-effects). Note that the type may be different to the type
+     *            of this {@code Promise}.
+     * @param <EOUT>
+     *            The type of the exception thrown by the functions if they
+     *            fail, or {@link NeverThrowsException} if they cannot fail.
+     *            Note that the type may be different to the type of this
+     *            {@code Promise}.
+     * @param executor
+     *            The executor which will execute the functions.
+     * @param onResult
+     *            The asynchronous function which will be executed upon
+     *            successful completion of this {@code Promise}.
+     * @param onException
+     *            The asynchronous function which will be executed upon failure
+     *            of this {@code Promise}.
+     * @param onRuntimeException
+     *            The asynchronous function which will be executed upon failure
+     *            with {@link RuntimeException} of this {@code Promise}.
+     * @return A new {@code Promise} representing the outcome of the
+     *         invoked function.
+     */
+    default <VOUT, EOUT extends Exception> Promise<VOUT, EOUT> thenAsyncOn(Executor executor,
+            AsyncFunction<? super V, VOUT, EOUT> onResult,
+            AsyncFunction<? super E, VOUT, EOUT> onException,
+            AsyncFunction<? super RuntimeException, VOUT, EOUT> onRuntimeException) {
+        return thenAsync(Promises.<V, VOUT, EOUT>onExecutor(executor, onResult),
+                Promises.<E, VOUT, EOUT>onExecutor(executor, onException),
+                Promises.<RuntimeException, VOUT, EOUT>onExecutor(executor, onRuntimeException));
+    }
+
     /**
      * Registers the provided completion handler for notification if this
      * {@code Promise} cannot be completed due to an runtime exception. If this
@@ -15,14 +15,17 @@
  */
 package org.forgerock.util.promise;
 
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.ArrayDeque;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
 
 import org.forgerock.util.AsyncFunction;
 import org.forgerock.util.Function;
+import org.forgerock.util.annotations.VisibleForTesting;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,6 +42,22 @@ import org.slf4j.LoggerFactory;
  * represented by the promise. Cancellation is only supported if the
  * {@link #tryCancel(boolean)} is overridden and returns an exception.
  * </ul>
+ * <p>
+ * The implementation does not use any lock nor monitor: the completion state and the pending listeners are held by a
+ * single field which is updated atomically. Threads blocked waiting for the completion are parked, which makes it
+ * safe to block on a promise from a virtual thread.
+ * <p>
+ * Listeners are notified synchronously by the thread completing the promise, and a listener registered on a completed
+ * promise is notified before the registering method returns. Completing a long chain of promises therefore nests one
+ * notification per promise on the stack of the completing thread.
+ * <p>
+ * Trampolining can be enabled with the {@value #MAX_NOTIFICATION_DEPTH_PROPERTY} system property, to remain
+ * stack-safe when such chains complete together: notifications nested more than the configured number of levels deep
+ * are then queued, and performed iteratively once the outermost notification returns, or as soon as the notifying
+ * thread blocks waiting for a promise. <b>A listener queued this way is not notified before the method registering it
+ * returns</b>, even though the promise is already completed. Trampolining is disabled by default, or when the property
+ * is set to {@code 0}. Use {@link #thenOn(Executor, Function)} or {@link #thenAsyncOn(Executor, AsyncFunction)} to
+ * execute a continuation on another thread.
  *
  * @param <V>
  *            The type of the task's result, or {@link Void} if the task does
@@ -51,7 +70,6 @@ import org.slf4j.LoggerFactory;
  */
 public class PromiseImpl<V, E extends Exception> implements Promise<V, E>, ResultHandler<V>,
         ExceptionHandler<E>, RuntimeExceptionHandler {
-    // TODO: Is using monitor based sync better than AQS?
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PromiseImpl.class);
 
@@ -59,11 +77,6 @@ public class PromiseImpl<V, E extends Exception> implements Promise<V, E>, Resul
         void handleStateChange(int newState, V result, E exception, RuntimeException runtimeException);
     }
 
-    /**
-     * State value indicating that this promise has not completed.
-     */
-    private static final int PENDING = 0;
-
     /**
      * State value indicating that this promise has completed successfully
      * (result set).
@@ -85,6 +98,73 @@ public class PromiseImpl<V, E extends Exception> implements Promise<V, E>, Resul
      */
     private static final int HAS_RUNTIME_EXCEPTION = 4;
 
+    /**
+     * System property setting how deep listener notifications may be nested before being queued, {@code 0} (the
+     * default) disables the queueing.
+     */
+    public static final String MAX_NOTIFICATION_DEPTH_PROPERTY = "org.forgerock.util.promise.maxNotificationDepth";
+
+    /** The maximum depth of nested listener notifications, or {@code 0} if they are never queued. */
+    private static volatile int maxNotificationDepth =
+            Math.max(0, Integer.getInteger(MAX_NOTIFICATION_DEPTH_PROPERTY, 0));
+
+    private static final ThreadLocal<Trampoline> TRAMPOLINE = ThreadLocal.withInitial(Trampoline::new);
+
+    /** Shared outcome of the promises completed with a {@code null} result. */
+    private static final Outcome<?, ?> NULL_RESULT = new Outcome<>(HAS_RESULT, null, null, null);
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<PromiseImpl, Object> HEAD =
+            AtomicReferenceFieldUpdater.newUpdater(PromiseImpl.class, Object.class, "head");
+
+    /** The final state of a completed promise. */
+    private static final class Outcome<V, E extends Exception> {
+        private final int state;
+        private final V result;
+        private final E exception;
+        private final RuntimeException runtimeException;
+
+        private Outcome(final int state, final V result, final E exception,
+                final RuntimeException runtimeException) {
+            this.state = state;
+            this.result = result;
+            this.exception = exception;
+            this.runtimeException = runtimeException;
+        }
+    }
+
+    /**
+     * An element of the stack of the parties waiting for the completion of a pending promise: either a listener or a
+     * blocked thread.
+     */
+    private static final class Node<V, E extends Exception> {
+        private final StateListener<V, E> listener;
+        private volatile Thread waiter;
+        private volatile Node<V, E> next;
+
+        private Node(final StateListener<V, E> listener, final Thread waiter) {
+            this.listener = listener;
+            this.waiter = waiter;
+        }
+    }
+
+    /** A listener notification which has been queued rather than performed in a nested call. */
+    private static final class Notification {
+        private final StateListener<?, ?> listener;
+        private final Outcome<?, ?> outcome;
+
+        private Notification(final StateListener<?, ?> listener, final Outcome<?, ?> outcome) {
+            this.listener = listener;
+            this.outcome = outcome;
+        }
+    }
+
+    /** The depth of the nested notifications of a thread, and the notifications queued when it got too deep. */
+    private static final class Trampoline {
+        private int depth;
+        private ArrayDeque<Notification> queue;
+    }
+
     /**
      * Creates a new pending {@link Promise} implementation.
      *
@@ -100,13 +180,11 @@ public class PromiseImpl<V, E extends Exception> implements Promise<V, E>, Resul
         return new PromiseImpl<>();
     }
 
-    private volatile int state = PENDING;
-    private V result = null;
-    private E exception = null;
-    private RuntimeException runtimeException = null;
-
-    private final Queue<StateListener<V, E>> listeners =
-            new ConcurrentLinkedQueue<>();
+    /**
+     * Either {@code null} or the top {@link Node} of the stack of waiting parties while this promise is pending, or
+     * its {@link Outcome} once completed. Nothing is allocated until a party waits or the promise completes.
+     */
+    private volatile Object head;
 
     /**
      * Creates a new pending {@link Promise} implementation. This constructor is
@@ -268,12 +346,13 @@ public class PromiseImpl<V, E extends Exception> implements Promise<V, E>, Resul
 
     @Override
     public final boolean isCancelled() {
-        return state == CANCELLED;
+        final Object h = head;
+        return h instanceof Outcome && ((Outcome<?, ?>) h).state == CANCELLED;
     }
 
     @Override
     public final boolean isDone() {
-        return state != PENDING;
+        return head instanceof Outcome;
     }
 
     @Override
@@ -549,108 +628,304 @@ public class PromiseImpl<V, E extends Exception> implements Promise<V, E>, Resul
         return null;
     }
 
+    @SuppressWarnings("unchecked")
     private void addOrFireListener(final StateListener<V, E> listener) {
-        final int stateBefore = state;
-        if (stateBefore != PENDING) {
-            handleCompletion(listener, stateBefore);
-        } else {
-            listeners.add(listener);
-            final int stateAfter = state;
-            if (stateAfter != PENDING && listeners.remove(listener)) {
-                handleCompletion(listener, stateAfter);
+        Node<V, E> node = null;
+        while (true) {
+            final Object h = head;
+            if (h instanceof Outcome) {
+                handleCompletion(listener, (Outcome<V, E>) h);
+                return;
+            }
+            if (node == null) {
+                node = new Node<>(listener, null);
+            }
+            node.next = (Node<V, E>) h;
+            if (HEAD.compareAndSet(this, h, node)) {
+                return;
             }
         }
     }
 
-    private void handleCompletion(final StateListener<V, E> listener, final int completedState) {
+    /**
+     * Sets the maximum depth of nested listener notifications, overriding the {@value #MAX_NOTIFICATION_DEPTH_PROPERTY}
+     * system property.
+     *
+     * @param depth
+     *            The maximum depth, or {@code 0} to disable the queueing.
+     * @return The previous maximum depth.
+     */
+    static int setMaxNotificationDepth(final int depth) {
+        final int previous = maxNotificationDepth;
+        maxNotificationDepth = Math.max(0, depth);
+        return previous;
+    }
+
+    private static void handleCompletion(final StateListener<?, ?> listener, final Outcome<?, ?> outcome) {
+        final int maxDepth = maxNotificationDepth;
+        if (maxDepth == 0) {
+            notify(listener, outcome);
+            return;
+        }
+        final Trampoline trampoline = TRAMPOLINE.get();
+        if (trampoline.depth >= maxDepth) {
+            // Too deep: let the outermost notification perform this one once the stack has unwound.
+            if (trampoline.queue == null) {
+                trampoline.queue = new ArrayDeque<>();
+            }
+            trampoline.queue.add(new Notification(listener, outcome));
+            return;
+        }
+        trampoline.depth++;
         try {
-            listener.handleStateChange(completedState, result, exception, runtimeException);
+            notify(listener, outcome);
+        } finally {
+            trampoline.depth--;
+        }
+        if (trampoline.depth == 0) {
+            runQueuedNotifications(trampoline);
+        }
+    }
+
+    /**
+     * Performs the notifications queued by the current thread, including the ones queued while doing so. This is done
+     * by the outermost notification, and before the thread blocks waiting for a promise: a queued notification may be
+     * the one completing that promise, and the outermost notification is further up the stack of the blocked thread.
+     */
+    private static void runQueuedNotifications(final Trampoline trampoline) {
+        if (trampoline.queue != null) {
+            Notification notification;
+            while ((notification = trampoline.queue.poll()) != null) {
+                trampoline.depth++;
+                try {
+                    notify(notification.listener, notification.outcome);
+                } finally {
+                    trampoline.depth--;
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V, E extends Exception> void notify(final StateListener<V, E> listener,
+            final Outcome<?, ?> completion) {
+        final Outcome<V, E> outcome = (Outcome<V, E>) completion;
+        try {
+            listener.handleStateChange(outcome.state, outcome.result, outcome.exception, outcome.runtimeException);
         } catch (RuntimeException ignored) {
             LOGGER.error("State change listener threw a RuntimeException which cannot be handled!", ignored);
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private Outcome<V, E> outcome() {
+        return (Outcome<V, E>) head;
+    }
+
     private V get0() throws ExecutionException {
-        if (runtimeException != null) {
-            throw new ExecutionException(runtimeException);
-        } else if (exception != null) {
-            throw new ExecutionException(exception);
+        final Outcome<V, E> outcome = outcome();
+        if (outcome.runtimeException != null) {
+            throw new ExecutionException(outcome.runtimeException);
+        } else if (outcome.exception != null) {
+            throw new ExecutionException(outcome.exception);
         } else {
-            return result;
+            return outcome.result;
         }
     }
 
     private V getOrThrow0() throws E {
-        if (runtimeException != null) {
-            throw runtimeException;
-        } else if (exception != null) {
-            throw exception;
+        final Outcome<V, E> outcome = outcome();
+        if (outcome.runtimeException != null) {
+            throw outcome.runtimeException;
+        } else if (outcome.exception != null) {
+            throw outcome.exception;
         } else {
-            return result;
+            return outcome.result;
         }
     }
 
+    @SuppressWarnings("unchecked")
     private boolean setState(final int newState, final V result, final E exception,
             final RuntimeException runtimeException) {
-        synchronized (this) {
-            if (state != PENDING) {
+        final Outcome<V, E> outcome = newState == HAS_RESULT && result == null
+                ? (Outcome<V, E>) NULL_RESULT
+                : new Outcome<>(newState, result, exception, runtimeException);
+        Object h;
+        do {
+            h = head;
+            if (h instanceof Outcome) {
                 // Already completed.
                 return false;
             }
-            this.result = result;
-            this.exception = exception;
-            this.runtimeException = runtimeException;
-            state = newState; // Publishes.
-            notifyAll(); // Wake up any blocked threads.
+        } while (!HEAD.compareAndSet(this, h, outcome));
+
+        // Release the blocked threads, then notify the listeners in the order they were added. The stack is not
+        // modified, as threads which gave up waiting may still be unlinking their nodes from it.
+        int listeners = 0;
+        Node<V, E> lastListener = null;
+        for (Node<V, E> node = (Node<V, E>) h; node != null; node = node.next) {
+            if (node.listener != null) {
+                listeners++;
+                lastListener = node;
+            } else {
+                final Thread waiter = node.waiter;
+                if (waiter != null) {
+                    LockSupport.unpark(waiter);
+                }
+            }
         }
-        StateListener<V, E> listener;
-        while ((listener = listeners.poll()) != null) {
-            handleCompletion(listener, newState);
+        if (listeners == 1) {
+            handleCompletion(lastListener.listener, outcome);
+        } else if (listeners > 1) {
+            final StateListener<?, ?>[] ordered = new StateListener<?, ?>[listeners];
+            int i = listeners;
+            for (Node<V, E> node = (Node<V, E>) h; node != null; node = node.next) {
+                if (node.listener != null) {
+                    ordered[--i] = node.listener;
+                }
+            }
+            for (final StateListener<?, ?> listener : ordered) {
+                handleCompletion(listener, outcome);
+            }
         }
         return true;
     }
 
+    /**
+     * Pushes a node for the current thread onto the stack of waiting parties.
+     *
+     * @return the pushed node, or {@code null} if this promise completed in the meantime.
+     */
+    @SuppressWarnings("unchecked")
+    private Node<V, E> pushWaiter() {
+        final Node<V, E> node = new Node<>(null, Thread.currentThread());
+        while (true) {
+            final Object h = head;
+            if (h instanceof Outcome) {
+                return null;
+            }
+            node.next = (Node<V, E>) h;
+            if (HEAD.compareAndSet(this, h, node)) {
+                return node;
+            }
+        }
+    }
+
+    /**
+     * Unlinks the node of a thread which stopped waiting, because it timed out or was interrupted, so that the stack
+     * does not grow with every abandoned wait on a promise which stays pending. As in
+     * {@link java.util.concurrent.FutureTask}, the node is first marked as abandoned, then every abandoned node
+     * found is unlinked, restarting from the top of the stack when racing with another unlinking thread.
+     */
+    @SuppressWarnings("unchecked")
+    private void removeWaiter(final Node<V, E> node) {
+        node.waiter = null;
+        retry:
+        while (true) {
+            final Object h = head;
+            if (!(h instanceof Node)) {
+                // Either completed, or nothing to unlink.
+                return;
+            }
+            Node<V, E> pred = null;
+            Node<V, E> next;
+            for (Node<V, E> q = (Node<V, E>) h; q != null; q = next) {
+                next = q.next;
+                if (q.listener != null || q.waiter != null) {
+                    pred = q;
+                } else if (pred != null) {
+                    pred.next = next;
+                    if (pred.listener == null && pred.waiter == null) {
+                        // The predecessor has been abandoned in the meantime.
+                        continue retry;
+                    }
+                } else if (!HEAD.compareAndSet(this, q, next)) {
+                    continue retry;
+                }
+            }
+            return;
+        }
+    }
+
+    /**
+     * Returns the number of parties, listeners or blocked threads, waiting for the completion of this promise.
+     *
+     * @return the number of parties waiting for the completion of this promise, {@code 0} once completed.
+     */
+    @VisibleForTesting
+    int getWaitingParties() {
+        int count = 0;
+        for (Object node = head; node instanceof Node; node = ((Node<?, ?>) node).next) {
+            count++;
+        }
+        return count;
+    }
+
     private void await() throws InterruptedException {
-        // Use double-check for fast-path.
-        if (state == PENDING) {
-            synchronized (this) {
-                while (state == PENDING) {
-                    wait();
+        // Fast-path.
+        if (isDone()) {
+            return;
+        }
+        if (maxNotificationDepth != 0) {
+            runQueuedNotifications(TRAMPOLINE.get());
+        }
+        if (isDone()) {
+            return;
+        }
+        final Node<V, E> node = pushWaiter();
+        if (node == null) {
+            return;
+        }
+        try {
+            while (!isDone()) {
+                LockSupport.park(this);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
                 }
             }
+        } finally {
+            removeWaiter(node);
         }
     }
 
     private void await(final long timeout, final TimeUnit unit, final boolean isUninterruptibly)
             throws InterruptedException, TimeoutException {
-        // Use double-check for fast-path.
-        if (state == PENDING) {
-            final long timeoutMS = unit.toMillis(timeout);
-            final long endTimeMS = System.currentTimeMillis() + timeoutMS;
-            boolean wasInterrupted = false;
-            try {
-                synchronized (this) {
-                    while (state == PENDING) {
-                        final long remainingTimeMS = endTimeMS - System.currentTimeMillis();
-                        if (remainingTimeMS <= 0) {
-                            throw new TimeoutException();
-                        }
-                        try {
-                            wait(remainingTimeMS);
-                        } catch (final InterruptedException e) {
-                            if (isUninterruptibly) {
-                                wasInterrupted = true;
-                            } else {
-                                throw e;
-                            }
-                        }
-                    }
+        // Fast-path.
+        if (isDone()) {
+            return;
+        }
+        if (maxNotificationDepth != 0) {
+            runQueuedNotifications(TRAMPOLINE.get());
+        }
+        if (isDone()) {
+            return;
+        }
+        final long endTimeNS = System.nanoTime() + unit.toNanos(timeout);
+        final Node<V, E> node = pushWaiter();
+        if (node == null) {
+            return;
+        }
+        boolean wasInterrupted = false;
+        try {
+            while (!isDone()) {
+                final long remainingTimeNS = endTimeNS - System.nanoTime();
+                if (remainingTimeNS <= 0) {
+                    throw new TimeoutException();
                 }
-            } finally {
-                if (wasInterrupted) {
-                    Thread.currentThread().interrupt();
+                LockSupport.parkNanos(this, remainingTimeNS);
+                if (Thread.interrupted()) {
+                    if (isUninterruptibly) {
+                        wasInterrupted = true;
+                    } else {
+                        throw new InterruptedException();
+                    }
                 }
             }
+        } finally {
+            removeWaiter(node);
+            if (wasInterrupted) {
+                Thread.currentThread().interrupt();
+            }
         }
     }
 }
@@ -19,9 +19,14 @@ package org.forgerock.util.promise;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 
 import org.forgerock.util.AsyncFunction;
 import org.forgerock.util.Function;
@@ -591,6 +596,158 @@ public final class Promises {
         return when(Arrays.asList(promises));
     }
 
+    /**
+     * Returns a {@link CompletableFuture} completed with the outcome of the given {@link Promise}. Cancelling the
+     * returned future attempts to cancel the promise.
+     * <p>
+     * If the promise is already completed, the returned future is created completed and nothing is registered on the
+     * promise.
+     *
+     * @param <V>
+     *            The type of the task's result, or {@link Void} if the task
+     *            does not return anything (i.e. it only has side-effects).
+     * @param <E>
+     *            The type of the exception thrown by the task if it fails, or
+     *            {@link NeverThrowsException} if the task cannot fail.
+     * @param promise
+     *            The promise to adapt.
+     * @return A {@link CompletableFuture} completed with the outcome of the promise.
+     */
+    public static <V, E extends Exception> CompletableFuture<V> toCompletableFuture(final Promise<V, E> promise) {
+        if (promise.isDone()) {
+            final CompletableFuture<V> future = new CompletableFuture<>();
+            try {
+                future.complete(promise.getOrThrowUninterruptibly());
+            } catch (final Exception e) {
+                future.completeExceptionally(e);
+            }
+            return future;
+        }
+        final PromiseCompletableFuture<V, E> future = new PromiseCompletableFuture<>(promise);
+        promise.thenOnResultOrException(future, future).thenOnRuntimeException(future);
+        return future;
+    }
+
+    /**
+     * Returns a {@link Promise} completed with the outcome of the given {@link CompletionStage}.
+     * <p>
+     * A stage completed with a {@link RuntimeException} completes the returned promise with that runtime exception;
+     * any other failure is wrapped in an {@link ExecutionException}. If the stage is a {@link CompletableFuture}
+     * which has already succeeded, the returned promise is created completed and nothing is registered on the stage.
+     *
+     * @param <V>
+     *            The type of the task's result, or {@link Void} if the task
+     *            does not return anything (i.e. it only has side-effects).
+     * @param stage
+     *            The completion stage to adapt.
+     * @return A {@link Promise} completed with the outcome of the stage.
+     */
+    public static <V> Promise<V, ExecutionException> fromCompletionStage(final CompletionStage<V> stage) {
+        if (stage instanceof CompletableFuture) {
+            final CompletableFuture<V> future = (CompletableFuture<V>) stage;
+            if (future.isDone() && !future.isCompletedExceptionally()) {
+                return newResultPromise(future.join());
+            }
+        }
+        final CompletionStagePromise<V> promise = new CompletionStagePromise<>();
+        stage.whenComplete(promise);
+        return promise;
+    }
+
+    /** A {@link CompletableFuture} completed by the {@link Promise} it is registered on. */
+    private static final class PromiseCompletableFuture<V, E extends Exception> extends CompletableFuture<V>
+            implements ResultHandler<V>, ExceptionHandler<E>, RuntimeExceptionHandler {
+        private final Promise<V, E> promise;
+
+        private PromiseCompletableFuture(final Promise<V, E> promise) {
+            this.promise = promise;
+        }
+
+        @Override
+        public void handleResult(final V result) {
+            complete(result);
+        }
+
+        @Override
+        public void handleException(final E exception) {
+            completeExceptionally(exception);
+        }
+
+        @Override
+        public void handleRuntimeException(final RuntimeException exception) {
+            completeExceptionally(exception);
+        }
+
+        @Override
+        public boolean cancel(final boolean mayInterruptIfRunning) {
+            promise.cancel(mayInterruptIfRunning);
+            return super.cancel(mayInterruptIfRunning);
+        }
+    }
+
+    /** A {@link Promise} completed by the {@link CompletionStage} it is registered on. */
+    private static final class CompletionStagePromise<V> extends PromiseImpl<V, ExecutionException>
+            implements BiConsumer<V, Throwable> {
+
+        @Override
+        public void accept(final V result, final Throwable failure) {
+            if (failure == null) {
+                handleResult(result);
+                return;
+            }
+            final Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause()
+                    : failure;
+            if (cause instanceof RuntimeException) {
+                handleRuntimeException((RuntimeException) cause);
+            } else {
+                handleException(new ExecutionException(cause));
+            }
+        }
+    }
+
+    /**
+     * Returns an asynchronous function executing the given function on the given executor. Failures of the function,
+     * including rejections by the executor, complete the promise it returns.
+     */
+    @SuppressWarnings("unchecked")
+    static <VIN, VOUT, EOUT extends Exception> AsyncFunction<VIN, VOUT, EOUT> onExecutor(final Executor executor,
+            final AsyncFunction<? super VIN, VOUT, EOUT> function) {
+        return new AsyncFunction<VIN, VOUT, EOUT>() {
+            @Override
+            public Promise<VOUT, EOUT> apply(final VIN value) {
+                final PromiseImpl<VOUT, EOUT> promise = PromiseImpl.create();
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            function.apply(value)
+                                    .thenOnResult(promise)
+                                    .thenOnException(promise)
+                                    .thenOnRuntimeException(promise);
+                        } catch (final RuntimeException e) {
+                            promise.handleRuntimeException(e);
+                        } catch (final Exception e) {
+                            promise.handleException((EOUT) e);
+                        }
+                    }
+                });
+                return promise;
+            }
+        };
+    }
+
+    /** Returns an asynchronous function returning the result of the given function as a completed promise. */
+    static <VIN, VOUT, EOUT extends Exception> AsyncFunction<VIN, VOUT, EOUT> asyncFunction(
+            final Function<? super VIN, VOUT, EOUT> function) {
+        return new AsyncFunction<VIN, VOUT, EOUT>() {
+            @Override
+            public Promise<VOUT, EOUT> apply(final VIN value) throws EOUT {
+                return newResultPromise(function.apply(value));
+            }
+        };
+    }
+
     @SuppressWarnings("unchecked")
     static <VOUT, E extends Exception> AsyncFunction<E, VOUT, E> exceptionIdempotentAsyncFunction() {
         return (AsyncFunction<E, VOUT, E>) EXCEPTION_IDEM_ASYNC_FUNC;
@@ -0,0 +1,473 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.util.query;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.forgerock.json.JsonValue;
+
+/**
+ * A {@link QueryFilter} over {@link org.forgerock.json.JsonPointer} fields which has been compiled, using
+ * {@link QueryFilters#compile(QueryFilter)}, into a tree of evaluators that can be matched repeatedly against
+ * JSON values without visiting the original filter.
+ * <p>
+ * Matching rules are those of the in-memory CREST backend, unless the filter was compiled using
+ * {@link QueryFilters#compileTwoValued(QueryFilter)}:
+ * <ul>
+ *     <li>a comparison matches if any of the values of the field (the elements of a list, or the value itself)
+ *     is of the same kind as the value assertion (string, number or boolean) and compares accordingly;</li>
+ *     <li>strings are compared ignoring case, {@code co} and {@code sw} assertions on numbers and booleans
+ *     fall back to equality;</li>
+ *     <li>extended match filters are not supported and evaluate to <i>undefined</i>, which does not match.</li>
+ * </ul>
+ * Instances are immutable and may be shared between threads.
+ */
+public final class CompiledQueryFilter {
+
+    /** Evaluation results, ordered as for the and/or combination rules. */
+    static final int FALSE = 0;
+    static final int TRUE = 1;
+    static final int UNDEFINED = 2;
+
+    /** Ordering operators, applied to the comparison of the value assertion with a value of the field. */
+    static final int EQUAL = 0;
+    static final int GREATER = 1;
+    static final int GREATER_OR_EQUAL = 2;
+    static final int LESS = 3;
+    static final int LESS_OR_EQUAL = 4;
+
+    /** Marker returned when a field does not exist, as opposed to a field containing {@code null}. */
+    private static final Object MISSING = new Object();
+
+    private final Node root;
+
+    CompiledQueryFilter(final Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Returns {@code true} if the provided JSON value matches this filter.
+     *
+     * @param value
+     *            The JSON value to be matched.
+     * @return {@code true} if the provided JSON value matches this filter.
+     */
+    public boolean matches(final JsonValue value) {
+        return root.evaluate(value.getObject()) == TRUE;
+    }
+
+    /**
+     * Returns {@code true} if this filter matches any JSON value, for instance because it was compiled from
+     * {@link QueryFilter#alwaysTrue()}, or from a filter which reduces to it.
+     *
+     * @return {@code true} if this filter matches any JSON value.
+     */
+    public boolean isAlwaysTrue() {
+        return root.isConstant() && root.evaluate(null) == TRUE;
+    }
+
+    /**
+     * Returns {@code true} if this filter does not match any JSON value, for instance because it was compiled
+     * from {@link QueryFilter#alwaysFalse()}, or from a filter which reduces to it.
+     *
+     * @return {@code true} if this filter does not match any JSON value.
+     */
+    public boolean isAlwaysFalse() {
+        return root.isConstant() && root.evaluate(null) != TRUE;
+    }
+
+    /**
+     * Returns {@code true} if the result of comparing the value assertion with a value satisfies an operator.
+     *
+     * @param operator One of the ordering operators.
+     * @param comparison The result of comparing the value assertion with the value.
+     * @return {@code true} if the operator is satisfied.
+     */
+    private static boolean satisfies(final int operator, final int comparison) {
+        switch (operator) {
+        case EQUAL:
+            return comparison == 0;
+        case GREATER:
+            return comparison < 0;
+        case GREATER_OR_EQUAL:
+            return comparison <= 0;
+        case LESS:
+            return comparison > 0;
+        default: // LESS_OR_EQUAL
+            return comparison >= 0;
+        }
+    }
+
+    /** A node of the compiled filter tree. */
+    abstract static class Node {
+
+        /**
+         * Evaluates this node against a raw JSON object.
+         *
+         * @param json The raw JSON object (map, list, string, number, boolean or {@code null}).
+         * @return One of {@link #FALSE}, {@link #TRUE} or {@link #UNDEFINED}.
+         */
+        abstract int evaluate(Object json);
+
+        boolean isConstant() {
+            return false;
+        }
+
+        boolean mayBeUndefined() {
+            return false;
+        }
+    }
+
+    /** A node whose result does not depend on the evaluated value. */
+    static final class Constant extends Node {
+        static final Constant FALSE_NODE = new Constant(FALSE);
+        static final Constant TRUE_NODE = new Constant(TRUE);
+        static final Constant UNDEFINED_NODE = new Constant(UNDEFINED);
+
+        static Constant valueOf(final int result) {
+            switch (result) {
+            case FALSE:
+                return FALSE_NODE;
+            case TRUE:
+                return TRUE_NODE;
+            default:
+                return UNDEFINED_NODE;
+            }
+        }
+
+        private final int result;
+
+        private Constant(final int result) {
+            this.result = result;
+        }
+
+        int result() {
+            return result;
+        }
+
+        @Override
+        int evaluate(final Object json) {
+            return result;
+        }
+
+        @Override
+        boolean isConstant() {
+            return true;
+        }
+
+        @Override
+        boolean mayBeUndefined() {
+            return result == UNDEFINED;
+        }
+    }
+
+    /** Yields {@code FALSE} if any sub-filter is {@code FALSE}, {@code TRUE} otherwise. */
+    static final class And extends Node {
+        private final Node[] subFilters;
+
+        And(final Node[] subFilters) {
+            this.subFilters = subFilters;
+        }
+
+        @Override
+        int evaluate(final Object json) {
+            for (final Node subFilter : subFilters) {
+                if (subFilter.evaluate(json) == FALSE) {
+                    return FALSE;
+                }
+            }
+            return TRUE;
+        }
+    }
+
+    /**
+     * Yields the greatest result of the sub-filters evaluated in order, stopping as soon as the result is
+     * {@code TRUE}: an undefined sub-filter makes the whole filter undefined unless an earlier sub-filter matched.
+     */
+    static final class Or extends Node {
+        private final Node[] subFilters;
+        private final boolean mayBeUndefined;
+
+        Or(final Node[] subFilters) {
+            this.subFilters = subFilters;
+            boolean undefined = false;
+            for (final Node subFilter : subFilters) {
+                undefined |= subFilter.mayBeUndefined();
+            }
+            this.mayBeUndefined = undefined;
+        }
+
+        @Override
+        int evaluate(final Object json) {
+            for (final Node subFilter : subFilters) {
+                final int result = subFilter.evaluate(json);
+                if (result != FALSE) {
+                    // Once undefined, no later sub-filter can change the result.
+                    return result;
+                }
+            }
+            return FALSE;
+        }
+
+        @Override
+        boolean mayBeUndefined() {
+            return mayBeUndefined;
+        }
+    }
+
+    /** Inverts {@code TRUE} and {@code FALSE}, leaving {@code UNDEFINED} unchanged. */
+    static final class Not extends Node {
+        private final Node subFilter;
+
+        Not(final Node subFilter) {
+            this.subFilter = subFilter;
+        }
+
+        Node subFilter() {
+            return subFilter;
+        }
+
+        @Override
+        int evaluate(final Object json) {
+            final int result = subFilter.evaluate(json);
+            return result == UNDEFINED ? UNDEFINED : TRUE - result;
+        }
+
+        @Override
+        boolean mayBeUndefined() {
+            return subFilter.mayBeUndefined();
+        }
+    }
+
+    /** Base class of nodes testing a field, the pointer of which is resolved token by token. */
+    abstract static class FieldNode extends Node {
+        private final String[] tokens;
+        private final int[] indexes;
+
+        FieldNode(final String[] tokens) {
+            this.tokens = tokens;
+            this.indexes = new int[tokens.length];
+            for (int i = 0; i < tokens.length; i++) {
+                indexes[i] = JsonValue.toIndex(tokens[i]);
+            }
+        }
+
+        /**
+         * Resolves the field in the provided raw JSON object.
+         *
+         * @param json The raw JSON object.
+         * @return The value of the field, which may be {@code null}, or {@link #MISSING} if there is no such field.
+         */
+        final Object resolve(final Object json) {
+            Object current = json;
+            for (int i = 0; i < tokens.length; i++) {
+                if (current instanceof Map) {
+                    final Map<?, ?> map = (Map<?, ?>) current;
+                    final Object child = map.get(tokens[i]);
+                    if (child == null && !map.containsKey(tokens[i])) {
+                        return MISSING;
+                    }
+                    current = unwrap(child);
+                } else if (current instanceof List) {
+                    final List<?> list = (List<?>) current;
+                    final int index = indexes[i];
+                    if (index < 0 || index >= list.size()) {
+                        return MISSING;
+                    }
+                    current = unwrap(list.get(index));
+                } else {
+                    return MISSING;
+                }
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Returns the raw object of a JSON value nested in a raw JSON object, as
+     * {@link JsonValue#get(org.forgerock.json.JsonPointer)} does.
+     */
+    private static Object unwrap(final Object object) {
+        return object instanceof JsonValue ? ((JsonValue) object).getObject() : object;
+    }
+
+    /** Matches fields which exist, even if they are {@code null}. */
+    static final class Present extends FieldNode {
+        Present(final String[] tokens) {
+            super(tokens);
+        }
+
+        @Override
+        int evaluate(final Object json) {
+            return resolve(json) != MISSING ? TRUE : FALSE;
+        }
+    }
+
+    /**
+     * Matches fields having at least one value, of the same kind as the value assertion, which satisfies
+     * {@link #test(Object)}.
+     */
+    abstract static class Comparison extends FieldNode {
+        Comparison(final String[] tokens) {
+            super(tokens);
+        }
+
+        @Override
+        final int evaluate(final Object json) {
+            final Object value = resolve(json);
+            if (value instanceof List) {
+                for (final Object element : (List<?>) value) {
+                    if (test(element)) {
+                        return TRUE;
+                    }
+                }
+                return FALSE;
+            }
+            return value != MISSING && test(value) ? TRUE : FALSE;
+        }
+
+        /**
+         * Tests a single value of the field.
+         *
+         * @param value The value, which may be {@code null} or of any type.
+         * @return {@code true} if the value is compatible with the assertion and satisfies it.
+         */
+        abstract boolean test(Object value);
+    }
+
+    /**
+     * Matches fields all the values of which, if any, satisfy a comparison: this is how equality assertions are
+     * matched by the two-valued matching rules.
+     */
+    static final class EveryValue extends FieldNode {
+        /** The comparison, or {@code null} if no JSON value can be compatible with the value assertion. */
+        private final Comparison comparison;
+
+        EveryValue(final String[] tokens, final Comparison comparison) {
+            super(tokens);
+            this.comparison = comparison;
+        }
+
+        @Override
+        int evaluate(final Object json) {
+            final Object value = resolve(json);
+            if (value == MISSING) {
+                return TRUE;
+            } else if (value instanceof List) {
+                for (final Object element : (List<?>) value) {
+                    if (!test(element)) {
+                        return FALSE;
+                    }
+                }
+                return TRUE;
+            }
+            return test(value) ? TRUE : FALSE;
+        }
+
+        private boolean test(final Object value) {
+            return comparison != null && comparison.test(value);
+        }
+    }
+
+    /** Compares string values, ignoring case, with a string assertion. */
+    static final class StringComparison extends Comparison {
+        private final String assertion;
+        private final int operator;
+
+        StringComparison(final String[] tokens, final int operator, final String assertion) {
+            super(tokens);
+            this.operator = operator;
+            this.assertion = assertion;
+        }
+
+        @Override
+        boolean test(final Object value) {
+            if (!(value instanceof String)) {
+                return false;
+            }
+            final String s = (String) value;
+            if (operator == EQUAL && s.length() != assertion.length()) {
+                // Case insensitive comparison is performed char by char, so equal strings have equal lengths.
+                return false;
+            }
+            return satisfies(operator, assertion.compareToIgnoreCase(s));
+        }
+    }
+
+    /** Matches string values containing, or starting with, a string assertion, ignoring case. */
+    static final class Substring extends Comparison {
+        /** The assertion, lower-cased once at compile time. */
+        private final String assertion;
+        private final boolean startsWith;
+
+        Substring(final String[] tokens, final String assertion, final boolean startsWith) {
+            super(tokens);
+            this.assertion = assertion.toLowerCase(Locale.ENGLISH);
+            this.startsWith = startsWith;
+        }
+
+        @Override
+        boolean test(final Object value) {
+            if (!(value instanceof String)) {
+                return false;
+            }
+            final String s = ((String) value).toLowerCase(Locale.ENGLISH);
+            return startsWith ? s.startsWith(assertion) : s.contains(assertion);
+        }
+    }
+
+    /** Compares number values with a number assertion, as doubles. */
+    static final class NumberComparison extends Comparison {
+        private final double assertion;
+        private final int operator;
+
+        NumberComparison(final String[] tokens, final int operator, final Number assertion) {
+            super(tokens);
+            this.operator = operator;
+            this.assertion = assertion.doubleValue();
+        }
+
+        @Override
+        boolean test(final Object value) {
+            if (!(value instanceof Number)) {
+                return false;
+            }
+            return satisfies(operator, Double.compare(assertion, ((Number) value).doubleValue()));
+        }
+    }
+
+    /** Compares boolean values with a boolean assertion. */
+    static final class BooleanComparison extends Comparison {
+        private final boolean assertion;
+        private final int operator;
+
+        BooleanComparison(final String[] tokens, final int operator, final Boolean assertion) {
+            super(tokens);
+            this.operator = operator;
+            this.assertion = assertion;
+        }
+
+        @Override
+        boolean test(final Object value) {
+            if (!(value instanceof Boolean)) {
+                return false;
+            }
+            return satisfies(operator, Boolean.compare(assertion, (Boolean) value));
+        }
+    }
+}
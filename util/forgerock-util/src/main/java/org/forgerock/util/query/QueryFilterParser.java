@@ -22,6 +22,10 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.forgerock.util.Reject;
 
 /**
  * A query string has the following string representation:
@@ -61,6 +65,10 @@ import java.util.NoSuchElementException;
  * can be applied to multi-valued properties. When operating on properties that are an
  * array or list type the operation should be evaluated on each element in the array,
  * passing if any of the elements in the array or list pass the operation.
+ * <p>
+ * Parsers created with {@link #QueryFilterParser(int)} keep a bounded cache of the filters they have parsed, so
+ * that the same filter strings, typically issued over and over again by user interfaces, are only parsed once.
+ * This requires the field descriptions returned by {@link #parseField(String)} to be immutable.
  *
  * @param <F> The type of field description used in parsed {@link QueryFilter} objects.
  */
@@ -69,6 +77,42 @@ public abstract class QueryFilterParser<F> {
     // Maximum permitted query filter nesting depth.
     private static final int VALUE_OF_MAX_DEPTH = 256;
 
+    // Filter strings longer than this are not worth caching, and could be used to fill the cache.
+    private static final int MAX_CACHED_FILTER_LENGTH = 1024;
+
+    // Comparison operators, as identified by the tokenizer.
+    private static final int EXTENDED = 0;
+    private static final int EQUALS_OPERATOR = 1;
+    private static final int GREATER_THAN_OPERATOR = 2;
+    private static final int GREATER_EQUAL_OPERATOR = 3;
+    private static final int LESS_THAN_OPERATOR = 4;
+    private static final int LESS_EQUAL_OPERATOR = 5;
+    private static final int CONTAINS_OPERATOR = 6;
+    private static final int STARTS_WITH_OPERATOR = 7;
+
+    private final ConcurrentMap<String, QueryFilter<F>> cache;
+    private final int maxCacheSize;
+
+    /**
+     * Creates a parser which does not cache parsed filters.
+     */
+    protected QueryFilterParser() {
+        this(0);
+    }
+
+    /**
+     * Creates a parser which caches up to {@code maxCacheSize} parsed filters. Once the cache is full, an
+     * arbitrary entry is evicted for each newly parsed filter.
+     *
+     * @param maxCacheSize
+     *            The maximum number of parsed filters to cache, or {@code 0} to disable caching.
+     */
+    protected QueryFilterParser(final int maxCacheSize) {
+        Reject.ifTrue(maxCacheSize < 0, "The cache size must not be negative");
+        this.maxCacheSize = maxCacheSize;
+        this.cache = maxCacheSize > 0 ? new ConcurrentHashMap<String, QueryFilter<F>>(maxCacheSize) : null;
+    }
+
     /**
      * Parses the field description from the current filter token into the type of field
      * description the QueryFilter uses.
@@ -90,6 +134,25 @@ public abstract class QueryFilterParser<F> {
      *             query filter.
      */
     public QueryFilter<F> valueOf(final String string) {
+        if (cache == null || string.length() > MAX_CACHED_FILTER_LENGTH) {
+            return parse(string);
+        }
+        QueryFilter<F> filter = cache.get(string);
+        if (filter == null) {
+            filter = parse(string);
+            if (cache.size() >= maxCacheSize) {
+                final Iterator<String> victims = cache.keySet().iterator();
+                if (victims.hasNext()) {
+                    victims.next();
+                    victims.remove();
+                }
+            }
+            cache.put(string, filter);
+        }
+        return filter;
+    }
+
+    private QueryFilter<F> parse(final String string) {
         // Use recursive descent of grammar described in class Javadoc.
         final FilterTokenizer tokenizer = new FilterTokenizer(string);
         final QueryFilter<F> filter = valueOfOrExpr(tokenizer, 0);
@@ -112,8 +175,8 @@ public abstract class QueryFilterParser<F> {
         checkDepth(tokenizer, depth);
         QueryFilter<F> filter = valueOfNotExpr(tokenizer, depth + 1);
         List<QueryFilter<F>> subFilters = null;
-        while (tokenizer.hasNext() && tokenizer.peek().equalsIgnoreCase(AND)) {
-            tokenizer.next();
+        while (tokenizer.hasNext() && tokenizer.isNextIgnoreCase(AND)) {
+            tokenizer.skip();
             if (subFilters == null) {
                 subFilters = new LinkedList<>();
                 subFilters.add(filter);
@@ -132,8 +195,8 @@ public abstract class QueryFilterParser<F> {
 
     private QueryFilter<F> valueOfNotExpr(final FilterTokenizer tokenizer, final int depth) {
         checkDepth(tokenizer, depth);
-        if (tokenizer.hasNext() && tokenizer.peek().equalsIgnoreCase(NOT)) {
-            tokenizer.next();
+        if (tokenizer.hasNext() && tokenizer.isNextIgnoreCase(NOT)) {
+            tokenizer.skip();
             final QueryFilter<F> rhs = valueOfPrimaryExpr(tokenizer, depth + 1);
             return QueryFilter.not(rhs);
         } else {
@@ -145,8 +208,8 @@ public abstract class QueryFilterParser<F> {
         checkDepth(tokenizer, depth);
         QueryFilter<F> filter = valueOfAndExpr(tokenizer, depth + 1);
         List<QueryFilter<F>> subFilters = null;
-        while (tokenizer.hasNext() && tokenizer.peek().equalsIgnoreCase(OR)) {
-            tokenizer.next();
+        while (tokenizer.hasNext() && tokenizer.isNextIgnoreCase(OR)) {
+            tokenizer.skip();
             if (subFilters == null) {
                 subFilters = new LinkedList<>();
                 subFilters.add(filter);
@@ -164,66 +227,73 @@ public abstract class QueryFilterParser<F> {
         if (!tokenizer.hasNext()) {
             return valueOfIllegalArgument(tokenizer);
         }
-        String nextToken = tokenizer.next();
-        if (nextToken.equals("(")) {
+        if (tokenizer.isNext('(')) {
             // Nested expression.
+            tokenizer.skip();
             final QueryFilter<F> filter = valueOfOrExpr(tokenizer, depth + 1);
-            if (!tokenizer.hasNext() || !tokenizer.next().equals(")")) {
+            if (!tokenizer.hasNext() || !tokenizer.isNext(')')) {
                 return valueOfIllegalArgument(tokenizer);
             }
+            tokenizer.skip();
             return filter;
-        } else if (nextToken.equalsIgnoreCase(TRUE)) {
+        } else if (tokenizer.isNextIgnoreCase(TRUE)) {
+            tokenizer.skip();
             return QueryFilter.alwaysTrue();
-        } else if (nextToken.equalsIgnoreCase(FALSE)) {
+        } else if (tokenizer.isNextIgnoreCase(FALSE)) {
+            tokenizer.skip();
             return QueryFilter.alwaysFalse();
-        } else if (nextToken.equals("\"")) {
+        } else if (tokenizer.isNext('"')) {
             return valueOfIllegalArgument(tokenizer);
         } else {
             // Assertion.
-            final F pointer = parseField(nextToken);
+            final F pointer = parseField(tokenizer.next());
             if (!tokenizer.hasNext()) {
                 return valueOfIllegalArgument(tokenizer);
             }
-            final String operator = tokenizer.next();
-            if (operator.equalsIgnoreCase(PRESENT)) {
+            if (tokenizer.isNextIgnoreCase(PRESENT)) {
+                tokenizer.skip();
                 return QueryFilter.present(pointer);
             } else {
+                final int operator = tokenizer.operator();
+                final String extendedOperator = operator == EXTENDED ? tokenizer.next() : null;
+                if (operator != EXTENDED) {
+                    tokenizer.skip();
+                }
                 // Read assertion value: NUMBER | BOOLEAN | '"' UTF8STRING '"'
                 if (!tokenizer.hasNext()) {
                     return valueOfIllegalArgument(tokenizer);
                 }
                 final Object assertionValue;
-                nextToken = tokenizer.next();
-                if (nextToken.equals("\"")) {
-                    // UTF8STRING delimited by quotes
+                if (tokenizer.isNext('"') || tokenizer.isNext('\'')) {
+                    // UTF8STRING delimited by quotes or single quotes
+                    final char delimiter = tokenizer.isNext('"') ? '"' : '\'';
+                    tokenizer.skip();
                     if (!tokenizer.hasNext()) {
                         return valueOfIllegalArgument(tokenizer);
                     }
                     assertionValue = tokenizer.next();
-                    if (!tokenizer.hasNext() || !tokenizer.next().equals("\"")) {
+                    if (!tokenizer.hasNext() || !tokenizer.isNext(delimiter)) {
                         return valueOfIllegalArgument(tokenizer);
                     }
-                } else if (nextToken.equals("'")) {
-                    // UTF8STRING delimited by single quotes
-                    if (!tokenizer.hasNext()) {
-                        return valueOfIllegalArgument(tokenizer);
-                    }
-                    assertionValue = tokenizer.next();
-                    if (!tokenizer.hasNext() || !tokenizer.next().equals("'")) {
-                        return valueOfIllegalArgument(tokenizer);
-                    }
-                } else if (nextToken.equalsIgnoreCase(TRUE)
-                        || nextToken.equalsIgnoreCase(FALSE)) {
-                    assertionValue = Boolean.parseBoolean(nextToken);
-                } else if (nextToken.indexOf('.') >= 0) {
-                    // Floating point number.
-                    assertionValue = Double.parseDouble(nextToken);
+                    tokenizer.skip();
+                } else if (tokenizer.isNextIgnoreCase(TRUE)) {
+                    tokenizer.skip();
+                    assertionValue = Boolean.TRUE;
+                } else if (tokenizer.isNextIgnoreCase(FALSE)) {
+                    tokenizer.skip();
+                    assertionValue = Boolean.FALSE;
                 } else {
-                    // Must be an integer.
-                    assertionValue = Long.parseLong(nextToken);
+                    final String nextToken = tokenizer.next();
+                    if (nextToken.indexOf('.') >= 0) {
+                        // Floating point number.
+                        assertionValue = Double.parseDouble(nextToken);
+                    } else {
+                        // Must be an integer.
+                        assertionValue = Long.parseLong(nextToken);
+                    }
                 }
                 try {
-                    return comparisonFilter(pointer, operator, assertionValue);
+                    return comparisonFilter(pointer, operator, extendedOperator, assertionValue);
                 } catch (final IllegalArgumentException e) {
                     return valueOfIllegalArgument(tokenizer);
                 }
@@ -233,8 +303,8 @@ public abstract class QueryFilterParser<F> {
 
     /**
      * Creates a new generic comparison filter using the provided field name,
-     * operator, and value assertion. When the provided operator name represents
-     * a core operator, e.g. "eq", then this method is equivalent to calling the
+     * operator, and value assertion. When the provided operator is a core
+     * operator, e.g. "eq", then this method is equivalent to calling the
      * equivalent constructor, e.g. {@link QueryFilter#equalTo(Object, Object)}.
      * Otherwise, when the operator name does not correspond to a core operator,
      * an extended comparison filter will be returned.
@@ -242,48 +312,77 @@ public abstract class QueryFilterParser<F> {
      * @param field
      *            The name of field to be compared.
      * @param operator
-     *            The operator to use for the comparison, which must be one of
-     *            the core operator names, or a string matching the regular
+     *            The core operator to use for the comparison, or {@link #EXTENDED}.
+     * @param extendedOperator
+     *            The name of the extended operator, which must match the regular
      *            expression {@code [a-zA-Z_0-9.]+}.
      * @param valueAssertion
      *            The assertion value.
      * @return The newly created generic comparison filter.
      * @throws IllegalArgumentException
-     *             If {@code operator} is not a valid operator name.
+     *             If {@code extendedOperator} is not a valid operator name.
      */
-    private QueryFilter<F> comparisonFilter(final F field, final String operator, final Object valueAssertion) {
-        if (operator.equalsIgnoreCase(EQUALS)) {
+    private QueryFilter<F> comparisonFilter(final F field, final int operator, final String extendedOperator,
+            final Object valueAssertion) {
+        switch (operator) {
+        case EQUALS_OPERATOR:
             return QueryFilter.equalTo(field, valueAssertion);
-        } else if (operator.equalsIgnoreCase(GREATER_THAN)) {
+        case GREATER_THAN_OPERATOR:
             return QueryFilter.greaterThan(field, valueAssertion);
-        } else if (operator.equalsIgnoreCase(GREATER_EQUAL)) {
+        case GREATER_EQUAL_OPERATOR:
             return QueryFilter.greaterThanOrEqualTo(field, valueAssertion);
-        } else if (operator.equalsIgnoreCase(LESS_THAN)) {
+        case LESS_THAN_OPERATOR:
             return QueryFilter.lessThan(field, valueAssertion);
-        } else if (operator.equalsIgnoreCase(LESS_EQUAL)) {
+        case LESS_EQUAL_OPERATOR:
             return QueryFilter.lessThanOrEqualTo(field, valueAssertion);
-        } else if (operator.equalsIgnoreCase(CONTAINS)) {
+        case CONTAINS_OPERATOR:
             return QueryFilter.contains(field, valueAssertion);
-        } else if (operator.equalsIgnoreCase(STARTS_WITH)) {
+        case STARTS_WITH_OPERATOR:
             return QueryFilter.startsWith(field, valueAssertion);
-        } else if (operator.matches("[a-zA-Z_0-9.]+")) {
-            return QueryFilter.extendedMatch(field, operator, valueAssertion);
-        } else {
-            throw new IllegalArgumentException("\"" + operator + "\" is not a valid filter operator");
+        default:
+            if (isExtendedOperatorName(extendedOperator)) {
+                return QueryFilter.extendedMatch(field, extendedOperator, valueAssertion);
+            }
+            throw new IllegalArgumentException("\"" + extendedOperator + "\" is not a valid filter operator");
+        }
+    }
+
+    /** Equivalent to {@code name.matches("[a-zA-Z_0-9.]+")}, without compiling a pattern for each filter. */
+    private static boolean isExtendedOperatorName(final String name) {
+        if (name.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_'
+                    || c == '.')) {
+                return false;
+            }
         }
+        return true;
     }
 
-    private static final class FilterTokenizer implements Iterator<String> {
+    /**
+     * Splits a filter string into tokens. The current token is only described by its bounds in the filter
+     * string: keywords, operators and punctuation are matched in place, and only field names and values are
+     * copied out of the filter string.
+     */
+    private static final class FilterTokenizer {
         private static final int NEED_END_STRING = 2;
         private static final int NEED_START_STRING = 1;
         private static final int NEED_TOKEN = 0;
 
-        private String filterString;
-        private String nextToken;
+        private final String filterString;
         private int pos;
         private int state;
         private char stringDelimiter;
 
+        /** Bounds of the current token, {@code tokenStart} is negative once all tokens have been read. */
+        private int tokenStart;
+        private int tokenEnd;
+        /** The unescaped value of the current token, if it is a string containing escaped characters. */
+        private String unescapedToken;
+
         private FilterTokenizer(final String filterString) {
             this.filterString = filterString;
             this.pos = 0;
@@ -291,21 +390,63 @@ public abstract class QueryFilterParser<F> {
             readNextToken();
         }
 
-        @Override
-        public boolean hasNext() {
-            return nextToken != null;
+        private boolean hasNext() {
+            return tokenStart >= 0;
         }
 
-        @Override
-        public String next() {
-            final String next = peek();
+        /** Returns the current token, and moves to the next one. */
+        private String next() {
+            checkHasNext();
+            final String next = unescapedToken != null
+                    ? unescapedToken
+                    : filterString.substring(tokenStart, tokenEnd);
             readNextToken();
             return next;
         }
 
-        @Override
-        public void remove() {
-            throw new UnsupportedOperationException();
+        /** Moves to the next token. */
+        private void skip() {
+            checkHasNext();
+            readNextToken();
+        }
+
+        /** Returns {@code true} if the current token is the single character {@code c}. */
+        private boolean isNext(final char c) {
+            checkHasNext();
+            if (unescapedToken != null) {
+                return unescapedToken.length() == 1 && unescapedToken.charAt(0) == c;
+            }
+            return tokenEnd - tokenStart == 1 && filterString.charAt(tokenStart) == c;
+        }
+
+        /** Returns {@code true} if the current token is {@code keyword}, ignoring case. */
+        private boolean isNextIgnoreCase(final String keyword) {
+            checkHasNext();
+            if (unescapedToken != null) {
+                return unescapedToken.equalsIgnoreCase(keyword);
+            }
+            return tokenEnd - tokenStart == keyword.length()
+                    && filterString.regionMatches(true, tokenStart, keyword, 0, keyword.length());
+        }
+
+        /** Identifies the current token as one of the core comparison operators, or as {@code EXTENDED}. */
+        private int operator() {
+            if (isNextIgnoreCase(EQUALS)) {
+                return EQUALS_OPERATOR;
+            } else if (isNextIgnoreCase(GREATER_THAN)) {
+                return GREATER_THAN_OPERATOR;
+            } else if (isNextIgnoreCase(GREATER_EQUAL)) {
+                return GREATER_EQUAL_OPERATOR;
+            } else if (isNextIgnoreCase(LESS_THAN)) {
+                return LESS_THAN_OPERATOR;
+            } else if (isNextIgnoreCase(LESS_EQUAL)) {
+                return LESS_EQUAL_OPERATOR;
+            } else if (isNextIgnoreCase(CONTAINS)) {
+                return CONTAINS_OPERATOR;
+            } else if (isNextIgnoreCase(STARTS_WITH)) {
+                return STARTS_WITH_OPERATOR;
+            }
+            return EXTENDED;
         }
 
         @Override
@@ -313,43 +454,53 @@ public abstract class QueryFilterParser<F> {
             return filterString;
         }
 
-        private String peek() {
-            if (nextToken == null) {
+        private void checkHasNext() {
+            if (tokenStart < 0) {
                 throw new NoSuchElementException();
             }
-            return nextToken;
         }
 
         private void readNextToken() {
+            unescapedToken = null;
             switch (state) {
             case NEED_START_STRING:
                 final int stringStart = pos;
+                StringBuilder unescaped = null;
                 for (; pos < filterString.length() && filterString.charAt(pos) != stringDelimiter; pos++) {
                     if (filterString.charAt(pos) == '\\') {
                         if ((pos + 1) == filterString.length()) {
                             throw new IllegalArgumentException("The filter string cannot end with an escape character");
                         }
-                        // Found an escaped character, so remove the '\')
-                        filterString = new StringBuilder(filterString).deleteCharAt(pos).toString();
+                        // Found an escaped character, so remove the '\'
+                        if (unescaped == null) {
+                            unescaped = new StringBuilder(filterString.length() - stringStart);
+                            unescaped.append(filterString, stringStart, pos);
+                        }
+                        pos++;
+                    }
+                    if (unescaped != null) {
+                        unescaped.append(filterString.charAt(pos));
                     }
-                    // Do nothing
                 }
-                nextToken = filterString.substring(stringStart, pos);
+                setToken(stringStart, pos);
+                if (unescaped != null) {
+                    unescapedToken = unescaped.toString();
+                }
                 state = NEED_END_STRING;
                 break;
             case NEED_END_STRING:
                 // NEED_START_STRING guarantees that we are either at the end of the string
                 // or the next character is a quote.
                 if (pos < filterString.length()) {
-                    nextToken = filterString.substring(pos, ++pos);
+                    setToken(pos, ++pos);
                 } else {
-                    nextToken = null;
+                    setToken(-1, -1);
                 }
                 state = NEED_TOKEN;
                 break;
             default: // NEED_TOKEN:
                 if (!skipWhiteSpace()) {
-                    nextToken = null;
+                    setToken(-1, -1);
                 } else {
                     final int tokenStart = pos;
                     switch (filterString.charAt(pos++)) {
@@ -373,11 +524,16 @@ public abstract class QueryFilterParser<F> {
                         }
                         break;
                     }
-                    nextToken = filterString.substring(tokenStart, pos);
+                    setToken(tokenStart, pos);
                 }
             }
         }
 
+        private void setToken(final int start, final int end) {
+            tokenStart = start;
+            tokenEnd = end;
+        }
+
         private boolean skipWhiteSpace() {
             for (; pos < filterString.length() && filterString.charAt(pos) == ' '; pos++) {
                 // Do nothing
@@ -0,0 +1,243 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.util.query;
+
+import static org.forgerock.util.query.CompiledQueryFilter.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.forgerock.json.JsonPointer;
+import org.forgerock.util.Reject;
+import org.forgerock.util.query.CompiledQueryFilter.And;
+import org.forgerock.util.query.CompiledQueryFilter.BooleanComparison;
+import org.forgerock.util.query.CompiledQueryFilter.Comparison;
+import org.forgerock.util.query.CompiledQueryFilter.Constant;
+import org.forgerock.util.query.CompiledQueryFilter.EveryValue;
+import org.forgerock.util.query.CompiledQueryFilter.Node;
+import org.forgerock.util.query.CompiledQueryFilter.Not;
+import org.forgerock.util.query.CompiledQueryFilter.NumberComparison;
+import org.forgerock.util.query.CompiledQueryFilter.Or;
+import org.forgerock.util.query.CompiledQueryFilter.Present;
+import org.forgerock.util.query.CompiledQueryFilter.StringComparison;
+import org.forgerock.util.query.CompiledQueryFilter.Substring;
+
+/**
+ * Utility methods for evaluating {@link QueryFilter}s over {@link JsonPointer} fields.
+ */
+public final class QueryFilters {
+
+    /**
+     * Compiles the provided filter once into a {@link CompiledQueryFilter} which can then be matched against
+     * many JSON values, typically every record scanned by a query, far more cheaply than visiting the filter
+     * for each of them.
+     * <p>
+     * JSON pointers are split into tokens, and string assertions normalized, at compile time. Sub-filters
+     * whose result does not depend on the matched value, such as boolean literals, comparisons with an
+     * assertion which no JSON value can be compatible with and extended matches, are folded into their parents.
+     *
+     * @param filter
+     *            The filter to be compiled.
+     * @return The compiled filter.
+     */
+    public static CompiledQueryFilter compile(final QueryFilter<JsonPointer> filter) {
+        Reject.ifNull(filter);
+        return new CompiledQueryFilter(filter.accept(COMPILER, null));
+    }
+
+    /**
+     * Compiles the provided filter, as {@link #compile(QueryFilter)} does, into a {@link CompiledQueryFilter}
+     * which uses two-valued matching rules instead of those of the in-memory CREST backend:
+     * <ul>
+     *     <li>extended match filters are not supported and evaluate to <i>false</i> rather than <i>undefined</i>,
+     *     so that, as any other filter evaluating to <i>false</i>, they match once negated;</li>
+     *     <li>an equality assertion matches if every value of the field (the elements of a list, or the value
+     *     itself) is of the same kind as the value assertion and equal to it, which includes a missing field and
+     *     an empty list.</li>
+     * </ul>
+     * The other rules are unchanged.
+     *
+     * @param filter
+     *            The filter to be compiled.
+     * @return The compiled filter.
+     */
+    public static CompiledQueryFilter compileTwoValued(final QueryFilter<JsonPointer> filter) {
+        Reject.ifNull(filter);
+        return new CompiledQueryFilter(filter.accept(TWO_VALUED_COMPILER, null));
+    }
+
+    private static final QueryFilterVisitor<Node, Void, JsonPointer> COMPILER = new Compiler(false);
+
+    private static final QueryFilterVisitor<Node, Void, JsonPointer> TWO_VALUED_COMPILER = new Compiler(true);
+
+    /** Compiles filters into trees of evaluators, following either matching rules. */
+    private static final class Compiler implements QueryFilterVisitor<Node, Void, JsonPointer> {
+
+        /** Whether the two-valued matching rules are followed, rather than those of the in-memory backend. */
+        private final boolean twoValued;
+
+        private Compiler(final boolean twoValued) {
+            this.twoValued = twoValued;
+        }
+
+        @Override
+        public Node visitAndFilter(final Void p, final List<QueryFilter<JsonPointer>> subFilters) {
+            final List<Node> nodes = new ArrayList<>(subFilters.size());
+            boolean mayBeUndefined = false;
+            for (final QueryFilter<JsonPointer> subFilter : subFilters) {
+                final Node node = subFilter.accept(this, p);
+                if (node.isConstant()) {
+                    if (((Constant) node).result() == FALSE) {
+                        return Constant.FALSE_NODE;
+                    }
+                    // Both true and undefined sub-filters leave the result unchanged.
+                    continue;
+                }
+                mayBeUndefined |= node.mayBeUndefined();
+                nodes.add(node);
+            }
+            if (nodes.isEmpty()) {
+                return Constant.TRUE_NODE;
+            } else if (nodes.size() == 1 && !mayBeUndefined) {
+                return nodes.get(0);
+            }
+            return new And(nodes.toArray(new Node[nodes.size()]));
+        }
+
+        @Override
+        public Node visitBooleanLiteralFilter(final Void p, final boolean value) {
+            return value ? Constant.TRUE_NODE : Constant.FALSE_NODE;
+        }
+
+        @Override
+        public Node visitContainsFilter(final Void p, final JsonPointer field, final Object valueAssertion) {
+            if (valueAssertion instanceof String) {
+                return new Substring(field.toArray(), (String) valueAssertion, false);
+            }
+            // Use equality matching for numbers and booleans.
+            return comparison(field, EQUAL, valueAssertion);
+        }
+
+        @Override
+        public Node visitEqualsFilter(final Void p, final JsonPointer field, final Object valueAssertion) {
+            if (twoValued) {
+                final Node node = comparison(field, EQUAL, valueAssertion);
+                // No value of the field is equal to an assertion which no JSON value can be compatible with.
+                return new EveryValue(field.toArray(), node.isConstant() ? null : (Comparison) node);
+            }
+            return comparison(field, EQUAL, valueAssertion);
+        }
+
+        @Override
+        public Node visitExtendedMatchFilter(final Void p, final JsonPointer field, final String operator,
+                final Object valueAssertion) {
+            // Extended filters are not supported.
+            return twoValued ? Constant.FALSE_NODE : Constant.UNDEFINED_NODE;
+        }
+
+        @Override
+        public Node visitGreaterThanFilter(final Void p, final JsonPointer field, final Object valueAssertion) {
+            return comparison(field, GREATER, valueAssertion);
+        }
+
+        @Override
+        public Node visitGreaterThanOrEqualToFilter(final Void p, final JsonPointer field,
+                final Object valueAssertion) {
+            return comparison(field, GREATER_OR_EQUAL, valueAssertion);
+        }
+
+        @Override
+        public Node visitLessThanFilter(final Void p, final JsonPointer field, final Object valueAssertion) {
+            return comparison(field, LESS, valueAssertion);
+        }
+
+        @Override
+        public Node visitLessThanOrEqualToFilter(final Void p, final JsonPointer field,
+                final Object valueAssertion) {
+            return comparison(field, LESS_OR_EQUAL, valueAssertion);
+        }
+
+        @Override
+        public Node visitNotFilter(final Void p, final QueryFilter<JsonPointer> subFilter) {
+            final Node node = subFilter.accept(this, p);
+            if (node.isConstant()) {
+                final int result = ((Constant) node).result();
+                return Constant.valueOf(result == UNDEFINED ? UNDEFINED : TRUE - result);
+            } else if (node instanceof Not) {
+                return ((Not) node).subFilter();
+            }
+            return new Not(node);
+        }
+
+        @Override
+        public Node visitOrFilter(final Void p, final List<QueryFilter<JsonPointer>> subFilters) {
+            final List<Node> nodes = new ArrayList<>(subFilters.size());
+            boolean mayBeUndefined = false;
+            for (final QueryFilter<JsonPointer> subFilter : subFilters) {
+                final Node node = subFilter.accept(this, p);
+                if (node.isConstant()) {
+                    final int result = ((Constant) node).result();
+                    if (result == FALSE) {
+                        continue;
+                    } else if (result == TRUE && !mayBeUndefined) {
+                        return Constant.TRUE_NODE;
+                    }
+                    // Later sub-filters are never evaluated once the result is true or undefined.
+                    nodes.add(node);
+                    break;
+                }
+                mayBeUndefined |= node.mayBeUndefined();
+                nodes.add(node);
+            }
+            if (nodes.isEmpty()) {
+                return Constant.FALSE_NODE;
+            } else if (nodes.size() == 1) {
+                return nodes.get(0);
+            }
+            return new Or(nodes.toArray(new Node[nodes.size()]));
+        }
+
+        @Override
+        public Node visitPresentFilter(final Void p, final JsonPointer field) {
+            return new Present(field.toArray());
+        }
+
+        @Override
+        public Node visitStartsWithFilter(final Void p, final JsonPointer field, final Object valueAssertion) {
+            if (valueAssertion instanceof String) {
+                return new Substring(field.toArray(), (String) valueAssertion, true);
+            }
+            // Use equality matching for numbers and booleans.
+            return comparison(field, EQUAL, valueAssertion);
+        }
+
+        private Node comparison(final JsonPointer field, final int operator, final Object valueAssertion) {
+            if (valueAssertion instanceof String) {
+                return new StringComparison(field.toArray(), operator, (String) valueAssertion);
+            } else if (valueAssertion instanceof Number) {
+                return new NumberComparison(field.toArray(), operator, (Number) valueAssertion);
+            } else if (valueAssertion instanceof Boolean) {
+                return new BooleanComparison(field.toArray(), operator, (Boolean) valueAssertion);
+            }
+            // No JSON value can be compatible with the assertion.
+            return Constant.FALSE_NODE;
+        }
+    }
+
+    private QueryFilters() {
+        // Prevent instantiation.
+    }
+}
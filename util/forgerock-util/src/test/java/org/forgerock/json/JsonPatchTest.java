@@ -262,6 +262,81 @@ public class JsonPatchTest {
         assertThat(JsonPatch.isEqual(v1, v2)).isTrue();
     }
 
+    @Test
+    public void listDiffInsertionAtHead() {
+        v1 = json(array());
+        for (int i = 0; i < 1000; i++) {
+            v1.add("item" + i);
+        }
+        v2 = v1.copy();
+        v2.add(0, "first");
+        diff = JsonPatch.diff(v1, v2);
+        assertThat(diff.size()).isEqualTo(1);
+        assertThat(diff.get(0).get("op").asString()).isEqualTo("add");
+        assertThat(diff.get(0).get("path").asString()).isEqualTo("/0");
+
+        JsonPatch.patch(v1, diff);
+        assertThat(JsonPatch.isEqual(v1, v2)).isTrue();
+    }
+
+    @Test
+    public void listDiffInsertionsAndRemovals() {
+        v1 = json(object(field("a", array("a", "b", "c", "d", "e", "f"))));
+        v2 = json(object(field("a", array("x", "b", "c", "e", "y", "f", "z"))));
+        diff = JsonPatch.diff(v1, v2);
+        // replace a with x, remove d, add y, add z
+        assertThat(diff.size()).isEqualTo(4);
+
+        JsonPatch.patch(v1, diff);
+        assertThat(JsonPatch.isEqual(v1, v2)).isTrue();
+    }
+
+    @Test
+    public void listDiffComparesReplacedElements() {
+        v1 = json(array(object(field("id", 1), field("name", "a")), object(field("id", 2), field("name", "b"))));
+        v2 = json(array(object(field("id", 1), field("name", "a")), object(field("id", 2), field("name", "c"))));
+        diff = JsonPatch.diff(v1, v2);
+        assertThat(diff.size()).isEqualTo(1);
+        assertThat(diff.get(0).get("path").asString()).isEqualTo("/1/name");
+
+        JsonPatch.patch(v1, diff);
+        assertThat(JsonPatch.isEqual(v1, v2)).isTrue();
+    }
+
+    @Test
+    public void listDiffReplacesListBeyondMaxEditDistance() {
+        v1 = json(array("a", "b", "c"));
+        v2 = json(array("x", "a", "b", "c", "y"));
+        diff = JsonPatch.diff(v1, v2, 1);
+        assertThat(diff.size()).isEqualTo(1);
+        assertThat(diff.get(0).get("op").asString()).isEqualTo("replace");
+        assertThat(diff.get(0).get("path").asString()).isEqualTo("/");
+        assertThat(JsonPatch.diff(v1, v2, 2).size()).isEqualTo(2);
+
+        JsonPatch.patch(v1, diff);
+        assertThat(JsonPatch.isEqual(v1, v2)).isTrue();
+    }
+
+    @Test
+    public void testOperationSucceeds() {
+        v1 = json(object(field("a", array(1, object(field("b", "c"))))));
+        diff = json(array(object(
+                field("op", "test"),
+                field("path", "/a"),
+                field("value", array(1, object(field("b", "c")))))));
+        JsonPatch.patch(v1, diff);
+    }
+
+    @Test(expectedExceptions = JsonValueException.class)
+    public void testOperationFails() {
+        v1 = json(object(field("a", array(1, object(field("b", "c"))))));
+        diff = json(array(object(
+                field("op", "test"),
+                field("path", "/a"),
+                field("value", array(1, object(field("b", "d")))))));
+        JsonPatch.patch(v1, diff);
+    }
+
     @Test
     public void differentTypesNotEqual() {
         v1 = json(array("a", "b", "c"));
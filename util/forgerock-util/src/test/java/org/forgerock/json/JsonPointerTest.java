@@ -191,6 +191,65 @@ public class JsonPointerTest {
         assertThat(p.toString()).isEqualTo(pointer.replace("%2f", "%2F"));
     }
 
+    @Test
+    public void childAndParentShareAncestors() {
+        JsonPointer p = new JsonPointer("/a/b");
+        JsonPointer child = p.child("c");
+        assertThat((Object) child.parent()).isSameAs(p);
+        assertThat((Object) child).isEqualTo(new JsonPointer("/a/b/c"));
+        assertThat(child.hashCode()).isEqualTo(new JsonPointer("a", "b", "c").hashCode());
+        assertThat(child.toString()).isEqualTo("/a/b/c");
+        assertThat(child.toArray()).containsExactly("a", "b", "c");
+    }
+
+    @Test
+    public void childOfRootHasEmptyParent() {
+        JsonPointer p = new JsonPointer().child("a");
+        assertThat(p.parent().isEmpty()).isTrue();
+        assertThat((Object) p).isEqualTo(new JsonPointer("/a"));
+    }
+
+    @Test
+    public void toStringIsCached() {
+        JsonPointer p = new JsonPointer("/a/b");
+        assertThat(p.toString()).isSameAs(p.toString());
+    }
+
+    @Test
+    public void toArrayReturnsCopy() {
+        JsonPointer p = new JsonPointer("/a/b");
+        p.toArray()[0] = "x";
+        assertThat(p.get(0)).isEqualTo("a");
+    }
+
+    @Test
+    public void internReturnsCanonicalInstance() {
+        JsonPointer p = new JsonPointer("/interned/pointer").intern();
+        assertThat((Object) new JsonPointer("/interned/pointer").intern()).isSameAs(p);
+        assertThat((Object) new JsonPointer("interned", "pointer").intern()).isSameAs(p);
+    }
+
+    @DataProvider(name = "parsedJsonPointers")
+    public Object[][] getParsedJsonPointers() {
+        return new Object[][] {
+            { "", new String[0] },
+            { "/", new String[0] },
+            { "//", new String[] { "" } },
+            { "/a/", new String[] { "a" } },
+            { "a/b", new String[] { "a", "b" } },
+            { "/a//b", new String[] { "a", "", "b" } },
+            { "/a%2Fb/c%20d", new String[] { "a/b", "c d" } },
+            { "/%C3%A9/~", new String[] { "\u00e9", "~" } },
+        };
+    }
+
+    @Test(dataProvider = "parsedJsonPointers")
+    public void parse(final String pointer, final String[] tokens) {
+        JsonPointer p = new JsonPointer(pointer);
+        assertThat(p.toArray()).containsExactly(tokens);
+        assertThat((Object) p).isEqualTo(new JsonPointer(tokens));
+    }
+
     // ----- exception unit tests ----------
 
     @Test(expectedExceptions = JsonException.class)
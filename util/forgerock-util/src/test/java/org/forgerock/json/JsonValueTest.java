@@ -728,6 +728,124 @@ public class JsonValueTest {
         json(new LocalizableString("fred")).isEqualTo(json("fred"));
     }
 
+    @Test
+    public void shouldComputeChildPointersOnDemand() {
+        final JsonValue value = json(object(field("a", array(1, object(field("b", "x"))))));
+        assertThat(value.get("a").get(1).get("b").getPointer()).isEqualTo(ptr("/a/1/b"));
+        assertThat(value.get(ptr("/a/1")).get("b").getPointer()).isEqualTo(ptr("/a/1/b"));
+        assertThat(value.get("a").clone().getPointer()).isEqualTo(ptr("/a"));
+        assertThat(value.get("a").copy().getPointer()).isEqualTo(ptr("/a"));
+        assertThat(value.get("missing").defaultTo("y").getPointer()).isEqualTo(ptr("/missing"));
+        assertThat(new JsonValue(value.get("a")).getPointer()).isEqualTo(ptr("/a"));
+        assertThat(value.getPointer().isEmpty()).isTrue();
+    }
+
+    @Test
+    public void shouldReturnItemValuesDirectly() {
+        final JsonValue value = json(object(field("s", "str"), field("n", 3.5), field("b", true),
+                field("l", array(1L, 2L)), field("v", json("wrapped"))));
+        assertThat(value.getString("s")).isEqualTo("str");
+        assertThat(value.getNumber("n")).isEqualTo(3.5);
+        assertThat(value.getDouble("n")).isEqualTo(3.5);
+        assertThat(value.getInteger("n")).isEqualTo(3);
+        assertThat(value.getLong("n")).isEqualTo(3L);
+        assertThat(value.getBoolean("b")).isTrue();
+        assertThat(value.getString("missing")).isNull();
+        assertThat(value.getObject("l")).isEqualTo(Arrays.asList(1L, 2L));
+        assertThat(value.getObject("v")).isEqualTo("wrapped");
+        assertThat(value.get("l").getLong("1")).isEqualTo(2L);
+        assertThat(value.get("l").getLong("2")).isNull();
+    }
+
+    @Test
+    public void shouldReportPointerOfItemValueWithUnexpectedType() {
+        try {
+            json(object(field("a", object(field("n", 1))))).get("a").getString("n");
+            failBecauseExceptionWasNotThrown(JsonValueException.class);
+        } catch (JsonValueException e) {
+            assertThat(e.getJsonValue().getPointer()).isEqualTo(ptr("/a/n"));
+        }
+    }
+
+    @Test
+    public void shouldTraverseMapWithCursor() {
+        final JsonValue value = json(object(field("m", object(field("a", 1), field("b", null)))));
+        assertThat(value.get("missing").cursor().next()).isFalse();
+
+        final JsonCursor mapCursor = value.get("m").cursor();
+        assertThat(mapCursor.next()).isTrue();
+        assertThat(mapCursor.getIndex()).isEqualTo(0);
+        assertThat(mapCursor.getKey()).isEqualTo("a");
+        assertThat(mapCursor.getObject()).isEqualTo(1);
+        assertThat(mapCursor.getPointer()).isEqualTo(ptr("/m/a"));
+        assertThat(mapCursor.getValue().getPointer()).isEqualTo(ptr("/m/a"));
+        assertThat(mapCursor.next()).isTrue();
+        assertThat(mapCursor.getKey()).isEqualTo("b");
+        assertThat(mapCursor.getObject()).isNull();
+        assertThat(mapCursor.next()).isFalse();
+    }
+
+    @Test
+    public void shouldTraverseListWithCursor() {
+        final JsonCursor cursor = json(array("x", "y")).cursor();
+        assertThat(cursor.next()).isTrue();
+        assertThat(cursor.getKey()).isEqualTo("0");
+        assertThat(cursor.getObject()).isEqualTo("x");
+        assertThat(cursor.next()).isTrue();
+        assertThat(cursor.getIndex()).isEqualTo(1);
+        assertThat(cursor.getPointer()).isEqualTo(ptr("/1"));
+        assertThat(cursor.getValue().asString()).isEqualTo("y");
+        assertThat(cursor.next()).isFalse();
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void shouldNotReadCursorBeforeNext() {
+        json(array("x")).cursor().getObject();
+    }
+
+    @Test
+    public void shouldTakeImmutableSnapshot() {
+        final JsonValue value = json(object(field("a", object(field("b", array(1, 2)))), field("c", "x")));
+        final JsonValue snapshot = value.snapshot();
+        value.get("a").get("b").add(3);
+        value.put("c", "y");
+
+        assertThat(snapshot.getObject()).isEqualTo(object(field("a", object(field("b", array(1, 2)))),
+                field("c", "x")));
+        try {
+            snapshot.put("c", "z");
+            failBecauseExceptionWasNotThrown(UnsupportedOperationException.class);
+        } catch (UnsupportedOperationException e) {
+            // Expected.
+        }
+        try {
+            snapshot.get("a").get("b").add(4);
+            failBecauseExceptionWasNotThrown(UnsupportedOperationException.class);
+        } catch (UnsupportedOperationException e) {
+            // Expected.
+        }
+        assertThat(snapshot.snapshot().getObject()).isSameAs(snapshot.getObject());
+    }
+
+    @Test
+    public void shouldCopySnapshotOnWrite() {
+        final JsonValue snapshot = json(object(field("a", object(field("b", array(1, 2)))),
+                field("c", object(field("d", "x"))))).snapshot();
+        final JsonValue copy = snapshot.copy();
+        copy.get("a").get("b").add(3);
+        copy.remove("c");
+
+        assertThat(copy.getObject()).isEqualTo(object(field("a", object(field("b", array(1, 2, 3))))));
+        assertThat(snapshot.getObject()).isEqualTo(object(field("a", object(field("b", array(1, 2)))),
+                field("c", object(field("d", "x")))));
+
+        // Parts of the copy which have not been modified are shared by the new snapshot.
+        final JsonValue other = snapshot.copy();
+        other.put("e", "y");
+        assertThat(other.snapshot().get("c").getObject()).isSameAs(snapshot.get("c").getObject());
+        assertThat(other.snapshot().get("a").getObject()).isSameAs(snapshot.get("a").getObject());
+    }
+
     private JsonPointer ptr(final String pointer) {
         return new JsonPointer(pointer);
     }
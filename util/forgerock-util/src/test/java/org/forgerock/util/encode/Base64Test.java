@@ -0,0 +1,125 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.util.encode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("javadoc")
+public class Base64Test {
+
+    @DataProvider
+    private Object[][] contents() {
+        final Random random = new Random(42);
+        final Object[][] contents = new Object[64][];
+        for (int i = 0; i < contents.length; i++) {
+            final byte[] content = new byte[i * 7];
+            random.nextBytes(content);
+            contents[i] = new Object[] { content };
+        }
+        return contents;
+    }
+
+    @Test(dataProvider = "contents")
+    public void shouldEncodeIntoArraysLikeEncodeToByte(final byte[] content) {
+        final byte[] bytes = new byte[Base64.encodedLength(content.length) + 1];
+        final int length = Base64.encode(content, 0, content.length, bytes, 1);
+        assertThat(Arrays.copyOfRange(bytes, 1, length + 1)).isEqualTo(Base64.encodeToByte(content, false));
+
+        final char[] chars = new char[Base64.encodedLength(content.length)];
+        assertThat(Base64.encode(content, 0, content.length, chars, 0)).isEqualTo(chars.length);
+        assertThat(chars).isEqualTo(Base64.encodeToChar(content, false));
+    }
+
+    @Test(dataProvider = "contents")
+    public void shouldDecodeContentWithLineSeparators(final byte[] content) {
+        final String encoded = Base64.encode(content, true);
+        final byte[] decoded = new byte[Base64.maxDecodedLength(encoded.length())];
+
+        assertThat(Arrays.copyOf(decoded, Base64.decode(encoded, 0, encoded.length(), decoded, 0)))
+                .isEqualTo(content);
+        assertThat(Arrays.copyOf(decoded, Base64.decode(encoded.toCharArray(), 0, encoded.length(), decoded, 0)))
+                .isEqualTo(content);
+        final byte[] bytes = encoded.getBytes(StandardCharsets.US_ASCII);
+        assertThat(Arrays.copyOf(decoded, Base64.decode(bytes, 0, bytes.length, decoded, 0))).isEqualTo(content);
+    }
+
+    @Test(dataProvider = "contents")
+    public void shouldEncodeAndDecodeBuffers(final byte[] content) {
+        final ByteBuffer encoded = ByteBuffer.allocateDirect(Base64.encodedLength(content.length));
+        Base64.encode(ByteBuffer.wrap(content), encoded);
+        encoded.flip();
+        assertThat(StandardCharsets.US_ASCII.decode(encoded.duplicate()).toString())
+                .isEqualTo(Base64.encode(content));
+
+        final ByteBuffer decoded = ByteBuffer.allocate(Base64.maxDecodedLength(encoded.remaining()));
+        assertThat(Base64.decode(encoded, decoded)).isEqualTo(content.length);
+        assertThat(encoded.hasRemaining()).isFalse();
+        assertThat(Arrays.copyOf(decoded.array(), decoded.position())).isEqualTo(content);
+    }
+
+    @Test(dataProvider = "contents")
+    public void shouldEncodeAndDecodeStreams(final byte[] content) throws Exception {
+        final ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        try (OutputStream out = Base64.wrap(encoded)) {
+            for (int i = 0; i < content.length; i += 5) {
+                out.write(content, i, Math.min(5, content.length - i));
+            }
+        }
+        assertThat(new String(encoded.toByteArray(), StandardCharsets.US_ASCII)).isEqualTo(Base64.encode(content));
+
+        final ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        try (InputStream in = Base64.wrap(new ByteArrayInputStream(encoded.toByteArray()))) {
+            int b;
+            while ((b = in.read()) != -1) {
+                decoded.write(b);
+            }
+        }
+        assertThat(decoded.toByteArray()).isEqualTo(content);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldRejectTooSmallDestinationArray() {
+        Base64.encode(new byte[3], 0, 3, new byte[3], 0);
+    }
+
+    @Test
+    public void shouldNotModifyBuffersWhenDestinationIsTooSmall() {
+        final ByteBuffer src = ByteBuffer.wrap(new byte[3]);
+        final ByteBuffer dst = ByteBuffer.allocate(3);
+        try {
+            Base64.encode(src, dst);
+            failBecauseExceptionWasNotThrown(BufferOverflowException.class);
+        } catch (BufferOverflowException expected) {
+            assertThat(src.position()).isEqualTo(0);
+            assertThat(dst.position()).isEqualTo(0);
+        }
+    }
+}
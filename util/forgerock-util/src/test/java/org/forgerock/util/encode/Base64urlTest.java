@@ -18,10 +18,20 @@ package org.forgerock.util.encode;
 
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
 
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
 
 @SuppressWarnings("javadoc")
 public class Base64urlTest {
@@ -61,4 +71,105 @@ public class Base64urlTest {
         assertEquals(new String(decodedBytes2, Charset.forName("UTF-8")),
                 "43uin 98e2 + 343_ {} 43qafdgfREER\\'FDj ionk/.,<>`fj iod Hdfjla");
     }
+
+    @Test
+    public void shouldMatchJavaUtilBase64UrlEncoderForAllLengths() {
+        final Random random = new Random(42);
+        for (int length = 0; length < 100; length++) {
+            final byte[] content = new byte[length];
+            random.nextBytes(content);
+            final String expected = java.util.Base64.getUrlEncoder().withoutPadding().encodeToString(content);
+            assertEquals(Base64url.encode(content), expected);
+            assertEquals(Base64url.encodedLength(length), expected.length());
+            assertEquals(Base64url.decode(expected), content);
+        }
+    }
+
+    @Test
+    public void shouldDecodePaddedAndStandardAlphabetContent() {
+        final byte[] content = { (byte) 0xfb, (byte) 0xff, (byte) 0xbf, 0x01 };
+        assertEquals(Base64url.decode("-_-_AQ"), content);
+        assertEquals(Base64url.decode("-_-_AQ=="), content);
+        assertEquals(Base64url.decode("+/+/AQ=="), content);
+    }
+
+    @Test
+    public void shouldRejectIllegalCharacters() {
+        for (final String content : new String[] { "-_-_!AQ", "-_-_A.Q", "-_-_ AQ", "-_-_AQ\n", "-_-_AQ=!",
+            "-_-_AQ==AQ", "-_-_A", "-_-_A===" }) {
+            assertNull(Base64url.decode(content), content);
+            final char[] chars = content.toCharArray();
+            assertEquals(Base64url.decode(chars, 0, chars.length, new byte[chars.length], 0), -1, content);
+            final ByteBuffer src = ByteBuffer.wrap(content.getBytes(StandardCharsets.US_ASCII));
+            final ByteBuffer dst = ByteBuffer.allocate(chars.length);
+            assertEquals(Base64url.decode(src, dst), -1, content);
+            assertEquals(src.position(), 0);
+            assertEquals(dst.position(), 0);
+            final ByteBuffer directSrc = ByteBuffer.allocateDirect(chars.length);
+            directSrc.put(content.getBytes(StandardCharsets.US_ASCII)).flip();
+            assertEquals(Base64url.decode(directSrc, dst), -1, content);
+        }
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void shouldFailToReadStreamWithIllegalCharacters() throws Exception {
+        final byte[] content = "-_-_A.Q".getBytes(StandardCharsets.US_ASCII);
+        try (InputStream in = Base64url.wrap(new ByteArrayInputStream(content))) {
+            while (in.read() != -1) {
+                continue;
+            }
+        }
+    }
+
+    @Test
+    public void shouldEncodeAndDecodeIntoArrays() {
+        final byte[] content = "any carnal pleasure.".getBytes(StandardCharsets.US_ASCII);
+        final char[] chars = new char[Base64url.encodedLength(content.length) + 2];
+        final int encodedLength = Base64url.encode(content, 0, content.length, chars, 2);
+        assertEquals(new String(chars, 2, encodedLength), "YW55IGNhcm5hbCBwbGVhc3VyZS4");
+
+        final byte[] bytes = new byte[Base64url.maxDecodedLength(encodedLength)];
+        final int decodedLength = Base64url.decode(chars, 2, encodedLength, bytes, 0);
+        assertEquals(Arrays.copyOf(bytes, decodedLength), content);
+    }
+
+    @Test
+    public void shouldEncodeAndDecodeDirectBuffers() {
+        final byte[] content = "any carnal pleas".getBytes(StandardCharsets.US_ASCII);
+        final ByteBuffer src = ByteBuffer.allocateDirect(content.length);
+        src.put(content).flip();
+        final ByteBuffer encoded = ByteBuffer.allocateDirect(Base64url.encodedLength(content.length));
+        Base64url.encode(src, encoded);
+        encoded.flip();
+        assertEquals(src.remaining(), 0);
+        assertEquals(StandardCharsets.US_ASCII.decode(encoded.duplicate()).toString(), "YW55IGNhcm5hbCBwbGVhcw");
+
+        final ByteBuffer decoded = ByteBuffer.allocate(Base64url.maxDecodedLength(encoded.remaining()));
+        Base64url.decode(encoded, decoded);
+        assertEquals(Arrays.copyOf(decoded.array(), decoded.position()), content);
+    }
+
+    @Test
+    public void shouldEncodeAndDecodeStreams() throws Exception {
+        final byte[] content = new byte[10000];
+        new Random(42).nextBytes(content);
+        final ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        try (OutputStream out = Base64url.wrap(encoded)) {
+            out.write(content, 0, 1);
+            out.write(content, 1, 5000);
+            out.write(content, 5001, content.length - 5001);
+        }
+        assertEquals(new String(encoded.toByteArray(), StandardCharsets.US_ASCII),
+                java.util.Base64.getUrlEncoder().withoutPadding().encodeToString(content));
+
+        final ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        try (InputStream in = Base64url.wrap(new ByteArrayInputStream(encoded.toByteArray()))) {
+            final byte[] buffer = new byte[777];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                decoded.write(buffer, 0, n);
+            }
+        }
+        assertEquals(decoded.toByteArray(), content);
+    }
 }
@@ -24,6 +24,10 @@ import static org.testng.Assert.fail;
 
 import java.io.IOException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.forgerock.util.AsyncFunction;
 import org.forgerock.util.Function;
@@ -33,6 +37,8 @@ import org.testng.annotations.Test;
 
 public class PromiseImplTest {
 
+    private static final int NOTIFICATION_DEPTH = 64;
+
     @SuppressWarnings("unchecked")
     @Test
     public void completingPromiseWithRuntimeExceptionShouldPropagateThroughAChainedThen() {
@@ -396,6 +402,221 @@ public class PromiseImplTest {
         verifyNoInteractions(onResultOrException);
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    public void pendingListenersShouldBeNotifiedInRegistrationOrder() {
+        //Given
+        PromiseImpl<String, Exception> promise = PromiseImpl.create();
+        ResultHandler<String> first = mock(ResultHandler.class);
+        ResultHandler<String> second = mock(ResultHandler.class);
+        ResultHandler<String> third = mock(ResultHandler.class);
+        promise.thenOnResult(first).thenOnResult(second).thenOnResult(third);
+
+        //When
+        promise.handleResult("result");
+
+        //Then
+        InOrder inOrder = inOrder(first, second, third);
+        inOrder.verify(first).handleResult("result");
+        inOrder.verify(second).handleResult("result");
+        inOrder.verify(third).handleResult("result");
+    }
+
+    @Test
+    public void blockedThreadShouldBeReleasedOnCompletion() throws Exception {
+        //Given
+        final PromiseImpl<String, Exception> promise = PromiseImpl.create();
+        final PromiseImpl<String, Exception> observed = PromiseImpl.create();
+        Thread waiter = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    observed.handleResult(promise.getOrThrow());
+                } catch (Exception e) {
+                    observed.handleException(e);
+                }
+            }
+        });
+        waiter.start();
+
+        //When
+        promise.handleResult("result");
+
+        //Then
+        assertThat(observed.getOrThrow(10, TimeUnit.SECONDS)).isEqualTo("result");
+        waiter.join();
+    }
+
+    @Test
+    public void completingALongChainShouldNotOverflowTheStackWhenTrampolining() throws Exception {
+        //Given
+        final int previousDepth = PromiseImpl.setMaxNotificationDepth(NOTIFICATION_DEPTH);
+        try {
+            PromiseImpl<Integer, Exception> promise = PromiseImpl.create();
+            Promise<Integer, Exception> chained = promise;
+            Function<Integer, Integer, Exception> increment = new Function<Integer, Integer, Exception>() {
+                @Override
+                public Integer apply(Integer value) {
+                    return value + 1;
+                }
+            };
+            for (int i = 0; i < 100000; i++) {
+                chained = chained.then(increment);
+            }
+
+            //When
+            promise.handleResult(0);
+
+            //Then
+            assertThat(chained.getOrThrow()).isEqualTo(100000);
+        } finally {
+            PromiseImpl.setMaxNotificationDepth(previousDepth);
+        }
+    }
+
+    @Test(timeOut = 10000)
+    public void deeplyNestedListenerShouldBeAbleToBlockOnAChainedPromiseWhenTrampolining() throws Exception {
+        //Given
+        final int previousDepth = PromiseImpl.setMaxNotificationDepth(NOTIFICATION_DEPTH);
+        try {
+            PromiseImpl<Integer, Exception> promise = PromiseImpl.create();
+            Promise<Integer, Exception> chained = promise;
+            final Function<Integer, Integer, Exception> increment = new Function<Integer, Integer, Exception>() {
+                @Override
+                public Integer apply(Integer value) {
+                    return value + 1;
+                }
+            };
+            for (int i = 0; i < NOTIFICATION_DEPTH * 2; i++) {
+                chained = chained.then(increment);
+            }
+            chained = chained.then(new Function<Integer, Integer, Exception>() {
+                @Override
+                public Integer apply(Integer value) throws Exception {
+                    PromiseImpl<Integer, Exception> completed = PromiseImpl.create();
+                    completed.handleResult(value);
+                    return completed.then(increment).getOrThrow();
+                }
+            });
+
+            //When
+            promise.handleResult(0);
+
+            //Then
+            assertThat(chained.getOrThrow()).isEqualTo(NOTIFICATION_DEPTH * 2 + 1);
+        } finally {
+            PromiseImpl.setMaxNotificationDepth(previousDepth);
+        }
+    }
+
+    @Test
+    public void deeplyNestedListenerOnACompletedPromiseShouldBeNotifiedBeforeReturningByDefault() {
+        //Given
+        final int previousDepth = PromiseImpl.setMaxNotificationDepth(0);
+        try {
+            //When
+            boolean notifiedBeforeReturning = registerDeeplyNestedListenerOnACompletedPromise();
+
+            //Then
+            assertThat(notifiedBeforeReturning).isTrue();
+        } finally {
+            PromiseImpl.setMaxNotificationDepth(previousDepth);
+        }
+    }
+
+    @Test
+    public void deeplyNestedListenerOnACompletedPromiseShouldBeQueuedWhenTrampolining() {
+        //Given
+        final int previousDepth = PromiseImpl.setMaxNotificationDepth(NOTIFICATION_DEPTH);
+        try {
+            //When
+            boolean notifiedBeforeReturning = registerDeeplyNestedListenerOnACompletedPromise();
+
+            //Then
+            assertThat(notifiedBeforeReturning).isFalse();
+        } finally {
+            PromiseImpl.setMaxNotificationDepth(previousDepth);
+        }
+    }
+
+    /**
+     * Registers listeners on completed promises, each one from the previous listener, twice the trampolining depth
+     * deep, and returns whether every listener was notified before {@code thenOnResult} returned.
+     */
+    private static boolean registerDeeplyNestedListenerOnACompletedPromise() {
+        return registerNestedListenerOnACompletedPromise(0);
+    }
+
+    private static boolean registerNestedListenerOnACompletedPromise(final int level) {
+        final boolean[] notified = new boolean[1];
+        final boolean[] nestedNotified = { true };
+        final PromiseImpl<Integer, Exception> completed = PromiseImpl.create();
+        completed.handleResult(level);
+        completed.thenOnResult(new ResultHandler<Integer>() {
+            @Override
+            public void handleResult(Integer value) {
+                notified[0] = true;
+                if (level < NOTIFICATION_DEPTH * 2) {
+                    nestedNotified[0] = registerNestedListenerOnACompletedPromise(level + 1);
+                }
+            }
+        });
+        return notified[0] && nestedNotified[0];
+    }
+
+    @Test
+    public void thenOnShouldExecuteFunctionOnExecutor() throws Exception {
+        //Given
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Thread executorThread = executor.submit(new java.util.concurrent.Callable<Thread>() {
+                @Override
+                public Thread call() {
+                    return Thread.currentThread();
+                }
+            }).get();
+            PromiseImpl<String, Exception> promise = PromiseImpl.create();
+            Promise<Thread, Exception> chained = promise.thenOn(executor, new Function<String, Thread, Exception>() {
+                @Override
+                public Thread apply(String value) {
+                    return Thread.currentThread();
+                }
+            });
+
+            //When
+            promise.handleResult("result");
+
+            //Then
+            assertThat(chained.getOrThrow(10, TimeUnit.SECONDS)).isSameAs(executorThread);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expectedExceptions = TimeoutException.class)
+    public void timedGetShouldTimeoutWhenPromiseIsNotCompleted() throws Exception {
+        PromiseImpl.<String, Exception>create().getOrThrow(10, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void timedOutGetsShouldNotAccumulateOnAPendingPromise() throws Exception {
+        //Given
+        PromiseImpl<String, Exception> promise = PromiseImpl.create();
+
+        //When
+        for (int i = 0; i < 10000; i++) {
+            try {
+                promise.getOrThrow(0, TimeUnit.MILLISECONDS);
+                fail("Expected TimeoutException");
+            } catch (TimeoutException e) {
+                // Expected.
+            }
+        }
+
+        //Then
+        assertThat(promise.getWaitingParties()).isEqualTo(0);
+    }
+
     @DataProvider
     private Object[][] completeBeforeAfter() {
         return new Object[][] { { Boolean.TRUE }, { Boolean.FALSE } };
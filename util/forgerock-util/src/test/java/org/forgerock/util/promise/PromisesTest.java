@@ -23,6 +23,8 @@ import static org.mockito.Mockito.*;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.forgerock.util.AsyncFunction;
@@ -163,4 +165,57 @@ public class PromisesTest {
         verifyNoInteractions(resultHandler, exceptionHandler);
         verify(runtimeExceptionHandler).handleRuntimeException(runtimeException);
     }
+
+    @Test
+    public void completableFutureShouldCompleteWithPromiseResult() throws Exception {
+        //Given
+        PromiseImpl<String, Exception> promise = PromiseImpl.create();
+        CompletableFuture<String> future = Promises.toCompletableFuture(promise);
+
+        //When
+        promise.handleResult("result");
+
+        //Then
+        assertThat(future.get()).isEqualTo("result");
+    }
+
+    @Test
+    public void completableFutureShouldFailWithPromiseException() throws Exception {
+        //Given
+        Exception exception = new Exception();
+
+        //When
+        CompletableFuture<String> future = Promises.toCompletableFuture(
+                Promises.<String, Exception>newExceptionPromise(exception));
+
+        //Then
+        assertThat(future.isCompletedExceptionally()).isTrue();
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            assertThat(e.getCause()).isSameAs(exception);
+        }
+    }
+
+    @Test
+    public void promiseShouldCompleteWithCompletionStageOutcome() throws Exception {
+        //Given
+        CompletableFuture<String> success = new CompletableFuture<>();
+        CompletableFuture<String> failure = new CompletableFuture<>();
+        Promise<String, ExecutionException> successPromise = Promises.fromCompletionStage(success);
+        Promise<String, ExecutionException> failurePromise = Promises.fromCompletionStage(failure);
+        IllegalStateException runtimeException = new IllegalStateException();
+
+        //When
+        success.complete("result");
+        failure.completeExceptionally(runtimeException);
+
+        //Then
+        assertThat(successPromise.getOrThrow()).isEqualTo("result");
+        try {
+            failurePromise.getOrThrow();
+        } catch (IllegalStateException e) {
+            assertThat(e).isSameAs(runtimeException);
+        }
+    }
 }
@@ -122,4 +122,48 @@ public class QueryFilterParserTest {
         assertThat(parser.valueOf(filterString)).isEqualTo(filter);
     }
 
+    @Test(dataProvider = "toStringData")
+    public void testValueOfWithCache(QueryFilter<String> filter, String filterString) {
+        QueryFilterParser<String> cachingParser = new QueryFilterParser<String>(2) {
+            @Override
+            protected String parseField(String fieldDescription) {
+                return fieldDescription;
+            }
+        };
+        QueryFilter<String> parsed = cachingParser.valueOf(filterString);
+        assertThat(parsed).isEqualTo(filter);
+        assertThat(cachingParser.valueOf(filterString)).isSameAs(parsed);
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        QueryFilterParser<String> cachingParser = new QueryFilterParser<String>(2) {
+            @Override
+            protected String parseField(String fieldDescription) {
+                return fieldDescription;
+            }
+        };
+        for (int i = 0; i < 10; i++) {
+            assertThat(cachingParser.valueOf("/age eq " + i)).isEqualTo(equalTo("/age", (long) i));
+        }
+        assertThat(cachingParser.valueOf("/age eq 9")).isSameAs(cachingParser.valueOf("/age eq 9"));
+    }
+
+    @Test(dataProvider = "toIllegalStringData", expectedExceptions = IllegalArgumentException.class)
+    public void testValueOfIllegalStringsWithCache(String filterString) throws Exception {
+        new QueryFilterParser<String>(2) {
+            @Override
+            protected String parseField(String fieldDescription) {
+                return fieldDescription;
+            }
+        }.valueOf(filterString);
+    }
+
+    @Test
+    public void testValueOfEscapedStrings() {
+        assertThat(parser.valueOf("/name eq \"te\\\"st\"")).isEqualTo(equalTo("/name", "te\"st"));
+        assertThat(parser.valueOf("/name eq 'a\\\\b'")).isEqualTo(equalTo("/name", "a\\b"));
+        assertThat(parser.valueOf("/name eq \"\"")).isEqualTo(equalTo("/name", ""));
+    }
+
 }
\ No newline at end of file
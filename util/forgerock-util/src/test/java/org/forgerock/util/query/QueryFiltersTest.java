@@ -0,0 +1,144 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.util.query;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.forgerock.json.JsonValue.*;
+import static org.forgerock.util.query.QueryFilter.*;
+
+import org.forgerock.json.JsonPointer;
+import org.forgerock.json.JsonValue;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("javadoc")
+public class QueryFiltersTest {
+
+    private static final JsonValue USER = json(object(
+            field("name", "Alice"),
+            field("age", 1234),
+            field("balance", 3.5),
+            field("isAdmin", false),
+            field("nickname", null),
+            field("roles", array("admin", "Tester")),
+            field("address", object(field("city", "Grenoble"), field("zip", 38000))),
+            field("scores", array(10, 20))));
+
+    @DataProvider
+    public Object[][] filters() {
+        return new Object[][] {
+            // @formatter:off
+            { QueryFilter.<JsonPointer>alwaysTrue(), true },
+            { QueryFilter.<JsonPointer>alwaysFalse(), false },
+            { equalTo(ptr("/name"), "alice"), true },
+            { equalTo(ptr("/name"), "alic"), false },
+            { equalTo(ptr("/age"), 1234L), true },
+            { equalTo(ptr("/age"), 1234.0), true },
+            { equalTo(ptr("/isAdmin"), false), true },
+            { equalTo(ptr("/age"), "1234"), false },
+            { equalTo(ptr("/missing"), "x"), false },
+            { equalTo(ptr("/roles"), "TESTER"), true },
+            { equalTo(ptr("/roles/0"), "admin"), true },
+            { equalTo(ptr("/roles/1"), "admin"), false },
+            { equalTo(ptr("/address/city"), "grenoble"), true },
+            { equalTo(ptr("/address/zip/x"), 1L), false },
+            { greaterThan(ptr("/age"), 1000L), true },
+            { greaterThan(ptr("/age"), 1234L), false },
+            { greaterThanOrEqualTo(ptr("/age"), 1234L), true },
+            { lessThan(ptr("/balance"), 4L), true },
+            { lessThanOrEqualTo(ptr("/balance"), 3.5), true },
+            { lessThan(ptr("/name"), "B"), true },
+            { greaterThan(ptr("/scores"), 15L), true },
+            { greaterThan(ptr("/scores"), 20L), false },
+            { contains(ptr("/name"), "LIC"), true },
+            { contains(ptr("/name"), "bob"), false },
+            { contains(ptr("/age"), 1234L), true },
+            { startsWith(ptr("/name"), "al"), true },
+            { startsWith(ptr("/name"), "li"), false },
+            { startsWith(ptr("/roles"), "test"), true },
+            { present(ptr("/name")), true },
+            { present(ptr("/nickname")), true },
+            { present(ptr("/missing")), false },
+            { present(ptr("/roles/1")), true },
+            { present(ptr("/roles/2")), false },
+            { equalTo(ptr("/nickname"), null), false },
+            { and(equalTo(ptr("/name"), "alice"), greaterThan(ptr("/age"), 1000L)), true },
+            { and(equalTo(ptr("/name"), "alice"), greaterThan(ptr("/age"), 2000L)), false },
+            { or(equalTo(ptr("/name"), "bob"), greaterThan(ptr("/age"), 1000L)), true },
+            { or(equalTo(ptr("/name"), "bob"), greaterThan(ptr("/age"), 2000L)), false },
+            { not(equalTo(ptr("/name"), "bob")), true },
+            { not(not(equalTo(ptr("/name"), "bob"))), false },
+            { extendedMatch(ptr("/name"), "regex", "al.*"), false },
+            { not(extendedMatch(ptr("/name"), "regex", "al.*")), false },
+            { and(extendedMatch(ptr("/name"), "regex", "al.*"), present(ptr("/name"))), true },
+            { or(extendedMatch(ptr("/name"), "regex", "al.*"), present(ptr("/name"))), false },
+            { or(present(ptr("/name")), extendedMatch(ptr("/name"), "regex", "al.*")), true },
+            // @formatter:on
+        };
+    }
+
+    @Test(dataProvider = "filters")
+    public void compiledFilterShouldMatch(QueryFilter<JsonPointer> filter, boolean expected) {
+        assertThat(QueryFilters.compile(filter).matches(USER)).isEqualTo(expected);
+    }
+
+    @DataProvider
+    public Object[][] twoValuedFilters() {
+        return new Object[][] {
+            // @formatter:off
+            { extendedMatch(ptr("/name"), "regex", "al.*"), false },
+            { not(extendedMatch(ptr("/name"), "regex", "al.*")), true },
+            { and(not(extendedMatch(ptr("/name"), "regex", "al.*")), present(ptr("/name"))), true },
+            { or(extendedMatch(ptr("/name"), "regex", "al.*"), present(ptr("/name"))), true },
+            { equalTo(ptr("/name"), "alice"), true },
+            { equalTo(ptr("/missing"), "x"), true },
+            { not(equalTo(ptr("/missing"), "x")), false },
+            { equalTo(ptr("/roles"), "admin"), false },
+            { not(equalTo(ptr("/name"), "bob")), true },
+            // @formatter:on
+        };
+    }
+
+    @Test(dataProvider = "twoValuedFilters")
+    public void twoValuedCompiledFilterShouldMatch(QueryFilter<JsonPointer> filter, boolean expected) {
+        assertThat(QueryFilters.compileTwoValued(filter).matches(USER)).isEqualTo(expected);
+    }
+
+    @Test
+    public void shouldFoldConstantSubFilters() {
+        assertThat(QueryFilters.compile(and(present(ptr("/name")), QueryFilter.<JsonPointer>alwaysFalse()))
+                .isAlwaysFalse()).isTrue();
+        assertThat(QueryFilters.compile(or(present(ptr("/name")), QueryFilter.<JsonPointer>alwaysTrue()))
+                .isAlwaysTrue()).isTrue();
+        assertThat(QueryFilters.compile(or(QueryFilter.<JsonPointer>alwaysTrue(), present(ptr("/name"))))
+                .isAlwaysTrue()).isTrue();
+        assertThat(QueryFilters.compile(not(QueryFilter.<JsonPointer>alwaysFalse())).isAlwaysTrue()).isTrue();
+        assertThat(QueryFilters.compile(equalTo(ptr("/name"), new Object())).isAlwaysFalse()).isTrue();
+        assertThat(QueryFilters.compile(present(ptr("/name"))).isAlwaysTrue()).isFalse();
+        assertThat(QueryFilters.compile(present(ptr("/name"))).isAlwaysFalse()).isFalse();
+    }
+
+    @Test
+    public void shouldMatchScalarValues() {
+        assertThat(QueryFilters.compile(equalTo(ptr(""), "alice")).matches(json("Alice"))).isTrue();
+        assertThat(QueryFilters.compile(present(ptr("/name"))).matches(json("Alice"))).isFalse();
+    }
+
+    private static JsonPointer ptr(String pointer) {
+        return new JsonPointer(pointer);
+    }
+}